@@ -0,0 +1,75 @@
+package org.jboss.resteasy.benchmarks;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Path("/")
+public class BenchmarkResource
+{
+   @GET
+   @Path("hello")
+   @Produces("text/plain")
+   public String hello()
+   {
+      return "hello";
+   }
+
+   @GET
+   @Path("items/{id}")
+   @Produces({"application/json", "application/xml"})
+   public Item getItem(@PathParam("id") long id)
+   {
+      return new Item(id);
+   }
+
+   @POST
+   @Path("items")
+   @Consumes({"application/json", "application/xml"})
+   public void createItem(Item item)
+   {
+   }
+
+   @PUT
+   @Path("items/{id}")
+   @Consumes({"application/json", "application/xml"})
+   @Produces({"application/json", "application/xml"})
+   public Item updateItem(@PathParam("id") long id, Item item)
+   {
+      item.setId(id);
+      return item;
+   }
+
+   @GET
+   @Path("search/{category}")
+   @Produces("text/plain")
+   public String search(@PathParam("category") String category,
+                        @QueryParam("q") String query,
+                        @QueryParam("page") @DefaultValue("1") int page,
+                        @QueryParam("size") @DefaultValue("20") int size,
+                        @QueryParam("sort") String sort,
+                        @QueryParam("asc") boolean ascending,
+                        @QueryParam("from") long from,
+                        @QueryParam("to") long to,
+                        @QueryParam("minPrice") double minPrice,
+                        @QueryParam("maxPrice") Double maxPrice,
+                        @QueryParam("tag") List<String> tags,
+                        @QueryParam("owner") UUID owner,
+                        @QueryParam("unit") @DefaultValue("DAYS") TimeUnit unit,
+                        @QueryParam("lang") @DefaultValue("en") String language,
+                        @HeaderParam("X-Tenant") String tenant,
+                        @HeaderParam("X-Request-Id") String requestId)
+   {
+      return category + page + size + tags.size();
+   }
+}
@@ -0,0 +1,67 @@
+package org.jboss.resteasy.benchmarks;
+
+import org.jboss.resteasy.core.Dispatcher;
+import org.jboss.resteasy.core.request.ServerDrivenNegotiation;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Variant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Picking a variant from browser style Accept headers, on its own through ServerDrivenNegotiation and as part of
+ * dispatching to a method that produces several media types.
+ */
+public class ContentNegotiationBenchmark extends DispatcherBenchmark
+{
+   private static final String BROWSER_ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8";
+   private static final String API_ACCEPT = "application/json;q=0.9, application/xml;q=0.5, text/plain;q=0.1";
+
+   private final List<String> accept = Collections.singletonList(BROWSER_ACCEPT);
+   private final List<String> acceptLanguage = Collections.singletonList("en-US,en;q=0.8,de;q=0.6");
+   private final List<String> acceptEncoding = Collections.singletonList("gzip, deflate, br");
+   private final List<Variant> variants = Variant.mediaTypes(MediaType.APPLICATION_JSON_TYPE,
+           MediaType.APPLICATION_XML_TYPE, MediaType.TEXT_PLAIN_TYPE, MediaType.TEXT_HTML_TYPE)
+           .languages(Locale.ENGLISH, Locale.GERMAN, Locale.FRENCH)
+           .encodings("gzip", "identity")
+           .add().build();
+
+   @Override
+   protected void configure(Dispatcher dispatcher) throws Exception
+   {
+      dispatcher.getRegistry().addPerRequestResource(BenchmarkResource.class);
+   }
+
+   @Benchmark
+   public Variant variantSelection()
+   {
+      ServerDrivenNegotiation negotiation = new ServerDrivenNegotiation();
+      negotiation.setAcceptHeaders(accept);
+      negotiation.setAcceptLanguageHeaders(acceptLanguage);
+      negotiation.setAcceptEncodingHeaders(acceptEncoding);
+      return negotiation.getBestMatch(variants);
+   }
+
+   @Benchmark
+   public MockHttpResponse browserAccept() throws Exception
+   {
+      return invoke(MockHttpRequest.get("/items/1").header("Accept", BROWSER_ACCEPT));
+   }
+
+   @Benchmark
+   public MockHttpResponse weightedAccept() throws Exception
+   {
+      return invoke(MockHttpRequest.get("/items/1").header("Accept", API_ACCEPT));
+   }
+
+   @Benchmark
+   public MockHttpResponse multipleAcceptHeaders() throws Exception
+   {
+      return invoke(MockHttpRequest.get("/items/1").accept(Arrays.asList(MediaType.TEXT_HTML_TYPE, MediaType.APPLICATION_XML_TYPE)));
+   }
+}
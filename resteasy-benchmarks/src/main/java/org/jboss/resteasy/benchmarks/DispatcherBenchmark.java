@@ -0,0 +1,80 @@
+package org.jboss.resteasy.benchmarks;
+
+import org.jboss.resteasy.core.Dispatcher;
+import org.jboss.resteasy.mock.MockDispatcherFactory;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base of the benchmarks that go through {@link Dispatcher#invoke} with a MockHttpRequest and MockHttpResponse, the
+ * way a container adapter would.  Subclasses register their resources and providers in {@link #configure(Dispatcher)}
+ * and create a new request for every invocation, since requests can only be read once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class DispatcherBenchmark
+{
+   protected Dispatcher dispatcher;
+
+   @Setup
+   public void createDispatcher() throws Exception
+   {
+      dispatcher = MockDispatcherFactory.createDispatcher();
+      configure(dispatcher);
+   }
+
+   @TearDown
+   public void clearDispatcher()
+   {
+      ResteasyProviderFactory.clearInstanceIfEqual(dispatcher.getProviderFactory());
+      dispatcher = null;
+   }
+
+   /**
+    * Register providers before resources, resource methods pick up the filters and interceptors that exist when they
+    * are registered.
+    *
+    * @param dispatcher
+    * @throws Exception
+    */
+   protected abstract void configure(Dispatcher dispatcher) throws Exception;
+
+   protected MockHttpResponse invoke(MockHttpRequest request)
+   {
+      return invoke(request, 200);
+   }
+
+   /**
+    * @param request
+    * @param expectedStatus fails the run on any other status, so a broken setup can not show up as a fast result
+    * @return
+    */
+   protected MockHttpResponse invoke(MockHttpRequest request, int expectedStatus)
+   {
+      MockHttpResponse response = new MockHttpResponse();
+      dispatcher.invoke(request, response);
+      if (response.getStatus() != expectedStatus)
+      {
+         throw new IllegalStateException("Expected status " + expectedStatus + " for " + request.getHttpMethod() + " "
+                 + request.getUri().getRequestUri() + " but got " + response.getStatus());
+      }
+      return response;
+   }
+}
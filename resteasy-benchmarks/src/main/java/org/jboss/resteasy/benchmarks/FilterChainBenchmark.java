@@ -0,0 +1,88 @@
+package org.jboss.resteasy.benchmarks;
+
+import org.jboss.resteasy.core.Dispatcher;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+
+/**
+ * Cost of container request/response filters and reader/writer interceptors per request.  Each of the given number
+ * of providers implements all four contracts.
+ */
+public class FilterChainBenchmark extends DispatcherBenchmark
+{
+   @Param({"0", "1", "5", "10"})
+   public int providers;
+
+   @Override
+   protected void configure(Dispatcher dispatcher) throws Exception
+   {
+      for (int i = 0; i < providers; i++)
+      {
+         dispatcher.getProviderFactory().registerProviderInstance(new HeaderFilter("X-Filter-" + i));
+      }
+      dispatcher.getRegistry().addPerRequestResource(BenchmarkResource.class);
+   }
+
+   @Benchmark
+   public MockHttpResponse get() throws Exception
+   {
+      return invoke(MockHttpRequest.get("/hello").header("X-Filter-0", "value"));
+   }
+
+   @Benchmark
+   public MockHttpResponse put() throws Exception
+   {
+      return invoke(MockHttpRequest.put("/items/1")
+              .contentType("application/json")
+              .accept("application/json")
+              .content(SerializationBenchmark.JSON_ITEM));
+   }
+
+   public static class HeaderFilter implements ContainerRequestFilter, ContainerResponseFilter, ReaderInterceptor, WriterInterceptor
+   {
+      private final String header;
+
+      public HeaderFilter(String header)
+      {
+         this.header = header;
+      }
+
+      @Override
+      public void filter(ContainerRequestContext requestContext) throws IOException
+      {
+         requestContext.setProperty(header, requestContext.getHeaderString(header));
+      }
+
+      @Override
+      public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException
+      {
+         Object value = requestContext.getProperty(header);
+         if (value != null) responseContext.getHeaders().add(header, value);
+      }
+
+      @Override
+      public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException
+      {
+         return context.proceed();
+      }
+
+      @Override
+      public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException
+      {
+         context.proceed();
+      }
+   }
+}
@@ -0,0 +1,84 @@
+package org.jboss.resteasy.benchmarks;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity written and read as JSON by the Jackson2 provider and as XML by the JAXB provider.
+ */
+@XmlRootElement(name = "item")
+@XmlAccessorType(XmlAccessType.PROPERTY)
+public class Item
+{
+   private long id;
+   private String name;
+   private String description;
+   private double price;
+   private List<String> tags = new ArrayList<String>();
+
+   public Item()
+   {
+   }
+
+   public Item(long id)
+   {
+      this.id = id;
+      this.name = "item-" + id;
+      this.description = "Description of item " + id + " used by the serialization benchmarks";
+      this.price = id * 1.25;
+      for (int i = 0; i < 5; i++) tags.add("tag" + i);
+   }
+
+   public long getId()
+   {
+      return id;
+   }
+
+   public void setId(long id)
+   {
+      this.id = id;
+   }
+
+   public String getName()
+   {
+      return name;
+   }
+
+   public void setName(String name)
+   {
+      this.name = name;
+   }
+
+   public String getDescription()
+   {
+      return description;
+   }
+
+   public void setDescription(String description)
+   {
+      this.description = description;
+   }
+
+   public double getPrice()
+   {
+      return price;
+   }
+
+   public void setPrice(double price)
+   {
+      this.price = price;
+   }
+
+   public List<String> getTags()
+   {
+      return tags;
+   }
+
+   public void setTags(List<String> tags)
+   {
+      this.tags = tags;
+   }
+}
@@ -0,0 +1,43 @@
+package org.jboss.resteasy.benchmarks;
+
+import org.jboss.resteasy.core.Dispatcher;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+
+/**
+ * Injection of a search style method with sixteen path, query and header parameters, compared to a method without
+ * parameters.
+ */
+public class ParameterInjectionBenchmark extends DispatcherBenchmark
+{
+   private static final String ALL_PARAMS = "/search/books?q=rest%20easy&page=3&size=50&sort=price&asc=true"
+           + "&from=1467331200000&to=1470009600000&minPrice=5.5&maxPrice=99.95&tag=java&tag=rest&tag=http"
+           + "&owner=3f2504e0-4f89-11d3-9a0c-0305e82c3301&unit=HOURS&lang=de";
+
+   @Override
+   protected void configure(Dispatcher dispatcher) throws Exception
+   {
+      dispatcher.getRegistry().addPerRequestResource(BenchmarkResource.class);
+   }
+
+   @Benchmark
+   public MockHttpResponse noParameters() throws Exception
+   {
+      return invoke(MockHttpRequest.get("/hello"));
+   }
+
+   @Benchmark
+   public MockHttpResponse allParameters() throws Exception
+   {
+      return invoke(MockHttpRequest.get(ALL_PARAMS)
+              .header("X-Tenant", "acme")
+              .header("X-Request-Id", "9b2d5c4e"));
+   }
+
+   @Benchmark
+   public MockHttpResponse defaultValues() throws Exception
+   {
+      return invoke(MockHttpRequest.get("/search/books?q=rest"));
+   }
+}
@@ -0,0 +1,90 @@
+package org.jboss.resteasy.benchmarks;
+
+import org.jboss.resteasy.core.MediaTypeMap;
+import org.jboss.resteasy.plugins.providers.RegisterBuiltin;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageBodyWriter resolution against the built-in providers plus the JAXB and Jackson2 providers, with and without
+ * the MediaTypeMap class cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProviderLookupBenchmark
+{
+   private static final Annotation[] NO_ANNOTATIONS = {};
+
+   @Param({"true", "false"})
+   public boolean cacheEnabled;
+
+   private ProviderFactory factory;
+   private MediaTypeMap<?> writers;
+
+   @Setup
+   public void setup()
+   {
+      factory = new ProviderFactory();
+      RegisterBuiltin.register(factory);
+      writers = factory.writers();
+      writers.setCacheEnabled(cacheEnabled);
+   }
+
+   @Benchmark
+   public List<?> possibleJsonWriters()
+   {
+      return writers.getPossible(MediaType.APPLICATION_JSON_TYPE, Item.class);
+   }
+
+   @Benchmark
+   public List<?> possibleWildcardWriters()
+   {
+      return writers.getPossible(MediaType.WILDCARD_TYPE, String.class);
+   }
+
+   @Benchmark
+   public MessageBodyWriter<Item> jsonWriter()
+   {
+      return factory.getMessageBodyWriter(Item.class, Item.class, NO_ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE);
+   }
+
+   @Benchmark
+   public MessageBodyWriter<Item> xmlWriter()
+   {
+      return factory.getMessageBodyWriter(Item.class, Item.class, NO_ANNOTATIONS, MediaType.APPLICATION_XML_TYPE);
+   }
+
+   @Benchmark
+   public MessageBodyWriter<String> textWriter()
+   {
+      return factory.getMessageBodyWriter(String.class, String.class, NO_ANNOTATIONS, MediaType.TEXT_PLAIN_TYPE);
+   }
+
+   private static class ProviderFactory extends ResteasyProviderFactory
+   {
+      MediaTypeMap<?> writers()
+      {
+         return getServerMessageBodyWriters();
+      }
+   }
+}
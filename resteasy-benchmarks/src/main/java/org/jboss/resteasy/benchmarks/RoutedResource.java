@@ -0,0 +1,35 @@
+package org.jboss.resteasy.benchmarks;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+/**
+ * Registered under many base paths by {@link RoutingBenchmark}.
+ */
+@Path("/")
+@Produces("text/plain")
+public class RoutedResource
+{
+   @GET
+   @Path("list")
+   public String list()
+   {
+      return "list";
+   }
+
+   @GET
+   @Path("items/{id}")
+   public String item(@PathParam("id") String id)
+   {
+      return id;
+   }
+
+   @GET
+   @Path("items/{id}/children/{child: [0-9]+}")
+   public String child(@PathParam("id") String id, @PathParam("child") int child)
+   {
+      return id;
+   }
+}
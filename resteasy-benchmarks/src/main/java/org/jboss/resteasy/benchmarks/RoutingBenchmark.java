@@ -0,0 +1,60 @@
+package org.jboss.resteasy.benchmarks;
+
+import org.jboss.resteasy.core.Dispatcher;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Request matching in ResourceMethodRegistry with a growing number of root resources.  Requests go to the resource
+ * registered last so no lookup gets lucky on registration order.
+ */
+public class RoutingBenchmark extends DispatcherBenchmark
+{
+   @Param({"10", "100", "1000"})
+   public int resources;
+
+   private String staticUri;
+   private String templateUri;
+   private String regexUri;
+   private String missingUri;
+
+   @Override
+   protected void configure(Dispatcher dispatcher) throws Exception
+   {
+      for (int i = 0; i < resources; i++)
+      {
+         dispatcher.getRegistry().addSingletonResource(new RoutedResource(), "/resource" + i);
+      }
+      String last = "/resource" + (resources - 1);
+      staticUri = last + "/list";
+      templateUri = last + "/items/42";
+      regexUri = last + "/items/42/children/7";
+      missingUri = last + "/missing";
+   }
+
+   @Benchmark
+   public MockHttpResponse staticPath() throws Exception
+   {
+      return invoke(MockHttpRequest.get(staticUri));
+   }
+
+   @Benchmark
+   public MockHttpResponse templatePath() throws Exception
+   {
+      return invoke(MockHttpRequest.get(templateUri));
+   }
+
+   @Benchmark
+   public MockHttpResponse regexPath() throws Exception
+   {
+      return invoke(MockHttpRequest.get(regexUri));
+   }
+
+   @Benchmark
+   public MockHttpResponse notFound() throws Exception
+   {
+      return invoke(MockHttpRequest.get(missingUri), 404);
+   }
+}
@@ -0,0 +1,55 @@
+package org.jboss.resteasy.benchmarks;
+
+import org.jboss.resteasy.core.Dispatcher;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reading and writing an entity as JSON through the Jackson2 provider and as XML through the JAXB provider, as part
+ * of a full dispatch.
+ */
+public class SerializationBenchmark extends DispatcherBenchmark
+{
+   static final byte[] JSON_ITEM = ("{\"id\":1,\"name\":\"item-1\",\"description\":\"Description of item 1 used by the "
+           + "serialization benchmarks\",\"price\":1.25,\"tags\":[\"tag0\",\"tag1\",\"tag2\",\"tag3\",\"tag4\"]}")
+           .getBytes(StandardCharsets.UTF_8);
+
+   static final byte[] XML_ITEM = ("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><item>"
+           + "<description>Description of item 1 used by the serialization benchmarks</description><id>1</id>"
+           + "<name>item-1</name><price>1.25</price><tags>tag0</tags><tags>tag1</tags><tags>tag2</tags>"
+           + "<tags>tag3</tags><tags>tag4</tags></item>").getBytes(StandardCharsets.UTF_8);
+
+   @Param({"application/json", "application/xml"})
+   public String mediaType;
+
+   private byte[] body;
+
+   @Override
+   protected void configure(Dispatcher dispatcher) throws Exception
+   {
+      dispatcher.getRegistry().addPerRequestResource(BenchmarkResource.class);
+      body = mediaType.equals("application/json") ? JSON_ITEM : XML_ITEM;
+   }
+
+   @Benchmark
+   public MockHttpResponse write() throws Exception
+   {
+      return invoke(MockHttpRequest.get("/items/1").accept(mediaType));
+   }
+
+   @Benchmark
+   public MockHttpResponse read() throws Exception
+   {
+      return invoke(MockHttpRequest.post("/items").contentType(mediaType).content(body), 204);
+   }
+
+   @Benchmark
+   public MockHttpResponse readAndWrite() throws Exception
+   {
+      return invoke(MockHttpRequest.put("/items/1").contentType(mediaType).accept(mediaType).content(body));
+   }
+}
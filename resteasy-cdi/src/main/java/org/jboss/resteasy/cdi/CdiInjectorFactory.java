@@ -6,6 +6,7 @@ import org.jboss.resteasy.core.InjectorFactoryImpl;
 import org.jboss.resteasy.core.ValueInjector;
 import org.jboss.resteasy.spi.ConstructorInjector;
 import org.jboss.resteasy.spi.InjectorFactory;
+import org.jboss.resteasy.spi.InvocationStrategy;
 import org.jboss.resteasy.spi.MethodInjector;
 import org.jboss.resteasy.spi.PropertyInjector;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
@@ -113,6 +114,12 @@ public class CdiInjectorFactory implements InjectorFactory
       return new CdiPropertyInjector(delegate.createPropertyInjector(resourceClass, factory), resourceClass, sessionBeanInterface, manager);
    }
 
+   @Override
+   public InvocationStrategy getInvocationStrategy()
+   {
+      return delegate.getInvocationStrategy();
+   }
+
    public ValueInjector createParameterExtractor(Class injectTargetClass, AccessibleObject injectTarget, Class type, Type genericType, Annotation[] annotations, ResteasyProviderFactory factory)
    {
       return delegate.createParameterExtractor(injectTargetClass, injectTarget, type, genericType, annotations, factory);
@@ -0,0 +1,33 @@
+package org.jboss.resteasy.client.jaxrs;
+
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link ClientHttpEngine} that can send requests without blocking the calling thread.  Asynchronous invocations
+ * of a client that uses such an engine complete from the I/O callbacks of the engine instead of holding a thread of
+ * the async executor for the whole round trip.
+ */
+public interface AsyncClientHttpEngine extends ClientHttpEngine
+{
+   /**
+    * Turns the response into the result of an invocation, running the response filters and reading the entity.
+    */
+   interface ResultExtractor<T>
+   {
+      T extractResult(ClientResponse response);
+   }
+
+   /**
+    * Sends the request and returns right away.  The request filters have already run, the request body is written
+    * on the calling thread.
+    *
+    * @param request
+    * @param extractor called with the response on the thread the response arrived on
+    * @return future completed with the result of the extractor, or a {@link javax.ws.rs.ProcessingException}.
+    *         Cancelling it aborts the request.
+    */
+   <T> CompletableFuture<T> submit(ClientInvocation request, ResultExtractor<T> extractor);
+}
@@ -0,0 +1,12 @@
+package org.jboss.resteasy.client.jaxrs;
+
+import javax.ws.rs.client.ClientRequestContext;
+
+/**
+ * Implemented by a {@link javax.ws.rs.client.ClientRequestFilter} that has to know when an invocation it filtered
+ * fails before its response filters run, e.g. because the server could not be reached.
+ */
+public interface ClientRequestFailureListener
+{
+   void failed(ClientRequestContext request, Throwable cause);
+}
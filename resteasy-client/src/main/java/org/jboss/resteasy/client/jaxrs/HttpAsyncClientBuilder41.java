@@ -0,0 +1,98 @@
+package org.jboss.resteasy.client.jaxrs;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.ssl.SSLContexts;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpAsyncClient4Engine;
+import org.jboss.resteasy.client.jaxrs.engines.PassthroughTrustManager;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import java.security.SecureRandom;
+
+/**
+ * Creates the {@link ApacheHttpAsyncClient4Engine} of {@link ResteasyClientBuilder#useAsyncHttpEngine()}.  Kept
+ * apart from ResteasyClientBuilder so that HttpAsyncClient only has to be on the class path when it is used.
+ */
+public class HttpAsyncClientBuilder41
+{
+   protected static ClientHttpEngine initDefaultAsyncEngine(ResteasyClientBuilder that)
+   {
+      HostnameVerifier verifier;
+      if (that.verifier != null)
+      {
+         verifier = that.verifier;
+      }
+      else if (that.policy == ResteasyClientBuilder.HostnameVerificationPolicy.ANY)
+      {
+         verifier = new NoopHostnameVerifier();
+      }
+      else
+      {
+         verifier = new DefaultHostnameVerifier();
+      }
+      try
+      {
+         SSLContext theContext = that.sslContext;
+         SSLContext sslContext = theContext;
+         if (that.disableTrustManager)
+         {
+            sslContext = SSLContext.getInstance("SSL");
+            sslContext.init(null, new TrustManager[]{new PassthroughTrustManager()}, new SecureRandom());
+            verifier = new NoopHostnameVerifier();
+         }
+         else if (sslContext == null && (that.clientKeyStore != null || that.truststore != null))
+         {
+            sslContext = SSLContexts.custom()
+                    .setSecureRandom(null)
+                    .loadKeyMaterial(that.clientKeyStore,
+                            that.clientPrivateKeyPassword != null ? that.clientPrivateKeyPassword.toCharArray() : null)
+                    .loadTrustMaterial(that.truststore, TrustSelfSignedStrategy.INSTANCE)
+                    .build();
+         }
+         else if (sslContext == null)
+         {
+            sslContext = SSLContexts.createDefault();
+         }
+
+         RequestConfig.Builder rcBuilder = RequestConfig.custom();
+         if (that.socketTimeout > -1)
+         {
+            rcBuilder.setSocketTimeout((int) that.socketTimeoutUnits.toMillis(that.socketTimeout));
+         }
+         if (that.establishConnectionTimeout > -1)
+         {
+            rcBuilder.setConnectTimeout((int) that.establishConnectionTimeoutUnits.toMillis(that.establishConnectionTimeout));
+         }
+         if (that.connectionCheckoutTimeoutMs > -1)
+         {
+            rcBuilder.setConnectionRequestTimeout(that.connectionCheckoutTimeoutMs);
+         }
+
+         HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                 .setSSLContext(sslContext)
+                 .setSSLHostnameVerifier(verifier)
+                 .setDefaultRequestConfig(rcBuilder.build())
+                 .setProxy(that.defaultProxy);
+         if (that.connectionPoolSize > 0)
+         {
+            builder.setMaxConnTotal(that.connectionPoolSize);
+            builder.setMaxConnPerRoute(that.maxPooledPerRoute > 0 ? that.maxPooledPerRoute : that.connectionPoolSize);
+         }
+
+         ApacheHttpAsyncClient4Engine engine = new ApacheHttpAsyncClient4Engine(builder.build(), true);
+         engine.setHostnameVerifier(verifier);
+         engine.setSslContext(theContext);
+         return engine;
+      }
+      catch (Exception e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+}
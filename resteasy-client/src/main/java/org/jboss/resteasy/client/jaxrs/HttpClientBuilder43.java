@@ -156,6 +156,7 @@ public class HttpClientBuilder43 {
             ApacheHttpClient43Engine engine =
                 (ApacheHttpClient43Engine) ApacheHttpClient4EngineFactory.create(httpClient, true);
             engine.setResponseBufferSize(that.responseBufferSize);
+            engine.setStreamRequestBody(that.streamRequestBody);
             engine.setHostnameVerifier(verifier);
             // this may be null.  We can't really support this with Apache Client.
             engine.setSslContext(theContext);
@@ -25,6 +25,7 @@ import org.jboss.resteasy.client.jaxrs.internal.ClientConfiguration;
 import org.jboss.resteasy.client.jaxrs.internal.LocalResteasyProviderFactory;
 import org.jboss.resteasy.plugins.providers.RegisterBuiltin;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.jboss.resteasy.util.VirtualThreads;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SNIHostName;
@@ -84,9 +85,11 @@ public class ResteasyClientBuilder extends ClientBuilder
    protected ResteasyProviderFactory providerFactory;
    protected ExecutorService asyncExecutor;
    protected boolean cleanupExecutor;
+   protected boolean asyncVirtualThreads;
    protected SSLContext sslContext;
    protected Map<String, Object> properties = new HashMap<String, Object>();
    protected ClientHttpEngine httpEngine;
+   protected boolean useAsyncHttpEngine;
    protected int connectionPoolSize;
    protected int maxPooledPerRoute = 0;
    protected long connectionTTL = -1;
@@ -99,6 +102,7 @@ public class ResteasyClientBuilder extends ClientBuilder
    protected HostnameVerifier verifier = null;
    protected HttpHost defaultProxy;
    protected int responseBufferSize;
+   protected boolean streamRequestBody;
    protected List<String> sniHostNames = new ArrayList<>();
 
    /**
@@ -138,6 +142,25 @@ public class ResteasyClientBuilder extends ClientBuilder
       return this;
    }
 
+   /**
+    * Run AsyncInvoker invocations on a virtual thread each instead of a fixed pool of 10 threads, if no executor
+    * is set.  The pool is used if the JVM does not support virtual threads.
+    *
+    * @param asyncVirtualThreads
+    * @return
+    */
+   public ResteasyClientBuilder asyncVirtualThreads(boolean asyncVirtualThreads)
+   {
+      this.asyncVirtualThreads = asyncVirtualThreads;
+      return this;
+   }
+
+   protected ExecutorService createDefaultAsyncExecutor()
+   {
+      ExecutorService executor = asyncVirtualThreads ? VirtualThreads.newExecutor("resteasy-client-async-") : null;
+      return executor != null ? executor : Executors.newFixedThreadPool(10);
+   }
+
    /**
     * If there is a connection pool, set the time to live in the pool.
     *
@@ -230,6 +253,19 @@ public class ResteasyClientBuilder extends ClientBuilder
       return this;
    }
 
+   /**
+    * Write request bodies straight to the connection instead of buffering them first.  See
+    * {@link org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine#setStreamRequestBody(boolean)}.
+    *
+    * @param streamRequestBody
+    * @return
+    */
+   public ResteasyClientBuilder streamRequestBody(boolean streamRequestBody)
+   {
+      this.streamRequestBody = streamRequestBody;
+      return this;
+   }
+
 
    /**
     * Disable trust management and hostname verification.  <i>NOTE</i> this is a security
@@ -266,6 +302,19 @@ public class ResteasyClientBuilder extends ClientBuilder
       return this;
    }
 
+   /**
+    * Use a non-blocking {@link org.jboss.resteasy.client.jaxrs.engines.ApacheHttpAsyncClient4Engine} if no engine
+    * is set, so that AsyncInvoker invocations do not hold a thread while they are in flight.  Requires
+    * org.apache.httpcomponents:httpasyncclient on the class path.
+    *
+    * @return
+    */
+   public ResteasyClientBuilder useAsyncHttpEngine()
+   {
+      this.useAsyncHttpEngine = true;
+      return this;
+   }
+
    @Override
    public ResteasyClientBuilder sslContext(SSLContext sslContext)
    {
@@ -376,7 +425,7 @@ public class ResteasyClientBuilder extends ClientBuilder
       if (executor == null)
       {
          cleanupExecutor = true;
-         executor = Executors.newFixedThreadPool(10);
+         executor = createDefaultAsyncExecutor();
       }
 
       ClientHttpEngine engine = httpEngine;
@@ -404,12 +453,12 @@ public class ResteasyClientBuilder extends ClientBuilder
       if (executor == null)
       {
          cleanupExecutor = true;
-         executor = Executors.newFixedThreadPool(10);
+         executor = createDefaultAsyncExecutor();
       }
 
       ClientHttpEngine engine = httpEngine;
       if (engine == null) {
-         engine = HttpClientBuilder43.initDefaultEngine43(this);
+         engine = useAsyncHttpEngine ? HttpAsyncClientBuilder41.initDefaultAsyncEngine(this) : HttpClientBuilder43.initDefaultEngine43(this);
       }
       return new ResteasyClient(engine, executor, cleanupExecutor, config);
 
@@ -547,6 +596,7 @@ public class ResteasyClientBuilder extends ClientBuilder
          ApacheHttpClient4Engine engine =
              (ApacheHttpClient4Engine) ApacheHttpClient4EngineFactory.create(httpClient, true);
          engine.setResponseBufferSize(responseBufferSize);
+         engine.setStreamRequestBody(streamRequestBody);
          engine.setHostnameVerifier(verifier);
          // this may be null.  We can't really support this with Apache Client.
          engine.setSslContext(theContext);
@@ -2,6 +2,7 @@ package org.jboss.resteasy.client.jaxrs.cache;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import java.io.InputStream;
 import java.io.Serializable;
 
 /**
@@ -34,6 +35,79 @@ public interface BrowserCache
       }
    }
 
+   /**
+    * Counters of a cache, see {@link BrowserCache#getStatistics()}.
+    */
+   public static class Statistics implements Serializable
+   {
+      private static final long serialVersionUID = -5120436946306424715L;
+
+      private final long hitCount;
+      private final long missCount;
+      private final long evictionCount;
+      private final long entryCount;
+      private final long byteCount;
+
+      public Statistics(long hitCount, long missCount, long evictionCount, long entryCount, long byteCount)
+      {
+         this.hitCount = hitCount;
+         this.missCount = missCount;
+         this.evictionCount = evictionCount;
+         this.entryCount = entryCount;
+         this.byteCount = byteCount;
+      }
+
+      /**
+       * @return number of lookups that found an entry, expired or not
+       */
+      public long getHitCount()
+      {
+         return hitCount;
+      }
+
+      /**
+       * @return number of lookups that found no entry
+       */
+      public long getMissCount()
+      {
+         return missCount;
+      }
+
+      /**
+       * @return number of entries removed to make room for others
+       */
+      public long getEvictionCount()
+      {
+         return evictionCount;
+      }
+
+      public long getEntryCount()
+      {
+         return entryCount;
+      }
+
+      /**
+       * @return size of the cached bodies
+       */
+      public long getByteCount()
+      {
+         return byteCount;
+      }
+
+      public double getHitRate()
+      {
+         long lookups = hitCount + missCount;
+         return lookups == 0 ? 1.0 : (double) hitCount / lookups;
+      }
+
+      @Override
+      public String toString()
+      {
+         return "hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount
+                 + ", entries=" + entryCount + ", bytes=" + byteCount;
+      }
+   }
+
    public static interface Entry
    {
       MultivaluedMap<String, String> getHeaders();
@@ -47,6 +121,17 @@ public interface BrowserCache
       MediaType getMediaType();
    }
 
+   /**
+    * Entry whose body is not kept in a byte array.  {@link #getCached()} copies it.
+    */
+   public static interface StreamEntry extends Entry
+   {
+      /**
+       * @return a view of the body, or null if the entry has been evicted since it was looked up
+       */
+      InputStream getCachedStream();
+   }
+
    Entry getAny(String key);
 
    Entry get(String key, MediaType accept);
@@ -57,4 +142,11 @@ public interface BrowserCache
 
    void clear();
 
+   /**
+    * @return snapshot of the counters of the cache, all zero for caches that do not keep any
+    */
+   default Statistics getStatistics()
+   {
+      return new Statistics(0, 0, 0, 0, 0);
+   }
 }
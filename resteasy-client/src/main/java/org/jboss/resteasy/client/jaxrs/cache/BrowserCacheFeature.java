@@ -11,6 +11,7 @@ import javax.ws.rs.core.FeatureContext;
 public class BrowserCacheFeature implements Feature
 {
    protected BrowserCache cache;
+   protected long coalescingTimeout = CacheInterceptor.DEFAULT_COALESCING_TIMEOUT;
 
    public BrowserCache getCache()
    {
@@ -22,12 +23,27 @@ public class BrowserCacheFeature implements Feature
       this.cache = cache;
    }
 
+   public long getCoalescingTimeout()
+   {
+      return coalescingTimeout;
+   }
+
+   /**
+    * @see CacheInterceptor#setCoalescingTimeout(long)
+    */
+   public void setCoalescingTimeout(long coalescingTimeout)
+   {
+      this.coalescingTimeout = coalescingTimeout;
+   }
+
    @Override
    public boolean configure(FeatureContext configuration)
    {
       if (cache == null) cache = new LightweightBrowserCache();
       configuration.property(BrowserCache.class.getName(), cache);
-      configuration.register(new CacheInterceptor(cache));
+      CacheInterceptor interceptor = new CacheInterceptor(cache);
+      interceptor.setCoalescingTimeout(coalescingTimeout);
+      configuration.register(interceptor);
       return true;
    }
 }
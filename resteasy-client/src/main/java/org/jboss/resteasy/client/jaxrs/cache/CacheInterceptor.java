@@ -1,8 +1,11 @@
 package org.jboss.resteasy.client.jaxrs.cache;
 
+import org.jboss.resteasy.client.jaxrs.ClientRequestFailureListener;
+import org.jboss.resteasy.client.jaxrs.internal.ClientRequestContextImpl;
 import org.jboss.resteasy.util.DateUtil;
 import org.jboss.resteasy.util.ReadFromStream;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.ClientRequestContext;
 import javax.ws.rs.client.ClientRequestFilter;
 import javax.ws.rs.client.ClientResponseContext;
@@ -10,27 +13,89 @@ import javax.ws.rs.client.ClientResponseFilter;
 import javax.ws.rs.core.CacheControl;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * When a coalescing timeout is set, concurrent GETs that miss the cache, or find the same expired entry, for the same
+ * URI and Accept header are coalesced: the first one goes to the server, the others wait for it and are answered with
+ * the entry it cached.  When it does not cache anything, fails, or takes longer than the coalescing timeout, the
+ * others go to the server themselves.  Requests submitted to an asynchronous engine never wait, since that would block
+ * the thread that submits them, they go to the server as well.
+ *
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
  * @version $Revision: 1 $
  */
 @SuppressWarnings("unchecked")
-public class CacheInterceptor implements ClientRequestFilter, ClientResponseFilter
+public class CacheInterceptor implements ClientRequestFilter, ClientResponseFilter, ClientRequestFailureListener
 {
+   /**
+    * Coalescing is off unless a timeout is set.
+    */
+   public static final long DEFAULT_COALESCING_TIMEOUT = 0;
+
+   /**
+    * Bodies of known length up to this size are read straight into an array of that size.
+    */
+   protected static final int MAX_PRESIZED_LENGTH = 64 * 1024;
+
+   private static final String FLIGHT = "cache.flight";
+
+   /**
+    * A request on its way to the server, that other requests for the same resource can wait for.
+    */
+   protected static class Flight
+   {
+      protected final String key;
+      protected final long started = System.currentTimeMillis();
+      protected final CountDownLatch done = new CountDownLatch(1);
+      protected volatile BrowserCache.Entry entry;
+
+      protected Flight(String key)
+      {
+         this.key = key;
+      }
+
+      protected void complete(BrowserCache.Entry entry)
+      {
+         this.entry = entry;
+         done.countDown();
+      }
+   }
+
    protected BrowserCache cache;
+   protected long coalescingTimeout = DEFAULT_COALESCING_TIMEOUT;
+   protected final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<String, Flight>();
 
    public CacheInterceptor(BrowserCache cache)
    {
       this.cache = cache;
    }
 
+   public long getCoalescingTimeout()
+   {
+      return coalescingTimeout;
+   }
+
+   /**
+    * @param coalescingTimeout milliseconds a request waits for an identical one in flight, 0 to disable coalescing
+    */
+   public void setCoalescingTimeout(long coalescingTimeout)
+   {
+      this.coalescingTimeout = coalescingTimeout;
+   }
+
    @Override
    public void filter(ClientRequestContext request) throws IOException
    {
@@ -38,38 +103,182 @@ public class CacheInterceptor implements ClientRequestFilter, ClientResponseFilt
       try
       {
          BrowserCache.Entry entry = getEntry(request);
-         if (entry == null) return;
-         if (entry.expired())
+         if (entry != null && !entry.expired())
          {
-            // entry should have a remove method
-            cache.remove(request.getUri().toString(), entry.getMediaType());
-
-            // add validation headers
-            BrowserCache.Header[] headers = entry.getValidationHeaders();
-            for (BrowserCache.Header header : headers)
+            Response cached = cachedResponse(entry);
+            if (cached != null)
             {
-               request.getHeaders().putSingle(header.getName(), header.getValue());
+               request.setProperty("cached", "cached");
+               request.abortWith(cached);
+               return;
             }
-            request.setProperty("expired.cache.entry", entry);
-            return;
+            // evicted since it was looked up
+            entry = null;
          }
-         request.setProperty("cached", "cached");
-         request.abortWith(cachedResponse(entry));
+         BrowserCache.Entry shared = joinFlight(request);
+         if (shared != null)
+         {
+            Response cached = cachedResponse(shared);
+            if (cached != null)
+            {
+               request.setProperty("cached", "cached");
+               request.abortWith(cached);
+               return;
+            }
+         }
+         if (entry == null) return;
+
+         // entry should have a remove method
+         BrowserCache.Entry removed = cache.remove(request.getUri().toString(), entry.getMediaType());
+         // a StreamEntry may not be readable anymore once it is removed, what remove() returned is
+         if (removed != null) entry = removed;
+         else if (entry instanceof BrowserCache.StreamEntry)
+         {
+            // evicted by someone else, its body has to be read while it is still there
+            entry = detach(entry);
+            if (entry == null) return;
+         }
+
+         // add validation headers
+         BrowserCache.Header[] headers = entry.getValidationHeaders();
+         for (BrowserCache.Header header : headers)
+         {
+            request.getHeaders().putSingle(header.getName(), header.getValue());
+         }
+         request.setProperty("expired.cache.entry", entry);
       }
       catch (IOException io)
       {
          throw io;
       }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new ProcessingException(e);
+      }
       catch (Exception e)
       {
          throw new RuntimeException(e);
       }
    }
 
+   /**
+    * Makes the request the one that goes to the server for its URI and Accept header, or waits for the request
+    * that already does.
+    *
+    * @return the entry cached by the request waited for, null if this request has to go to the server
+    */
+   protected BrowserCache.Entry joinFlight(ClientRequestContext request) throws InterruptedException
+   {
+      if (coalescingTimeout <= 0) return null;
+      String accept = request.getHeaderString(HttpHeaders.ACCEPT);
+      String key = request.getUri().toString() + ' ' + (accept == null ? "" : accept);
+      Flight flight = new Flight(key);
+      while (true)
+      {
+         Flight current = flights.putIfAbsent(key, flight);
+         if (current == null) break;
+         long remaining = current.started + coalescingTimeout - System.currentTimeMillis();
+         if (remaining <= 0)
+         {
+            // its response never came back through the filter, take over
+            if (flights.replace(key, current, flight)) break;
+            continue;
+         }
+         if (request instanceof ClientRequestContextImpl && ((ClientRequestContextImpl) request).isAsynchronous())
+         {
+            return null;
+         }
+         if (!current.done.await(remaining, TimeUnit.MILLISECONDS)) return null;
+         return current.entry;
+      }
+      request.setProperty(FLIGHT, flight);
+      return null;
+   }
+
+   /**
+    * Lets the requests waiting for this one go to the server themselves.
+    */
+   @Override
+   public void failed(ClientRequestContext request, Throwable cause)
+   {
+      completeFlight(request, null);
+   }
+
+   protected void completeFlight(ClientRequestContext request, BrowserCache.Entry entry)
+   {
+      Flight flight = (Flight) request.getProperty(FLIGHT);
+      if (flight == null) return;
+      request.removeProperty(FLIGHT);
+      flights.remove(flight.key, flight);
+      flight.complete(entry);
+   }
+
+   /**
+    * @return the body of the entry, without copying it if it is a {@link BrowserCache.StreamEntry}, null if the entry
+    * has been evicted
+    */
+   protected static InputStream openCached(BrowserCache.Entry entry)
+   {
+      if (entry instanceof BrowserCache.StreamEntry) return ((BrowserCache.StreamEntry) entry).getCachedStream();
+      return new ByteArrayInputStream(entry.getCached());
+   }
+
+   /**
+    * @return an entry with the headers of the given one and a copy of its body, null if the body is gone already
+    */
+   protected static BrowserCache.Entry detach(final BrowserCache.Entry entry) throws IOException
+   {
+      InputStream is = openCached(entry);
+      if (is == null) return null;
+      final byte[] cached;
+      try
+      {
+         cached = ReadFromStream.readFromStream(1024, is);
+      }
+      finally
+      {
+         is.close();
+      }
+      return new BrowserCache.Entry()
+      {
+         @Override
+         public MultivaluedMap<String, String> getHeaders()
+         {
+            return entry.getHeaders();
+         }
+
+         @Override
+         public boolean expired()
+         {
+            return entry.expired();
+         }
+
+         @Override
+         public BrowserCache.Header[] getValidationHeaders()
+         {
+            return entry.getValidationHeaders();
+         }
+
+         @Override
+         public byte[] getCached()
+         {
+            return cached;
+         }
+
+         @Override
+         public MediaType getMediaType()
+         {
+            return entry.getMediaType();
+         }
+      };
+   }
+
    private Response cachedResponse(BrowserCache.Entry entry)
    {
-      ByteArrayInputStream bais = new ByteArrayInputStream(entry.getCached());
-      Response.ResponseBuilder builder = Response.ok().entity(bais);
+      InputStream is = openCached(entry);
+      if (is == null) return null;
+      Response.ResponseBuilder builder = Response.ok().entity(is);
       for (Map.Entry<String, List<String>> header : entry.getHeaders().entrySet())
       {
          for (String val : header.getValue())
@@ -84,15 +293,24 @@ public class CacheInterceptor implements ClientRequestFilter, ClientResponseFilt
    public void filter(ClientRequestContext request, ClientResponseContext response) throws IOException
    {
       if (!request.getMethod().equalsIgnoreCase("GET") || request.getProperty("cached") != null) return;
-      else if (response.getStatus() == 304)
+      BrowserCache.Entry shared = null;
+      try
       {
-         BrowserCache.Entry entry = (BrowserCache.Entry)request.getProperty("expired.cache.entry");
-         updateOnNotModified(request, entry, response);
-         return;
+         if (response.getStatus() == 304)
+         {
+            BrowserCache.Entry entry = (BrowserCache.Entry)request.getProperty("expired.cache.entry");
+            updateOnNotModified(request, entry, response);
+            // its headers have been updated in place
+            shared = entry;
+         }
+         else if (response.getStatus() == 200)
+         {
+            shared = cacheResponse(request, response);
+         }
       }
-      else if (response.getStatus() == 200)
+      finally
       {
-         cache(request, response);
+         completeFlight(request, shared);
       }
    }
 
@@ -112,12 +330,6 @@ public class CacheInterceptor implements ClientRequestFilter, ClientResponseFilt
       }
    }
 
-   private void cache(ClientRequestContext request, ClientResponseContext response) throws IOException
-   {
-      if (response.getStatus() != 200) return;
-      cacheIfPossible(request, response);
-   }
-
    public void updateOnNotModified(ClientRequestContext request, BrowserCache.Entry old, ClientResponseContext response)
    {
       old.getHeaders().remove(HttpHeaders.CACHE_CONTROL);
@@ -170,14 +382,23 @@ public class CacheInterceptor implements ClientRequestFilter, ClientResponseFilt
       }
 
 
-      BrowserCache.Entry entry = cache.put(request.getUri().toString(), old.getMediaType(), old.getHeaders(), old.getCached(), expires, etag, lastModified);
-      useCacheEntry(response, entry);
+      cache.put(request.getUri().toString(), old.getMediaType(), old.getHeaders(), old.getCached(), expires, etag, lastModified);
+      // same body and headers as the new entry, and still readable if the cache has already evicted that one
+      useCacheEntry(response, old);
 
    }
 
 
 
    public void cacheIfPossible(ClientRequestContext request, ClientResponseContext response) throws IOException
+   {
+      cacheResponse(request, response);
+   }
+
+   /**
+    * @return the entry the response was cached as, null if it may not be cached
+    */
+   protected BrowserCache.Entry cacheResponse(ClientRequestContext request, ClientResponseContext response) throws IOException
    {
       String cc = (String) response.getHeaderString(HttpHeaders.CACHE_CONTROL);
       String exp = (String) response.getHeaderString(HttpHeaders.EXPIRES);
@@ -186,7 +407,7 @@ public class CacheInterceptor implements ClientRequestFilter, ClientResponseFilt
       if (cc != null)
       {
          CacheControl cacheControl = CacheControl.valueOf(cc);
-         if (cacheControl.isNoCache()) return;
+         if (cacheControl.isNoCache()) return null;
          expires = cacheControl.getMaxAge();
       }
       else if (exp != null)
@@ -200,13 +421,50 @@ public class CacheInterceptor implements ClientRequestFilter, ClientResponseFilt
 
       String contentType = (String) response.getHeaderString(HttpHeaders.CONTENT_TYPE);
 
-      byte[] cached = ReadFromStream.readFromStream(1024, response.getEntityStream());
+      byte[] cached = readEntity(response);
 
       MediaType mediaType = MediaType.valueOf(contentType);
       final BrowserCache.Entry entry = cache.put(request.getUri().toString(), mediaType,
               response.getHeaders(), cached, expires, etag, lastModified);
 
       response.setEntityStream(new ByteArrayInputStream(cached));
+      return entry;
+   }
+
+   /**
+    * Reads a small body of known length straight into an array of that size, instead of growing a buffer and copying
+    * it.  The Content-Length comes from the server, so bigger bodies are read into a buffer that grows as they arrive.
+    */
+   protected static byte[] readEntity(ClientResponseContext response) throws IOException
+   {
+      InputStream is = response.getEntityStream();
+      int length = response.getLength();
+      if (length < 0) return ReadFromStream.readFromStream(1024, is);
+      if (length > MAX_PRESIZED_LENGTH) return ReadFromStream.readFromStream(8192, is);
+
+      byte[] cached = new byte[length];
+      int count = 0;
+      while (count < length)
+      {
+         int wasRead = is.read(cached, count, length - count);
+         if (wasRead < 0) break;
+         count += wasRead;
+      }
+      if (count < length)
+      {
+         byte[] shorter = new byte[count];
+         System.arraycopy(cached, 0, shorter, 0, count);
+         return shorter;
+      }
+      int next = is.read();
+      if (next < 0) return cached;
+
+      // longer than the Content-Length said
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      baos.write(cached);
+      baos.write(next);
+      baos.write(ReadFromStream.readFromStream(1024, is));
+      return baos.toByteArray();
    }
 
    protected BrowserCache.Entry getEntry(ClientRequestContext request) throws Exception
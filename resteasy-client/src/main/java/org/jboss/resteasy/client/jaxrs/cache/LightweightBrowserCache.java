@@ -3,27 +3,50 @@ package org.jboss.resteasy.client.jaxrs.cache;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * In-memory BrowserCache. Uses an underlying cache, with ConcurrentMapCache as
  * the default. You specify maximum bytes you want the cache to have. The
- * default is 2Megabytes. If the cache exceeds this amount, it is wiped clean.
- * This rather draconian approach to cache reaping is to avoid synchronization
- * that you would normally have to do in a sophisticated cache.
+ * default is 2Megabytes. If the cache exceeds this amount, the least recently
+ * used entries are evicted until it fits again. An entry that is bigger than
+ * the whole cache is returned to the caller but not kept.
  * <p/>
- * With high concurrent access, because this is not a sophisticated cache,
- * sometimes a cache entry may be lost. It is consistent though.
+ * Lookups go straight to the underlying cache, only the bookkeeping of the
+ * access order and of the size is done under a lock.
  *
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
  * @version $Revision: 1 $
  */
 public class LightweightBrowserCache implements BrowserCache
 {
+   protected static class Slot
+   {
+      protected final String key;
+      protected final MediaType mediaType;
+      protected final long size;
+
+      protected Slot(String key, MediaType mediaType, long size)
+      {
+         this.key = key;
+         this.mediaType = mediaType;
+         this.size = size;
+      }
+   }
 
    protected long maxBytes = 2000000; // 2 meg default
    protected BrowserCache internalCache = null;
    protected AtomicLong bytes = new AtomicLong(0);
+   protected AtomicLong hits = new AtomicLong(0);
+   protected AtomicLong misses = new AtomicLong(0);
+   protected AtomicLong evictions = new AtomicLong(0);
+
+   /**
+    * Entries of the underlying cache in access order, the eldest first.  Also the lock for every change of the cache.
+    */
+   protected final LinkedHashMap<String, Slot> lru = new LinkedHashMap<String, Slot>(16, 0.75f, true);
 
    public LightweightBrowserCache()
    {
@@ -52,19 +75,51 @@ public class LightweightBrowserCache implements BrowserCache
 
    public void setMaxBytes(long maxBytes)
    {
-      this.maxBytes = maxBytes;
+      synchronized (lru)
+      {
+         this.maxBytes = maxBytes;
+         evict();
+      }
+   }
+
+   private static String slotId(String key, MediaType mediaType)
+   {
+      return key + ' ' + mediaType;
+   }
+
+   protected Entry hit(Entry entry, String key)
+   {
+      if (entry == null)
+      {
+         misses.incrementAndGet();
+         return null;
+      }
+      hits.incrementAndGet();
+      // an entry without media type cannot be found in the index, it only misses the promotion
+      if (entry.getMediaType() != null)
+      {
+         synchronized (lru)
+         {
+            lru.get(slotId(key, entry.getMediaType()));
+         }
+      }
+      return entry;
    }
 
    public Entry getAny(String key)
    {
-      return internalCache.getAny(key);
+      return hit(internalCache.getAny(key), key);
    }
 
    public Entry remove(String key, MediaType type)
    {
-      Entry entry = internalCache.remove(key, type);
-      if (entry != null) bytes.addAndGet(-1 * entry.getCached().length);
-      return entry;
+      synchronized (lru)
+      {
+         Entry entry = internalCache.remove(key, type);
+         Slot slot = lru.remove(slotId(key, type));
+         if (slot != null) bytes.addAndGet(-slot.size);
+         return entry;
+      }
    }
 
    public long getByteCount()
@@ -74,32 +129,60 @@ public class LightweightBrowserCache implements BrowserCache
 
    public Entry get(String key, MediaType accept)
    {
-      return internalCache.get(key, accept);
+      return hit(internalCache.get(key, accept), key);
    }
 
    public Entry put(String key, MediaType mediaType,
                     MultivaluedMap<String, String> headers, byte[] cached, int expires,
                     String etag, String lastModified)
    {
-      Entry previousValue = internalCache.get(key, mediaType);
-
-      int sizeDiff = -1;
-      if (previousValue == null)
-         sizeDiff = cached.length;
-      else
-         sizeDiff = cached.length - previousValue.getCached().length;
+      if (cached.length > maxBytes)
+      {
+         // it would push out everything else and still not fit, so it is handed back without being kept
+         remove(key, mediaType);
+         return new CacheEntry(key, headers, cached, expires, etag, lastModified, mediaType);
+      }
+      synchronized (lru)
+      {
+         Entry entry = internalCache.put(key, mediaType, headers, cached, expires, etag, lastModified);
+         Slot previous = lru.put(slotId(key, mediaType), new Slot(key, mediaType, cached.length));
+         bytes.addAndGet(previous == null ? cached.length : cached.length - previous.size);
+         evict();
+         return entry;
+      }
+   }
 
-      if (bytes.addAndGet(sizeDiff) > maxBytes)
+   /**
+    * Removes the least recently used entries until the cache fits in {@link #getMaxBytes()}.
+    */
+   protected void evict()
+   {
+      Iterator<Slot> it = lru.values().iterator();
+      while (bytes.get() > maxBytes && it.hasNext())
       {
-         clear();
-         bytes.addAndGet(sizeDiff);
+         Slot slot = it.next();
+         it.remove();
+         internalCache.remove(slot.key, slot.mediaType);
+         bytes.addAndGet(-slot.size);
+         evictions.incrementAndGet();
       }
-      return internalCache.put(key, mediaType, headers, cached, expires, etag, lastModified);
    }
 
    public void clear()
    {
-      internalCache.clear();
-      bytes.set(0);
+      synchronized (lru)
+      {
+         internalCache.clear();
+         lru.clear();
+         bytes.set(0);
+      }
+   }
+
+   public Statistics getStatistics()
+   {
+      synchronized (lru)
+      {
+         return new Statistics(hits.get(), misses.get(), evictions.get(), lru.size(), bytes.get());
+      }
    }
 }
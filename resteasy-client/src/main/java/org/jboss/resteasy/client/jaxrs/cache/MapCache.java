@@ -5,10 +5,13 @@ import javax.ws.rs.core.MultivaluedMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class MapCache implements BrowserCache
 {
    protected Map<String, Map<String, Entry>> cache = null;
+   protected AtomicLong hits = new AtomicLong();
+   protected AtomicLong misses = new AtomicLong();
 
    public MapCache()
    {
@@ -26,6 +29,18 @@ public class MapCache implements BrowserCache
    }
 
    public Entry get(String key, MediaType accept)
+   {
+      return count(lookup(key, accept));
+   }
+
+   private Entry count(Entry entry)
+   {
+      if (entry == null) misses.incrementAndGet();
+      else hits.incrementAndGet();
+      return entry;
+   }
+
+   private Entry lookup(String key, MediaType accept)
    {
       Map<String, Entry> parent = cache.get(key);
       if (parent == null || parent.isEmpty()) {
@@ -48,10 +63,10 @@ public class MapCache implements BrowserCache
    public Entry getAny(String key)
    {
       Map<String, Entry> parent = cache.get(key);
-      if (parent == null) return null;
+      if (parent == null) return count(null);
       Iterator<Entry> iterator = parent.values().iterator();
-      if (iterator.hasNext()) return iterator.next();
-      return null;
+      if (iterator.hasNext()) return count(iterator.next());
+      return count(null);
    }
 
    public Entry getEntry(String key, MediaType accept)
@@ -82,6 +97,21 @@ public class MapCache implements BrowserCache
       cache.clear();
    }
 
+   public Statistics getStatistics()
+   {
+      long entries = 0;
+      long bytes = 0;
+      for (Map<String, Entry> parent : cache.values())
+      {
+         for (Entry entry : parent.values())
+         {
+            entries++;
+            bytes += entry.getCached().length;
+         }
+      }
+      return new Statistics(hits.get(), misses.get(), 0, entries, bytes);
+   }
+
    public Entry put(CacheEntry cacheEntry)
    {
       Map<String, Entry> map = cache.get(cacheEntry.getKey());
@@ -0,0 +1,628 @@
+package org.jboss.resteasy.client.jaxrs.cache;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BrowserCache that keeps the cached bodies out of the Java heap, in direct buffers or in a memory-mapped file.  Only
+ * the index and the headers stay on the heap.  The storage is cut into chunks of a fixed size and a body takes as
+ * many chunks as it needs, so a cache of a few hundred megabytes does not add to the work of the garbage collector.
+ * When there are not enough free chunks for a new body, the least recently used entries are evicted.
+ * <p/>
+ * Hits are {@link StreamEntry}s, that {@link CacheInterceptor} serves as streams over the chunks without copying the
+ * body into an array.  The chunks of an entry that is evicted while it is being read are only reused once the reader
+ * has reached the end of the stream or closed it.  A memory-mapped file is scratch space only, nothing is reloaded
+ * from it.
+ * <p/>
+ * Streams of cached bodies, and so the Responses of cache hits, must be read to the end or closed like any other
+ * Response.  The chunks of a stream that is dropped without that are only given back once the garbage collector has
+ * found the stream unreachable.  Until then they count as used, and new bodies that do not fit in what is left are
+ * handed back as copies on the heap instead of evicting entries that would not make enough room anyway.
+ */
+public class OffHeapBrowserCache implements BrowserCache, Closeable
+{
+   public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+   private static final int MAX_SLAB_SIZE = 1 << 30;
+   private static final byte[] EMPTY = {};
+
+   protected class OffHeapEntry implements StreamEntry
+   {
+      protected final String key;
+      protected final String type;
+      protected final CacheEntry meta;
+      protected final int expires;
+      protected final String etag;
+      protected final String lastModified;
+      protected final int[] chunks;
+      protected final int length;
+      protected final long timestamp = System.currentTimeMillis();
+
+      /**
+       * One for the cache as long as the entry is in the index, one for each stream that has not been read to the end.
+       */
+      protected final AtomicInteger references = new AtomicInteger(1);
+
+      protected OffHeapEntry(String key, MediaType mediaType, MultivaluedMap<String, String> headers, int expires,
+                             String etag, String lastModified, int[] chunks, int length)
+      {
+         this.key = key;
+         this.type = mediaType.toString();
+         this.meta = new CacheEntry(key, headers, EMPTY, expires, etag, lastModified, mediaType);
+         this.expires = expires;
+         this.etag = etag;
+         this.lastModified = lastModified;
+         this.chunks = chunks;
+         this.length = length;
+      }
+
+      protected String slot()
+      {
+         return slotId(key, type);
+      }
+
+      public MultivaluedMap<String, String> getHeaders()
+      {
+         return meta.getHeaders();
+      }
+
+      public boolean expired()
+      {
+         return meta.expired();
+      }
+
+      public Header[] getValidationHeaders()
+      {
+         return meta.getValidationHeaders();
+      }
+
+      public MediaType getMediaType()
+      {
+         return meta.getMediaType();
+      }
+
+      public byte[] getCached()
+      {
+         InputStream is = getCachedStream();
+         if (is == null) throw new IllegalStateException("Cache entry " + key + " has been evicted");
+         byte[] cached = new byte[length];
+         try
+         {
+            int count = 0;
+            while (count < length)
+            {
+               int wasRead = is.read(cached, count, length - count);
+               if (wasRead < 0) break;
+               count += wasRead;
+            }
+            is.close();
+         }
+         catch (IOException e)
+         {
+            // chunks are memory
+            throw new IllegalStateException(e);
+         }
+         return cached;
+      }
+
+      public InputStream getCachedStream()
+      {
+         if (!retain()) return null;
+         return new ChunkInputStream(this);
+      }
+
+      /**
+       * @return a copy of the entry on the heap, that stays valid after the chunks are released
+       */
+      protected CacheEntry copy()
+      {
+         int left = expires - (int) ((System.currentTimeMillis() - timestamp) / 1000);
+         return new CacheEntry(key, getHeaders(), getCached(), left, etag, lastModified, getMediaType());
+      }
+
+      protected boolean retain()
+      {
+         while (true)
+         {
+            int count = references.get();
+            if (count <= 0) return false;
+            if (references.compareAndSet(count, count + 1)) return true;
+         }
+      }
+
+      protected void release()
+      {
+         if (references.decrementAndGet() == 0) releaseChunks(chunks);
+      }
+   }
+
+   /**
+    * Gives the reference of a stream to its entry back if the stream is garbage collected before it is closed.
+    */
+   protected class StreamReference extends PhantomReference<ChunkInputStream>
+   {
+      protected final OffHeapEntry entry;
+      protected final AtomicBoolean released = new AtomicBoolean();
+
+      protected StreamReference(ChunkInputStream stream, OffHeapEntry entry)
+      {
+         super(stream, abandonedStreams);
+         this.entry = entry;
+         openStreams.add(this);
+      }
+
+      protected void release()
+      {
+         if (!released.compareAndSet(false, true)) return;
+         openStreams.remove(this);
+         entry.release();
+      }
+   }
+
+   protected class ChunkInputStream extends InputStream
+   {
+      protected final OffHeapEntry entry;
+      protected final StreamReference reference;
+      protected int position;
+      protected boolean released;
+
+      protected ChunkInputStream(OffHeapEntry entry)
+      {
+         this.entry = entry;
+         this.reference = new StreamReference(this, entry);
+      }
+
+      @Override
+      public int read() throws IOException
+      {
+         byte[] b = new byte[1];
+         return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException
+      {
+         if (released) return -1;
+         if (len == 0) return 0;
+         int remaining = entry.length - position;
+         if (remaining <= 0)
+         {
+            close();
+            return -1;
+         }
+         int inChunk = position % chunkSize;
+         int count = Math.min(len, Math.min(remaining, chunkSize - inChunk));
+         ByteBuffer buffer = chunk(entry.chunks[position / chunkSize]);
+         buffer.position(buffer.position() + inChunk);
+         buffer.get(b, off, count);
+         position += count;
+         return count;
+      }
+
+      @Override
+      public long skip(long n) throws IOException
+      {
+         if (released || n <= 0) return 0;
+         int count = (int) Math.min(n, entry.length - position);
+         position += count;
+         return count;
+      }
+
+      @Override
+      public int available() throws IOException
+      {
+         return released ? 0 : entry.length - position;
+      }
+
+      @Override
+      public void close() throws IOException
+      {
+         if (released) return;
+         released = true;
+         reference.release();
+      }
+   }
+
+   protected final ByteBuffer[] slabs;
+   protected final int chunkSize;
+   protected final int chunksPerSlab;
+   protected final RandomAccessFile file;
+
+   /**
+    * Stack of the free chunks, guarded by {@link #lru} like everything below.
+    */
+   protected final int[] freeChunks;
+   protected int freeCount;
+
+   /**
+    * Entries in access order, the eldest first.  Also the lock for every change of the cache.
+    */
+   protected final LinkedHashMap<String, OffHeapEntry> lru = new LinkedHashMap<String, OffHeapEntry>(16, 0.75f, true);
+   protected final Map<String, Map<String, OffHeapEntry>> entries = new LinkedHashMap<String, Map<String, OffHeapEntry>>();
+   protected long bytes;
+
+   /**
+    * Chunks of the entries in {@link #lru}, the ones that evictions can free.
+    */
+   protected int indexedChunks;
+
+   /**
+    * Streams that have not been closed yet, the references have to be reachable to be enqueued.
+    */
+   protected final Set<StreamReference> openStreams = Collections.newSetFromMap(new ConcurrentHashMap<StreamReference, Boolean>());
+   protected final ReferenceQueue<ChunkInputStream> abandonedStreams = new ReferenceQueue<ChunkInputStream>();
+
+   protected AtomicLong hits = new AtomicLong(0);
+   protected AtomicLong misses = new AtomicLong(0);
+   protected AtomicLong evictions = new AtomicLong(0);
+
+   /**
+    * Keeps the bodies in direct buffers.
+    *
+    * @param maxBytes space for the bodies
+    */
+   public OffHeapBrowserCache(long maxBytes)
+   {
+      this(maxBytes, DEFAULT_CHUNK_SIZE);
+   }
+
+   public OffHeapBrowserCache(long maxBytes, int chunkSize)
+   {
+      this(allocateSlabs(chunkCount(maxBytes, chunkSize), chunkSize), chunkSize, null);
+   }
+
+   /**
+    * Keeps the bodies in a file mapped into memory.  The file is created, or truncated, to the size of the cache.
+    *
+    * @param file scratch file, its previous content is lost
+    * @param maxBytes space for the bodies
+    * @param chunkSize the smallest space a body takes
+    */
+   public OffHeapBrowserCache(File file, long maxBytes, int chunkSize) throws IOException
+   {
+      this(new RandomAccessFile(file, "rw"), chunkCount(maxBytes, chunkSize), chunkSize);
+   }
+
+   private OffHeapBrowserCache(RandomAccessFile file, int chunkCount, int chunkSize) throws IOException
+   {
+      this(mapSlabs(file, chunkCount, chunkSize), chunkSize, file);
+   }
+
+   private OffHeapBrowserCache(ByteBuffer[] slabs, int chunkSize, RandomAccessFile file)
+   {
+      this.slabs = slabs;
+      this.chunkSize = chunkSize;
+      this.chunksPerSlab = MAX_SLAB_SIZE / chunkSize;
+      this.file = file;
+      int chunkCount = 0;
+      for (ByteBuffer slab : slabs)
+      {
+         chunkCount += slab.capacity() / chunkSize;
+      }
+      freeChunks = new int[chunkCount];
+      // the lowest chunks are handed out first
+      for (int i = 0; i < chunkCount; i++)
+      {
+         freeChunks[i] = chunkCount - 1 - i;
+      }
+      freeCount = chunkCount;
+   }
+
+   private static int chunkCount(long maxBytes, int chunkSize)
+   {
+      if (chunkSize <= 0 || chunkSize > MAX_SLAB_SIZE) throw new IllegalArgumentException("chunkSize: " + chunkSize);
+      long chunkCount = maxBytes / chunkSize;
+      if (chunkCount <= 0 || chunkCount > Integer.MAX_VALUE) throw new IllegalArgumentException("maxBytes: " + maxBytes);
+      return (int) chunkCount;
+   }
+
+   private static long[] slabSizes(int chunkCount, int chunkSize)
+   {
+      int chunksPerSlab = MAX_SLAB_SIZE / chunkSize;
+      long[] sizes = new long[(chunkCount + chunksPerSlab - 1) / chunksPerSlab];
+      for (int i = 0; i < sizes.length; i++)
+      {
+         sizes[i] = (long) Math.min(chunksPerSlab, chunkCount - i * chunksPerSlab) * chunkSize;
+      }
+      return sizes;
+   }
+
+   private static ByteBuffer[] allocateSlabs(int chunkCount, int chunkSize)
+   {
+      long[] sizes = slabSizes(chunkCount, chunkSize);
+      ByteBuffer[] slabs = new ByteBuffer[sizes.length];
+      for (int i = 0; i < slabs.length; i++)
+      {
+         slabs[i] = ByteBuffer.allocateDirect((int) sizes[i]);
+      }
+      return slabs;
+   }
+
+   private static ByteBuffer[] mapSlabs(RandomAccessFile file, int chunkCount, int chunkSize) throws IOException
+   {
+      try
+      {
+         long[] sizes = slabSizes(chunkCount, chunkSize);
+         file.setLength((long) chunkCount * chunkSize);
+         ByteBuffer[] slabs = new ByteBuffer[sizes.length];
+         long offset = 0;
+         for (int i = 0; i < slabs.length; i++)
+         {
+            slabs[i] = file.getChannel().map(FileChannel.MapMode.READ_WRITE, offset, sizes[i]);
+            offset += sizes[i];
+         }
+         return slabs;
+      }
+      catch (IOException e)
+      {
+         file.close();
+         throw e;
+      }
+   }
+
+   public int getChunkSize()
+   {
+      return chunkSize;
+   }
+
+   /**
+    * @return space for the bodies
+    */
+   public long getMaxBytes()
+   {
+      return (long) freeChunks.length * chunkSize;
+   }
+
+   /**
+    * @return size of the bodies in the cache
+    */
+   public long getByteCount()
+   {
+      synchronized (lru)
+      {
+         return bytes;
+      }
+   }
+
+   protected ByteBuffer chunk(int chunk)
+   {
+      ByteBuffer buffer = slabs[chunk / chunksPerSlab].duplicate();
+      int offset = (chunk % chunksPerSlab) * chunkSize;
+      buffer.limit(offset + chunkSize);
+      buffer.position(offset);
+      return buffer;
+   }
+
+   protected void releaseChunks(int[] chunks)
+   {
+      synchronized (lru)
+      {
+         for (int chunk : chunks)
+         {
+            freeChunks[freeCount++] = chunk;
+         }
+      }
+   }
+
+   private static String slotId(String key, String type)
+   {
+      return key + ' ' + type;
+   }
+
+   protected Entry hit(OffHeapEntry entry)
+   {
+      if (entry == null)
+      {
+         misses.incrementAndGet();
+         return null;
+      }
+      hits.incrementAndGet();
+      lru.get(slotId(entry.key, entry.type));
+      return entry;
+   }
+
+   public Entry getAny(String key)
+   {
+      synchronized (lru)
+      {
+         Map<String, OffHeapEntry> parent = entries.get(key);
+         if (parent == null || parent.isEmpty()) return hit(null);
+         return hit(parent.values().iterator().next());
+      }
+   }
+
+   public Entry get(String key, MediaType accept)
+   {
+      synchronized (lru)
+      {
+         return hit(lookup(key, accept));
+      }
+   }
+
+   private OffHeapEntry lookup(String key, MediaType accept)
+   {
+      Map<String, OffHeapEntry> parent = entries.get(key);
+      if (parent == null || parent.isEmpty()) return null;
+      if (accept.isWildcardType())
+      {
+         // if the client accepts */*, return just the first entry for requested URL
+         return parent.values().iterator().next();
+      }
+      else if (accept.isWildcardSubtype())
+      {
+         // if the client accepts <media>/*, return the first entry which media type starts with <media>/
+         for (Map.Entry<String, OffHeapEntry> parentEntry : parent.entrySet())
+         {
+            if (parentEntry.getKey().startsWith(accept.getType() + "/")) return parentEntry.getValue();
+         }
+      }
+      return parent.get(accept.toString());
+   }
+
+   /**
+    * @return a copy of the removed entry on the heap, since its chunks may be reused as soon as it is removed
+    */
+   public Entry remove(String key, MediaType type)
+   {
+      synchronized (lru)
+      {
+         OffHeapEntry entry = lru.get(slotId(key, type.toString()));
+         if (entry == null) return null;
+         CacheEntry copy = entry.copy();
+         unlink(entry);
+         return copy;
+      }
+   }
+
+   public void clear()
+   {
+      synchronized (lru)
+      {
+         for (OffHeapEntry entry : lru.values().toArray(new OffHeapEntry[lru.size()]))
+         {
+            unlink(entry);
+         }
+      }
+   }
+
+   public Statistics getStatistics()
+   {
+      synchronized (lru)
+      {
+         return new Statistics(hits.get(), misses.get(), evictions.get(), lru.size(), bytes);
+      }
+   }
+
+   public Entry put(String key, MediaType mediaType, MultivaluedMap<String, String> headers, byte[] cached,
+                    int expires, String etag, String lastModified)
+   {
+      int needed = (cached.length + chunkSize - 1) / chunkSize;
+      int[] chunks = allocate(needed);
+      if (chunks == null)
+      {
+         // bigger than the cache, or than what is left of it while evicted entries are still being read
+         remove(key, mediaType);
+         return new CacheEntry(key, headers, cached, expires, etag, lastModified, mediaType);
+      }
+
+      // the chunks belong to nobody else, so they are filled outside of the lock
+      for (int i = 0; i < needed; i++)
+      {
+         int offset = i * chunkSize;
+         chunk(chunks[i]).put(cached, offset, Math.min(chunkSize, cached.length - offset));
+      }
+
+      OffHeapEntry entry = new OffHeapEntry(key, mediaType, headers, expires, etag, lastModified, chunks, cached.length);
+      synchronized (lru)
+      {
+         OffHeapEntry previous = lru.get(entry.slot());
+         if (previous != null) unlink(previous);
+         lru.put(entry.slot(), entry);
+         Map<String, OffHeapEntry> parent = entries.get(key);
+         if (parent == null)
+         {
+            parent = new LinkedHashMap<String, OffHeapEntry>();
+            entries.put(key, parent);
+         }
+         parent.put(entry.type, entry);
+         bytes += entry.length;
+         indexedChunks += chunks.length;
+      }
+      return entry;
+   }
+
+   /**
+    * Takes free chunks, evicting the least recently used entries if there are not enough of them.
+    *
+    * @return null if there is no room for that many chunks
+    */
+   protected int[] allocate(int needed)
+   {
+      synchronized (lru)
+      {
+         if (needed > freeChunks.length) return null;
+         releaseAbandonedStreams();
+         // chunks held by streams of evicted entries stay in use, evicting everything would not make enough room
+         if (freeCount + indexedChunks < needed) return null;
+         Iterator<OffHeapEntry> it = lru.values().iterator();
+         while (freeCount < needed && it.hasNext())
+         {
+            OffHeapEntry eldest = it.next();
+            it.remove();
+            detach(eldest);
+            evictions.incrementAndGet();
+         }
+         if (freeCount < needed) return null;
+         int[] chunks = new int[needed];
+         for (int i = 0; i < needed; i++)
+         {
+            chunks[i] = freeChunks[--freeCount];
+         }
+         return chunks;
+      }
+   }
+
+   protected void unlink(OffHeapEntry entry)
+   {
+      lru.remove(entry.slot());
+      detach(entry);
+   }
+
+   /**
+    * Removes an entry that is no longer in {@link #lru} from the rest of the index and gives up the reference of the
+    * cache to it.
+    */
+   private void detach(OffHeapEntry entry)
+   {
+      Map<String, OffHeapEntry> parent = entries.get(entry.key);
+      if (parent != null)
+      {
+         parent.remove(entry.type);
+         if (parent.isEmpty()) entries.remove(entry.key);
+      }
+      bytes -= entry.length;
+      indexedChunks -= entry.chunks.length;
+      entry.release();
+   }
+
+   /**
+    * Gives back the chunks of the streams that were garbage collected without being closed.
+    */
+   protected void releaseAbandonedStreams()
+   {
+      Reference<? extends ChunkInputStream> reference;
+      while ((reference = abandonedStreams.poll()) != null)
+      {
+         ((StreamReference) reference).release();
+      }
+   }
+
+   /**
+    * Drops every entry and closes the mapped file, if any.  The chunks stay readable until the buffers are garbage
+    * collected.
+    */
+   public void close() throws IOException
+   {
+      clear();
+      if (file != null) file.close();
+   }
+}
@@ -0,0 +1,311 @@
+package org.jboss.resteasy.client.jaxrs.engines;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.jboss.resteasy.client.jaxrs.AsyncClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.i18n.LogMessages;
+import org.jboss.resteasy.client.jaxrs.i18n.Messages;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+/**
+ * Engine on top of the non-blocking Apache HttpAsyncClient.  Requests are sent and responses received by the I/O
+ * reactor threads of the client, so asynchronous invocations do not hold a thread while they are in flight.  The
+ * request body is written to memory on the calling thread before the request is sent, the response body is read
+ * into memory before the response filters and the entity readers run on the I/O thread it arrived on.
+ *
+ * Requires org.apache.httpcomponents:httpasyncclient on the class path.
+ */
+public class ApacheHttpAsyncClient4Engine implements AsyncClientHttpEngine
+{
+   protected final CloseableHttpAsyncClient httpClient;
+   protected final boolean closeHttpClient;
+   protected HttpContext httpContext;
+   protected SSLContext sslContext;
+   protected HostnameVerifier hostnameVerifier;
+   protected volatile boolean closed;
+
+   public ApacheHttpAsyncClient4Engine()
+   {
+      this(HttpAsyncClients.createSystem(), true);
+   }
+
+   /**
+    * @param httpClient started here if it is not running yet
+    * @param closeHttpClient whether {@link #close()} closes the client
+    */
+   public ApacheHttpAsyncClient4Engine(CloseableHttpAsyncClient httpClient, boolean closeHttpClient)
+   {
+      this.httpClient = httpClient;
+      this.closeHttpClient = closeHttpClient;
+      if (!httpClient.isRunning()) httpClient.start();
+   }
+
+   public CloseableHttpAsyncClient getHttpClient()
+   {
+      return httpClient;
+   }
+
+   public HttpContext getHttpContext()
+   {
+      return httpContext;
+   }
+
+   public void setHttpContext(HttpContext httpContext)
+   {
+      this.httpContext = httpContext;
+   }
+
+   @Override
+   public SSLContext getSslContext()
+   {
+      return sslContext;
+   }
+
+   public void setSslContext(SSLContext sslContext)
+   {
+      this.sslContext = sslContext;
+   }
+
+   @Override
+   public HostnameVerifier getHostnameVerifier()
+   {
+      return hostnameVerifier;
+   }
+
+   public void setHostnameVerifier(HostnameVerifier hostnameVerifier)
+   {
+      this.hostnameVerifier = hostnameVerifier;
+   }
+
+   @Override
+   public ClientResponse invoke(ClientInvocation request)
+   {
+      Future<ClientResponse> future = submit(request, new ResultExtractor<ClientResponse>()
+      {
+         @Override
+         public ClientResponse extractResult(ClientResponse response)
+         {
+            return response;
+         }
+      });
+      try
+      {
+         return future.get();
+      }
+      catch (InterruptedException e)
+      {
+         future.cancel(true);
+         Thread.currentThread().interrupt();
+         throw new ProcessingException(Messages.MESSAGES.unableToInvokeRequest(), e);
+      }
+      catch (ExecutionException e)
+      {
+         if (e.getCause() instanceof ProcessingException) throw (ProcessingException) e.getCause();
+         throw new ProcessingException(Messages.MESSAGES.unableToInvokeRequest(), e.getCause());
+      }
+   }
+
+   @Override
+   public <T> CompletableFuture<T> submit(final ClientInvocation request, final ResultExtractor<T> extractor)
+   {
+      if (closed) throw new IllegalStateException(Messages.MESSAGES.clientIsClosed());
+      final CompletableFuture<T> result = new CompletableFuture<T>();
+      final Future<HttpResponse> future;
+      try
+      {
+         HttpRequestBase httpRequest = createHttpRequest(request);
+         future = httpClient.execute(httpRequest, httpContext, new FutureCallback<HttpResponse>()
+         {
+            @Override
+            public void completed(HttpResponse res)
+            {
+               try
+               {
+                  result.complete(extractor.extractResult(createResponse(request, res)));
+               }
+               catch (Throwable t)
+               {
+                  result.completeExceptionally(t);
+               }
+            }
+
+            @Override
+            public void failed(Exception e)
+            {
+               result.completeExceptionally(new ProcessingException(Messages.MESSAGES.unableToInvokeRequest(), e));
+            }
+
+            @Override
+            public void cancelled()
+            {
+               result.cancel(false);
+            }
+         });
+      }
+      catch (ProcessingException e)
+      {
+         result.completeExceptionally(e);
+         return result;
+      }
+      catch (Exception e)
+      {
+         result.completeExceptionally(new ProcessingException(Messages.MESSAGES.unableToInvokeRequest(), e));
+         return result;
+      }
+      result.whenComplete(new BiConsumer<T, Throwable>()
+      {
+         @Override
+         public void accept(T value, Throwable t)
+         {
+            if (result.isCancelled()) future.cancel(true);
+         }
+      });
+      return result;
+   }
+
+   protected HttpRequestBase createHttpRequest(ClientInvocation request) throws IOException
+   {
+      String uri = request.getUri().toString();
+      final String verb = request.getMethod();
+      HttpRequestBase httpRequest;
+      if ("GET".equals(verb))
+      {
+         httpRequest = new HttpGet(uri);
+      }
+      else if ("POST".equals(verb))
+      {
+         httpRequest = new HttpPost(uri);
+      }
+      else
+      {
+         httpRequest = new HttpPost(uri)
+         {
+            @Override
+            public String getMethod()
+            {
+               return verb;
+            }
+         };
+      }
+
+      if (request.getEntity() != null)
+      {
+         if (httpRequest instanceof HttpGet) throw new ProcessingException(Messages.MESSAGES.getRequestCannotHaveBody());
+
+         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+         request.getDelegatingOutputStream().setDelegate(baos);
+         request.writeRequestBody(request.getEntityStream());
+         ByteArrayEntity entity = new ByteArrayEntity(baos.toByteArray());
+         entity.setContentType(new BasicHeader(HTTP.CONTENT_TYPE, request.getHeaders().getMediaType().toString()));
+         ((HttpPost) httpRequest).setEntity(entity);
+      }
+      // writing the body may have changed the headers
+      commitHeaders(request, httpRequest);
+      return httpRequest;
+   }
+
+   protected void commitHeaders(ClientInvocation request, HttpRequestBase httpRequest)
+   {
+      MultivaluedMap<String, String> headers = request.getHeaders().asMap();
+      for (Map.Entry<String, List<String>> header : headers.entrySet())
+      {
+         for (String value : header.getValue())
+         {
+            httpRequest.addHeader(header.getKey(), value);
+         }
+      }
+   }
+
+   protected ClientResponse createResponse(ClientInvocation request, final HttpResponse res)
+   {
+      ClientResponse response = new ClientResponse(request.getClientConfiguration())
+      {
+         InputStream stream;
+
+         @Override
+         protected void setInputStream(InputStream is)
+         {
+            stream = is;
+         }
+
+         @Override
+         public InputStream getInputStream()
+         {
+            if (stream == null)
+            {
+               HttpEntity entity = res.getEntity();
+               if (entity == null) return null;
+               try
+               {
+                  stream = entity.getContent();
+               }
+               catch (IOException e)
+               {
+                  throw new RuntimeException(e);
+               }
+            }
+            return stream;
+         }
+
+         @Override
+         public void releaseConnection() throws IOException
+         {
+            // the body is in memory, the connection went back to the pool when it was read
+            if (stream != null) stream.close();
+         }
+      };
+      response.setProperties(request.getMutableProperties());
+      response.setStatus(res.getStatusLine().getStatusCode());
+      response.setHeaders(ApacheHttpClient4Engine.extractHeaders(res));
+      response.setClientConfiguration(request.getClientConfiguration());
+      return response;
+   }
+
+   @Override
+   public void close()
+   {
+      if (closed) return;
+      closed = true;
+      if (closeHttpClient)
+      {
+         try
+         {
+            httpClient.close();
+         }
+         catch (IOException e)
+         {
+            LogMessages.LOGGER.debug(e.getMessage(), e);
+         }
+      }
+   }
+
+   public boolean isClosed()
+   {
+      return closed;
+   }
+}
@@ -12,6 +12,7 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.params.HttpClientParams;
 import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.conn.params.ConnRoutePNames;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.FileEntity;
 import org.apache.http.impl.client.DefaultHttpClient;
@@ -25,17 +26,21 @@ import org.jboss.resteasy.client.jaxrs.i18n.LogMessages;
 import org.jboss.resteasy.client.jaxrs.i18n.Messages;
 import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
 import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPEncodingInterceptor;
 import org.jboss.resteasy.util.CaseInsensitiveMap;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.WriterInterceptor;
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.management.ManagementFactory;
 import java.util.List;
 import java.util.Map;
@@ -118,6 +123,13 @@ public class ApacheHttpClient4Engine implements ClientHttpEngine
     */
    protected File fileUploadTempFileDir = new File(System.getProperty("java.io.tmpdir"));
 
+   /**
+    * Write request bodies straight to the connection instead of to memory or a temp file first. <br>
+    * <br>
+    * Defaults to false.
+    */
+   protected boolean streamRequestBody;
+
 
    public ApacheHttpClient4Engine()
    {
@@ -195,6 +207,24 @@ public class ApacheHttpClient4Engine implements ClientHttpEngine
       this.fileUploadMemoryUnit = fileUploadMemoryUnit;
    }
 
+   public boolean isStreamRequestBody()
+   {
+      return streamRequestBody;
+   }
+
+   /**
+    * Write request bodies straight to the connection while it is sent, with the Content-Length the message body
+    * writer reports if it knows it, chunked otherwise.  The headers are sent before the body is written, so changes
+    * writer interceptors and message body writers make to them are not sent, and bodies cannot be resent on
+    * redirects or retries.
+    *
+    * @param streamRequestBody
+    */
+   public void setStreamRequestBody(boolean streamRequestBody)
+   {
+      this.streamRequestBody = streamRequestBody;
+   }
+
    public File getFileUploadTempFileDir()
    {
       return fileUploadTempFileDir;
@@ -449,11 +479,9 @@ public class ApacheHttpClient4Engine implements ClientHttpEngine
       {
          if (httpMethod instanceof HttpGet) throw new ProcessingException(Messages.MESSAGES.getRequestCannotHaveBody());
 
-         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-         request.getDelegatingOutputStream().setDelegate(baos);
          try
          {
-            HttpEntity entity = buildEntity(request);
+            HttpEntity entity = streamRequestBody ? buildStreamingEntity(request) : buildEntity(request);
             HttpPost post = (HttpPost) httpMethod;
             commitHeaders(request, httpMethod);
             post.setEntity(entity);
@@ -572,6 +600,84 @@ public class ApacheHttpClient4Engine implements ClientHttpEngine
       return entityToBuild;
    }
 
+   /**
+    * Build an HttpEntity that writes the request body through the writer interceptors and the message body writer
+    * when HttpClient sends it, after the headers.
+    *
+    * @param request -
+    * @return - the built HttpEntity
+    */
+   protected HttpEntity buildStreamingEntity(final ClientInvocation request)
+   {
+      AbstractHttpEntity entityToBuild = new AbstractHttpEntity()
+      {
+         private final long length = getContentLength(request);
+         private boolean written;
+
+         @Override
+         public boolean isRepeatable()
+         {
+            return false;
+         }
+
+         @Override
+         public long getContentLength()
+         {
+            return length;
+         }
+
+         @Override
+         public InputStream getContent() throws IOException
+         {
+            // the body only exists while writeTo() runs the writer interceptors and the message body writer
+            throw new UnsupportedOperationException("The request body is streamed when it is sent, it cannot be read");
+         }
+
+         @Override
+         public void writeTo(OutputStream outstream) throws IOException
+         {
+            if (written) throw new IOException(Messages.MESSAGES.streamIsClosed());
+            written = true;
+            request.getDelegatingOutputStream().setDelegate(outstream);
+            request.writeRequestBody(request.getEntityStream(), true);
+         }
+
+         @Override
+         public boolean isStreaming()
+         {
+            return !written;
+         }
+      };
+      entityToBuild.setContentType(new BasicHeader(HTTP.CONTENT_TYPE, request.getHeaders().getMediaType().toString()));
+      entityToBuild.setChunked(entityToBuild.getContentLength() < 0);
+      return entityToBuild;
+   }
+
+   /**
+    * @param request -
+    * @return - the size the message body writer reports for the entity, or -1 if it does not know it or a writer
+    *         interceptor may change it.
+    */
+   @SuppressWarnings({"rawtypes", "unchecked"})
+   protected long getContentLength(final ClientInvocation request)
+   {
+      if (request.getHeaders().getHeader(HttpHeaders.CONTENT_ENCODING) != null) return -1;
+      WriterInterceptor[] interceptors = request.getWriterInterceptors();
+      if (interceptors != null)
+      {
+         for (WriterInterceptor interceptor : interceptors)
+         {
+            // only compresses bodies that have a Content-Encoding
+            if (!(interceptor instanceof GZIPEncodingInterceptor)) return -1;
+         }
+      }
+      MessageBodyWriter writer = request.getClientConfiguration().getMessageBodyWriter(request.getEntityClass(),
+              request.getEntityGenericType(), request.getEntityAnnotations(), request.getHeaders().getMediaType());
+      if (writer == null) return -1;
+      return writer.getSize(request.getEntity(), request.getEntityClass(), request.getEntityGenericType(),
+              request.getEntityAnnotations(), request.getHeaders().getMediaType());
+   }
+
    /**
     * Creates the request OutputStream, to be sent to the end Service invoked, as a
     * <a href="http://commons.apache.org/io/api-release/org/apache/commons/io/output/DeferredFileOutputStream.html"
@@ -1,6 +1,10 @@
 package org.jboss.resteasy.client.jaxrs.internal;
 
+import org.jboss.resteasy.client.jaxrs.AsyncClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.ClientRequestFailureListener;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.i18n.LogMessages;
 import org.jboss.resteasy.core.interception.AbstractWriterInterceptorContext;
 import org.jboss.resteasy.core.interception.ClientWriterInterceptorContext;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
@@ -42,7 +46,12 @@ import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
@@ -354,6 +363,17 @@ public class ClientInvocation implements Invocation
    }
 
    public void writeRequestBody(OutputStream outputStream) throws IOException
+   {
+      writeRequestBody(outputStream, false);
+   }
+
+   /**
+    * @param outputStream -
+    * @param headersCommitted true if the request headers have been sent already, so interceptors and writers
+    *                         cannot change them anymore
+    * @throws IOException -
+    */
+   public void writeRequestBody(OutputStream outputStream, boolean headersCommitted) throws IOException
    {
       if (entity == null)
       {
@@ -361,7 +381,8 @@ public class ClientInvocation implements Invocation
       }
 
       WriterInterceptor[] interceptors = getWriterInterceptors();
-      AbstractWriterInterceptorContext ctx = new ClientWriterInterceptorContext(interceptors, configuration.getProviderFactory(), entity, entityClass, entityGenericType, entityAnnotations, headers.getMediaType(), headers.getHeaders(), outputStream, getMutableProperties());
+      ClientWriterInterceptorContext ctx = new ClientWriterInterceptorContext(interceptors, configuration.getProviderFactory(), entity, entityClass, entityGenericType, entityAnnotations, headers.getMediaType(), headers.getHeaders(), outputStream, getMutableProperties());
+      ctx.setHeadersCommitted(headersCommitted);
       ctx.proceed();
    }
 
@@ -397,69 +418,111 @@ public class ClientInvocation implements Invocation
       try
       {
          ClientRequestContextImpl requestContext = new ClientRequestContextImpl(this);
-         ClientRequestFilter[] requestFilters = getRequestFilters();
-         ClientResponse aborted = null;
-         if (requestFilters != null && requestFilters.length > 0)
+         try
          {
-            for (ClientRequestFilter filter : requestFilters)
-            {
-               try
-               {
-                  filter.filter(requestContext);
-                  if (requestContext.getAbortedWithResponse() != null)
-                  {
-                     aborted = new AbortedResponse(configuration, requestContext.getAbortedWithResponse());
-                     break;
-                  }
-               }
-               catch (ProcessingException e)
-               {
-                  throw e;
-               }
-               catch (WebApplicationException e)
-               {
-                  throw e;
-               }
-               catch (Throwable e)
-               {
-                  throw new ProcessingException(e);
-               }
-            }
+            ClientResponse aborted = filterRequest(requestContext);
+            // spec requires that aborted response go through filter/interceptor chains.
+            ClientResponse response = aborted;
+            if (response == null) response = client.httpEngine().invoke(this);
+            return filterResponse(requestContext, response);
          }
-         // spec requires that aborted response go through filter/interceptor chains.
-         ClientResponse response = aborted;
-         if (response == null) response = client.httpEngine().invoke(this);
-         response.setProperties(configuration.getMutableProperties());
+         catch (RuntimeException e)
+         {
+            requestFailed(requestContext, e);
+            throw e;
+         }
+      }
+      finally
+      {
+         ResteasyProviderFactory.popContextData(Providers.class);
+         if (current != null) ResteasyProviderFactory.pushContext(Providers.class, current);
+      }
+   }
 
-         ClientResponseFilter[] responseFilters = getResponseFilters();
-         if (responseFilters != null && responseFilters.length > 0)
+   /**
+    * @param requestContext
+    * @return the response a filter aborted the request with, or null
+    */
+   protected ClientResponse filterRequest(ClientRequestContextImpl requestContext)
+   {
+      ClientRequestFilter[] requestFilters = getRequestFilters();
+      if (requestFilters != null && requestFilters.length > 0)
+      {
+         for (ClientRequestFilter filter : requestFilters)
          {
-            ClientResponseContextImpl responseContext = new ClientResponseContextImpl(response);
-            for (ClientResponseFilter filter : responseFilters)
+            try
             {
-               try
+               filter.filter(requestContext);
+               if (requestContext.getAbortedWithResponse() != null)
                {
-                  filter.filter(requestContext, responseContext);
-               }
-               catch (ResponseProcessingException e)
-               {
-                  throw e;
-               }
-               catch (Throwable e)
-               {
-                  throw new ResponseProcessingException(response, e);
+                  return new AbortedResponse(configuration, requestContext.getAbortedWithResponse());
                }
             }
+            catch (ProcessingException e)
+            {
+               throw e;
+            }
+            catch (WebApplicationException e)
+            {
+               throw e;
+            }
+            catch (Throwable e)
+            {
+               throw new ProcessingException(e);
+            }
          }
-         return response;
       }
-      finally
+      return null;
+   }
+
+   /**
+    * Tells the request filters that are {@link ClientRequestFailureListener}s that the invocation failed.
+    */
+   protected void requestFailed(ClientRequestContextImpl requestContext, Throwable cause)
+   {
+      ClientRequestFilter[] requestFilters = getRequestFilters();
+      if (requestFilters == null) return;
+      for (ClientRequestFilter filter : requestFilters)
       {
-         ResteasyProviderFactory.popContextData(Providers.class);
-         if (current != null) ResteasyProviderFactory.pushContext(Providers.class, current);
+         if (!(filter instanceof ClientRequestFailureListener)) continue;
+         try
+         {
+            ((ClientRequestFailureListener) filter).failed(requestContext, cause);
+         }
+         catch (RuntimeException e)
+         {
+            LogMessages.LOGGER.debug(e.getMessage(), e);
+         }
       }
    }
 
+   protected ClientResponse filterResponse(ClientRequestContextImpl requestContext, ClientResponse response)
+   {
+      response.setProperties(configuration.getMutableProperties());
+
+      ClientResponseFilter[] responseFilters = getResponseFilters();
+      if (responseFilters != null && responseFilters.length > 0)
+      {
+         ClientResponseContextImpl responseContext = new ClientResponseContextImpl(response);
+         for (ClientResponseFilter filter : responseFilters)
+         {
+            try
+            {
+               filter.filter(requestContext, responseContext);
+            }
+            catch (ResponseProcessingException e)
+            {
+               throw e;
+            }
+            catch (Throwable e)
+            {
+               throw new ResponseProcessingException(response, e);
+            }
+         }
+      }
+      return response;
+   }
+
    @SuppressWarnings("unchecked")
    @Override
    public <T> T invoke(Class<T> responseType)
@@ -478,9 +541,144 @@ public class ClientInvocation implements Invocation
       return ClientInvocation.extractResult(responseType, response, null);
    }
 
+   /**
+    * Sends the request through an {@link AsyncClientHttpEngine} without blocking.  The request filters run and the
+    * body is written on the calling thread, the response filters run and the entity is read on the thread of the
+    * engine the response arrives on.
+    */
+   @SuppressWarnings("unchecked")
+   protected <T> CompletableFuture<T> submit(AsyncClientHttpEngine engine, final GenericType<T> responseType, final InvocationCallback<T> callback)
+   {
+      CompletableFuture<T> future;
+      Providers current = ResteasyProviderFactory.getContextData(Providers.class);
+      ResteasyProviderFactory.pushContext(Providers.class, configuration);
+      try
+      {
+         final ClientRequestContextImpl requestContext = new ClientRequestContextImpl(this, true);
+         AsyncClientHttpEngine.ResultExtractor<T> extractor = new AsyncClientHttpEngine.ResultExtractor<T>()
+         {
+            @Override
+            public T extractResult(ClientResponse response)
+            {
+               Providers current = ResteasyProviderFactory.getContextData(Providers.class);
+               ResteasyProviderFactory.pushContext(Providers.class, configuration);
+               try
+               {
+                  filterResponse(requestContext, response);
+                  if (responseType.getRawType().equals(Response.class)) return (T) response;
+                  return ClientInvocation.extractResult(responseType, response, null);
+               }
+               finally
+               {
+                  ResteasyProviderFactory.popContextData(Providers.class);
+                  if (current != null) ResteasyProviderFactory.pushContext(Providers.class, current);
+               }
+            }
+         };
+         try
+         {
+            ClientResponse aborted = filterRequest(requestContext);
+            if (aborted != null)
+            {
+               future = new CompletableFuture<T>();
+               future.complete(extractor.extractResult(aborted));
+            }
+            else
+            {
+               future = engine.submit(this, extractor);
+            }
+         }
+         catch (RuntimeException e)
+         {
+            future = new CompletableFuture<T>();
+            future.completeExceptionally(e);
+         }
+         future.whenComplete(new BiConsumer<T, Throwable>()
+         {
+            @Override
+            public void accept(T result, Throwable t)
+            {
+               if (t == null) return;
+               if (t instanceof CompletionException && t.getCause() != null) t = t.getCause();
+               requestFailed(requestContext, t);
+            }
+         });
+      }
+      finally
+      {
+         ResteasyProviderFactory.popContextData(Providers.class);
+         if (current != null) ResteasyProviderFactory.pushContext(Providers.class, current);
+      }
+
+      if (callback != null)
+      {
+         future.whenComplete(new BiConsumer<T, Throwable>()
+         {
+            @Override
+            public void accept(T result, Throwable t)
+            {
+               if (t != null)
+               {
+                  if (t instanceof CompletionException && t.getCause() != null) t = t.getCause();
+                  callback.failed(t);
+                  return;
+               }
+               try
+               {
+                  callback.completed(result);
+               }
+               finally
+               {
+                  if (result != null && result instanceof Response)
+                  {
+                     ((Response) result).close();
+                  }
+               }
+            }
+         });
+      }
+      return future;
+   }
+
+   /**
+    * @param responseType
+    * @return stage completed from the I/O callbacks of the engine if it is an {@link AsyncClientHttpEngine}, by the
+    *         async executor of the client otherwise
+    */
+   public <T> CompletionStage<T> completionStage(final GenericType<T> responseType)
+   {
+      ClientHttpEngine engine = client.httpEngine();
+      if (engine instanceof AsyncClientHttpEngine)
+      {
+         return submit((AsyncClientHttpEngine) engine, responseType, null);
+      }
+      return CompletableFuture.supplyAsync(new Supplier<T>()
+      {
+         @Override
+         public T get()
+         {
+            return invoke(responseType);
+         }
+      }, client.asyncInvocationExecutor());
+   }
+
+   public <T> CompletionStage<T> completionStage(Class<T> responseType)
+   {
+      return completionStage(new GenericType<T>(responseType));
+   }
+
+   public CompletionStage<Response> completionStage()
+   {
+      return completionStage(Response.class);
+   }
+
    @Override
    public Future<Response> submit()
    {
+      if (client.httpEngine() instanceof AsyncClientHttpEngine)
+      {
+         return submit((AsyncClientHttpEngine) client.httpEngine(), new GenericType<Response>(Response.class), null);
+      }
       return client.asyncInvocationExecutor().submit(new Callable<Response>()
       {
          @Override
@@ -495,6 +693,10 @@ public class ClientInvocation implements Invocation
    @Override
    public <T> Future<T> submit(final Class<T> responseType)
    {
+      if (client.httpEngine() instanceof AsyncClientHttpEngine)
+      {
+         return submit((AsyncClientHttpEngine) client.httpEngine(), new GenericType<T>(responseType), null);
+      }
       return client.asyncInvocationExecutor().submit(new Callable<T>()
       {
          @Override
@@ -508,6 +710,10 @@ public class ClientInvocation implements Invocation
   @Override
    public <T> Future<T> submit(final GenericType<T> responseType)
    {
+      if (client.httpEngine() instanceof AsyncClientHttpEngine)
+      {
+         return submit((AsyncClientHttpEngine) client.httpEngine(), responseType, null);
+      }
       return client.asyncInvocationExecutor().submit(new Callable<T>()
       {
          @Override
@@ -530,6 +736,10 @@ public class ClientInvocation implements Invocation
       }
 
       final GenericType<T> responseType = genericType;
+      if (client.httpEngine() instanceof AsyncClientHttpEngine)
+      {
+         return submit((AsyncClientHttpEngine) client.httpEngine(), responseType, callback);
+      }
       return client.asyncInvocationExecutor().submit(new Callable<T>()
       {
          @Override
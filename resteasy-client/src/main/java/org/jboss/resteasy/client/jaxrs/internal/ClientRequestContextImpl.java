@@ -30,17 +30,36 @@ public class ClientRequestContextImpl implements ClientRequestContext
 {
    protected ClientInvocation invocation;
    protected Response abortedWithResponse;
+   protected boolean asynchronous;
 
    public ClientRequestContextImpl(ClientInvocation invocation)
    {
       this.invocation = invocation;
    }
 
+   /**
+    * @param asynchronous whether the request filters run on the thread that submitted the request to an
+    *                     {@link org.jboss.resteasy.client.jaxrs.AsyncClientHttpEngine}
+    */
+   public ClientRequestContextImpl(ClientInvocation invocation, boolean asynchronous)
+   {
+      this.invocation = invocation;
+      this.asynchronous = asynchronous;
+   }
+
    public Response getAbortedWithResponse()
    {
       return abortedWithResponse;
    }
 
+   /**
+    * @return whether request filters must not block, because the thread they run on only submits the request
+    */
+   public boolean isAsynchronous()
+   {
+      return asynchronous;
+   }
+
    @Override
    public Object getProperty(String name)
    {
@@ -9,9 +9,14 @@ import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
 import org.jboss.resteasy.client.jaxrs.internal.proxy.extractors.ClientContext;
 import org.jboss.resteasy.client.jaxrs.internal.proxy.extractors.DefaultEntityExtractorFactory;
 import org.jboss.resteasy.client.jaxrs.internal.proxy.extractors.EntityExtractor;
+import org.jboss.resteasy.client.jaxrs.internal.proxy.processors.AbstractCollectionProcessor;
 import org.jboss.resteasy.client.jaxrs.internal.proxy.processors.InvocationProcessor;
 import org.jboss.resteasy.client.jaxrs.internal.proxy.processors.ProcessorFactory;
 import org.jboss.resteasy.client.jaxrs.internal.proxy.processors.WebTargetProcessor;
+import org.jboss.resteasy.client.jaxrs.internal.proxy.processors.webtarget.PathParamProcessor;
+import org.jboss.resteasy.client.jaxrs.internal.proxy.processors.webtarget.QueryParamProcessor;
+import org.jboss.resteasy.specimpl.UriTemplate;
+import org.jboss.resteasy.util.Encode;
 import org.jboss.resteasy.util.FeatureContextDelegate;
 import org.jboss.resteasy.util.MediaTypeHelper;
 
@@ -21,6 +26,9 @@ import javax.ws.rs.container.DynamicFeature;
 import javax.ws.rs.container.ResourceInfo;
 import javax.ws.rs.core.MediaType;
 import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
@@ -28,6 +36,17 @@ import java.lang.reflect.Method;
  */
 public class ClientInvoker implements MethodInvoker
 {
+   // flattens the collections and arrays of query parameters the way their processors do
+   private static final AbstractCollectionProcessor<List<Object>> QUERY_VALUES = new AbstractCollectionProcessor<List<Object>>(null)
+   {
+      @Override
+      protected List<Object> apply(List<Object> values, Object object)
+      {
+         values.add(object);
+         return values;
+      }
+   };
+
    protected String httpMethod;
    protected Method method;
    protected Class<?> declaring;
@@ -39,7 +58,9 @@ public class ClientInvoker implements MethodInvoker
    protected EntityExtractor extractor;
    protected DefaultEntityExtractorFactory entityExtractorFactory;
    protected ClientConfiguration invokerConfig;
-
+   protected UriTemplate uriTemplate;
+   // index of the template variable each processor resolves, -1 for the others
+   protected int[] templateVariables;
 
    public ClientInvoker(ResteasyWebTarget parent, Class<?> declaring, Method method, ProxyConfig config)
    {
@@ -79,6 +100,48 @@ public class ClientInvoker implements MethodInvoker
       accepts = MediaTypeHelper.getProduces(declaring, method, config.getDefaultProduces());
       entityExtractorFactory = new DefaultEntityExtractorFactory();
       this.extractor = entityExtractorFactory.createExtractor(method);
+      compileUriTemplate();
+   }
+
+   /**
+    * Split the URI template of the method into literals and variables once, so that the URI of a request is built by
+    * concatenation instead of resolving the template on a new web target for every path parameter.  Only methods
+    * whose URI is made of path and query parameters qualify, the others keep going through the web target.
+    */
+   protected void compileUriTemplate()
+   {
+      UriTemplate template;
+      try
+      {
+         template = new UriTemplate(webTarget.getUriBuilder().toTemplate());
+      }
+      catch (RuntimeException e)
+      {
+         return;
+      }
+      if (template.hasFragment()) return;
+      int[] variables = new int[processors.length];
+      boolean[] resolved = new boolean[template.getVariables().size()];
+      for (int i = 0; i < processors.length; i++)
+      {
+         variables[i] = -1;
+         if (processors[i] instanceof PathParamProcessor)
+         {
+            variables[i] = template.indexOf(((PathParamProcessor) processors[i]).getParamName());
+            if (variables[i] < 0) return;
+            resolved[variables[i]] = true;
+         }
+         else if (processors[i] instanceof WebTargetProcessor && !(processors[i] instanceof QueryParamProcessor))
+         {
+            return;
+         }
+      }
+      for (boolean r : resolved)
+      {
+         if (!r) return;
+      }
+      this.templateVariables = variables;
+      this.uriTemplate = template;
    }
 
    public MediaType getAccepts()
@@ -106,25 +169,28 @@ public class ClientInvoker implements MethodInvoker
 
    protected ClientInvocation createRequest(Object[] args)
    {
-      WebTarget target = this.webTarget;
-      for (int i = 0; i < processors.length; i++)
+      ClientInvocationBuilder builder = uriTemplate != null ? expandUriTemplate(args) : null;
+      if (builder == null)
       {
-         if (processors != null && processors[i] instanceof WebTargetProcessor)
+         WebTarget target = this.webTarget;
+         for (int i = 0; i < processors.length; i++)
          {
-            WebTargetProcessor processor = (WebTargetProcessor)processors[i];
-            target = processor.build(target, args[i]);
+            if (processors != null && processors[i] instanceof WebTargetProcessor)
+            {
+               WebTargetProcessor processor = (WebTargetProcessor)processors[i];
+               target = processor.build(target, args[i]);
 
+            }
          }
-      }
 
-      ClientInvocationBuilder builder = null;
-      if (accepts != null)
-      {
-         builder = (ClientInvocationBuilder)target.request(accepts);
-      }
-      else
-      {
-         builder = (ClientInvocationBuilder)target.request();
+         if (accepts != null)
+         {
+            builder = (ClientInvocationBuilder)target.request(accepts);
+         }
+         else
+         {
+            builder = (ClientInvocationBuilder)target.request();
+         }
       }
 
       for (int i = 0; i < processors.length; i++)
@@ -139,6 +205,40 @@ public class ClientInvoker implements MethodInvoker
       return (ClientInvocation)builder.build(httpMethod);
    }
 
+   /**
+    * @return null if a parameter is null, so the web target reports it
+    */
+   protected ClientInvocationBuilder expandUriTemplate(Object[] args)
+   {
+      // the web target is bypassed, so its check is made here
+      webTarget.getResteasyClient().abortIfClosed();
+      String[] values = new String[uriTemplate.getVariables().size()];
+      for (int i = 0; i < processors.length; i++)
+      {
+         if (templateVariables[i] < 0) continue;
+         if (args[i] == null) return null;
+         values[templateVariables[i]] = invokerConfig.toString(args[i]);
+      }
+      StringBuilder uri = uriTemplate.expand(new StringBuilder(), values);
+      boolean query = uriTemplate.hasQuery();
+      for (int i = 0; i < processors.length; i++)
+      {
+         if (!(processors[i] instanceof QueryParamProcessor) || args[i] == null) continue;
+         String name = Encode.encodeQueryParamAsIs(((QueryParamProcessor) processors[i]).getParamName());
+         for (Object value : QUERY_VALUES.buildIt(new ArrayList<Object>(), args[i]))
+         {
+            if (value == null) return null;
+            uri.append(query ? '&' : '?').append(name).append('=');
+            uri.append(Encode.encodeQueryParamAsIs(invokerConfig.toString(value)));
+            query = true;
+         }
+      }
+
+      ClientInvocationBuilder builder = new ClientInvocationBuilder(webTarget.getResteasyClient(), URI.create(uri.toString()), invokerConfig);
+      if (accepts != null) builder.getHeaders().accept(accepts);
+      return builder;
+   }
+
    public String getHttpMethod()
    {
       return httpMethod;
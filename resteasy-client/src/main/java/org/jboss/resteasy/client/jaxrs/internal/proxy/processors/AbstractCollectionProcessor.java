@@ -15,6 +15,11 @@ public abstract class AbstractCollectionProcessor<T>
       this.paramName = paramName;
    }
 
+   public String getParamName()
+   {
+      return paramName;
+   }
+
    protected abstract T apply(T target, Object object);
 
    public T buildIt(T target, Object object)
@@ -17,6 +17,11 @@ public class PathParamProcessor implements WebTargetProcessor
       this.paramName = paramName;
    }
 
+   public String getParamName()
+   {
+      return paramName;
+   }
+
    @Override
    public WebTarget build(WebTarget target, Object param)
    {
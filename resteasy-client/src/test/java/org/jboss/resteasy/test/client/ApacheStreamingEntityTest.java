@@ -0,0 +1,126 @@
+package org.jboss.resteasy.test.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.jboss.resteasy.core.interception.ClientWriterInterceptorContext;
+import org.jboss.resteasy.util.ReadFromStream;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+/**
+ * Request bodies written straight to the connection arrive whole, with a Content-Length if the writer knows it.
+ */
+public class ApacheStreamingEntityTest
+{
+   static HttpServer server;
+   static ResteasyClient client;
+   static byte[] data = new byte[1024 * 1024];
+   static volatile boolean headersCommitted;
+
+   public static class RecordingInterceptor implements WriterInterceptor
+   {
+      @Override
+      public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException
+      {
+         headersCommitted = ((ClientWriterInterceptorContext) context).isHeadersCommitted();
+         context.proceed();
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      for (int i = 0; i < data.length; i++) data[i] = (byte) (i % 7);
+      server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+      server.createContext("/echo", new HttpHandler()
+      {
+         @Override
+         public void handle(HttpExchange exchange) throws IOException
+         {
+            String length = exchange.getRequestHeaders().getFirst("Content-Length");
+            byte[] body = ReadFromStream.readFromStream(8192, exchange.getRequestBody());
+            int sum = 0;
+            for (byte b : body) sum += b;
+            byte[] response = ((length == null ? "chunked" : length) + " " + body.length + " " + sum).getBytes();
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, response.length);
+            OutputStream os = exchange.getResponseBody();
+            os.write(response);
+            os.close();
+         }
+      });
+      server.start();
+      client = new ResteasyClientBuilder().streamRequestBody(true).register(RecordingInterceptor.class).build();
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      client.close();
+      server.stop(0);
+   }
+
+   static String generateURL(String path)
+   {
+      return "http://localhost:" + server.getAddress().getPort() + path;
+   }
+
+   private static String expected(String length)
+   {
+      int sum = 0;
+      for (byte b : data) sum += b;
+      return length + " " + data.length + " " + sum;
+   }
+
+   @Test
+   public void testKnownLength() throws Exception
+   {
+      Assert.assertTrue(((ApacheHttpClient4Engine) client.httpEngine()).isStreamRequestBody());
+      String val = client.target(generateURL("/echo")).request()
+              .post(Entity.entity(data, MediaType.APPLICATION_OCTET_STREAM_TYPE), String.class);
+      Assert.assertEquals(expected(Integer.toString(data.length)), val);
+      Assert.assertTrue(headersCommitted);
+   }
+
+   @Test
+   public void testChunked() throws Exception
+   {
+      String val = client.target(generateURL("/echo")).request()
+              .post(Entity.entity(new ByteArrayInputStream(data), MediaType.APPLICATION_OCTET_STREAM_TYPE), String.class);
+      Assert.assertEquals(expected("chunked"), val);
+
+      StreamingOutput output = new StreamingOutput()
+      {
+         @Override
+         public void write(OutputStream os) throws IOException
+         {
+            for (int i = 0; i < data.length; i += 8192)
+            {
+               os.write(Arrays.copyOfRange(data, i, Math.min(data.length, i + 8192)));
+            }
+         }
+      };
+      val = client.target(generateURL("/echo")).request()
+              .post(Entity.entity(output, MediaType.APPLICATION_OCTET_STREAM_TYPE), String.class);
+      Assert.assertEquals(expected("chunked"), val);
+   }
+}
@@ -0,0 +1,230 @@
+package org.jboss.resteasy.test.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.jboss.resteasy.client.jaxrs.AsyncClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
+import org.jboss.resteasy.client.jaxrs.cache.BrowserCacheFeature;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpAsyncClient4Engine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+import org.jboss.resteasy.util.ReadFromStream;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Async invocations of a client using the non-blocking engine complete from its I/O threads.
+ */
+public class AsyncHttpEngineTest
+{
+   static HttpServer server;
+   static ExecutorService executor;
+   static ResteasyClient client;
+
+   static void respond(HttpExchange exchange, byte[] body) throws IOException
+   {
+      exchange.getResponseHeaders().set("Content-Type", "text/plain");
+      exchange.sendResponseHeaders(200, body.length);
+      OutputStream os = exchange.getResponseBody();
+      os.write(body);
+      os.close();
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+      server.createContext("/hello/", new HttpHandler()
+      {
+         @Override
+         public void handle(HttpExchange exchange) throws IOException
+         {
+            try
+            {
+               Thread.sleep(20);
+            }
+            catch (InterruptedException e)
+            {
+               Thread.currentThread().interrupt();
+            }
+            String path = exchange.getRequestURI().getPath();
+            respond(exchange, ("hello " + path.substring(path.lastIndexOf('/') + 1)).getBytes());
+         }
+      });
+      server.createContext("/slow", new HttpHandler()
+      {
+         @Override
+         public void handle(HttpExchange exchange) throws IOException
+         {
+            try
+            {
+               Thread.sleep(1000);
+            }
+            catch (InterruptedException e)
+            {
+               Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+            respond(exchange, "slow".getBytes());
+         }
+      });
+      server.createContext("/echo", new HttpHandler()
+      {
+         @Override
+         public void handle(HttpExchange exchange) throws IOException
+         {
+            respond(exchange, ReadFromStream.readFromStream(1024, exchange.getRequestBody()));
+         }
+      });
+      executor = Executors.newCachedThreadPool();
+      server.setExecutor(executor);
+      server.start();
+      client = new ResteasyClientBuilder().useAsyncHttpEngine().connectionPoolSize(20).build();
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      client.close();
+      server.stop(0);
+      executor.shutdownNow();
+   }
+
+   static String generateURL(String path)
+   {
+      return "http://localhost:" + server.getAddress().getPort() + path;
+   }
+
+   @Test
+   public void testEngine() throws Exception
+   {
+      Assert.assertTrue(client.httpEngine() instanceof ApacheHttpAsyncClient4Engine);
+      String val = client.target(generateURL("/echo")).request().post(Entity.text("sync"), String.class);
+      Assert.assertEquals("sync", val);
+   }
+
+   @Test
+   public void testFutures() throws Exception
+   {
+      List<Future<String>> futures = new ArrayList<Future<String>>();
+      for (int i = 0; i < 50; i++)
+      {
+         futures.add(client.target(generateURL("/hello/" + i)).request().async().get(String.class));
+      }
+      for (int i = 0; i < 50; i++)
+      {
+         Assert.assertEquals("hello " + i, futures.get(i).get(10, TimeUnit.SECONDS));
+      }
+   }
+
+   @Test
+   public void testCallback() throws Exception
+   {
+      final CountDownLatch latch = new CountDownLatch(1);
+      final AtomicInteger status = new AtomicInteger();
+      client.target(generateURL("/hello/callback")).request().async().get(new InvocationCallback<Response>()
+      {
+         @Override
+         public void completed(Response response)
+         {
+            status.set(response.getStatus());
+            latch.countDown();
+         }
+
+         @Override
+         public void failed(Throwable throwable)
+         {
+            latch.countDown();
+         }
+      });
+      Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+      Assert.assertEquals(200, status.get());
+   }
+
+   @Test
+   public void testCompletionStage() throws Exception
+   {
+      ClientInvocation invocation = (ClientInvocation) client.target(generateURL("/echo")).request().buildPost(Entity.text("stage"));
+      String val = invocation.completionStage(String.class).toCompletableFuture().get(10, TimeUnit.SECONDS);
+      Assert.assertEquals("stage", val);
+   }
+
+   @Test
+   public void testNotFound() throws Exception
+   {
+      Future<String> future = client.target(generateURL("/missing")).request().async().get(String.class);
+      try
+      {
+         future.get(10, TimeUnit.SECONDS);
+         Assert.fail();
+      }
+      catch (ExecutionException e)
+      {
+         Assert.assertTrue(e.getCause() instanceof NotFoundException);
+      }
+   }
+
+   @Test
+   public void testCoalescingDoesNotBlockSubmit() throws Exception
+   {
+      final ResteasyWebTarget target = client.target(generateURL("/slow"));
+      BrowserCacheFeature feature = new BrowserCacheFeature();
+      feature.setCoalescingTimeout(60000);
+      target.register(feature);
+      Future<String> first = executor.submit(new Callable<String>()
+      {
+         @Override
+         public String call() throws Exception
+         {
+            return target.request().get(String.class);
+         }
+      });
+      // let the first request go out, the second one would wait for it if it were synchronous
+      Thread.sleep(200);
+      long start = System.currentTimeMillis();
+      Future<String> second = target.request().async().get(String.class);
+      Assert.assertTrue("submit() waited for the request in flight", System.currentTimeMillis() - start < 500);
+      Assert.assertEquals("slow", second.get(10, TimeUnit.SECONDS));
+      Assert.assertEquals("slow", first.get(10, TimeUnit.SECONDS));
+   }
+
+   @Test(expected = IllegalStateException.class)
+   public void testClosedEngine() throws Exception
+   {
+      ApacheHttpAsyncClient4Engine engine = new ApacheHttpAsyncClient4Engine();
+      engine.close();
+      ClientInvocation invocation = (ClientInvocation) client.target(generateURL("/echo")).request().buildGet();
+      engine.submit(invocation, new AsyncClientHttpEngine.ResultExtractor<ClientResponse>()
+      {
+         @Override
+         public ClientResponse extractResult(ClientResponse response)
+         {
+            return response;
+         }
+      });
+   }
+}
@@ -1,6 +1,8 @@
 package org.jboss.resteasy.test.client.cache;
 
 import org.jboss.resteasy.annotations.cache.Cache;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
 import org.jboss.resteasy.client.jaxrs.cache.BrowserCacheFeature;
 import org.jboss.resteasy.client.jaxrs.cache.LightweightBrowserCache;
@@ -13,6 +15,7 @@ import org.junit.Test;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.Produces;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.core.CacheControl;
@@ -21,6 +24,15 @@ import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.jboss.resteasy.test.TestPortProvider.generateBaseUrl;
 import static org.jboss.resteasy.test.TestPortProvider.generateURL;
 
@@ -31,6 +43,7 @@ import static org.jboss.resteasy.test.TestPortProvider.generateURL;
 public class ClientCacheTest extends BaseResourceTest
 {
    private static int count = 0;
+   private static final Object lock = new Object();
 
    @Path("/cache")
    public static class MyService
@@ -100,6 +113,20 @@ public class ClientCacheTest extends BaseResourceTest
          return "cachecache" + count;
       }
 
+      @Path("/slow")
+      @GET
+      @Produces("text/plain")
+      @Cache(maxAge = 3000)
+      public String getSlow() throws Exception
+      {
+         Thread.sleep(500);
+         synchronized (lock)
+         {
+            count++;
+            return "slow" + count;
+         }
+      }
+
    }
 
    @Path("/cache")
@@ -288,4 +315,90 @@ public class ClientCacheTest extends BaseResourceTest
 
    }
 
+   @Test
+   public void testConcurrentMissesCoalesced() throws Exception
+   {
+      ResteasyClient client = new ResteasyClientBuilder().connectionPoolSize(10).build();
+      final ResteasyWebTarget target = client.target(generateURL("/cache/slow"));
+      BrowserCacheFeature feature = new BrowserCacheFeature();
+      feature.setCoalescingTimeout(10000);
+      target.register(feature);
+      ExecutorService executor = Executors.newFixedThreadPool(10);
+      try
+      {
+         List<Future<String>> futures = new ArrayList<Future<String>>();
+         for (int i = 0; i < 10; i++)
+         {
+            futures.add(executor.submit(new Callable<String>()
+            {
+               @Override
+               public String call() throws Exception
+               {
+                  return target.request().get(String.class);
+               }
+            }));
+         }
+         for (Future<String> future : futures)
+         {
+            Assert.assertEquals("slow1", future.get());
+         }
+         Assert.assertEquals(1, count);
+      }
+      finally
+      {
+         executor.shutdownNow();
+         client.close();
+      }
+   }
+
+   @Test
+   public void testFailedRequestReleasesCoalescedOnes() throws Exception
+   {
+      ServerSocket socket = new ServerSocket(0);
+      int port = socket.getLocalPort();
+      socket.close();
+
+      ResteasyClient client = new ResteasyClientBuilder().connectionPoolSize(10).build();
+      final ResteasyWebTarget target = client.target("http://localhost:" + port + "/cache/slow");
+      BrowserCacheFeature feature = new BrowserCacheFeature();
+      feature.setCoalescingTimeout(60000);
+      target.register(feature);
+      ExecutorService executor = Executors.newFixedThreadPool(10);
+      try
+      {
+         List<Future<String>> futures = new ArrayList<Future<String>>();
+         for (int i = 0; i < 10; i++)
+         {
+            futures.add(executor.submit(new Callable<String>()
+            {
+               @Override
+               public String call() throws Exception
+               {
+                  return target.request().get(String.class);
+               }
+            }));
+         }
+         long start = System.currentTimeMillis();
+         for (Future<String> future : futures)
+         {
+            try
+            {
+               future.get();
+               Assert.fail();
+            }
+            catch (ExecutionException e)
+            {
+               Assert.assertTrue(e.getCause() instanceof ProcessingException);
+            }
+         }
+         // nobody waited for the coalescing timeout
+         Assert.assertTrue(System.currentTimeMillis() - start < 30000);
+      }
+      finally
+      {
+         executor.shutdownNow();
+         client.close();
+      }
+   }
+
 }
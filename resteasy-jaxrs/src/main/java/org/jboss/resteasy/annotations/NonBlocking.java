@@ -0,0 +1,19 @@
+package org.jboss.resteasy.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a resource method, or all methods of a resource class, as never blocking the calling thread, e.g. because it
+ * returns cached data or suspends the response.  Containers with an event loop that are configured for it run such
+ * methods right on the I/O thread instead of handing the request over to a worker thread.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface NonBlocking
+{
+}
@@ -157,7 +157,19 @@ public abstract class AbstractAsynchronousResponse implements ResteasyAsynchrono
 
    protected boolean internalResume(Object entity)
    {
-      ResteasyProviderFactory.pushContextDataMap(contextDataMap);
+      Map<Class<?>, Object> previous = ResteasyProviderFactory.attachContextData(contextDataMap);
+      try
+      {
+         return deliver(entity);
+      }
+      finally
+      {
+         ResteasyProviderFactory.restoreContextData(previous);
+      }
+   }
+
+   private boolean deliver(Object entity)
+   {
       Response response = null;
       if (entity == null)
       {
@@ -190,7 +202,7 @@ public abstract class AbstractAsynchronousResponse implements ResteasyAsynchrono
 
    protected boolean internalResume(Throwable exc)
    {
-      ResteasyProviderFactory.pushContextDataMap(contextDataMap);
+      Map<Class<?>, Object> previous = ResteasyProviderFactory.attachContextData(contextDataMap);
       try
       {
          dispatcher.asynchronousExceptionDelivery(request, response, exc);
@@ -198,6 +210,7 @@ public abstract class AbstractAsynchronousResponse implements ResteasyAsynchrono
       finally
       {
          completionCallbacks(exc);
+         ResteasyProviderFactory.restoreContextData(previous);
       }
       return true;
    }
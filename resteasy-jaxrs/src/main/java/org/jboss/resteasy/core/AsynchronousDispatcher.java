@@ -9,6 +9,7 @@ import org.jboss.resteasy.spi.InternalServerErrorException;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
 import org.jboss.resteasy.util.HttpHeaderNames;
 import org.jboss.resteasy.util.HttpResponseCodes;
+import org.jboss.resteasy.util.VirtualThreads;
 
 import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
@@ -65,6 +66,7 @@ public class AsynchronousDispatcher extends SynchronousDispatcher
 
    protected ExecutorService executor;
    private int threadPoolSize = 100;
+   private boolean useVirtualThreads;
    private Map<String, Future<MockHttpResponse>> jobs;
    private Cache cache;
    private String basePath = "/asynch/jobs";
@@ -119,6 +121,17 @@ public class AsynchronousDispatcher extends SynchronousDispatcher
       this.threadPoolSize = threadPoolSize;
    }
 
+   /**
+    * Run every job on a virtual thread of its own instead of the fixed thread pool.  The thread pool size is ignored
+    * then.  Falls back to the thread pool if the JVM does not support virtual threads.
+    *
+    * @param useVirtualThreads
+    */
+   public void setUseVirtualThreads(boolean useVirtualThreads)
+   {
+      this.useVirtualThreads = useVirtualThreads;
+   }
+
    /**
     * Plug in your own executor to process requests
     *
@@ -133,6 +146,7 @@ public class AsynchronousDispatcher extends SynchronousDispatcher
    {
       cache = new Cache(maxCacheSize);
       jobs = Collections.synchronizedMap(cache);
+      if (executor == null && useVirtualThreads) executor = VirtualThreads.newExecutor("resteasy-async-job-");
       if (executor == null) executor = Executors.newFixedThreadPool(threadPoolSize);
       registry.addSingletonResource(this, basePath);
    }
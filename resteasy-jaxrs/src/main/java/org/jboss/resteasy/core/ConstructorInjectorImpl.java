@@ -7,6 +7,7 @@ import org.jboss.resteasy.spi.Failure;
 import org.jboss.resteasy.spi.HttpRequest;
 import org.jboss.resteasy.spi.HttpResponse;
 import org.jboss.resteasy.spi.InternalServerErrorException;
+import org.jboss.resteasy.spi.InvocationStrategy;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
 import org.jboss.resteasy.spi.metadata.ConstructorParameter;
 import org.jboss.resteasy.spi.metadata.MethodParameter;
@@ -27,10 +28,12 @@ public class ConstructorInjectorImpl implements ConstructorInjector
 {
    protected Constructor constructor;
    protected ValueInjector[] params;
+   protected InvocationStrategy.ConstructorInvoker invoker;
 
    public ConstructorInjectorImpl(ResourceConstructor constructor, ResteasyProviderFactory factory)
    {
       this.constructor = constructor.getConstructor();
+      this.invoker = factory.getInjectorFactory().getInvocationStrategy().createConstructorInvoker(this.constructor);
       params = new ValueInjector[constructor.getParams().length];
       int i = 0;
       for (ConstructorParameter parameter : constructor.getParams())
@@ -44,6 +47,7 @@ public class ConstructorInjectorImpl implements ConstructorInjector
    public ConstructorInjectorImpl(Constructor constructor, ResteasyProviderFactory factory)
    {
       this.constructor = constructor;
+      this.invoker = factory.getInjectorFactory().getInvocationStrategy().createConstructorInvoker(constructor);
       params = new ValueInjector[constructor.getParameterTypes().length];
       for (int i = 0; i < constructor.getParameterTypes().length; i++)
       {
@@ -97,7 +101,7 @@ public class ConstructorInjectorImpl implements ConstructorInjector
       }
       try
       {
-         return constructor.newInstance(args);
+         return invoker.newInstance(args);
       }
       catch (InstantiationException e)
       {
@@ -147,7 +151,7 @@ public class ConstructorInjectorImpl implements ConstructorInjector
       args = injectableArguments();
       try
       {
-         return constructor.newInstance(args);
+         return invoker.newInstance(args);
       }
       catch (InstantiationException e)
       {
@@ -0,0 +1,240 @@
+package org.jboss.resteasy.core;
+
+import org.jboss.resteasy.plugins.server.servlet.Cleanables;
+import org.jboss.resteasy.specimpl.RequestImpl;
+import org.jboss.resteasy.spi.HttpRequest;
+import org.jboss.resteasy.spi.HttpResponse;
+import org.jboss.resteasy.spi.ResteasyAsynchronousContext;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+
+import javax.ws.rs.container.ResourceContext;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.UriInfo;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Context data of one request, as returned by {@link ResteasyProviderFactory#getContextDataMap()}.  The objects every
+ * request pushes live in fixed slots instead of hash entries, {@link Request}, {@link ResourceContext} and
+ * {@link Cleanables} are only created when somebody asks for them, and the dispatcher's default context objects are
+ * looked up in place rather than copied, except for those replacing a slot.  Anything else is kept in a map created on the first put.
+ * <p>
+ * The map is not thread safe.  Use {@link ResteasyProviderFactory#attachContextData(Map)} and
+ * {@link ResteasyProviderFactory#restoreContextData(Map)} to carry it over to another thread.
+ */
+public class ContextDataMap extends AbstractMap<Class<?>, Object>
+{
+   private static final Object REMOVED = new Object();
+
+   private static final int HTTP_REQUEST = 0;
+   private static final int HTTP_RESPONSE = 1;
+   private static final int HTTP_HEADERS = 2;
+   private static final int URI_INFO = 3;
+   private static final int ASYNC_CONTEXT = 4;
+   private static final int REQUEST = 5;
+   private static final int RESOURCE_CONTEXT = 6;
+   private static final int CLEANABLES = 7;
+   private static final int SLOTS = 8;
+
+   protected final Object[] slots = new Object[SLOTS];
+   protected ResteasyProviderFactory providerFactory;
+   protected Map<Class, Object> defaults;
+   protected Map<Class<?>, Object> extras;
+
+   private static int slot(Object key)
+   {
+      if (key == HttpRequest.class) return HTTP_REQUEST;
+      if (key == HttpResponse.class) return HTTP_RESPONSE;
+      if (key == HttpHeaders.class) return HTTP_HEADERS;
+      if (key == UriInfo.class) return URI_INFO;
+      if (key == ResteasyAsynchronousContext.class) return ASYNC_CONTEXT;
+      if (key == Request.class) return REQUEST;
+      if (key == ResourceContext.class) return RESOURCE_CONTEXT;
+      if (key == Cleanables.class) return CLEANABLES;
+      return -1;
+   }
+
+   /**
+    * Fill in the objects of a request being dispatched.  Entries put before that are kept.  The defaults take
+    * precedence over both, except for {@link Cleanables}, like when they were copied into the map after the request
+    * objects.
+    *
+    * @param providerFactory
+    * @param request
+    * @param response
+    * @param defaults dispatcher default context objects, not copied
+    */
+   public void pushRequest(ResteasyProviderFactory providerFactory, HttpRequest request, HttpResponse response, Map<Class, Object> defaults)
+   {
+      this.providerFactory = providerFactory;
+      this.defaults = defaults;
+      slots[HTTP_REQUEST] = request;
+      slots[HTTP_RESPONSE] = response;
+      slots[HTTP_HEADERS] = request.getHttpHeaders();
+      slots[URI_INFO] = request.getUri();
+      slots[ASYNC_CONTEXT] = request.getAsyncContext();
+      slots[REQUEST] = null;
+      slots[RESOURCE_CONTEXT] = null;
+      slots[CLEANABLES] = null;
+      if (defaults != null)
+      {
+         for (Map.Entry<Class, Object> entry : defaults.entrySet())
+         {
+            int slot = slot(entry.getKey());
+            if (slot > -1 && slot != CLEANABLES) slots[slot] = entry.getValue() == null ? REMOVED : entry.getValue();
+            else if (extras != null) extras.remove(entry.getKey());
+         }
+      }
+   }
+
+   /**
+    * @param create whether to create the request's Cleanables if nobody has asked for them yet
+    * @return
+    */
+   public Cleanables getCleanables(boolean create)
+   {
+      Object cleanables = slots[CLEANABLES];
+      if (cleanables == null && create) return (Cleanables) get(Cleanables.class);
+      return cleanables == REMOVED ? null : (Cleanables) cleanables;
+   }
+
+   @Override
+   public Object get(Object key)
+   {
+      int slot = slot(key);
+      if (slot > -1)
+      {
+         Object value = slots[slot];
+         if (value == null && providerFactory != null) value = slots[slot] = createLazy(slot);
+         return value == REMOVED ? null : value;
+      }
+      if (extras != null)
+      {
+         Object value = extras.get(key);
+         if (value != null) return value == REMOVED ? null : value;
+      }
+      return defaults == null ? null : defaults.get(key);
+   }
+
+   private Object createLazy(int slot)
+   {
+      final HttpRequest request = (HttpRequest) slots[HTTP_REQUEST];
+      final HttpResponse response = (HttpResponse) slots[HTTP_RESPONSE];
+      switch (slot)
+      {
+         case REQUEST:
+            return new RequestImpl(request, response);
+         case RESOURCE_CONTEXT:
+            final ResteasyProviderFactory factory = providerFactory;
+            return new ResourceContext()
+            {
+               @Override
+               public <T> T getResource(Class<T> resourceClass)
+               {
+                  return factory.injectedInstance(resourceClass, request, response);
+               }
+
+               @Override
+               public <T> T initResource(T resource)
+               {
+                  factory.injectProperties(resource, request, response);
+                  return resource;
+               }
+            };
+         case CLEANABLES:
+            return new Cleanables();
+         default:
+            return null;
+      }
+   }
+
+   @Override
+   public boolean containsKey(Object key)
+   {
+      return get(key) != null;
+   }
+
+   @Override
+   public Object put(Class<?> key, Object value)
+   {
+      if (value == null) value = REMOVED;
+      Object old;
+      int slot = slot(key);
+      if (slot > -1)
+      {
+         old = slots[slot];
+         slots[slot] = value;
+      }
+      else
+      {
+         if (extras == null) extras = new HashMap<Class<?>, Object>();
+         old = extras.put(key, value);
+      }
+      return old == REMOVED ? null : old;
+   }
+
+   @Override
+   public Object remove(Object key)
+   {
+      Object old = get(key);
+      int slot = slot(key);
+      if (slot > -1)
+      {
+         slots[slot] = REMOVED;
+      }
+      else if (defaults != null && defaults.containsKey(key))
+      {
+         put((Class<?>) key, null);
+      }
+      else if (extras != null)
+      {
+         extras.remove(key);
+      }
+      return old;
+   }
+
+   @Override
+   public void clear()
+   {
+      Arrays.fill(slots, null);
+      providerFactory = null;
+      defaults = null;
+      extras = null;
+   }
+
+   /**
+    * Snapshot of the current entries, creating the lazy ones.  Changes to the set are not written back.
+    *
+    * @return
+    */
+   @Override
+   public Set<Entry<Class<?>, Object>> entrySet()
+   {
+      Map<Class<?>, Object> copy = new HashMap<Class<?>, Object>();
+      if (defaults != null)
+      {
+         for (Entry<Class, Object> entry : defaults.entrySet()) copy.put(entry.getKey(), entry.getValue());
+      }
+      if (extras != null)
+      {
+         for (Entry<Class<?>, Object> entry : extras.entrySet())
+         {
+            if (entry.getValue() == REMOVED) copy.remove(entry.getKey());
+            else copy.put(entry.getKey(), entry.getValue());
+         }
+      }
+      Class<?>[] keys = {HttpRequest.class, HttpResponse.class, HttpHeaders.class, UriInfo.class,
+              ResteasyAsynchronousContext.class, Request.class, ResourceContext.class, Cleanables.class};
+      for (Class<?> key : keys)
+      {
+         Object value = get(key);
+         if (value != null) copy.put(key, value);
+      }
+      return Collections.unmodifiableMap(copy).entrySet();
+   }
+}
@@ -4,6 +4,7 @@ import org.jboss.resteasy.annotations.Form;
 import org.jboss.resteasy.annotations.Query;
 import org.jboss.resteasy.spi.ConstructorInjector;
 import org.jboss.resteasy.spi.InjectorFactory;
+import org.jboss.resteasy.spi.InvocationStrategy;
 import org.jboss.resteasy.spi.MethodInjector;
 import org.jboss.resteasy.spi.PropertyInjector;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
@@ -44,7 +45,23 @@ import static org.jboss.resteasy.util.FindAnnotation.findAnnotation;
 public class InjectorFactoryImpl implements InjectorFactory
 {
    private ConcurrentHashMap<Class<?>, Class<?>> contextProxyCache = new ConcurrentHashMap<Class<?>, Class<?>>();
+   private volatile InvocationStrategy invocationStrategy = new ReflectionInvocationStrategy();
 
+   @Override
+   public InvocationStrategy getInvocationStrategy()
+   {
+      return invocationStrategy;
+   }
+
+   /**
+    * Only affects injectors created afterwards, so set it before resources and providers are registered.
+    *
+    * @param invocationStrategy
+    */
+   public void setInvocationStrategy(InvocationStrategy invocationStrategy)
+   {
+      this.invocationStrategy = invocationStrategy;
+   }
 
    @Override
    public ConstructorInjector createConstructor(Constructor constructor, ResteasyProviderFactory providerFactory)
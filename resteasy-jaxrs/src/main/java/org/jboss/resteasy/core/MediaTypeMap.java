@@ -1,5 +1,6 @@
 package org.jboss.resteasy.core;
 
+import org.jboss.resteasy.util.BoundedCache;
 import org.jboss.resteasy.util.MediaTypeHelper;
 
 import javax.ws.rs.core.MediaType;
@@ -236,7 +237,8 @@ public class MediaTypeMap<T>
    private volatile List<Entry<T>> wildcards = new ArrayList<Entry<T>>();
    private volatile List<Entry<T>> all = new ArrayList<Entry<T>>();
    private volatile List<T> everything = new ArrayList<T>();
-   private Map<CachedMediaTypeAndClass, List<T>> classCache = new ConcurrentHashMap<CachedMediaTypeAndClass, List<T>>();
+   private volatile boolean cacheEnabled = true;
+   private final BoundedCache<CachedMediaTypeAndClass, List<T>> classCache = new BoundedCache<CachedMediaTypeAndClass, List<T>>(DEFAULT_CACHE_SIZE);
 
    public MediaTypeMap<T> clone()
    {
@@ -248,15 +250,58 @@ public class MediaTypeMap<T>
       clone.wildcards.addAll(wildcards);
       clone.all.addAll(all);
       clone.everything.addAll(everything);
-      // don't clone class cache
+      // don't clone class cache, only its settings
+      clone.cacheEnabled = cacheEnabled;
+      clone.classCache.setMaxSize(classCache.getMaxSize());
       return clone;
    }
 
+   /**
+    * Live view of the MediaType/Class cache
+    *
+    * @return
+    */
    public Map<CachedMediaTypeAndClass, List<T>> getClassCache()
+   {
+      return classCache.asMap();
+   }
+
+   /**
+    * MediaType/Class cache with its hit, miss and eviction counters
+    *
+    * @return
+    */
+   public BoundedCache<CachedMediaTypeAndClass, List<T>> getClassCacheStatistics()
    {
       return classCache;
    }
 
+   public boolean isCacheEnabled()
+   {
+      return cacheEnabled;
+   }
+
+   public void setCacheEnabled(boolean cacheEnabled)
+   {
+      this.cacheEnabled = cacheEnabled;
+      if (!cacheEnabled) classCache.clear();
+   }
+
+   /**
+    * Maximum number of MediaType/Class combinations cached.  Oldest entries are evicted first.
+    *
+    * @param cacheSize
+    */
+   public void setCacheSize(int cacheSize)
+   {
+      classCache.setMaxSize(cacheSize);
+   }
+
+   public int getCacheSize()
+   {
+      return classCache.getMaxSize();
+   }
+
 
 
    public static class CachedMediaTypeAndClass
@@ -264,16 +309,19 @@ public class MediaTypeMap<T>
       // we need a weak reference because of possible hot deployment
       // Although, these reference should get cleared up with any add() invocation
       private WeakReference<Class<?>> clazz;
-      private MediaType mediaType;
+      // only type and subtype are kept, parameters like charset or boundary don't change the match
+      private final String type;
+      private final String subtype;
       private final int hash;
 
       @SuppressWarnings({"rawtypes", "unchecked"})
       private CachedMediaTypeAndClass(Class clazz, MediaType mediaType)
       {
          this.clazz = new WeakReference(clazz);
-         this.mediaType = mediaType;
+         this.type = mediaType.getType();
+         this.subtype = mediaType.getSubtype();
          int result = getClazz().hashCode();
-         result = 31 * result + (mediaType.getType() != null ? mediaType.getType().hashCode() : 0) +  (mediaType.getSubtype() != null ? mediaType.getSubtype().hashCode() : 0);
+         result = 31 * result + (type != null ? type.hashCode() : 0) +  (subtype != null ? subtype.hashCode() : 0);
          hash = result;
       }
 
@@ -295,17 +343,17 @@ public class MediaTypeMap<T>
 
          if (!getClazz().equals(that.getClazz())) return false;
 
-         if (mediaType.getType() != null)
+         if (type != null)
          {
-            if (!mediaType.getType().equals(that.mediaType.getType())) return false;
+            if (!type.equals(that.type)) return false;
          }
-         else if ((mediaType.getType() != that.mediaType.getType())) return false;
+         else if ((type != that.type)) return false;
 
-         if (mediaType.getSubtype() != null)
+         if (subtype != null)
          {
-            if (!mediaType.getSubtype().equals(that.mediaType.getSubtype())) return false;
+            if (!subtype.equals(that.subtype)) return false;
          }
-         else if ((mediaType.getSubtype() != that.mediaType.getSubtype())) return false;
+         else if ((subtype != that.subtype)) return false;
 
          return true;
       }
@@ -318,7 +366,8 @@ public class MediaTypeMap<T>
    }
 
    /**
-    * Add an object to the media type map.  This is synchronized to serialize adds.
+    * Add an object to the media type map.  This is synchronized to serialize adds.  Lookups are not blocked, the
+    * class cache is cleared without a lock.
     *
     * @param type
     * @param obj
@@ -398,15 +447,23 @@ public class MediaTypeMap<T>
 
    /**
     * By default, MediaTypeMap will cache possible MediaType/Class matches.  Set this to false to turn off
-    * caching
+    * caching for every map in the JVM.
     *
+    * @deprecated use {@link #setCacheEnabled(boolean)} or ResteasyProviderFactory.setMediaTypeCacheEnabled()
     */
+   @Deprecated
    public static boolean useCache = true;
 
+   /**
+    * Default maximum number of cached MediaType/Class matches per map
+    */
+   public static final int DEFAULT_CACHE_SIZE = 1024;
+
    public List<T> getPossible(MediaType accept, Class<?> type)
    {
       List<T> cached = null;
       CachedMediaTypeAndClass cacheEntry = null;
+      boolean useCache = MediaTypeMap.useCache && cacheEnabled;
       if (useCache)
       {
          cacheEntry = new CachedMediaTypeAndClass(type, accept);
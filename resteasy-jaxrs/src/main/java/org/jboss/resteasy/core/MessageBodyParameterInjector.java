@@ -70,6 +70,7 @@ public class MessageBodyParameterInjector implements ValueInjector, JaxrsInterce
    private AccessibleObject target;
    private ReaderInterceptor[] interceptors;
    private boolean isMarshalledEntity;
+   private MessageBodyProviderCache<MessageBodyReader> readerCache = new MessageBodyProviderCache<MessageBodyReader>();
 
    public MessageBodyParameterInjector(Class declaringClass, AccessibleObject target, Class type, Type genericType, Annotation[] annotations, ResteasyProviderFactory factory)
    {
@@ -147,7 +148,7 @@ public class MessageBodyParameterInjector implements ValueInjector, JaxrsInterce
          }
          AbstractReaderInterceptorContext messageBodyReaderContext = new ServerReaderInterceptorContext(interceptors, factory, type,
                  genericType, annotations, mediaType, request
-                 .getHttpHeaders().getRequestHeaders(), is, request);
+                 .getHttpHeaders().getRequestHeaders(), is, request, readerCache);
          final Object obj = messageBodyReaderContext.proceed();
          if (isMarshalledEntity)
          {
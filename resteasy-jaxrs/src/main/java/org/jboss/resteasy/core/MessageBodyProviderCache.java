@@ -0,0 +1,135 @@
+package org.jboss.resteasy.core;
+
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.jboss.resteasy.util.BoundedCache;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Remembers the MessageBodyReader or MessageBodyWriter chosen for a resource method or body parameter whose generic
+ * type and annotations never change, so the provider is resolved once per entity class and media type instead of on
+ * every request.  Bindings are dropped as soon as readers or writers are registered with the provider factory
+ * they were resolved from.
+ * <p>
+ * Only media types without parameters are cached.  isReadable() and isWriteable() see the parameters, so a provider
+ * chosen for one charset or boundary may reject another one, and parameters like a multipart boundary would make
+ * nearly every request a new key.
+ */
+public class MessageBodyProviderCache<P>
+{
+   /**
+    * Bound on the number of bindings kept.  The media type usually comes from a request header, so it must not grow
+    * without limit.
+    */
+   public static final int DEFAULT_MAX_SIZE = 32;
+
+   protected final BoundedCache<Key, Binding<P>> bindings;
+
+   public MessageBodyProviderCache()
+   {
+      this(DEFAULT_MAX_SIZE);
+   }
+
+   public MessageBodyProviderCache(int maxSize)
+   {
+      bindings = new BoundedCache<Key, Binding<P>>(maxSize);
+   }
+
+   /**
+    * @param factory factory the provider is resolved from
+    * @param version value of {@link ResteasyProviderFactory#getMessageBodyProvidersVersion()} read before resolving
+    * @param type
+    * @param mediaType
+    * @return null if nothing is cached for this factory version or the media type has parameters
+    */
+   public P get(ResteasyProviderFactory factory, int version, Class<?> type, MediaType mediaType)
+   {
+      if (!isCacheable(mediaType)) return null;
+      Binding<P> binding = bindings.get(new Key(type, mediaType));
+      if (binding == null) return null;
+      if (binding.factory == factory && binding.version == version) return binding.provider;
+      bindings.clear();
+      return null;
+   }
+
+   public void put(ResteasyProviderFactory factory, int version, Class<?> type, MediaType mediaType, P provider)
+   {
+      if (!isCacheable(mediaType)) return;
+      bindings.put(new Key(type, mediaType), new Binding<P>(factory, version, provider));
+   }
+
+   protected static boolean isCacheable(MediaType mediaType)
+   {
+      return mediaType.getParameters().isEmpty();
+   }
+
+   public void clear()
+   {
+      bindings.clear();
+   }
+
+   public int size()
+   {
+      return bindings.size();
+   }
+
+   protected static class Binding<P>
+   {
+      private final ResteasyProviderFactory factory;
+      private final int version;
+      private final P provider;
+
+      protected Binding(ResteasyProviderFactory factory, int version, P provider)
+      {
+         this.factory = factory;
+         this.version = version;
+         this.provider = provider;
+      }
+   }
+
+   /**
+    * Media types without parameters, compared like {@link MediaType#equals(Object)} does, ignoring case, without
+    * building new strings on every lookup.
+    */
+   protected static class Key
+   {
+      private final Class<?> type;
+      private final String mediaType;
+      private final String mediaSubtype;
+      private final int hash;
+
+      protected Key(Class<?> type, MediaType mediaType)
+      {
+         this.type = type;
+         this.mediaType = mediaType.getType();
+         this.mediaSubtype = mediaType.getSubtype();
+         this.hash = 31 * (31 * type.hashCode() + hashIgnoreCase(this.mediaType)) + hashIgnoreCase(this.mediaSubtype);
+      }
+
+      private static int hashIgnoreCase(String s)
+      {
+         int h = 0;
+         for (int i = 0; i < s.length(); i++)
+         {
+            h = 31 * h + Character.toLowerCase(s.charAt(i));
+         }
+         return h;
+      }
+
+      @Override
+      public boolean equals(Object o)
+      {
+         if (this == o) return true;
+         if (!(o instanceof Key)) return false;
+         Key key = (Key) o;
+         return type == key.type && mediaType.equalsIgnoreCase(key.mediaType)
+                 && mediaSubtype.equalsIgnoreCase(key.mediaSubtype);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+   }
+}
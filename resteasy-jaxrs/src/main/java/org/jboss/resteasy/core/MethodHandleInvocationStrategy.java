@@ -0,0 +1,179 @@
+package org.jboss.resteasy.core;
+
+import org.jboss.resteasy.spi.InvocationStrategy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * {@link InvocationStrategy} that binds every member to a {@link MethodHandle} when the injector is created, so
+ * requests do not go through java.lang.reflect access checks and argument copying.  Arguments are checked up front
+ * so that a mismatch still surfaces as an IllegalArgumentException and anything thrown by the member itself as an
+ * InvocationTargetException.  Members that cannot be bound, e.g. because they are not accessible, are called through
+ * reflection.
+ */
+public class MethodHandleInvocationStrategy implements InvocationStrategy
+{
+   private static final MethodType METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+   private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+   private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+   protected final MethodHandles.Lookup lookup = MethodHandles.lookup();
+   protected final InvocationStrategy fallback = new ReflectionInvocationStrategy();
+
+   @Override
+   public MethodInvoker createMethodInvoker(Method method)
+   {
+      if (Modifier.isStatic(method.getModifiers())) return fallback.createMethodInvoker(method);
+      final Class<?>[] parameterTypes = method.getParameterTypes();
+      final Class<?> declaringClass = method.getDeclaringClass();
+      final MethodHandle handle;
+      try
+      {
+         handle = lookup.unreflect(method).asSpreader(Object[].class, parameterTypes.length).asType(METHOD_TYPE);
+      }
+      catch (IllegalAccessException e)
+      {
+         return fallback.createMethodInvoker(method);
+      }
+      return new MethodInvoker()
+      {
+         @Override
+         public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException
+         {
+            if (!declaringClass.isInstance(target)) throw new IllegalArgumentException("object is not an instance of declaring class");
+            checkArguments(parameterTypes, args);
+            try
+            {
+               return (Object) handle.invokeExact(target, args);
+            }
+            catch (Throwable t)
+            {
+               throw new InvocationTargetException(t);
+            }
+         }
+      };
+   }
+
+   @Override
+   public ConstructorInvoker createConstructorInvoker(Constructor constructor)
+   {
+      if (Modifier.isAbstract(constructor.getDeclaringClass().getModifiers()))
+      {
+         return fallback.createConstructorInvoker(constructor);
+      }
+      final Class<?>[] parameterTypes = constructor.getParameterTypes();
+      final MethodHandle handle;
+      try
+      {
+         handle = lookup.unreflectConstructor(constructor).asSpreader(Object[].class, parameterTypes.length).asType(CONSTRUCTOR_TYPE);
+      }
+      catch (IllegalAccessException e)
+      {
+         return fallback.createConstructorInvoker(constructor);
+      }
+      return new ConstructorInvoker()
+      {
+         @Override
+         public Object newInstance(Object[] args) throws InstantiationException, IllegalAccessException, InvocationTargetException
+         {
+            checkArguments(parameterTypes, args);
+            try
+            {
+               return (Object) handle.invokeExact(args);
+            }
+            catch (Throwable t)
+            {
+               throw new InvocationTargetException(t);
+            }
+         }
+      };
+   }
+
+   @Override
+   public FieldSetter createFieldSetter(Field field)
+   {
+      if (Modifier.isStatic(field.getModifiers())) return fallback.createFieldSetter(field);
+      final Class<?> type = field.getType();
+      final Class<?> declaringClass = field.getDeclaringClass();
+      final MethodHandle handle;
+      try
+      {
+         handle = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+      }
+      catch (IllegalAccessException e)
+      {
+         return fallback.createFieldSetter(field);
+      }
+      return new FieldSetter()
+      {
+         @Override
+         public void set(Object target, Object value) throws IllegalAccessException
+         {
+            if (!declaringClass.isInstance(target)) throw new IllegalArgumentException("object is not an instance of declaring class");
+            if (!isAssignable(type, value)) throw new IllegalArgumentException("argument type mismatch");
+            try
+            {
+               handle.invokeExact(target, value);
+            }
+            catch (RuntimeException e)
+            {
+               throw e;
+            }
+            catch (Error e)
+            {
+               throw e;
+            }
+            catch (Throwable t)
+            {
+               throw new RuntimeException(t);
+            }
+         }
+      };
+   }
+
+   protected static void checkArguments(Class<?>[] parameterTypes, Object[] args)
+   {
+      int length = args == null ? 0 : args.length;
+      if (length != parameterTypes.length) throw new IllegalArgumentException("wrong number of arguments");
+      for (int i = 0; i < length; i++)
+      {
+         if (!isAssignable(parameterTypes[i], args[i])) throw new IllegalArgumentException("argument type mismatch");
+      }
+   }
+
+   /**
+    * Same rules as java.lang.reflect: unboxing followed by a widening primitive conversion for primitive types.
+    */
+   protected static boolean isAssignable(Class<?> type, Object value)
+   {
+      if (!type.isPrimitive()) return value == null || type.isInstance(value);
+      if (value == null) return false;
+      Class<?> source = value.getClass();
+      if (type == boolean.class) return source == Boolean.class;
+      if (type == char.class) return source == Character.class;
+      int from = rank(source);
+      if (from == 0) return false;
+      if (source == Character.class) return rank(type) >= rank(int.class);
+      if (type == short.class) return source == Short.class || source == Byte.class;
+      return from <= rank(type);
+   }
+
+   private static int rank(Class<?> type)
+   {
+      if (type == byte.class || type == Byte.class) return 1;
+      if (type == short.class || type == Short.class) return 2;
+      if (type == char.class || type == Character.class) return 2;
+      if (type == int.class || type == Integer.class) return 3;
+      if (type == long.class || type == Long.class) return 4;
+      if (type == float.class || type == Float.class) return 5;
+      if (type == double.class || type == Double.class) return 6;
+      return 0;
+   }
+}
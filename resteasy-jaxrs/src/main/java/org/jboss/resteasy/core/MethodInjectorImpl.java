@@ -8,6 +8,7 @@ import org.jboss.resteasy.spi.Failure;
 import org.jboss.resteasy.spi.HttpRequest;
 import org.jboss.resteasy.spi.HttpResponse;
 import org.jboss.resteasy.spi.InternalServerErrorException;
+import org.jboss.resteasy.spi.InvocationStrategy;
 import org.jboss.resteasy.spi.MethodInjector;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
 import org.jboss.resteasy.spi.metadata.MethodParameter;
@@ -30,6 +31,8 @@ public class MethodInjectorImpl implements MethodInjector
    protected ResteasyProviderFactory factory;
    protected ResourceLocator method;
    protected Method interfaceBasedMethod;
+   protected InvocationStrategy.MethodInvoker invoker;
+   protected InvocationStrategy.MethodInvoker interfaceBasedInvoker;
    protected boolean expectsBody;
 
    public MethodInjectorImpl(ResourceLocator resourceMethod, ResteasyProviderFactory factory)
@@ -37,6 +40,9 @@ public class MethodInjectorImpl implements MethodInjector
       this.factory = factory;
       this.method = resourceMethod;
       this.interfaceBasedMethod = findInterfaceBasedMethod(resourceMethod.getResourceClass().getClazz(), resourceMethod.getMethod());
+      InvocationStrategy strategy = factory.getInjectorFactory().getInvocationStrategy();
+      this.invoker = strategy.createMethodInvoker(resourceMethod.getMethod());
+      this.interfaceBasedInvoker = interfaceBasedMethod.equals(resourceMethod.getMethod()) ? invoker : strategy.createMethodInvoker(interfaceBasedMethod);
       params = new ValueInjector[resourceMethod.getParams().length];
       int i = 0;
       for (MethodParameter parameter : resourceMethod.getParams())
@@ -119,8 +125,8 @@ public class MethodInjectorImpl implements MethodInjector
          validator.validateAllParameters(request, resource, method.getMethod(), args);
       }
 
-      Method invokedMethod = method.getMethod();
-      if (!invokedMethod.getDeclaringClass().isAssignableFrom(resource.getClass()))
+      InvocationStrategy.MethodInvoker invokedMethod = invoker;
+      if (!method.getMethod().getDeclaringClass().isAssignableFrom(resource.getClass()))
       {
          // invokedMethod is for when the target object might be a proxy and
          // resteasy is getting the bean class to introspect.
@@ -131,7 +137,7 @@ public class MethodInjectorImpl implements MethodInjector
          //     @GET String get() {...}
          // }
          //
-         invokedMethod = interfaceBasedMethod;
+         invokedMethod = interfaceBasedInvoker;
       }
 
       Object result = null;
@@ -6,6 +6,7 @@ import org.jboss.resteasy.spi.Failure;
 import org.jboss.resteasy.spi.HttpRequest;
 import org.jboss.resteasy.spi.HttpResponse;
 import org.jboss.resteasy.spi.InternalServerErrorException;
+import org.jboss.resteasy.spi.InvocationStrategy;
 import org.jboss.resteasy.spi.PropertyInjector;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
 import org.jboss.resteasy.util.FindAnnotation;
@@ -21,7 +22,6 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
@@ -31,18 +31,34 @@ public class PropertyInjectorImpl implements PropertyInjector
 {
    protected HashMap<Field, ValueInjector> fieldMap = new HashMap<Field, ValueInjector>();
 
+   private static class FieldSetter
+   {
+      private FieldSetter(InvocationStrategy.FieldSetter setter, ValueInjector extractor)
+      {
+         this.setter = setter;
+         this.extractor = extractor;
+      }
+
+      public InvocationStrategy.FieldSetter setter;
+      public ValueInjector extractor;
+   }
+
    private static class SetterMethod
    {
-      private SetterMethod(Method method, ValueInjector extractor)
+      private SetterMethod(Method method, ValueInjector extractor, InvocationStrategy.MethodInvoker invoker)
       {
          this.method = method;
          this.extractor = extractor;
+         this.invoker = invoker;
       }
 
       public Method method;
       public ValueInjector extractor;
+      public InvocationStrategy.MethodInvoker invoker;
    }
 
+   protected List<FieldSetter> fieldSetters = new ArrayList<FieldSetter>();
+
    protected List<SetterMethod> setters = new ArrayList<SetterMethod>();
    protected HashMap<Long, Method> setterhashes = new HashMap<Long, Method>();
    protected Class<?> clazz;
@@ -56,6 +72,7 @@ public class PropertyInjectorImpl implements PropertyInjector
 
    protected void populateMap(Class<?> clazz, ResteasyProviderFactory factory)
    {
+      InvocationStrategy strategy = factory.getInjectorFactory().getInvocationStrategy();
       for (Field field : clazz.getDeclaredFields())
       {
          Annotation[] annotations = field.getAnnotations();
@@ -68,6 +85,7 @@ public class PropertyInjectorImpl implements PropertyInjector
          {
             if (!Modifier.isPublic(field.getModifiers())) field.setAccessible(true);
             fieldMap.put(field, extractor);
+            fieldSetters.add(new FieldSetter(strategy.createFieldSetter(field), extractor));
          }
       }
       for (Method method : clazz.getDeclaredMethods())
@@ -100,7 +118,7 @@ public class PropertyInjectorImpl implements PropertyInjector
             }
 
             if (!Modifier.isPublic(method.getModifiers())) method.setAccessible(true);
-            setters.add(new SetterMethod(method, extractor));
+            setters.add(new SetterMethod(method, extractor, strategy.createMethodInvoker(method)));
             setterhashes.put(hash, method);
          }
 
@@ -122,11 +140,11 @@ public class PropertyInjectorImpl implements PropertyInjector
 
    public void inject(HttpRequest request, HttpResponse response, Object target) throws Failure
    {
-      for (Map.Entry<Field, ValueInjector> entry : fieldMap.entrySet())
+      for (FieldSetter field : fieldSetters)
       {
          try
          {
-            entry.getKey().set(target, entry.getValue().inject(request, response));
+            field.setter.set(target, field.extractor.inject(request, response));
          }
          catch (IllegalAccessException e)
          {
@@ -137,7 +155,7 @@ public class PropertyInjectorImpl implements PropertyInjector
       {
          try
          {
-            setter.method.invoke(target, setter.extractor.inject(request, response));
+            setter.invoker.invoke(target, new Object[]{setter.extractor.inject(request, response)});
          }
          catch (IllegalAccessException e)
          {
@@ -152,11 +170,11 @@ public class PropertyInjectorImpl implements PropertyInjector
 
    public void inject(Object target)
    {
-      for (Map.Entry<Field, ValueInjector> entry : fieldMap.entrySet())
+      for (FieldSetter field : fieldSetters)
       {
          try
          {
-            entry.getKey().set(target, entry.getValue().inject());
+            field.setter.set(target, field.extractor.inject());
          }
          catch (IllegalAccessException e)
          {
@@ -167,7 +185,7 @@ public class PropertyInjectorImpl implements PropertyInjector
       {
          try
          {
-            setter.method.invoke(target, setter.extractor.inject());
+            setter.invoker.invoke(target, new Object[]{setter.extractor.inject()});
          }
          catch (IllegalAccessException e)
          {
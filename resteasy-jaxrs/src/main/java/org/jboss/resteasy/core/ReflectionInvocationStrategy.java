@@ -0,0 +1,53 @@
+package org.jboss.resteasy.core;
+
+import org.jboss.resteasy.spi.InvocationStrategy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Default {@link InvocationStrategy}, plain java.lang.reflect calls.
+ */
+public class ReflectionInvocationStrategy implements InvocationStrategy
+{
+   @Override
+   public MethodInvoker createMethodInvoker(final Method method)
+   {
+      return new MethodInvoker()
+      {
+         @Override
+         public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException
+         {
+            return method.invoke(target, args);
+         }
+      };
+   }
+
+   @Override
+   public ConstructorInvoker createConstructorInvoker(final Constructor constructor)
+   {
+      return new ConstructorInvoker()
+      {
+         @Override
+         public Object newInstance(Object[] args) throws InstantiationException, IllegalAccessException, InvocationTargetException
+         {
+            return constructor.newInstance(args);
+         }
+      };
+   }
+
+   @Override
+   public FieldSetter createFieldSetter(final Field field)
+   {
+      return new FieldSetter()
+      {
+         @Override
+         public void set(Object target, Object value) throws IllegalAccessException
+         {
+            field.set(target, value);
+         }
+      };
+   }
+}
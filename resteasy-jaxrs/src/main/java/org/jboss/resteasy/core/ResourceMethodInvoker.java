@@ -1,5 +1,6 @@
 package org.jboss.resteasy.core;
 
+import org.jboss.resteasy.annotations.NonBlocking;
 import org.jboss.resteasy.core.interception.JaxrsInterceptorRegistry;
 import org.jboss.resteasy.core.interception.JaxrsInterceptorRegistryListener;
 import org.jboss.resteasy.core.interception.PostMatchContainerRequestContext;
@@ -29,12 +30,14 @@ import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.WriterInterceptor;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -58,13 +61,14 @@ public class ResourceMethodInvoker implements ResourceInvoker, JaxrsInterceptorR
    protected ContainerResponseFilter[] responseFilters;
    protected WriterInterceptor[] writerInterceptors;
    protected ConcurrentHashMap<String, AtomicLong> stats = new ConcurrentHashMap<String, AtomicLong>();
+   protected MessageBodyProviderCache<MessageBodyWriter> writerCache = new MessageBodyProviderCache<MessageBodyWriter>();
    protected GeneralValidator validator;
    protected boolean isValidatable;
    protected boolean methodIsValidatable;
    protected ResourceInfo resourceInfo;
 
    protected boolean expectsBody;
-
+   protected boolean nonBlocking;
 
 
    public ResourceMethodInvoker(ResourceMethod method, InjectorFactory injector, ResourceFactory resource, ResteasyProviderFactory providerFactory)
@@ -101,6 +105,8 @@ public class ResourceMethodInvoker implements ResourceInvoker, JaxrsInterceptorR
       // hack for when message contentType == null
       // and @Consumes is on the class
       expectsBody = this.methodInjector.expectsBody();
+      nonBlocking = method.getAnnotatedMethod().isAnnotationPresent(NonBlocking.class)
+              || method.getResourceClass().getClazz().isAnnotationPresent(NonBlocking.class);
 
       requestFilters = resourceMethodProviderFactory.getContainerRequestFilterRegistry().postMatch(method.getResourceClass().getClazz(), method.getAnnotatedMethod());
       responseFilters = resourceMethodProviderFactory.getContainerResponseFilterRegistry().postMatch(method.getResourceClass().getClazz(), method.getAnnotatedMethod());
@@ -188,6 +194,14 @@ public class ResourceMethodInvoker implements ResourceInvoker, JaxrsInterceptorR
       return stats;
    }
 
+   /**
+    * @return whether the method or its resource class is annotated with {@link NonBlocking}
+    */
+   public boolean isNonBlocking()
+   {
+      return nonBlocking;
+   }
+
 
 
    public ContainerRequestFilter[] getRequestFilters()
@@ -220,6 +234,39 @@ public class ResourceMethodInvoker implements ResourceInvoker, JaxrsInterceptorR
       return methodAnnotations;
    }
 
+   /**
+    * Find the writer for an entity returned by this method.  If the generic type and annotations are the ones this
+    * method always produces, the writer chosen is cached per entity class and media type.
+    *
+    * @param providerFactory
+    * @param type
+    * @param genericType
+    * @param annotations
+    * @param mediaType
+    * @return null if there is no writer
+    */
+   public MessageBodyWriter getMessageBodyWriter(ResteasyProviderFactory providerFactory, Class type, Type genericType, Annotation[] annotations, MediaType mediaType)
+   {
+      if (mediaType == null || !isStaticBinding(type, genericType, annotations))
+      {
+         return providerFactory.getMessageBodyWriter(type, genericType, annotations, mediaType);
+      }
+      int version = providerFactory.getMessageBodyProvidersVersion();
+      MessageBodyWriter writer = writerCache.get(providerFactory, version, type, mediaType);
+      if (writer == null)
+      {
+         writer = providerFactory.getMessageBodyWriter(type, genericType, annotations, mediaType);
+         if (writer != null) writerCache.put(providerFactory, version, type, mediaType, writer);
+      }
+      return writer;
+   }
+
+   protected boolean isStaticBinding(Class type, Type genericType, Annotation[] annotations)
+   {
+      if (genericType != type && genericType != method.getGenericReturnType()) return false;
+      return Arrays.equals(annotations, methodAnnotations);
+   }
+
 
 
    @Override
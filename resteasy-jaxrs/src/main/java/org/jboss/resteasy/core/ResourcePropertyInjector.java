@@ -6,6 +6,7 @@ import org.jboss.resteasy.spi.Failure;
 import org.jboss.resteasy.spi.HttpRequest;
 import org.jboss.resteasy.spi.HttpResponse;
 import org.jboss.resteasy.spi.InternalServerErrorException;
+import org.jboss.resteasy.spi.InvocationStrategy;
 import org.jboss.resteasy.spi.PropertyInjector;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
 import org.jboss.resteasy.spi.metadata.FieldParameter;
@@ -36,11 +37,13 @@ public class ResourcePropertyInjector implements PropertyInjector
    {
       public FieldParameter param;
       public ValueInjector injector;
+      public InvocationStrategy.FieldSetter setter;
 
-      private FieldInjector(FieldParameter param, ValueInjector injector)
+      private FieldInjector(FieldParameter param, ValueInjector injector, InvocationStrategy.FieldSetter setter)
       {
          this.param = param;
          this.injector = injector;
+         this.setter = setter;
       }
    }
 
@@ -48,11 +51,13 @@ public class ResourcePropertyInjector implements PropertyInjector
    {
       public SetterParameter param;
       public ValueInjector injector;
+      public InvocationStrategy.MethodInvoker invoker;
 
-      private SetterInjector(SetterParameter param, ValueInjector injector)
+      private SetterInjector(SetterParameter param, ValueInjector injector, InvocationStrategy.MethodInvoker invoker)
       {
          this.param = param;
          this.injector = injector;
+         this.invoker = invoker;
       }
    }
 
@@ -66,18 +71,19 @@ public class ResourcePropertyInjector implements PropertyInjector
    {
       this.resourceClass = resourceClass;
       this.factory = factory;
+      InvocationStrategy strategy = factory.getInjectorFactory().getInvocationStrategy();
 
       for (FieldParameter param : resourceClass.getFields())
       {
          ValueInjector injector = factory.getInjectorFactory().createParameterExtractor(param, factory);
          if (injector == null) continue;
-         fields.add(new FieldInjector(param, injector));
+         fields.add(new FieldInjector(param, injector, strategy.createFieldSetter(param.getField())));
       }
       for (SetterParameter param : resourceClass.getSetters())
       {
          ValueInjector injector = factory.getInjectorFactory().createParameterExtractor(param, factory);
          if (injector == null) continue;
-         setters.add(new SetterInjector(param, injector));
+         setters.add(new SetterInjector(param, injector, strategy.createMethodInvoker(param.getSetter())));
       }
    }
 
@@ -87,7 +93,7 @@ public class ResourcePropertyInjector implements PropertyInjector
       {
          try
          {
-            injector.param.getField().set(target, injector.injector.inject(request, response));
+            injector.setter.set(target, injector.injector.inject(request, response));
          }
          catch (IllegalAccessException e)
          {
@@ -99,7 +105,7 @@ public class ResourcePropertyInjector implements PropertyInjector
       {
          try
          {
-            injector.param.getSetter().invoke(target, injector.injector.inject(request, response));
+            injector.invoker.invoke(target, new Object[]{injector.injector.inject(request, response)});
          }
          catch (IllegalAccessException e)
          {
@@ -119,7 +125,7 @@ public class ResourcePropertyInjector implements PropertyInjector
       {
          try
          {
-            injector.param.getField().set(target, injector.injector.inject());
+            injector.setter.set(target, injector.injector.inject());
          }
          catch (IllegalAccessException e)
          {
@@ -131,7 +137,7 @@ public class ResourcePropertyInjector implements PropertyInjector
       {
          try
          {
-            injector.param.getSetter().invoke(target, injector.injector.inject());
+            injector.invoker.invoke(target, new Object[]{injector.injector.inject()});
          }
          catch (IllegalAccessException e)
          {
@@ -58,30 +58,19 @@ public class ServerResponseWriter
       Object ent = jaxrsResponse.getEntity();
       Type generic = jaxrsResponse.getGenericType();
       Annotation[] annotations = jaxrsResponse.getAnnotations();
+      MediaType mediaType = jaxrsResponse.getMediaType();
       @SuppressWarnings(value = "unchecked")
-      MessageBodyWriter writer = providerFactory.getMessageBodyWriter(
-              type, generic, annotations, jaxrsResponse.getMediaType());
+      MessageBodyWriter writer = method != null
+              ? method.getMessageBodyWriter(providerFactory, type, generic, annotations, mediaType)
+              : providerFactory.getMessageBodyWriter(type, generic, annotations, mediaType);
 
       if (writer == null)
       {
-         throw new NoMessageBodyWriterFoundFailure(type, jaxrsResponse.getMediaType());
+         throw new NoMessageBodyWriterFoundFailure(type, mediaType);
       }
 
       response.setStatus(jaxrsResponse.getStatus());
-      final BuiltResponse built = jaxrsResponse;
-      CommitHeaderOutputStream.CommitCallback callback = new CommitHeaderOutputStream.CommitCallback()
-      {
-         private boolean committed;
-
-         @Override
-         public void commit()
-         {
-            if (committed) return;
-            committed = true;
-            commitHeaders(built, response);
-         }
-      };
-      OutputStream os = new CommitHeaderOutputStream(response.getOutputStream(), callback);
+      HeaderCommittingOutputStream os = new HeaderCommittingOutputStream(response.getOutputStream(), jaxrsResponse, response);
 
       WriterInterceptor[] writerInterceptors = null;
       if (method != null)
@@ -93,11 +82,44 @@ public class ServerResponseWriter
          writerInterceptors = providerFactory.getServerWriterInterceptorRegistry().postMatch(null, null);
       }
 
-      AbstractWriterInterceptorContext writerContext =  new ServerWriterInterceptorContext(writerInterceptors,
-              providerFactory, ent, type, generic, annotations, jaxrsResponse.getMediaType(),
-              jaxrsResponse.getMetadata(), os, request);
-      writerContext.proceed();
-      callback.commit(); // just in case the output stream is never used
+      if (writerInterceptors == null || writerInterceptors.length == 0)
+      {
+         // nothing can change the entity, type or media type, so there is no need for an interceptor context
+         writer.writeTo(ent, type, generic, annotations, mediaType, jaxrsResponse.getMetadata(), os);
+      }
+      else
+      {
+         AbstractWriterInterceptorContext writerContext =  new ServerWriterInterceptorContext(writerInterceptors,
+                 providerFactory, ent, type, generic, annotations, mediaType,
+                 jaxrsResponse.getMetadata(), os, request, writer);
+         writerContext.proceed();
+      }
+      os.commit(); // just in case the output stream is never used
+   }
+
+   /**
+    * Commits the response headers right before the first byte of the entity is written, so message body writers and
+    * writer interceptors can still change them.  Acts as its own commit callback.
+    */
+   private static class HeaderCommittingOutputStream extends CommitHeaderOutputStream
+   {
+      private final BuiltResponse jaxrsResponse;
+      private final HttpResponse response;
+
+      HeaderCommittingOutputStream(OutputStream delegate, BuiltResponse jaxrsResponse, HttpResponse response)
+      {
+         this.delegate = delegate;
+         this.jaxrsResponse = jaxrsResponse;
+         this.response = response;
+      }
+
+      @Override
+      public void commit()
+      {
+         if (isHeadersCommitted) return;
+         isHeadersCommitted = true;
+         commitHeaders(jaxrsResponse, response);
+      }
    }
 
    private static void executeFilters(BuiltResponse jaxrsResponse, HttpRequest request, HttpResponse response, ResteasyProviderFactory providerFactory, ResourceMethodInvoker method) throws IOException
@@ -113,7 +135,7 @@ public class ServerResponseWriter
          responseFilters = providerFactory.getContainerResponseFilterRegistry().postMatch(null, null);
       }
 
-      if (responseFilters != null)
+      if (responseFilters != null && responseFilters.length > 0)
       {
          ResponseContainerRequestContext requestContext = new ResponseContainerRequestContext(request);
          ContainerResponseContextImpl responseContext = new ContainerResponseContextImpl(request, response, jaxrsResponse);
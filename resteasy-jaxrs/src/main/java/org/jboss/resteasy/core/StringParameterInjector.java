@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.UUID;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
@@ -52,6 +53,8 @@ public class StringParameterInjector
    protected ParamConverter paramConverter;
    protected StringParameterUnmarshaller unmarshaller;
    protected RuntimeDelegate.HeaderDelegate delegate;
+   protected FastConverter fastConverter;
+   protected List<String> defaultValues;
 
    public StringParameterInjector()
    {
@@ -108,6 +111,23 @@ public class StringParameterInjector
             baseGenericType = null;
          }
       }
+      if (defaultValue != null) defaultValues = Collections.singletonList(defaultValue);
+      resolveConverter(annotations, factory);
+      if (paramConverter == null && unmarshaller == null && delegate == null)
+      {
+         fastConverter = FastConverter.forType(baseType, valueOf);
+      }
+   }
+
+   /**
+    * Pick the ParamConverter, StringParameterUnmarshaller, HeaderDelegate, String constructor or static valueOf/fromString
+    * method used to convert the base type.
+    *
+    * @param annotations
+    * @param factory
+    */
+   protected void resolveConverter(Annotation[] annotations, ResteasyProviderFactory factory)
+   {
       if (!baseType.isPrimitive())
       {
          paramConverter = factory.getParamConverter(baseType, baseGenericType, annotations);
@@ -230,8 +250,7 @@ public class StringParameterInjector
    {
       if (values == null && (type.isArray() || isCollection) && defaultValue != null)
       {
-         values = new ArrayList<String>(1);
-         values.add(defaultValue);
+         values = defaultValues != null ? defaultValues : Collections.singletonList(defaultValue);
       }
       else if (values == null)
       {
@@ -247,15 +266,7 @@ public class StringParameterInjector
       else if (isCollection)
       {
          if (values == null) return null;
-         Collection collection = null;
-         try
-         {
-            collection = collectionType.newInstance();
-         }
-         catch (Exception e)
-         {
-            throw new RuntimeException(e);
-         }
+         Collection collection = newCollection(values.size());
          for (String str : values)
          {
             collection.add(extractValue(str));
@@ -286,6 +297,17 @@ public class StringParameterInjector
             //System.out.println("DEFAULT VAULUE: " + strVal);
          }
       }
+      if (fastConverter != null)
+      {
+         try
+         {
+            return fastConverter.fromString(baseType, strVal);
+         }
+         catch (RuntimeException e)
+         {
+            throwProcessingException(Messages.MESSAGES.unableToExtractParameter(getParamSignature(), strVal, target), e);
+         }
+      }
       try
       {
          if (baseType.isPrimitive()) return StringToPrimitive.stringToPrimitiveBoxType(baseType, strVal);
@@ -353,8 +375,165 @@ public class StringParameterInjector
       return null;
    }
 
+   protected Collection newCollection(int size)
+   {
+      if (collectionType == ArrayList.class) return new ArrayList(size);
+      if (collectionType == HashSet.class) return new HashSet();
+      if (collectionType == TreeSet.class) return new TreeSet();
+      try
+      {
+         return collectionType.newInstance();
+      }
+      catch (Exception e)
+      {
+         throw new RuntimeException(e);
+      }
+   }
+
    protected void throwProcessingException(String message, Throwable cause)
    {
       throw new BadRequestException(message, cause);
    }
+
+   /**
+    * Conversions of the most common parameter types done without reflection.  Only used when no ParamConverter,
+    * StringParameterUnmarshaller or HeaderDelegate is registered for the type, so the result is the same as going
+    * through the String constructor or static valueOf/fromString method.  Primitives treat a missing value like
+    * {@link StringToPrimitive} does.
+    */
+   protected enum FastConverter
+   {
+      STRING
+      {
+         Object fromString(Class type, String value)
+         {
+            return value;
+         }
+      },
+      BOOLEAN
+      {
+         Object fromString(Class type, String value)
+         {
+            return value == null ? Boolean.FALSE : Boolean.valueOf(value);
+         }
+      },
+      BYTE
+      {
+         Object fromString(Class type, String value)
+         {
+            return Byte.valueOf(value == null ? "0" : value);
+         }
+      },
+      SHORT
+      {
+         Object fromString(Class type, String value)
+         {
+            return Short.valueOf(value == null ? "0" : value);
+         }
+      },
+      INT
+      {
+         Object fromString(Class type, String value)
+         {
+            return value == null ? Integer.valueOf(0) : Integer.valueOf(Integer.parseInt(value));
+         }
+      },
+      LONG
+      {
+         Object fromString(Class type, String value)
+         {
+            return value == null ? Long.valueOf(0) : Long.valueOf(Long.parseLong(value));
+         }
+      },
+      FLOAT
+      {
+         Object fromString(Class type, String value)
+         {
+            return Float.valueOf(value == null ? "0" : value);
+         }
+      },
+      DOUBLE
+      {
+         Object fromString(Class type, String value)
+         {
+            return Double.valueOf(value == null ? "0" : value);
+         }
+      },
+      BOOLEAN_OBJECT
+      {
+         Object fromString(Class type, String value)
+         {
+            return Boolean.valueOf(value);
+         }
+      },
+      INTEGER_OBJECT
+      {
+         Object fromString(Class type, String value)
+         {
+            return Integer.valueOf(value);
+         }
+      },
+      LONG_OBJECT
+      {
+         Object fromString(Class type, String value)
+         {
+            return Long.valueOf(value);
+         }
+      },
+      DOUBLE_OBJECT
+      {
+         Object fromString(Class type, String value)
+         {
+            return Double.valueOf(value);
+         }
+      },
+      UUID_OBJECT
+      {
+         Object fromString(Class type, String value)
+         {
+            return UUID.fromString(value);
+         }
+      },
+      ENUM
+      {
+         Object fromString(Class type, String value)
+         {
+            return Enum.valueOf(type, value);
+         }
+      };
+
+      abstract Object fromString(Class type, String value);
+
+      /**
+       * @param type base type of the parameter
+       * @param valueOf static method picked for the type, if any
+       * @return null if the type has to be converted the regular way
+       */
+      static FastConverter forType(Class type, Method valueOf)
+      {
+         if (type.isPrimitive())
+         {
+            if (type == boolean.class) return BOOLEAN;
+            if (type == byte.class) return BYTE;
+            if (type == short.class) return SHORT;
+            if (type == int.class) return INT;
+            if (type == long.class) return LONG;
+            if (type == float.class) return FLOAT;
+            if (type == double.class) return DOUBLE;
+            return null;
+         }
+         if (type == String.class) return STRING;
+         if (type == Boolean.class) return BOOLEAN_OBJECT;
+         if (type == Integer.class) return INTEGER_OBJECT;
+         if (type == Long.class) return LONG_OBJECT;
+         if (type == Double.class) return DOUBLE_OBJECT;
+         if (type == UUID.class) return UUID_OBJECT;
+         // only the compiler generated valueOf, enums with a fromString method keep using it
+         if (type.isEnum() && valueOf != null && valueOf.getDeclaringClass() == type && valueOf.getName().equals("valueOf"))
+         {
+            return ENUM;
+         }
+         return null;
+      }
+   }
 }
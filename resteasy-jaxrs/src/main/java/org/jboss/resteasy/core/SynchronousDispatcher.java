@@ -253,6 +253,44 @@ public class SynchronousDispatcher implements Dispatcher
 
    }
 
+   /**
+    * First half of {@link #invoke(HttpRequest, HttpResponse)} for containers that choose the thread a resource method
+    * runs on.  Pushes the context objects, runs the pre-matching filters and matches the request.  If an invoker is
+    * returned, the context data of the request is left in place, and the request is completed by
+    * {@link #invoke(HttpRequest, HttpResponse, ResourceInvoker)} followed by {@link #clearContextData()}, possibly on
+    * another thread the context data has been attached to with {@link ResteasyProviderFactory#attachContextData(Map)}.
+    * Otherwise the request has been answered already and the context data is cleared.
+    *
+    * @param request
+    * @param response
+    * @return null if the request has been answered
+    */
+   public ResourceInvoker route(HttpRequest request, HttpResponse response)
+   {
+      boolean routed = false;
+      try
+      {
+         pushContextObjects(request, response);
+         if (!preprocess(request, response)) return null;
+         ResourceInvoker invoker = null;
+         try
+         {
+            invoker = getInvoker(request);
+         }
+         catch (Exception exception)
+         {
+            writeException(request, response, exception);
+            return null;
+         }
+         routed = true;
+         return invoker;
+      }
+      finally
+      {
+         if (!routed) clearContextData();
+      }
+   }
+
    public ResourceInvoker getInvoker(HttpRequest request)
            throws Failure
    {
@@ -272,6 +310,11 @@ public class SynchronousDispatcher implements Dispatcher
    public void pushContextObjects(final HttpRequest request, final HttpResponse response)
    {
       Map contextDataMap = ResteasyProviderFactory.getContextDataMap();
+      if (contextDataMap instanceof ContextDataMap)
+      {
+         ((ContextDataMap) contextDataMap).pushRequest(providerFactory, request, response, defaultContextObjects);
+         return;
+      }
       contextDataMap.put(HttpRequest.class, request);
       contextDataMap.put(HttpResponse.class, response);
       contextDataMap.put(HttpHeaders.class, request.getHttpHeaders());
@@ -332,7 +375,10 @@ public class SynchronousDispatcher implements Dispatcher
 
    public void clearContextData()
    {
-	  Cleanables cleanables = ResteasyProviderFactory.getContextData(Cleanables.class);
+	  Map<Class<?>, Object> contextDataMap = ResteasyProviderFactory.getContextDataMap();
+	  Cleanables cleanables = contextDataMap instanceof ContextDataMap
+	        ? ((ContextDataMap) contextDataMap).getCleanables(false)
+	        : (Cleanables) contextDataMap.get(Cleanables.class);
 	  if (cleanables != null)
 	  {
 		  for (Iterator<Cleanable> it = cleanables.getCleanables().iterator(); it.hasNext(); )
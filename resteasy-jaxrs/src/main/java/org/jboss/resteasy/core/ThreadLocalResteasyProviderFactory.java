@@ -133,6 +133,36 @@ public class ThreadLocalResteasyProviderFactory extends ResteasyProviderFactory
       return getDelegate().isBuiltinsRegistered();
    }
 
+   @Override
+   public boolean isMediaTypeCacheEnabled()
+   {
+      return getDelegate().isMediaTypeCacheEnabled();
+   }
+
+   @Override
+   public void setMediaTypeCacheEnabled(boolean mediaTypeCacheEnabled)
+   {
+      getDelegate().setMediaTypeCacheEnabled(mediaTypeCacheEnabled);
+   }
+
+   @Override
+   public int getMediaTypeCacheSize()
+   {
+      return getDelegate().getMediaTypeCacheSize();
+   }
+
+   @Override
+   public void setMediaTypeCacheSize(int mediaTypeCacheSize)
+   {
+      getDelegate().setMediaTypeCacheSize(mediaTypeCacheSize);
+   }
+
+   @Override
+   public int getMessageBodyProvidersVersion()
+   {
+      return getDelegate().getMessageBodyProvidersVersion();
+   }
+
    @Override
    public Set<Class<?>> getFeatureClasses()
    {
@@ -24,6 +24,7 @@ import java.util.Map;
 public class ClientWriterInterceptorContext extends AbstractWriterInterceptorContext
 {
    protected Map<String, Object> properties;
+   protected boolean headersCommitted;
 
    public ClientWriterInterceptorContext(WriterInterceptor[] interceptors, ResteasyProviderFactory providerFactory,
                                          Object entity, Class type, Type genericType, Annotation[] annotations,
@@ -34,6 +35,20 @@ public class ClientWriterInterceptorContext extends AbstractWriterInterceptorCon
       this.properties = properties;
    }
 
+   /**
+    * @return true if the client engine sends the request headers before the body is written, changes interceptors
+    *         and writers make to the headers are not sent then.
+    */
+   public boolean isHeadersCommitted()
+   {
+      return headersCommitted;
+   }
+
+   public void setHeadersCommitted(boolean headersCommitted)
+   {
+      this.headersCommitted = headersCommitted;
+   }
+
    @Override
    void throwWriterNotFoundException()
    {
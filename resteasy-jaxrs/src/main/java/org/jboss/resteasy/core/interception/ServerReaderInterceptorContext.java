@@ -1,5 +1,6 @@
 package org.jboss.resteasy.core.interception;
 
+import org.jboss.resteasy.core.MessageBodyProviderCache;
 import org.jboss.resteasy.resteasy_jaxrs.i18n.Messages;
 import org.jboss.resteasy.spi.HttpRequest;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
@@ -27,6 +28,10 @@ import java.util.Enumeration;
 public class ServerReaderInterceptorContext extends AbstractReaderInterceptorContext
 {
    private HttpRequest request;
+   private MessageBodyProviderCache<MessageBodyReader> readerCache;
+   private Class readerType;
+   private Type readerGenericType;
+   private Annotation[] readerAnnotations;
 
    public ServerReaderInterceptorContext(ReaderInterceptor[] interceptors, ResteasyProviderFactory providerFactory, Class type,
                                          Type genericType, Annotation[] annotations, MediaType mediaType,
@@ -37,9 +42,36 @@ public class ServerReaderInterceptorContext extends AbstractReaderInterceptorCon
       this.request = request;
    }
 
+   /**
+    * @param readerCache readers already resolved for type, genericType and annotations.  It is only used if no
+    *                    interceptor changes any of them.
+    */
+   public ServerReaderInterceptorContext(ReaderInterceptor[] interceptors, ResteasyProviderFactory providerFactory, Class type,
+                                         Type genericType, Annotation[] annotations, MediaType mediaType,
+                                         MultivaluedMap<String, String> headers, InputStream inputStream,
+                                         HttpRequest request, MessageBodyProviderCache<MessageBodyReader> readerCache)
+   {
+      this(interceptors, providerFactory, type, genericType, annotations, mediaType, headers, inputStream, request);
+      this.readerCache = readerCache;
+      this.readerType = type;
+      this.readerGenericType = genericType;
+      this.readerAnnotations = annotations;
+   }
+
    @Override
    protected MessageBodyReader resolveReader(MediaType mediaType)
    {
+      if (readerCache != null && type == readerType && genericType == readerGenericType && annotations == readerAnnotations)
+      {
+         int version = providerFactory.getMessageBodyProvidersVersion();
+         MessageBodyReader reader = readerCache.get(providerFactory, version, type, mediaType);
+         if (reader == null)
+         {
+            reader = providerFactory.getServerMessageBodyReader(type, genericType, annotations, mediaType);
+            if (reader != null) readerCache.put(providerFactory, version, type, mediaType, reader);
+         }
+         return reader;
+      }
       @SuppressWarnings(value = "unchecked")
       MessageBodyReader reader =  providerFactory.getServerMessageBodyReader(type,
               genericType, annotations, mediaType);
@@ -23,6 +23,11 @@ import java.util.Enumeration;
 public class ServerWriterInterceptorContext extends AbstractWriterInterceptorContext
 {
    private HttpRequest request;
+   private MessageBodyWriter writer;
+   private Class writerType;
+   private Type writerGenericType;
+   private Annotation[] writerAnnotations;
+   private MediaType writerMediaType;
 
    public ServerWriterInterceptorContext(WriterInterceptor[] interceptors, ResteasyProviderFactory providerFactory,
                                          Object entity, Class type, Type genericType, Annotation[] annotations,
@@ -34,10 +39,33 @@ public class ServerWriterInterceptorContext extends AbstractWriterInterceptorCon
       this.request = request;
    }
 
+   /**
+    * @param writer writer already resolved for type, genericType, annotations and mediaType.  It is only used if no
+    *               interceptor changes any of them.
+    */
+   public ServerWriterInterceptorContext(WriterInterceptor[] interceptors, ResteasyProviderFactory providerFactory,
+                                         Object entity, Class type, Type genericType, Annotation[] annotations,
+                                         MediaType mediaType, MultivaluedMap<String, Object> headers,
+                                         OutputStream outputStream,
+                                         HttpRequest request, MessageBodyWriter writer)
+   {
+      this(interceptors, providerFactory, entity, type, genericType, annotations, mediaType, headers, outputStream, request);
+      this.writer = writer;
+      this.writerType = type;
+      this.writerGenericType = genericType;
+      this.writerAnnotations = annotations;
+      this.writerMediaType = mediaType;
+   }
+
    @SuppressWarnings(value = "unchecked")
    @Override
    protected MessageBodyWriter resolveWriter()
    {
+      if (writer != null && type == writerType && genericType == writerGenericType
+              && annotations == writerAnnotations && mediaType == writerMediaType)
+      {
+         return writer;
+      }
       return providerFactory.getServerMessageBodyWriter(
               type, genericType, annotations, mediaType);
 
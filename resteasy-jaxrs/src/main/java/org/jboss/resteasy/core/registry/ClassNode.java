@@ -24,8 +24,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.regex.MatchResult;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
@@ -49,26 +48,31 @@ public class ClassNode
       List<ClassExpression> potentials = new ArrayList<ClassExpression>();
       potentials(path, start, potentials);
       Collections.sort(potentials);
+      return match(potentials, request, path, start);
+   }
 
-      for (ClassExpression expression : potentials)
+   /**
+    * Match against candidate expressions that are already sorted, i.e. taken from a {@link FrozenNode} snapshot.
+    *
+    * @param potentials sorted candidates, not modified
+    * @param request
+    * @param path matching path of the request
+    * @param start index the expressions are matched from
+    * @return
+    */
+   public RootNode match(List<ClassExpression> potentials, HttpRequest request, String path, int start)
+   {
+      for (int i = 0; i < potentials.size(); i++)
       {
-         Pattern pattern = expression.getPattern();
-         Matcher matcher = pattern.matcher(path);
-         matcher.region(start, path.length());
+         ClassExpression expression = potentials.get(i);
+         MatchResult matcher = expression.match(path, start);
 
-         if (matcher.matches())
+         if (matcher != null)
          {
             ResteasyUriInfo uriInfo = request.getUri();
             int length = matcher.start(expression.getNumGroups() + 1);
-            if (length == -1)
-            {
-               uriInfo.pushMatchedURI(path);
-            }
-            else
-            {
-               String substring = path.substring(0, length);
-               uriInfo.pushMatchedURI(substring);
-            }
+            if (length == -1) length = path.length();
+            uriInfo.pushMatchedURI(path, length);
             return expression.getRoot();
          }
       }
@@ -102,4 +106,22 @@ public class ClassNode
          matches.add(exp);
       }
    }
+
+   /**
+    * Build an immutable, presorted copy of this node and its children.
+    *
+    * @param inherited expressions of the ancestors, deepest first
+    * @return
+    */
+   protected FrozenNode<ClassExpression> freeze(List<ClassExpression> inherited)
+   {
+      List<ClassExpression> candidates = new ArrayList<ClassExpression>(targets);
+      candidates.addAll(inherited);
+      Map<String, FrozenNode<ClassExpression>> frozenChildren = new HashMap<String, FrozenNode<ClassExpression>>();
+      for (Map.Entry<String, ClassNode> entry : children.entrySet())
+      {
+         frozenChildren.put(entry.getKey(), entry.getValue().freeze(candidates));
+      }
+      return new FrozenNode<ClassExpression>(frozenChildren, candidates, candidates);
+   }
 }
@@ -0,0 +1,195 @@
+package org.jboss.resteasy.core.registry;
+
+import java.util.List;
+import java.util.regex.MatchResult;
+
+/**
+ * Regex-free matcher for path expressions made only of literal text and default <code>{param}</code> captures.
+ * It reproduces the semantics of the regular expression built by {@link Expression}, i.e. quoted literals
+ * separated by greedy <code>([^/]+)</code> groups, optionally followed by the <code>(.*)</code> or
+ * <code>(/.+)?</code> group used for locators, without going through {@link java.util.regex.Pattern}.
+ */
+public class CompiledTemplate
+{
+   public static final int NO_SUFFIX = 0;
+   public static final int ANY_SUFFIX = 1;
+   public static final int SUBPATH_SUFFIX = 2;
+
+   protected final String[] literals;
+   protected final int suffix;
+   protected final int groupCount;
+
+   public CompiledTemplate(String[] literals, int suffix)
+   {
+      this.literals = literals;
+      this.suffix = suffix;
+      this.groupCount = literals.length - 1 + (suffix == NO_SUFFIX ? 0 : 1);
+   }
+
+   /**
+    * Compile an expression if it can be matched without a regular expression.
+    *
+    * @param literals literal text surrounding each capture, one more entry than there are captures
+    * @param numNonDefaultGroups number of captures with a custom regular expression
+    * @param additionalRegex regex appended to the expression, may be null
+    * @return null if the expression requires a regular expression
+    */
+   public static CompiledTemplate compile(List<String> literals, int numNonDefaultGroups, String additionalRegex)
+   {
+      if (numNonDefaultGroups > 0) return null;
+      int suffix;
+      if (additionalRegex == null) suffix = NO_SUFFIX;
+      else if ("(.*)".equals(additionalRegex)) suffix = ANY_SUFFIX;
+      else if ("(/.+)?".equals(additionalRegex)) suffix = SUBPATH_SUFFIX;
+      else return null;
+      return new CompiledTemplate(literals.toArray(new String[literals.size()]), suffix);
+   }
+
+   public int getGroupCount()
+   {
+      return groupCount;
+   }
+
+   /**
+    * Equivalent of <code>matcher.region(start, path.length()).matches()</code>.
+    *
+    * @param path
+    * @param start
+    * @return null if the path does not match
+    */
+   public MatchResult match(String path, int start)
+   {
+      String first = literals[0];
+      if (!path.startsWith(first, start)) return null;
+      int[] offsets = new int[(groupCount + 1) * 2];
+      if (!matchCapture(path, 0, start + first.length(), offsets)) return null;
+      offsets[0] = start;
+      offsets[1] = path.length();
+      return new Result(path, offsets, groupCount);
+   }
+
+   private boolean matchCapture(String path, int capture, int pos, int[] offsets)
+   {
+      if (capture == literals.length - 1) return matchSuffix(path, capture + 1, pos, offsets);
+
+      // [^/]+ is greedy, so try the longest run first and backtrack until the following literal matches
+      int limit = pos;
+      while (limit < path.length() && path.charAt(limit) != '/') limit++;
+      String literal = literals[capture + 1];
+      for (int stop = limit; stop > pos; stop--)
+      {
+         if (path.startsWith(literal, stop) && matchCapture(path, capture + 1, stop + literal.length(), offsets))
+         {
+            offsets[(capture + 1) * 2] = pos;
+            offsets[(capture + 1) * 2 + 1] = stop;
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private boolean matchSuffix(String path, int group, int pos, int[] offsets)
+   {
+      int end = path.length();
+      switch (suffix)
+      {
+         case ANY_SUFFIX:
+            if (hasLineTerminator(path, pos, end)) return false;
+            offsets[group * 2] = pos;
+            offsets[group * 2 + 1] = end;
+            return true;
+         case SUBPATH_SUFFIX:
+            if (pos == end)
+            {
+               offsets[group * 2] = -1;
+               offsets[group * 2 + 1] = -1;
+               return true;
+            }
+            if (path.charAt(pos) != '/' || pos + 1 == end || hasLineTerminator(path, pos + 1, end)) return false;
+            offsets[group * 2] = pos;
+            offsets[group * 2 + 1] = end;
+            return true;
+         default:
+            return pos == end;
+      }
+   }
+
+   /**
+    * '.' in a regular expression does not match line terminators unless DOTALL is set
+    */
+   private static boolean hasLineTerminator(String path, int start, int end)
+   {
+      for (int i = start; i < end; i++)
+      {
+         char c = path.charAt(i);
+         if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') return true;
+      }
+      return false;
+   }
+
+   protected static class Result implements MatchResult
+   {
+      private final String path;
+      private final int[] offsets;
+      private final int groupCount;
+
+      protected Result(String path, int[] offsets, int groupCount)
+      {
+         this.path = path;
+         this.offsets = offsets;
+         this.groupCount = groupCount;
+      }
+
+      private void checkGroup(int group)
+      {
+         if (group < 0 || group > groupCount) throw new IndexOutOfBoundsException("No group " + group);
+      }
+
+      @Override
+      public int start()
+      {
+         return offsets[0];
+      }
+
+      @Override
+      public int start(int group)
+      {
+         checkGroup(group);
+         return offsets[group * 2];
+      }
+
+      @Override
+      public int end()
+      {
+         return offsets[1];
+      }
+
+      @Override
+      public int end(int group)
+      {
+         checkGroup(group);
+         return offsets[group * 2 + 1];
+      }
+
+      @Override
+      public String group()
+      {
+         return path.substring(offsets[0], offsets[1]);
+      }
+
+      @Override
+      public String group(int group)
+      {
+         checkGroup(group);
+         int start = offsets[group * 2];
+         if (start == -1) return null;
+         return path.substring(start, offsets[group * 2 + 1]);
+      }
+
+      @Override
+      public int groupCount()
+      {
+         return groupCount;
+      }
+   }
+}
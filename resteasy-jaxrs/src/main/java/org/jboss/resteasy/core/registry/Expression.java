@@ -4,6 +4,7 @@ import org.jboss.resteasy.util.PathHelper;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,6 +19,7 @@ public abstract class Expression implements Comparable<Expression>
    protected String pathExpression;
    protected String regex;
    protected Pattern pattern;
+   protected CompiledTemplate template;
    protected List<Group> groups = new ArrayList<Group>();
    protected int literalCharacters;
    protected int numCapturingGroups;
@@ -33,6 +35,8 @@ public abstract class Expression implements Comparable<Expression>
       Matcher withPathParam = PathHelper.URI_PARAM_PATTERN.matcher(replacedCurlySegment);
       int i = 0;
       StringBuffer buffer = new StringBuffer();
+      List<String> literals = new ArrayList<String>();
+      literals.add(i < split.length ? split[i] : "");
       if (i < split.length) buffer.append(Pattern.quote(split[i++]));
       int groupNumber = 1;
 
@@ -55,11 +59,30 @@ public abstract class Expression implements Comparable<Expression>
             groupNumber += groupCount(expr);
          }
          buffer.append(")");
+         literals.add(i < split.length ? split[i] : "");
          if (i < split.length) buffer.append(Pattern.quote(split[i++]));
       }
       if (additionalRegex != null) buffer.append(additionalRegex);
       regex = buffer.toString();
       pattern = Pattern.compile(getRegex());
+      template = CompiledTemplate.compile(literals, numNonDefaultGroups, additionalRegex);
+   }
+
+   /**
+    * Match the path from start to its end.  Expressions made only of literals and default {param} captures are
+    * matched by their compiled template, the regex is only used when a capture has a custom pattern.
+    *
+    * @param path
+    * @param start
+    * @return null if the expression does not match
+    */
+   public MatchResult match(String path, int start)
+   {
+      if (template != null) return template.match(path, start);
+      Matcher matcher = pattern.matcher(path);
+      matcher.region(start, path.length());
+      if (!matcher.matches()) return null;
+      return matcher;
    }
 
    public int compareTo(Expression expression)
@@ -123,6 +146,11 @@ public abstract class Expression implements Comparable<Expression>
       return pattern;
    }
 
+   public CompiledTemplate getTemplate()
+   {
+      return template;
+   }
+
    protected static class Group
    {
       int group;
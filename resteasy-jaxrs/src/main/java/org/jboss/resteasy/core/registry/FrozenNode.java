@@ -0,0 +1,62 @@
+package org.jboss.resteasy.core.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-ranked copy of a {@link SegmentNode} or {@link ClassNode} tree.  For every literal segment node
+ * the candidate expressions (its own targets plus the template targets of its ancestors) are sorted once when the
+ * snapshot is built, so matching a request only walks the literal segments and iterates a presorted list.
+ */
+public class FrozenNode<T extends Expression>
+{
+   protected final Map<String, FrozenNode<T>> children;
+   protected final List<T> exhausted;
+   protected final List<T> partial;
+
+   /**
+    * @param children frozen child nodes keyed by literal segment
+    * @param exhausted candidates when the path ends at this node
+    * @param partial candidates when the path continues past this node and no child matches the next segment
+    */
+   public FrozenNode(Map<String, FrozenNode<T>> children, List<T> exhausted, List<T> partial)
+   {
+      this.children = children;
+      this.exhausted = sort(exhausted);
+      this.partial = exhausted == partial ? this.exhausted : sort(partial);
+   }
+
+   private static <T extends Expression> List<T> sort(List<T> list)
+   {
+      ArrayList<T> sorted = new ArrayList<T>(list);
+      Collections.sort(sorted);
+      sorted.trimToSize();
+      return Collections.unmodifiableList(sorted);
+   }
+
+   /**
+    * Sorted candidate expressions for the path from start.  The list must not be modified.
+    *
+    * @param path
+    * @param start
+    * @return
+    */
+   public List<T> candidates(String path, int start)
+   {
+      FrozenNode<T> node = this;
+      while (start != path.length())
+      {
+         if (start > path.length()) return node.partial;
+         int endOfSegmentIndex = path.indexOf('/', start);
+         String simpleSegment = endOfSegmentIndex > -1 ? path.substring(start, endOfSegmentIndex) : path.substring(start);
+         FrozenNode<T> child = node.children.get(simpleSegment);
+         if (child == null) return node.partial;
+         node = child;
+         start += simpleSegment.length();
+         if (endOfSegmentIndex > -1) start++; // go past '/'
+      }
+      return node.exhausted;
+   }
+}
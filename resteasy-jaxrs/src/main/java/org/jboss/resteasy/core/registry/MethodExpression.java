@@ -11,8 +11,7 @@ import org.jboss.resteasy.util.PathHelper;
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.core.PathSegment;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.regex.MatchResult;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
@@ -47,7 +46,7 @@ public class MethodExpression extends Expression
       this.invoker = invoker;
    }
 
-   public void populatePathParams(HttpRequest request, Matcher matcher, String path)
+   public void populatePathParams(HttpRequest request, MatchResult matcher, String path)
    {
       ResteasyUriInfo uriInfo = (ResteasyUriInfo) request.getUri();
       for (Group group : groups)
@@ -7,6 +7,7 @@ import org.jboss.resteasy.spi.HttpRequest;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +20,8 @@ public class RootClassNode
 {
    protected ClassNode root = new ClassNode("");
    protected Map<String, ClassExpression> bounded = new HashMap<String, org.jboss.resteasy.core.registry.ClassExpression>();
+   protected volatile FrozenNode<ClassExpression> snapshot;
+
    public int getSize()
    {
       int size = 0;
@@ -45,10 +48,37 @@ public class RootClassNode
 
    public ResourceInvoker match(HttpRequest request, int start)
    {
-      return root.match(request, start).match(request, start);
+      String path = request.getUri().getMatchingPath();
+      int classStart = start;
+      if (classStart < path.length() && path.charAt(classStart) == '/') classStart++;
+      return root.match(getSnapshot().candidates(path, classStart), request, path, classStart).match(request, start);
+   }
+
+   /**
+    * Immutable, presorted view of the registered class expressions.  It is built on first use after a mutation,
+    * requests that are already matching keep working against the previous snapshot.
+    *
+    * @return
+    */
+   public FrozenNode<ClassExpression> getSnapshot()
+   {
+      FrozenNode<ClassExpression> current = snapshot;
+      if (current == null)
+      {
+         synchronized (this)
+         {
+            current = snapshot;
+            if (current == null)
+            {
+               current = root.freeze(Collections.<ClassExpression>emptyList());
+               snapshot = current;
+            }
+         }
+      }
+      return current;
    }
 
-   public void removeBinding(String classExpression, String path, Method method)
+   public synchronized void removeBinding(String classExpression, String path, Method method)
    {
       if (classExpression.startsWith("/")) classExpression = classExpression.substring(1);
       if (classExpression.endsWith("/")) classExpression = classExpression.substring(0, classExpression.length() - 1);
@@ -60,10 +90,11 @@ public class RootClassNode
       {
          ce.getParent().targets.remove(ce);
          bounded.remove(regex);
+         snapshot = null;
       }
    }
 
-   public void addInvoker(String classExpression, String fullpath, ResourceInvoker invoker)
+   public synchronized void addInvoker(String classExpression, String fullpath, ResourceInvoker invoker)
    {
       if (classExpression.startsWith("/")) classExpression = classExpression.substring(1);
       if (classExpression.endsWith("/")) classExpression = classExpression.substring(0, classExpression.length() - 1);
@@ -75,6 +106,7 @@ public class RootClassNode
          newce.getRoot().addInvoker(fullpath, invoker);
          addExpression(classExpression, newce);
          bounded.put(regex, newce);
+         snapshot = null;
       }
       else
       {
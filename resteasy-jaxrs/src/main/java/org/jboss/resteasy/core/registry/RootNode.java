@@ -7,6 +7,7 @@ import org.jboss.resteasy.spi.HttpRequest;
 import javax.ws.rs.core.MultivaluedHashMap;
 import javax.ws.rs.core.MultivaluedMap;
 import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +20,7 @@ public class RootNode
    protected SegmentNode root = new SegmentNode("");
    protected int size = 0;
    protected MultivaluedMap<String, MethodExpression> bounded = new MultivaluedHashMap<String, MethodExpression>();
+   protected volatile FrozenNode<MethodExpression> snapshot;
 
    public int getSize()
    {
@@ -40,10 +42,36 @@ public class RootNode
 
    public ResourceInvoker match(HttpRequest request, int start)
    {
-      return root.match(request, start);
+      String path = request.getUri().getMatchingPath();
+      if (start < path.length() && path.charAt(start) == '/') start++;
+      return root.match(getSnapshot().candidates(path, start), request, path, start);
    }
 
-   public void removeBinding(String path, Method method)
+   /**
+    * Immutable, presorted view of the registered expressions.  It is built on first use after a mutation, requests
+    * that are already matching keep working against the previous snapshot.
+    *
+    * @return
+    */
+   public FrozenNode<MethodExpression> getSnapshot()
+   {
+      FrozenNode<MethodExpression> current = snapshot;
+      if (current == null)
+      {
+         synchronized (this)
+         {
+            current = snapshot;
+            if (current == null)
+            {
+               current = root.freeze(Collections.<MethodExpression>emptyList());
+               snapshot = current;
+            }
+         }
+      }
+      return current;
+   }
+
+   public synchronized void removeBinding(String path, Method method)
    {
       List<MethodExpression> expressions = bounded.get(path);
       if (expressions == null) return;
@@ -53,6 +81,7 @@ public class RootNode
          if (invoker.getMethod().equals(method))
          {
             expression.parent.targets.remove(expression);
+            snapshot = null;
             expressions.remove(expression);
             if (expressions.size() == 0) bounded.remove(path);
             size--;
@@ -65,11 +94,12 @@ public class RootNode
       }
    }
 
-   public void addInvoker(String path, ResourceInvoker invoker)
+   public synchronized void addInvoker(String path, ResourceInvoker invoker)
    {
       MethodExpression expression = addExpression(path, invoker);
       size++;
       bounded.add(path, expression);
+      snapshot = null;
    }
    protected MethodExpression addExpression(String path, ResourceInvoker invoker)
    {
@@ -29,8 +29,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.regex.MatchResult;
 
 /**
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
@@ -58,9 +57,9 @@ public class SegmentNode
    protected static class Match
    {
       MethodExpression expression;
-      Matcher matcher;
+      MatchResult matcher;
 
-      public Match(MethodExpression expression, Matcher matcher)
+      public Match(MethodExpression expression, MatchResult matcher)
       {
          this.expression = expression;
          this.matcher = matcher;
@@ -74,19 +73,31 @@ public class SegmentNode
       List<MethodExpression> potentials = new ArrayList<MethodExpression>();
       potentials(path, start, potentials);
       Collections.sort(potentials);
+      return match(potentials, request, path, start);
+   }
 
+   /**
+    * Match against candidate expressions that are already sorted, i.e. taken from a {@link FrozenNode} snapshot.
+    *
+    * @param potentials sorted candidates, not modified
+    * @param request
+    * @param path matching path of the request
+    * @param start index the expressions are matched from
+    * @return
+    */
+   public ResourceInvoker match(List<MethodExpression> potentials, HttpRequest request, String path, int start)
+   {
       boolean expressionMatched = false;
       List<Match> matches = new ArrayList<Match>();
-      for (MethodExpression expression : potentials)
+      for (int i = 0; i < potentials.size(); i++)
       {
+         MethodExpression expression = potentials.get(i);
          // We ignore locators if the first match was a resource method as per the spec Section 3, Step 2(h)
          if (expressionMatched && expression.isLocator()) continue;
 
-         Pattern pattern = expression.getPattern();
-         Matcher matcher = pattern.matcher(path);
-         matcher.region(start, path.length());
+         MatchResult matcher = expression.match(path, start);
 
-         if (matcher.matches())
+         if (matcher != null)
          {
             expressionMatched = true;
             ResourceInvoker invoker = expression.getInvoker();
@@ -94,17 +105,9 @@ public class SegmentNode
             {
                ResteasyUriInfo uriInfo = (ResteasyUriInfo) request.getUri();
                int length = matcher.start(expression.getNumGroups() + 1);
-               if (length == -1)
-               {
-                  uriInfo.pushMatchedPath(path);
-                  uriInfo.pushMatchedURI(path);
-               }
-               else
-               {
-                  String substring = path.substring(0, length);
-                  uriInfo.pushMatchedPath(substring);
-                  uriInfo.pushMatchedURI(substring);
-               }
+               if (length == -1) length = path.length();
+               uriInfo.pushMatchedPath(path, length);
+               uriInfo.pushMatchedURI(path, length);
                expression.populatePathParams(request, matcher, path);
                return invoker;
             }
@@ -149,13 +152,42 @@ public class SegmentNode
       for (MethodExpression exp : targets)
       {
          // skip any static matches as they will not match anyways
-         if (exp.getNumGroups() > 0 || exp.getInvoker() instanceof ResourceLocatorInvoker)
+         if (isTemplate(exp))
          {
             matches.add(exp);
          }
       }
    }
 
+   protected static boolean isTemplate(MethodExpression exp)
+   {
+      return exp.getNumGroups() > 0 || exp.getInvoker() instanceof ResourceLocatorInvoker;
+   }
+
+   /**
+    * Build an immutable, presorted copy of this node and its children.
+    *
+    * @param inherited template expressions of the ancestors, deepest first
+    * @return
+    */
+   protected FrozenNode<MethodExpression> freeze(List<MethodExpression> inherited)
+   {
+      List<MethodExpression> exhausted = new ArrayList<MethodExpression>(targets);
+      exhausted.addAll(inherited);
+      List<MethodExpression> partial = new ArrayList<MethodExpression>();
+      for (MethodExpression exp : targets)
+      {
+         if (isTemplate(exp)) partial.add(exp);
+      }
+      partial.addAll(inherited);
+      Map<String, FrozenNode<MethodExpression>> frozenChildren = new HashMap<String, FrozenNode<MethodExpression>>();
+      for (Map.Entry<String, SegmentNode> entry : children.entrySet())
+      {
+         frozenChildren.put(entry.getKey(), entry.getValue().freeze(partial));
+      }
+      return new FrozenNode<MethodExpression>(frozenChildren, exhausted, partial);
+   }
+
    public static class SortFactor
    {
       public float q = 1.0f;
@@ -1,61 +1,259 @@
-package org.jboss.resteasy.plugins.interceptors.encoding;
-
-import javax.annotation.Priority;
-import javax.ws.rs.Priorities;
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.HttpHeaders;
-import javax.ws.rs.ext.Provider;
-import javax.ws.rs.ext.ReaderInterceptor;
-import javax.ws.rs.ext.ReaderInterceptorContext;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.zip.GZIPInputStream;
-
-/**
- * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
- * @version $Revision: 1 $
- */
-@Provider
-@Priority(Priorities.ENTITY_CODER)
-public class GZIPDecodingInterceptor implements ReaderInterceptor
-{
-  public static class FinishableGZIPInputStream extends GZIPInputStream
-   {
-      public FinishableGZIPInputStream(final InputStream is) throws IOException
-      {
-         super(is);
-      }
-
-      public void finish()
-      {
-         inf.end(); // make sure on finish the inflater's end() is called to release the native code pointer
-      }
-   }
-
-   @Override
-   public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException
-   {
-      Object encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
-
-      if (encoding != null && encoding.toString().equalsIgnoreCase("gzip"))
-      {
-         InputStream old = context.getInputStream();
-         FinishableGZIPInputStream is = new FinishableGZIPInputStream(old);
-         context.setInputStream(is);
-         try
-         {
-            return context.proceed();
-         }
-         finally
-         {
-            // Don't finish() an InputStream - TODO this still will require a garbage collect to finish the stream
-            // see RESTEASY-554 for more details
-            if (!context.getType().equals(InputStream.class)) is.finish();
-            context.setInputStream(old);
-         }
-      }
-      else
-      {
-         return context.proceed();
-      }
-   }}
+package org.jboss.resteasy.plugins.interceptors.encoding;
+
+import org.jboss.resteasy.resteasy_jaxrs.i18n.Messages;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
+ * @version $Revision: 1 $
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class GZIPDecodingInterceptor implements ReaderInterceptor
+{
+   /**
+    * gzip stream that borrows its inflater from the {@link ZlibPool} and gives it back on finish or close.  Like
+    * {@link java.util.zip.GZIPInputStream} it reads concatenated gzip members and ignores data after the last member
+    * that is not a complete gzip header.
+    */
+   public static class FinishableGZIPInputStream extends InputStream
+   {
+      private static final int BUFFER_SIZE = 512;
+
+      // RFC 1952 header flag bits
+      private static final int HEADER_CRC = 1 << 1;
+      private static final int EXTRA_FIELD = 1 << 2;
+      private static final int FILE_NAME = 1 << 3;
+      private static final int COMMENT = 1 << 4;
+
+      protected final PushbackInputStream source;
+      protected final byte[] buf = new byte[BUFFER_SIZE];
+      protected final CRC32 crc = new CRC32();
+      protected Inflater inflater;
+      protected int filled;
+      protected boolean eos;
+
+      public FinishableGZIPInputStream(final InputStream is) throws IOException
+      {
+         source = new PushbackInputStream(is, BUFFER_SIZE);
+         inflater = ZlibPool.getInflater();
+         try
+         {
+            readHeader();
+         }
+         catch (IOException e)
+         {
+            finish();
+            throw e;
+         }
+      }
+
+      @Override
+      public int read() throws IOException
+      {
+         byte[] b = new byte[1];
+         return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+      }
+
+      @Override
+      public synchronized int read(byte[] b, int off, int len) throws IOException
+      {
+         if (inflater == null) throw new IOException(Messages.MESSAGES.gzipStreamClosed());
+         if (off < 0 || len < 0 || len > b.length - off) throw new IndexOutOfBoundsException();
+         if (len == 0) return 0;
+         while (!eos)
+         {
+            int n;
+            try
+            {
+               n = inflater.inflate(b, off, len);
+            }
+            catch (DataFormatException e)
+            {
+               throw new ZipException(e.getMessage() == null ? Messages.MESSAGES.invalidDeflateData() : e.getMessage());
+            }
+            if (n > 0)
+            {
+               crc.update(b, off, n);
+               return n;
+            }
+            if (inflater.finished())
+            {
+               endMember();
+            }
+            else if (inflater.needsInput())
+            {
+               filled = source.read(buf, 0, buf.length);
+               if (filled == -1) throw new EOFException(Messages.MESSAGES.unexpectedEndOfGzipStream());
+               inflater.setInput(buf, 0, filled);
+            }
+            else
+            {
+               throw new ZipException(Messages.MESSAGES.gzipNeedsPresetDictionary());
+            }
+         }
+         return -1;
+      }
+
+      @Override
+      public int available() throws IOException
+      {
+         if (inflater == null) throw new IOException(Messages.MESSAGES.gzipStreamClosed());
+         return eos ? 0 : 1;
+      }
+
+      /**
+       * Gives the inflater back to the pool, the stream cannot be read afterwards.
+       */
+      public void finish()
+      {
+         if (inflater == null) return;
+         ZlibPool.release(inflater);
+         inflater = null;
+      }
+
+      @Override
+      public void close() throws IOException
+      {
+         finish();
+         source.close();
+      }
+
+      /**
+       * Checks the trailer of the member the inflater just finished and moves on to the next member, if there is one.
+       */
+      private void endMember() throws IOException
+      {
+         // input the inflater did not consume belongs to the trailer and whatever follows it
+         int unused = inflater.getRemaining();
+         if (unused > 0) source.unread(buf, filled - unused, unused);
+
+         long expectedCrc = crc.getValue();
+         long expectedSize = inflater.getBytesWritten() & 0xffffffffL;
+         if (readInt() != expectedCrc || readInt() != expectedSize)
+         {
+            throw new ZipException(Messages.MESSAGES.corruptGzipTrailer());
+         }
+
+         int next = source.read();
+         if (next == -1)
+         {
+            eos = true;
+            return;
+         }
+         source.unread(next);
+         inflater.reset();
+         try
+         {
+            readHeader();
+         }
+         catch (IOException e)
+         {
+            // not another member, or a truncated one, the rest of the stream is ignored like GZIPInputStream does
+            eos = true;
+         }
+      }
+
+      private void readHeader() throws IOException
+      {
+         crc.reset();
+         if (readByte() != 0x1f || readByte() != 0x8b) throw new ZipException(Messages.MESSAGES.notInGzipFormat());
+         int method = readByte();
+         if (method != Deflater.DEFLATED) throw new ZipException(Messages.MESSAGES.unsupportedGzipCompressionMethod(method));
+         int flags = readByte();
+         // modification time, extra flags and operating system
+         skip(6);
+         if ((flags & EXTRA_FIELD) != 0) skip(readByte() | (readByte() << 8));
+         if ((flags & FILE_NAME) != 0) skipZeroTerminated();
+         if ((flags & COMMENT) != 0) skipZeroTerminated();
+         if ((flags & HEADER_CRC) != 0)
+         {
+            int expected = (int) crc.getValue() & 0xffff;
+            if ((readByte() | (readByte() << 8)) != expected) throw new ZipException(Messages.MESSAGES.corruptGzipHeader());
+         }
+         crc.reset();
+      }
+
+      /**
+       * Reads a little endian 32 bit unsigned value.
+       */
+      private long readInt() throws IOException
+      {
+         long value = 0;
+         for (int shift = 0; shift < 32; shift += 8)
+         {
+            value |= (long) readByte() << shift;
+         }
+         return value;
+      }
+
+      /**
+       * Reads one byte of the source and adds it to the checksum, which covers the header while it is being read.
+       */
+      private int readByte() throws IOException
+      {
+         int b = source.read();
+         if (b == -1) throw new EOFException(Messages.MESSAGES.unexpectedEndOfGzipStream());
+         crc.update(b);
+         return b;
+      }
+
+      private void skip(int count) throws IOException
+      {
+         for (int i = 0; i < count; i++)
+         {
+            readByte();
+         }
+      }
+
+      private void skipZeroTerminated() throws IOException
+      {
+         while (readByte() != 0)
+         {
+         }
+      }
+   }
+
+   @Override
+   public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException
+   {
+      Object encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+
+      if (encoding != null && encoding.toString().equalsIgnoreCase("gzip"))
+      {
+         InputStream old = context.getInputStream();
+         FinishableGZIPInputStream is = new FinishableGZIPInputStream(old);
+         context.setInputStream(is);
+         try
+         {
+            return context.proceed();
+         }
+         finally
+         {
+            // Don't finish() an InputStream, see RESTEASY-554 for more details. Its inflater goes back to the
+            // pool when it is closed.
+            if (!context.getType().equals(InputStream.class)) is.finish();
+            context.setInputStream(old);
+         }
+      }
+      else
+      {
+         return context.proceed();
+      }
+   }}
@@ -1,103 +1,310 @@
-package org.jboss.resteasy.plugins.interceptors.encoding;
-
-import org.jboss.resteasy.util.CommitHeaderOutputStream;
-
-import javax.annotation.Priority;
-import javax.ws.rs.Priorities;
-import javax.ws.rs.WebApplicationException;
-import javax.ws.rs.core.HttpHeaders;
-import javax.ws.rs.ext.Provider;
-import javax.ws.rs.ext.WriterInterceptor;
-import javax.ws.rs.ext.WriterInterceptorContext;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.util.zip.GZIPOutputStream;
-
-/**
- * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
- * @version $Revision: 1 $
- */
-@Provider
-@Priority(Priorities.ENTITY_CODER)
-public class GZIPEncodingInterceptor implements WriterInterceptor
-{
-   public static class EndableGZIPOutputStream extends GZIPOutputStream
-   {
-      public EndableGZIPOutputStream(OutputStream os) throws IOException
-      {
-         super(os);
-      }
-
-      @Override
-      public void finish() throws IOException
-      {
-         super.finish();
-         def.end(); // make sure on finish the deflater's end() is called to release the native code pointer
-      }
-   }
-
-   public static class CommittedGZIPOutputStream extends CommitHeaderOutputStream
-   {
-      protected CommittedGZIPOutputStream(OutputStream delegate, CommitCallback headers)
-      {
-         super(delegate, headers);
-      }
-
-      protected GZIPOutputStream gzip;
-
-      public GZIPOutputStream getGzip()
-      {
-         return gzip;
-      }
-
-      @Override
-      public void commit()
-      {
-         if (isHeadersCommitted) return;
-         isHeadersCommitted = true;
-         try
-         {
-            // GZIPOutputStream constructor writes to underlying OS causing headers to be written.
-            // so we swap gzip OS in when we are ready to write.
-            gzip  = new EndableGZIPOutputStream(delegate);
-            delegate = gzip;
-         }
-         catch (IOException e)
-         {
-            throw new RuntimeException(e);
-         }
-      }
-   }
-
-   @Override
-   public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException
-   {
-      Object encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
-
-      if (encoding != null && encoding.toString().equalsIgnoreCase("gzip"))
-      {
-         OutputStream old = context.getOutputStream();
-         // GZIPOutputStream constructor writes to underlying OS causing headers to be written.
-         CommittedGZIPOutputStream gzipOutputStream = new CommittedGZIPOutputStream(old, null);
-
-         // Any content length set will be obsolete
-         context.getHeaders().remove("Content-Length");
-
-         context.setOutputStream(gzipOutputStream);
-         try
-         {
-            context.proceed();
-         }
-         finally
-         {
-            if (gzipOutputStream.getGzip() != null) gzipOutputStream.getGzip().finish();
-            context.setOutputStream(old);
-         }
-         return;
-      }
-      else
-      {
-         context.proceed();
-      }
-   }
-}
+package org.jboss.resteasy.plugins.interceptors.encoding;
+
+import org.jboss.resteasy.core.interception.ClientWriterInterceptorContext;
+import org.jboss.resteasy.resteasy_jaxrs.i18n.Messages;
+import org.jboss.resteasy.spi.ResteasyConfiguration;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.jboss.resteasy.util.CommitHeaderOutputStream;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses message bodies that have a Content-Encoding of gzip.  The compression level and the minimum size of the
+ * bodies worth compressing can be passed to the constructor, or set with the <code>resteasy.gzip.compression.level</code>
+ * and <code>resteasy.gzip.min.size</code> context parameters or system properties.  Bodies smaller than the minimum
+ * size are sent as they are, without a Content-Encoding.
+ *
+ * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
+ * @version $Revision: 1 $
+ */
+@Provider
+@Priority(Priorities.ENTITY_CODER)
+public class GZIPEncodingInterceptor implements WriterInterceptor
+{
+   public static final String COMPRESSION_LEVEL = "resteasy.gzip.compression.level";
+   public static final String MIN_SIZE = "resteasy.gzip.min.size";
+
+   /**
+    * gzip stream that deflates with a deflater borrowed from the {@link ZlibPool} and gives it back on finish
+    */
+   public static class EndableGZIPOutputStream extends GZIPOutputStream
+   {
+      public EndableGZIPOutputStream(OutputStream os) throws IOException
+      {
+         this(os, Deflater.DEFAULT_COMPRESSION);
+      }
+
+      public EndableGZIPOutputStream(OutputStream os, int compressionLevel) throws IOException
+      {
+         super(os);
+         // nothing has been deflated yet, swap the deflater GZIPOutputStream made for a pooled one
+         def.end();
+         def = ZlibPool.getDeflater(compressionLevel);
+      }
+
+      @Override
+      public synchronized void write(byte[] buf, int off, int len) throws IOException
+      {
+         if (def == null) throw new IOException(Messages.MESSAGES.writeBeyondEndOfGzipStream());
+         super.write(buf, off, len);
+      }
+
+      @Override
+      public void finish() throws IOException
+      {
+         if (def == null) return;
+         try
+         {
+            super.finish();
+         }
+         finally
+         {
+            // the deflater goes back to the pool instead of being ended, so it must not be touched after this
+            ZlibPool.release(def);
+            def = null;
+         }
+      }
+
+      @Override
+      public void close() throws IOException
+      {
+         // DeflaterOutputStream.close() would end the deflater, which is back in the pool by now
+         finish();
+         out.close();
+      }
+   }
+
+   public static class CommittedGZIPOutputStream extends CommitHeaderOutputStream
+   {
+      protected CommittedGZIPOutputStream(OutputStream delegate, CommitCallback headers)
+      {
+         this(delegate, headers, Deflater.DEFAULT_COMPRESSION);
+      }
+
+      protected CommittedGZIPOutputStream(OutputStream delegate, CommitCallback headers, int compressionLevel)
+      {
+         super(delegate, headers);
+         this.compressionLevel = compressionLevel;
+      }
+
+      protected GZIPOutputStream gzip;
+      protected int compressionLevel;
+
+      public GZIPOutputStream getGzip()
+      {
+         return gzip;
+      }
+
+      @Override
+      public void commit()
+      {
+         if (isHeadersCommitted) return;
+         isHeadersCommitted = true;
+         try
+         {
+            // GZIPOutputStream constructor writes to underlying OS causing headers to be written.
+            // so we swap gzip OS in when we are ready to write.
+            gzip  = new EndableGZIPOutputStream(delegate, compressionLevel);
+            delegate = gzip;
+         }
+         catch (IOException e)
+         {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+
+   /**
+    * Buffers the body until it reaches the minimum size.  Bodies that get there, or that are flushed before, are
+    * compressed, smaller ones are written as they are once the Content-Encoding header has been removed.
+    */
+   public static class ThresholdGZIPOutputStream extends OutputStream
+   {
+      protected OutputStream original;
+      protected MultivaluedMap<String, Object> headers;
+      protected int minSize;
+      protected int compressionLevel;
+      protected byte[] buffer = new byte[0];
+      protected int count;
+      protected OutputStream delegate;
+      protected CommittedGZIPOutputStream gzip;
+
+      public ThresholdGZIPOutputStream(OutputStream original, MultivaluedMap<String, Object> headers, int minSize, int compressionLevel)
+      {
+         this.original = original;
+         this.headers = headers;
+         this.minSize = minSize;
+         this.compressionLevel = compressionLevel;
+      }
+
+      protected void compress() throws IOException
+      {
+         // Any content length set will be obsolete
+         headers.remove("Content-Length");
+         gzip = new CommittedGZIPOutputStream(original, null, compressionLevel);
+         delegate = gzip;
+         if (count > 0) gzip.write(buffer, 0, count);
+         buffer = null;
+      }
+
+      @Override
+      public void write(int b) throws IOException
+      {
+         write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException
+      {
+         if (delegate == null)
+         {
+            if (count + len < minSize)
+            {
+               if (count + len > buffer.length)
+               {
+                  buffer = Arrays.copyOf(buffer, Math.min(minSize, Math.max(count + len, buffer.length * 2)));
+               }
+               System.arraycopy(b, off, buffer, count, len);
+               count += len;
+               return;
+            }
+            compress();
+         }
+         delegate.write(b, off, len);
+      }
+
+      @Override
+      public void flush() throws IOException
+      {
+         // a body that is flushed early is probably streamed, so it is compressed like before
+         if (delegate == null) compress();
+         delegate.flush();
+      }
+
+      /**
+       * Writes out what is still buffered, uncompressed, or finishes the gzip stream.
+       */
+      public void finish() throws IOException
+      {
+         if (delegate == null)
+         {
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            delegate = original;
+            if (count > 0) original.write(buffer, 0, count);
+            buffer = null;
+         }
+         else if (gzip != null && gzip.getGzip() != null)
+         {
+            gzip.getGzip().finish();
+         }
+      }
+
+      @Override
+      public void close() throws IOException
+      {
+         finish();
+         delegate.close();
+      }
+   }
+
+   private Integer compressionLevel;
+   private Integer minSize;
+
+   public GZIPEncodingInterceptor()
+   {
+   }
+
+   /**
+    * @param compressionLevel 0-9 or {@link Deflater#DEFAULT_COMPRESSION}
+    * @param minSize bodies smaller than this number of bytes are not compressed
+    */
+   public GZIPEncodingInterceptor(int compressionLevel, int minSize)
+   {
+      this.compressionLevel = compressionLevel;
+      this.minSize = minSize;
+   }
+
+   public int getCompressionLevel()
+   {
+      if (compressionLevel != null) return compressionLevel;
+      return getParameter(COMPRESSION_LEVEL, Deflater.DEFAULT_COMPRESSION);
+   }
+
+   public int getMinSize()
+   {
+      if (minSize != null) return minSize;
+      return getParameter(MIN_SIZE, 0);
+   }
+
+   private static int getParameter(String name, int defaultValue)
+   {
+      String value = null;
+      ResteasyConfiguration context = ResteasyProviderFactory.getContextData(ResteasyConfiguration.class);
+      if (context != null) value = context.getParameter(name);
+      if (value == null) value = System.getProperty(name);
+      return value == null ? defaultValue : Integer.parseInt(value.trim());
+   }
+
+   @Override
+   public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException
+   {
+      Object encoding = context.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+
+      if (encoding != null && encoding.toString().equalsIgnoreCase("gzip"))
+      {
+         OutputStream old = context.getOutputStream();
+         int minSize = getMinSize();
+         // small bodies cannot go without Content-Encoding if it has been sent already
+         if (minSize > 0 && !(context instanceof ClientWriterInterceptorContext
+                 && ((ClientWriterInterceptorContext) context).isHeadersCommitted()))
+         {
+            ThresholdGZIPOutputStream thresholdOutputStream = new ThresholdGZIPOutputStream(old, context.getHeaders(), minSize, getCompressionLevel());
+            context.setOutputStream(thresholdOutputStream);
+            try
+            {
+               context.proceed();
+            }
+            finally
+            {
+               thresholdOutputStream.finish();
+               context.setOutputStream(old);
+            }
+            return;
+         }
+
+         // GZIPOutputStream constructor writes to underlying OS causing headers to be written.
+         CommittedGZIPOutputStream gzipOutputStream = new CommittedGZIPOutputStream(old, null, getCompressionLevel());
+
+         // Any content length set will be obsolete
+         context.getHeaders().remove("Content-Length");
+
+         context.setOutputStream(gzipOutputStream);
+         try
+         {
+            context.proceed();
+         }
+         finally
+         {
+            if (gzipOutputStream.getGzip() != null) gzipOutputStream.getGzip().finish();
+            context.setOutputStream(old);
+         }
+         return;
+      }
+      else
+      {
+         context.proceed();
+      }
+   }
+}
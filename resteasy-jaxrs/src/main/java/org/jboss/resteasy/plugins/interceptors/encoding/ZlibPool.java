@@ -0,0 +1,61 @@
+package org.jboss.resteasy.plugins.interceptors.encoding;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Keeps idle {@link Deflater}s and {@link Inflater}s around so that every gzip encoded message does not allocate and
+ * free the native zlib state of its own.  Instances are raw (nowrap) ones, the gzip header and trailer are written
+ * and read by {@link GZIPEncodingInterceptor.EndableGZIPOutputStream} and
+ * {@link GZIPDecodingInterceptor.FinishableGZIPInputStream}.  Instances are reset when they are released, the ones
+ * that do not fit in the pool are ended right away.
+ */
+public class ZlibPool
+{
+   private static final int MAX_IDLE = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+   private static final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<Deflater>(MAX_IDLE);
+   private static final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<Inflater>(MAX_IDLE);
+
+   /**
+    * @param level compression level, 0-9 or {@link Deflater#DEFAULT_COMPRESSION}
+    * @return a deflater that writes raw deflate data
+    */
+   public static Deflater getDeflater(int level)
+   {
+      Deflater deflater = deflaters.poll();
+      if (deflater == null) return new Deflater(level, true);
+      deflater.setLevel(level);
+      return deflater;
+   }
+
+   /**
+    * @param deflater a deflater obtained from {@link #getDeflater(int)}, must not be used afterwards
+    */
+   public static void release(Deflater deflater)
+   {
+      deflater.reset();
+      if (!deflaters.offer(deflater)) deflater.end();
+   }
+
+   /**
+    * @return an inflater that reads raw deflate data
+    */
+   public static Inflater getInflater()
+   {
+      Inflater inflater = inflaters.poll();
+      if (inflater == null) return new Inflater(true);
+      return inflater;
+   }
+
+   /**
+    * @param inflater an inflater obtained from {@link #getInflater()}, must not be used afterwards
+    */
+   public static void release(Inflater inflater)
+   {
+      inflater.reset();
+      if (!inflaters.offer(inflater)) inflater.end();
+   }
+}
@@ -51,6 +51,11 @@ abstract public class ConfigurationBootstrap implements ResteasyConfiguration
             int threadPoolSize = Integer.valueOf(threadPool);
             deployment.setAsyncJobServiceThreadPoolSize(threadPoolSize);
          }
+         String virtualThreads = getParameter("resteasy.async.job.service.virtual.threads");
+         if (virtualThreads != null)
+         {
+            deployment.setAsyncJobServiceVirtualThreads(Boolean.valueOf(virtualThreads.trim()));
+         }
          String basePath = getParameter("resteasy.async.job.service.base.path");
          if (basePath != null)
          {
@@ -247,6 +252,12 @@ abstract public class ConfigurationBootstrap implements ResteasyConfiguration
          deployment.setInjectorFactoryClass(injectorFactoryClass);
       }
 
+      String invocationStrategyClass = getParameter(ResteasyContextParameters.RESTEASY_INVOCATION_STRATEGY);
+      if (invocationStrategyClass != null)
+      {
+         deployment.setInvocationStrategyClass(invocationStrategyClass.trim());
+      }
+
       if (applicationConfig != null) deployment.setApplicationClass(applicationConfig);
       deployment.getDefaultContextObjects().put(ResteasyConfiguration.class, this);
       return deployment;
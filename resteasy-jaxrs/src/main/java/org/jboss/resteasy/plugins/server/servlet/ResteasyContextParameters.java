@@ -44,4 +44,5 @@ public interface ResteasyContextParameters
    String RESTEASY_DEPLOYMENTS = "resteasy.deployments";
    String RESTEASY_SERVLET_MAPPING_PREFIX = "resteasy.servlet.mapping.prefix";
    String RESTEASY_WIDER_REQUEST_MATCHING = "resteasy.wider.request.matching";
+   String RESTEASY_INVOCATION_STRATEGY = "resteasy.invocation.strategy";
 }
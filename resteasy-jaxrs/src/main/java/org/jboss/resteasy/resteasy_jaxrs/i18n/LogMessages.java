@@ -139,6 +139,10 @@ public interface LogMessages extends BasicLogger
    @LogMessage(level = Level.WARN)
    @Message(id = BASE + 175, value = "The use of %s is deprecated, please use javax.ws.rs.Application as a context-param instead")
    void useOfApplicationClass(String className);
+
+   @LogMessage(level = Level.WARN)
+   @Message(id = BASE + 180, value = "InvocationStrategy %s is ignored, the InjectorFactory %s does not support it")
+   void invocationStrategyIgnored(String strategyClass, String injectorFactoryClass);
    
    ///////////////////////////////////////////////////////////////////////////////////////////////////////////
    //                                                  INFO                                                 //
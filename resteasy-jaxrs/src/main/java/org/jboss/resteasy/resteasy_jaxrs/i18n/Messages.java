@@ -673,4 +673,34 @@ public interface Messages
    
    @Message(id = BASE + 1070, value = "Wrong password for: %s")
    String wrongPassword(String user);
+
+   @Message(id = BASE + 1075, value = "Unable to instantiate InvocationStrategy implementation: %s")
+   String unableToInstantiateInvocationStrategy(String className);
+
+   @Message(id = BASE + 1080, value = "Corrupt GZIP header")
+   String corruptGzipHeader();
+
+   @Message(id = BASE + 1085, value = "Corrupt GZIP trailer")
+   String corruptGzipTrailer();
+
+   @Message(id = BASE + 1090, value = "GZIP stream needs a preset dictionary")
+   String gzipNeedsPresetDictionary();
+
+   @Message(id = BASE + 1095, value = "GZIP stream is closed")
+   String gzipStreamClosed();
+
+   @Message(id = BASE + 1100, value = "Invalid deflate data")
+   String invalidDeflateData();
+
+   @Message(id = BASE + 1105, value = "Not in GZIP format")
+   String notInGzipFormat();
+
+   @Message(id = BASE + 1110, value = "Unexpected end of GZIP stream")
+   String unexpectedEndOfGzipStream();
+
+   @Message(id = BASE + 1115, value = "Unsupported GZIP compression method: %s")
+   String unsupportedGzipCompressionMethod(int method);
+
+   @Message(id = BASE + 1120, value = "Write beyond end of GZIP stream")
+   String writeBeyondEndOfGzipStream();
 }
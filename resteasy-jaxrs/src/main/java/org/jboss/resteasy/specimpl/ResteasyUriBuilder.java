@@ -805,8 +805,6 @@ public class ResteasyUriBuilder extends UriBuilder
       return this;
    }
 
-   private static final Pattern PARAM_REPLACEMENT = Pattern.compile("_resteasy_uri_parameter");
-
    @Override
    public UriBuilder replaceMatrixParam(String name, Object... values) throws IllegalArgumentException
    {
@@ -819,22 +817,8 @@ public class ResteasyUriBuilder extends UriBuilder
 
       // remove all path param expressions so we don't accidentally start replacing within a regular expression
       ArrayList<String> pathParams = new ArrayList<String>();
-      boolean foundParam = false;
-
-      String pathWithoutEnclosedCurlyBraces = PathHelper.replaceEnclosedCurlyBraces(this.path);
-      Matcher matcher = PathHelper.URI_TEMPLATE_PATTERN.matcher(pathWithoutEnclosedCurlyBraces);
       StringBuilder newSegment = new StringBuilder();
-      int from = 0;
-      while (matcher.find())
-      {
-    	 newSegment.append(pathWithoutEnclosedCurlyBraces, from, matcher.start());
-         foundParam = true;
-         String group = matcher.group();
-         pathParams.add(PathHelper.recoverEnclosedCurlyBraces(group));
-		 newSegment.append("_resteasy_uri_parameter");
-		 from = matcher.end();
-      }
-      newSegment.append(pathWithoutEnclosedCurlyBraces, from, pathWithoutEnclosedCurlyBraces.length());
+      boolean foundParam = Encode.savePathParams(this.path, newSegment, pathParams);
       path = newSegment.toString();
 
       // Find last path segment
@@ -881,18 +865,7 @@ public class ResteasyUriBuilder extends UriBuilder
       // put back all path param expressions
       if (foundParam)
       {
-         matcher = PARAM_REPLACEMENT.matcher(path);
-         newSegment = new StringBuilder();
-         int i = 0;
-         from = 0;
-         while (matcher.find())
-         {
-			newSegment.append(this.path, from, matcher.start());
-			newSegment.append(pathParams.get(i++));
-			from = matcher.end();
-         }
-         newSegment.append(this.path, from, this.path.length());
-         path = newSegment.toString();
+         path = Encode.pathParamReplacement(path, pathParams);
       }
       return this;
    }
@@ -0,0 +1,184 @@
+package org.jboss.resteasy.specimpl;
+
+import org.jboss.resteasy.util.Encode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A URI template split into its literal parts and its variables once, so it can be expanded over and over again by
+ * concatenating the literals with the encoded values.  The literals are taken as they are, so the template should be
+ * an encoded one like {@link ResteasyUriBuilder#toTemplate()} returns.  Values are encoded the way
+ * {@link ResteasyUriBuilder#resolveTemplate(String, Object)} encodes them: as query parameters in the query and as
+ * path segments anywhere else, so a '/' in a value is encoded as well.
+ */
+public class UriTemplate
+{
+   private final String template;
+   private final String[] literals;
+   private final int[] variables;
+   private final boolean[] inQuery;
+   private final List<String> names;
+   private final boolean query;
+   private final boolean fragment;
+
+   /**
+    * @param template
+    * @throws IllegalArgumentException if a pair of braces does not enclose a variable
+    */
+   public UriTemplate(String template)
+   {
+      this.template = template;
+      List<String> literalList = new ArrayList<String>();
+      List<Integer> variableList = new ArrayList<Integer>();
+      List<Boolean> inQueryList = new ArrayList<Boolean>();
+      List<String> nameList = new ArrayList<String>();
+      boolean isQuery = false;
+      boolean isFragment = false;
+      int start = 0;
+      int i = 0;
+      while (i < template.length())
+      {
+         char c = template.charAt(i);
+         if (c == '{')
+         {
+            int end = closingBrace(template, i);
+            String name = variableName(template.substring(i + 1, end));
+            literalList.add(template.substring(start, i));
+            int index = nameList.indexOf(name);
+            if (index < 0)
+            {
+               index = nameList.size();
+               nameList.add(name);
+            }
+            variableList.add(index);
+            inQueryList.add(isQuery && !isFragment);
+            i = end + 1;
+            start = i;
+            continue;
+         }
+         if (c == '?') isQuery = true;
+         else if (c == '#') isFragment = true;
+         i++;
+      }
+      literalList.add(template.substring(start));
+
+      this.literals = literalList.toArray(new String[literalList.size()]);
+      this.variables = new int[variableList.size()];
+      this.inQuery = new boolean[inQueryList.size()];
+      for (int j = 0; j < variables.length; j++)
+      {
+         variables[j] = variableList.get(j);
+         inQuery[j] = inQueryList.get(j);
+      }
+      this.names = Collections.unmodifiableList(nameList);
+      this.query = isQuery;
+      this.fragment = isFragment;
+   }
+
+   private static int closingBrace(String template, int open)
+   {
+      // regular expressions of variables can have braces of their own
+      int depth = 0;
+      for (int i = open; i < template.length(); i++)
+      {
+         char c = template.charAt(i);
+         if (c == '{') depth++;
+         else if (c == '}' && --depth == 0) return i;
+      }
+      throw new IllegalArgumentException(template);
+   }
+
+   // same syntax as PathHelper.URI_PARAM_REGEX
+   private static String variableName(String variable)
+   {
+      int colon = variable.indexOf(':');
+      if (colon == variable.length() - 1) throw new IllegalArgumentException(variable);
+      String name = (colon < 0 ? variable : variable.substring(0, colon)).trim();
+      if (name.length() == 0 || !isWordChar(name.charAt(0))) throw new IllegalArgumentException(variable);
+      for (int i = 1; i < name.length(); i++)
+      {
+         char c = name.charAt(i);
+         if (!isWordChar(c) && c != '.' && c != '-') throw new IllegalArgumentException(variable);
+      }
+      return name;
+   }
+
+   private static boolean isWordChar(char c)
+   {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+   }
+
+   public String getTemplate()
+   {
+      return template;
+   }
+
+   /**
+    * @return names of the variables in the order they first appear in
+    */
+   public List<String> getVariables()
+   {
+      return names;
+   }
+
+   /**
+    * @param name
+    * @return index of the variable in {@link #getVariables()}, or -1
+    */
+   public int indexOf(String name)
+   {
+      return names.indexOf(name);
+   }
+
+   /**
+    * @return whether the template has a query
+    */
+   public boolean hasQuery()
+   {
+      return query;
+   }
+
+   /**
+    * @return whether the template has a fragment
+    */
+   public boolean hasFragment()
+   {
+      return fragment;
+   }
+
+   /**
+    * @param values unencoded values in the order of {@link #getVariables()}
+    * @return the expanded URI
+    * @throws IllegalArgumentException if a value is null
+    */
+   public String expand(String... values)
+   {
+      return expand(new StringBuilder(template.length() + 32), values).toString();
+   }
+
+   /**
+    * @param builder to append the expanded URI to
+    * @param values unencoded values in the order of {@link #getVariables()}
+    * @return builder
+    * @throws IllegalArgumentException if a value is null
+    */
+   public StringBuilder expand(StringBuilder builder, String... values)
+   {
+      for (int i = 0; i < variables.length; i++)
+      {
+         builder.append(literals[i]);
+         String value = values[variables[i]];
+         if (value == null) throw new IllegalArgumentException(names.get(variables[i]));
+         builder.append(inQuery[i] ? Encode.encodeQueryParamAsIs(value) : Encode.encodePathSegmentAsIs(value));
+      }
+      return builder.append(literals[variables.length]);
+   }
+
+   @Override
+   public String toString()
+   {
+      return template;
+   }
+}
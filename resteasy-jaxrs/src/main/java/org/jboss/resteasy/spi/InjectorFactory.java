@@ -1,5 +1,6 @@
 package org.jboss.resteasy.spi;
 
+import org.jboss.resteasy.core.ReflectionInvocationStrategy;
 import org.jboss.resteasy.core.ValueInjector;
 import org.jboss.resteasy.spi.metadata.Parameter;
 import org.jboss.resteasy.spi.metadata.ResourceClass;
@@ -30,4 +31,16 @@ public interface InjectorFactory
    PropertyInjector createPropertyInjector(ResourceClass resourceClass, ResteasyProviderFactory providerFactory);
 
    ConstructorInjector createConstructor(ResourceConstructor constructor, ResteasyProviderFactory providerFactory);
+
+   /**
+    * Strategy the injectors created by this factory use to call resource methods, constructors and setters and to set
+    * fields.  Plain reflection unless the factory says otherwise, so that factories written before this method
+    * existed keep working.
+    *
+    * @return
+    */
+   default InvocationStrategy getInvocationStrategy()
+   {
+      return new ReflectionInvocationStrategy();
+   }
 }
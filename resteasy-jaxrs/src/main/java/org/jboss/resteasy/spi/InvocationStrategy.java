@@ -0,0 +1,35 @@
+package org.jboss.resteasy.spi;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * How method, constructor and property injectors call into resource and provider classes.  Members are bound once,
+ * when the injector is created, and the bound invokers are called per request.  Invokers must behave like the
+ * corresponding java.lang.reflect calls, including the exceptions they throw.
+ */
+public interface InvocationStrategy
+{
+   interface MethodInvoker
+   {
+      Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException;
+   }
+
+   interface ConstructorInvoker
+   {
+      Object newInstance(Object[] args) throws InstantiationException, IllegalAccessException, InvocationTargetException;
+   }
+
+   interface FieldSetter
+   {
+      void set(Object target, Object value) throws IllegalAccessException;
+   }
+
+   MethodInvoker createMethodInvoker(Method method);
+
+   ConstructorInvoker createConstructorInvoker(Constructor constructor);
+
+   FieldSetter createFieldSetter(Field field);
+}
@@ -4,6 +4,7 @@ import org.jboss.resteasy.core.AcceptHeaderByFileSuffixFilter;
 import org.jboss.resteasy.core.AcceptParameterHttpPreprocessor;
 import org.jboss.resteasy.core.AsynchronousDispatcher;
 import org.jboss.resteasy.core.Dispatcher;
+import org.jboss.resteasy.core.InjectorFactoryImpl;
 import org.jboss.resteasy.core.ResourceMethodRegistry;
 import org.jboss.resteasy.core.SynchronousDispatcher;
 import org.jboss.resteasy.core.ThreadLocalResteasyProviderFactory;
@@ -45,9 +46,11 @@ public class ResteasyDeployment
    protected int asyncJobServiceMaxJobResults = 100;
    protected long asyncJobServiceMaxWait = 300000;
    protected int asyncJobServiceThreadPoolSize = 100;
+   protected boolean asyncJobServiceVirtualThreads = false;
    protected String asyncJobServiceBasePath = "/asynch/jobs";
    protected String applicationClass;
    protected String injectorFactoryClass;
+   protected String invocationStrategyClass;
    protected Application application;
    protected boolean registerBuiltin = true;
    protected List<String> scannedResourceClasses = new ArrayList<String>();
@@ -112,6 +115,7 @@ public class ResteasyDeployment
          asyncDispatcher.setMaxCacheSize(asyncJobServiceMaxJobResults);
          asyncDispatcher.setMaxWaitMilliSeconds(asyncJobServiceMaxWait);
          asyncDispatcher.setThreadPoolSize(asyncJobServiceThreadPoolSize);
+         asyncDispatcher.setUseVirtualThreads(asyncJobServiceVirtualThreads);
          asyncDispatcher.setBasePath(asyncJobServiceBasePath);
          asyncDispatcher.getUnwrappedExceptions().addAll(unwrappedExceptions);
          dispatcher = asyncDispatcher;
@@ -169,6 +173,25 @@ public class ResteasyDeployment
             providerFactory.setInjectorFactory(injectorFactory);
          }
 
+         if (invocationStrategyClass != null && !(providerFactory.getInjectorFactory() instanceof InjectorFactoryImpl))
+         {
+            LogMessages.LOGGER.invocationStrategyIgnored(invocationStrategyClass, providerFactory.getInjectorFactory().getClass().getName());
+         }
+         else if (invocationStrategyClass != null)
+         {
+            InvocationStrategy invocationStrategy;
+            try
+            {
+               Class<?> clazz = Thread.currentThread().getContextClassLoader().loadClass(invocationStrategyClass);
+               invocationStrategy = (InvocationStrategy) clazz.newInstance();
+            }
+            catch (Exception e)
+            {
+               throw new RuntimeException(Messages.MESSAGES.unableToInstantiateInvocationStrategy(invocationStrategyClass), e);
+            }
+            ((InjectorFactoryImpl) providerFactory.getInjectorFactory()).setInvocationStrategy(invocationStrategy);
+         }
+
          // feed context data map with constructed objects
          // see ResteasyContextParameters.RESTEASY_CONTEXT_OBJECTS
          if (constructedDefaultContextObjects != null && constructedDefaultContextObjects.size() > 0)
@@ -586,6 +609,23 @@ public class ResteasyDeployment
       this.injectorFactoryClass = injectorFactoryClass;
    }
 
+   public String getInvocationStrategyClass()
+   {
+      return invocationStrategyClass;
+   }
+
+   /**
+    * InvocationStrategy the default InjectorFactory uses to call resource methods, constructors and setters, e.g.
+    * org.jboss.resteasy.core.MethodHandleInvocationStrategy.  Reflection is used if not set.  A custom InjectorFactory
+    * chooses its own strategy, this one is ignored with a warning then.
+    *
+    * @param invocationStrategyClass
+    */
+   public void setInvocationStrategyClass(String invocationStrategyClass)
+   {
+      this.invocationStrategyClass = invocationStrategyClass;
+   }
+
    public boolean isDeploymentSensitiveFactoryEnabled()
    {
       return deploymentSensitiveFactoryEnabled;
@@ -636,6 +676,16 @@ public class ResteasyDeployment
       this.asyncJobServiceThreadPoolSize = asyncJobServiceThreadPoolSize;
    }
 
+   public boolean isAsyncJobServiceVirtualThreads()
+   {
+      return asyncJobServiceVirtualThreads;
+   }
+
+   public void setAsyncJobServiceVirtualThreads(boolean asyncJobServiceVirtualThreads)
+   {
+      this.asyncJobServiceVirtualThreads = asyncJobServiceVirtualThreads;
+   }
+
    public String getAsyncJobServiceBasePath()
    {
       return asyncJobServiceBasePath;
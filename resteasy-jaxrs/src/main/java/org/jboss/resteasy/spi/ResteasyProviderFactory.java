@@ -1,5 +1,6 @@
 package org.jboss.resteasy.spi;
 
+import org.jboss.resteasy.core.ContextDataMap;
 import org.jboss.resteasy.core.InjectorFactoryImpl;
 import org.jboss.resteasy.core.MediaTypeMap;
 import org.jboss.resteasy.core.interception.ClientResponseFilterRegistry;
@@ -74,6 +75,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -161,6 +163,9 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
 
    protected boolean builtinsRegistered = false;
    protected boolean registerBuiltins = true;
+   protected boolean mediaTypeCacheEnabled = true;
+   protected int mediaTypeCacheSize = MediaTypeMap.DEFAULT_CACHE_SIZE;
+   protected final AtomicInteger messageBodyProvidersVersion = new AtomicInteger();
 
    protected InjectorFactory injectorFactory;
    protected ResteasyProviderFactory parent;
@@ -209,6 +214,8 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       properties = new ConcurrentHashMap<String, Object>();
       properties.putAll(parent.getProperties());
       enabledFeatures = new CopyOnWriteArraySet<Feature>();
+      mediaTypeCacheEnabled = parent.isMediaTypeCacheEnabled();
+      mediaTypeCacheSize = parent.getMediaTypeCacheSize();
       
       if (local)
       {
@@ -258,6 +265,9 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
 
       builtinsRegistered = false;
       registerBuiltins = true;
+      mediaTypeCacheEnabled = true;
+      mediaTypeCacheSize = MediaTypeMap.DEFAULT_CACHE_SIZE;
+      messageBodyProvidersVersion.incrementAndGet();
 
       injectorFactory = new InjectorFactoryImpl();
       addHeaderDelegate(MediaType.class, new MediaTypeHeaderDelegate());
@@ -396,6 +406,30 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       contextualData.setLast(map);
    }
 
+   /**
+    * Hand context data obtained from {@link #getContextDataMap()} on one thread over to the calling thread.
+    *
+    * @param map
+    * @return context data this replaces, must be passed to {@link #restoreContextData(Map)} when done
+    */
+   public static Map<Class<?>, Object> attachContextData(Map<Class<?>, Object> map)
+   {
+      Map<Class<?>, Object> previous = contextualData.get();
+      contextualData.setLast(map);
+      return previous;
+   }
+
+   /**
+    * Undo {@link #attachContextData(Map)}.
+    *
+    * @param previous value returned by attachContextData
+    */
+   public static void restoreContextData(Map<Class<?>, Object> previous)
+   {
+      if (previous == null) contextualData.pop();
+      else contextualData.setLast(previous);
+   }
+
    public static Map<Class<?>, Object> getContextDataMap()
    {
       return getContextDataMap(true);
@@ -421,7 +455,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       Map<Class<?>, Object> map = contextualData.get();
       if (map == null)
       {
-         contextualData.setLast(map = new HashMap<Class<?>, Object>());
+         contextualData.setLast(map = new ContextDataMap());
       }
       return map;
    }
@@ -432,7 +466,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       {
          throw new BadRequestException(Messages.MESSAGES.excededMaximumForwards(getContextData(UriInfo.class).getPath()));
       }
-      Map<Class<?>, Object> map = new HashMap<Class<?>, Object>();
+      Map<Class<?>, Object> map = new ContextDataMap();
       contextualData.push(map);
       return map;
    }
@@ -593,6 +627,67 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       this.builtinsRegistered = builtinsRegistered;
    }
 
+   public boolean isMediaTypeCacheEnabled()
+   {
+      return mediaTypeCacheEnabled;
+   }
+
+   /**
+    * Turn the MediaType/Class lookup cache of this factory's MessageBodyReader and MessageBodyWriter maps on or off.
+    *
+    * @param mediaTypeCacheEnabled
+    */
+   public void setMediaTypeCacheEnabled(boolean mediaTypeCacheEnabled)
+   {
+      this.mediaTypeCacheEnabled = mediaTypeCacheEnabled;
+      configureMediaTypeCaches();
+   }
+
+   public int getMediaTypeCacheSize()
+   {
+      return mediaTypeCacheSize;
+   }
+
+   /**
+    * Maximum number of MediaType/Class lookups cached by each of this factory's MessageBodyReader and
+    * MessageBodyWriter maps.
+    *
+    * @param mediaTypeCacheSize
+    */
+   public void setMediaTypeCacheSize(int mediaTypeCacheSize)
+   {
+      this.mediaTypeCacheSize = mediaTypeCacheSize;
+      configureMediaTypeCaches();
+   }
+
+   protected void configureMediaTypeCaches()
+   {
+      configureMediaTypeCache(serverMessageBodyReaders);
+      configureMediaTypeCache(serverMessageBodyWriters);
+      configureMediaTypeCache(clientMessageBodyReaders);
+      configureMediaTypeCache(clientMessageBodyWriters);
+   }
+
+   protected void configureMediaTypeCache(MediaTypeMap<?> map)
+   {
+      if (map == null) return;
+      map.setCacheEnabled(mediaTypeCacheEnabled);
+      map.setCacheSize(mediaTypeCacheSize);
+   }
+
+   /**
+    * Changes whenever a MessageBodyReader or MessageBodyWriter is registered with this factory or one of its parents.
+    * Used to invalidate reader and writer lookups cached outside of the factory.
+    *
+    * @return
+    */
+   public int getMessageBodyProvidersVersion()
+   {
+      int version = messageBodyProvidersVersion.get();
+      if (parent != null) version += parent.getMessageBodyProvidersVersion();
+      return version;
+   }
+
    public UriBuilder createUriBuilder()
    {
       return new ResteasyUriBuilder();
@@ -721,6 +816,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       if (serverMessageBodyReaders == null)
       {
          serverMessageBodyReaders = parent.getServerMessageBodyReaders().clone();
+         configureMediaTypeCache(serverMessageBodyReaders);
       }
       if (consumeMime != null)
       {
@@ -734,6 +830,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       {
          serverMessageBodyReaders.add(new MediaType("*", "*"), key);
       }
+      messageBodyProvidersVersion.incrementAndGet();
    }
 
    protected void addClientMessageBodyReader(SortedKey<MessageBodyReader> key, Consumes consumeMime)
@@ -741,6 +838,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       if (clientMessageBodyReaders == null)
       {
          clientMessageBodyReaders = parent.getClientMessageBodyReaders().clone();
+         configureMediaTypeCache(clientMessageBodyReaders);
       }
       if (consumeMime != null)
       {
@@ -754,6 +852,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       {
          clientMessageBodyReaders.add(new MediaType("*", "*"), key);
       }
+      messageBodyProvidersVersion.incrementAndGet();
    }
 
    protected void addMessageBodyWriter(Class<? extends MessageBodyWriter> provider, boolean isBuiltin)
@@ -805,6 +904,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       if (serverMessageBodyWriters == null)
       {
          serverMessageBodyWriters = parent.getServerMessageBodyWriters().clone();
+         configureMediaTypeCache(serverMessageBodyWriters);
       }
       if (consumeMime != null)
       {
@@ -820,6 +920,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
          //logger.info(">>> Adding provider: " + provider.getClass().getName() + " with mime type of: default */*");
          serverMessageBodyWriters.add(new MediaType("*", "*"), key);
       }
+      messageBodyProvidersVersion.incrementAndGet();
    }
 
    protected void addClientMessageBodyWriter(Produces consumeMime, SortedKey<MessageBodyWriter> key)
@@ -827,6 +928,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
       if (clientMessageBodyWriters == null)
       {
          clientMessageBodyWriters = parent.getClientMessageBodyWriters().clone();
+         configureMediaTypeCache(clientMessageBodyWriters);
       }
       if (consumeMime != null)
       {
@@ -842,6 +944,7 @@ public class ResteasyProviderFactory extends RuntimeDelegate implements Provider
          //logger.info(">>> Adding provider: " + provider.getClass().getName() + " with mime type of: default */*");
          clientMessageBodyWriters.add(new MediaType("*", "*"), key);
       }
+      messageBodyProvidersVersion.incrementAndGet();
    }
 
    public <T> MessageBodyReader<T> getServerMessageBodyReader(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType)
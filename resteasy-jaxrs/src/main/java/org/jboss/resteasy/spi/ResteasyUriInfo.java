@@ -10,7 +10,9 @@ import org.jboss.resteasy.util.PathHelper;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -21,6 +23,10 @@ import javax.ws.rs.core.UriInfo;
 
 /**
  * UriInfo implementation with some added extra methods to help process requests
+ * <p>
+ * Only the encoded path and the path used for matching are computed up front.  Query parameters, path segments, the
+ * decoded path and, when created from a request string, the request and base URIs are parsed on first access.  Matched
+ * paths and URIs are kept as offsets into the path they were matched in and copied out when read.
  *
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
  * @version $Revision: 1 $
@@ -30,8 +36,10 @@ public class ResteasyUriInfo implements UriInfo
    private String path;
    private String encodedPath;
    private String matchingPath;
-   private MultivaluedMap<String, String> queryParameters = new MultivaluedMapImpl<>();
-   private MultivaluedMap<String, String> encodedQueryParameters = new MultivaluedMapImpl<>();
+   private MultivaluedMap<String, String> queryParameters;
+   private MultivaluedMap<String, String> encodedQueryParameters;
+   private MultivaluedMap<String, String> unmodifiableQueryParameters;
+   private MultivaluedMap<String, String> unmodifiableEncodedQueryParameters;
    private MultivaluedMap<String, String> pathParameters;
    private MultivaluedMap<String, String> encodedPathParameters;
    private MultivaluedMap<String, PathSegment[]> pathParameterPathSegments;
@@ -42,9 +50,9 @@ public class ResteasyUriInfo implements UriInfo
    private URI absolutePath;
    private URI requestURI;
    private URI baseURI;
-   private List<String> matchedUris;
-   private List<String> encodedMatchedUris;
-   private List<String> encodedMatchedPaths = new LinkedList<String>();
+   private UriBuilder absoluteBuilder;
+   private MatchedStack matchedUris;
+   private MatchedStack encodedMatchedPaths;
    private List<Object> ancestors;
    private String queryString;
    private String contextPath;
@@ -56,17 +64,15 @@ public class ResteasyUriInfo implements UriInfo
    }
 
    protected void initialize(String absoluteUri, String queryString, String contextPath)
-   {ResteasyUriBuilder absoluteBuilder = (ResteasyUriBuilder) UriBuilder.fromUri(absoluteUri);
+   {
+      absoluteBuilder = UriBuilder.fromUri(absoluteUri);
       absolutePath = absoluteBuilder.build();
-      requestURI = absoluteBuilder.replaceQuery(queryString).build();
+      this.queryString = queryString;
+      this.contextPath = contextPath;
+      requestURI = null;
       encodedPath = PathHelper.getEncodedPathInfo(absolutePath.getRawPath(), contextPath);
-      baseURI = absolutePath;
-      if (!encodedPath.trim().equals(""))
-      {
-         String tmpContextPath = contextPath;
-         if (!tmpContextPath.endsWith("/")) tmpContextPath += "/";
-         baseURI = absoluteBuilder.clone().replacePath(tmpContextPath).replaceQuery(null).build();
-      }
+      // built on demand from absoluteBuilder unless the path info is empty
+      baseURI = encodedPath.trim().equals("") ? absolutePath : null;
 //      // make sure there is no trailing '/'
 //      if (encodedPath.length() > 1 && encodedPath.endsWith("/"))
 //         encodedPath = encodedPath.substring(0, encodedPath.length() - 1);
@@ -76,7 +82,7 @@ public class ResteasyUriInfo implements UriInfo
       {
          encodedPath = "/" + encodedPath;
       }
-      path = UriBuilder.fromPath(encodedPath).build().getPath();
+      path = null;
       processPath();
    }
 
@@ -104,26 +110,27 @@ public class ResteasyUriInfo implements UriInfo
 
    public void setUri(URI base, URI relative)
    {
-      clearQueryParameters(true);
-      clearQueryParameters(false);
-
       URI rel = base.resolve(relative);
       String absoluteUri = UriBuilder.fromUri(rel).replaceQuery(null).toTemplate();
       initialize(absoluteUri, rel.getRawQuery(), base.getRawPath());
    }
 
+   /**
+    * Compute the matching path and forget everything derived from a previous path or query.
+    */
    protected void processPath()
    {
-      PathSegmentImpl.SegmentParse parse = PathSegmentImpl.parseSegmentsOptimization(encodedPath, false);
-      encodedPathSegments = parse.segments;
-      this.pathSegments = new ArrayList<PathSegment>(encodedPathSegments.size());
-      for (PathSegment segment : encodedPathSegments)
+      pathSegments = null;
+      encodedPathSegments = null;
+      if (queryParameters != null)
       {
-         pathSegments.add(new PathSegmentImpl(((PathSegmentImpl) segment).getOriginal(), true));
+         // maps already handed out stay live
+         queryParameters.clear();
+         encodedQueryParameters.clear();
+         extractParameters(getRequestUri().getRawQuery());
       }
-      extractParameters(requestURI.getRawQuery());
-      if (parse.hasMatrixParams) extractMatchingPath(encodedPathSegments);
-      else 
+      if (encodedPath.indexOf(';') > -1) extractMatchingPath(getPathSegments(false));
+      else
       {
          matchingPath = encodedPath;
          if (matchingPath.length() > 1 && matchingPath.endsWith("/"))
@@ -192,11 +199,12 @@ public class ResteasyUriInfo implements UriInfo
     */
    public void setRequestUri(URI relative)
    {
-      setUri(baseURI, relative);
+      setUri(getBaseUri(), relative);
    }
 
    public String getPath()
    {
+      if (path == null) path = UriBuilder.fromPath(encodedPath).build().getPath();
       return path;
    }
 
@@ -208,23 +216,35 @@ public class ResteasyUriInfo implements UriInfo
 
    public List<PathSegment> getPathSegments()
    {
+      if (pathSegments == null)
+      {
+         List<PathSegment> encoded = getPathSegments(false);
+         List<PathSegment> decoded = new ArrayList<PathSegment>(encoded.size());
+         for (PathSegment segment : encoded)
+         {
+            decoded.add(new PathSegmentImpl(((PathSegmentImpl) segment).getOriginal(), true));
+         }
+         pathSegments = decoded;
+      }
       return pathSegments;
    }
 
    public List<PathSegment> getPathSegments(boolean decode)
    {
       if (decode) return getPathSegments();
+      if (encodedPathSegments == null) encodedPathSegments = PathSegmentImpl.parseSegments(encodedPath, false);
       return encodedPathSegments;
    }
 
    public URI getRequestUri()
    {
+      if (requestURI == null) requestURI = absoluteBuilder.clone().replaceQuery(queryString).build();
       return requestURI;
    }
 
    public UriBuilder getRequestUriBuilder()
    {
-      return UriBuilder.fromUri(requestURI);
+      return UriBuilder.fromUri(getRequestUri());
    }
 
    public URI getAbsolutePath()
@@ -239,12 +259,18 @@ public class ResteasyUriInfo implements UriInfo
 
    public URI getBaseUri()
    {
+      if (baseURI == null)
+      {
+         String tmpContextPath = contextPath;
+         if (!tmpContextPath.endsWith("/")) tmpContextPath += "/";
+         baseURI = absoluteBuilder.clone().replacePath(tmpContextPath).replaceQuery(null).build();
+      }
       return baseURI;
    }
 
    public UriBuilder getBaseUriBuilder()
    {
-      return UriBuilder.fromUri(baseURI);
+      return UriBuilder.fromUri(getBaseUri());
    }
 
    public MultivaluedMap<String, String> getPathParameters()
@@ -298,12 +324,22 @@ public class ResteasyUriInfo implements UriInfo
 
    public MultivaluedMap<String, String> getQueryParameters()
    {
-      return new UnmodifiableMultivaluedMap<>(queryParameters);
+      if (unmodifiableQueryParameters == null)
+      {
+         parseQueryParameters();
+         unmodifiableQueryParameters = new UnmodifiableMultivaluedMap<>(queryParameters);
+      }
+      return unmodifiableQueryParameters;
    }
 
    protected MultivaluedMap<String, String> getEncodedQueryParameters()
    {
-      return new UnmodifiableMultivaluedMap<>(encodedQueryParameters);
+      if (unmodifiableEncodedQueryParameters == null)
+      {
+         parseQueryParameters();
+         unmodifiableEncodedQueryParameters = new UnmodifiableMultivaluedMap<>(encodedQueryParameters);
+      }
+      return unmodifiableEncodedQueryParameters;
    }
 
 
@@ -314,6 +350,7 @@ public class ResteasyUriInfo implements UriInfo
    }
 
    public void clearQueryParameters(boolean decode) {
+      parseQueryParameters();
       if (decode) clearQueryParameters();
       else clearEncodedQueryParameters();
    }
@@ -330,6 +367,14 @@ public class ResteasyUriInfo implements UriInfo
       }
    }
 
+   private void parseQueryParameters()
+   {
+      if (queryParameters != null) return;
+      queryParameters = new MultivaluedMapImpl<>();
+      encodedQueryParameters = new MultivaluedMapImpl<>();
+      extractParameters(getRequestUri().getRawQuery());
+   }
+
    protected void extractParameters(String queryString)
    {
       if (queryString == null || queryString.equals("")) return;
@@ -371,16 +416,8 @@ public class ResteasyUriInfo implements UriInfo
 
    public List<String> getMatchedURIs(boolean decode)
    {
-      if (decode)
-      {
-         if (matchedUris == null) matchedUris = new LinkedList<String>();
-         return matchedUris;
-      }
-      else
-      {
-         if (encodedMatchedUris == null) encodedMatchedUris = new LinkedList<String>();
-         return encodedMatchedUris;
-      }
+      if (matchedUris == null) matchedUris = new MatchedStack();
+      return matchedUris.view(decode);
    }
 
    public List<String> getMatchedURIs()
@@ -403,30 +440,53 @@ public class ResteasyUriInfo implements UriInfo
 
    public void pushMatchedPath(String encoded)
    {
-      encodedMatchedPaths.add(0, encoded);
+      pushMatchedPath(encoded, encoded.length());
+   }
+
+   /**
+    * Same as pushMatchedPath(path.substring(0, length)) without copying the path.
+    *
+    * @param path encoded path the match was made in
+    * @param length length of the matched prefix
+    */
+   public void pushMatchedPath(String path, int length)
+   {
+      if (encodedMatchedPaths == null) encodedMatchedPaths = new MatchedStack();
+      encodedMatchedPaths.push(path, 0, length);
    }
 
    public List<String> getEncodedMatchedPaths()
    {
-      return encodedMatchedPaths;
+      if (encodedMatchedPaths == null) encodedMatchedPaths = new MatchedStack();
+      return encodedMatchedPaths.view(false);
    }
 
    public void popMatchedPath()
    {
-      encodedMatchedPaths.remove(0);
+      if (encodedMatchedPaths == null) throw new IndexOutOfBoundsException();
+      encodedMatchedPaths.pop();
    }
 
 
    public void pushMatchedURI(String encoded)
    {
-      if (encoded.endsWith("/")) encoded = encoded.substring(0, encoded.length() - 1);
-      if (encoded.startsWith("/")) encoded = encoded.substring(1);
-      String decoded = Encode.decode(encoded);
-      if (encodedMatchedUris == null) encodedMatchedUris = new LinkedList<String>();
-      encodedMatchedUris.add(0, encoded);
+      pushMatchedURI(encoded, encoded.length());
+   }
 
-      if (matchedUris == null) matchedUris = new LinkedList<String>();
-      matchedUris.add(0, decoded);
+   /**
+    * Same as pushMatchedURI(path.substring(0, length)) without copying the path.  The leading and trailing '/' are
+    * left out and the URI is only decoded when read.
+    *
+    * @param path encoded path the match was made in
+    * @param length length of the matched prefix
+    */
+   public void pushMatchedURI(String path, int length)
+   {
+      int end = length;
+      if (end > 0 && path.charAt(end - 1) == '/') end--;
+      int begin = end > 0 && path.charAt(0) == '/' ? 1 : 0;
+      if (matchedUris == null) matchedUris = new MatchedStack();
+      matchedUris.push(path, begin, end);
    }
 
    @Override
@@ -447,4 +507,74 @@ public class ResteasyUriInfo implements UriInfo
       return ResteasyUriBuilder.relativize(from, to);
    }
 
+   /**
+    * Matched paths or URIs, most recent first.  Each entry is a range of the string it was matched in and is only
+    * copied out, and decoded, the first time it is read.
+    */
+   private static class MatchedStack
+   {
+      private String[] sources = new String[4];
+      private int[] begins = new int[4];
+      private int[] ends = new int[4];
+      private String[] encoded = new String[4];
+      private String[] decoded = new String[4];
+      private int size;
+
+      void push(String source, int begin, int end)
+      {
+         if (size == sources.length)
+         {
+            int capacity = size * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            begins = Arrays.copyOf(begins, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            encoded = Arrays.copyOf(encoded, capacity);
+            decoded = Arrays.copyOf(decoded, capacity);
+         }
+         sources[size] = source;
+         begins[size] = begin;
+         ends[size] = end;
+         encoded[size] = null;
+         decoded[size] = null;
+         size++;
+      }
+
+      void pop()
+      {
+         if (size == 0) throw new IndexOutOfBoundsException();
+         size--;
+         sources[size] = null;
+         encoded[size] = null;
+         decoded[size] = null;
+      }
+
+      String get(int index, boolean decode)
+      {
+         if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+         int i = size - 1 - index;
+         if (encoded[i] == null) encoded[i] = sources[i].substring(begins[i], ends[i]);
+         if (!decode) return encoded[i];
+         if (decoded[i] == null) decoded[i] = Encode.decode(encoded[i]);
+         return decoded[i];
+      }
+
+      List<String> view(final boolean decode)
+      {
+         return new AbstractList<String>()
+         {
+            @Override
+            public String get(int index)
+            {
+               return MatchedStack.this.get(index, decode);
+            }
+
+            @Override
+            public int size()
+            {
+               return size;
+            }
+         };
+      }
+   }
+
 }
@@ -0,0 +1,98 @@
+package org.jboss.resteasy.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent cache bounded by a maximum number of entries.  Lookups never lock.  When a put goes over the maximum
+ * size the oldest entries are evicted in insertion order.  Hit, miss and eviction counts are kept for monitoring.
+ */
+public class BoundedCache<K, V>
+{
+   private final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<K, V>();
+   private final ConcurrentLinkedQueue<K> insertionOrder = new ConcurrentLinkedQueue<K>();
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final LongAdder evictions = new LongAdder();
+   private volatile int maxSize;
+
+   public BoundedCache(int maxSize)
+   {
+      this.maxSize = maxSize;
+   }
+
+   public V get(K key)
+   {
+      V value = map.get(key);
+      if (value == null) misses.increment();
+      else hits.increment();
+      return value;
+   }
+
+   public void put(K key, V value)
+   {
+      if (maxSize <= 0) return;
+      if (map.putIfAbsent(key, value) != null) return;
+      insertionOrder.add(key);
+      evict();
+   }
+
+   private void evict()
+   {
+      while (map.size() > maxSize)
+      {
+         K eldest = insertionOrder.poll();
+         if (eldest == null) return;
+         if (map.remove(eldest) != null) evictions.increment();
+      }
+   }
+
+   public void clear()
+   {
+      map.clear();
+      insertionOrder.clear();
+   }
+
+   public int size()
+   {
+      return map.size();
+   }
+
+   public int getMaxSize()
+   {
+      return maxSize;
+   }
+
+   public void setMaxSize(int maxSize)
+   {
+      this.maxSize = maxSize;
+      evict();
+   }
+
+   public long getHitCount()
+   {
+      return hits.sum();
+   }
+
+   public long getMissCount()
+   {
+      return misses.sum();
+   }
+
+   public long getEvictionCount()
+   {
+      return evictions.sum();
+   }
+
+   /**
+    * Live view of the cached entries.  Entries put directly into the map are not subject to eviction.
+    *
+    * @return
+    */
+   public Map<K, V> asMap()
+   {
+      return map;
+   }
+}
@@ -9,15 +9,16 @@ import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
 import java.nio.charset.CharacterCodingException;
-import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
+ * Percent-encoding of URI components.  Every method makes a single pass over its input with the encoding tables
+ * below and returns the input itself if nothing has to be encoded or decoded, so the common case allocates nothing.
+ *
  * @author <a href="mailto:bill@burkecentral.com">Bill Burke</a>
  * @version $Revision: 1 $
  */
@@ -25,7 +26,14 @@ public class Encode
 {
    private static final String UTF_8 = "UTF-8";
 
-   private static final Pattern PARAM_REPLACEMENT = Pattern.compile("_resteasy_uri_parameter");
+   private static final String PARAM_REPLACEMENT = "_resteasy_uri_parameter";
+
+   private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+   // how encodeChars() treats '%'
+   private static final int ENCODE_PERCENT = 0;
+   private static final int KEEP_PERCENT = 1;
+   private static final int KEEP_CODES = 2;
 
    private static final String[] pathEncoding = new String[128];
    private static final String[] pathSegmentEncoding = new String[128];
@@ -194,42 +202,83 @@ public class Encode
       return encodeValue(value, queryNameValueEncoding);
    }
 
-   //private static final Pattern nonCodes = Pattern.compile("%([^a-fA-F0-9]|$)");
-   private static final Pattern nonCodes = Pattern.compile("%([^a-fA-F0-9]|[a-fA-F0-9]$|$|[a-fA-F0-9][^a-fA-F0-9])");
-   private static final Pattern encodedChars = Pattern.compile("%([a-fA-F0-9][a-fA-F0-9])");
-   private static final Pattern encodedCharsMulti = Pattern.compile("((%[a-fA-F0-9][a-fA-F0-9])+)");
+   private static int hexValue(char c)
+   {
+      if (c >= '0' && c <= '9') return c - '0';
+      if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+      if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+      return -1;
+   }
+
+   /**
+    * @return whether the '%' at index is followed by two hex digits
+    */
+   private static boolean isCode(String string, int index)
+   {
+      return index + 2 < string.length() && hexValue(string.charAt(index + 1)) >= 0 && hexValue(string.charAt(index + 2)) >= 0;
+   }
+
+   /**
+    * @return index of the next encoding sequence "%.." from index on, or -1
+    */
+   private static int nextCode(String string, int index)
+   {
+      index = string.indexOf('%', index);
+      while (index >= 0 && !isCode(string, index)) index = string.indexOf('%', index + 1);
+      return index;
+   }
 
+   /**
+    * Decode the encoding sequences "%.." of a path as UTF-8, anything else is kept as is.  Unlike
+    * {@link #decode(String)} '+' is not taken for a space.
+    *
+    * @param path
+    * @return
+    */
    public static String decodePath(String path)
    {
-      Matcher matcher = encodedCharsMulti.matcher(path);
-      int start=0;
-      StringBuilder builder = new StringBuilder();
-      CharsetDecoder decoder = Charset.forName(UTF_8).newDecoder();
-      while (matcher.find())
+      int index = nextCode(path, 0);
+      if (index < 0) return path;
+      int length = path.length();
+      StringBuilder builder = new StringBuilder(length);
+      byte[] bytes = new byte[length / 3];
+      CharsetDecoder decoder = null;
+      int start = 0;
+      while (index >= 0)
       {
-    	 builder.append(path, start, matcher.start());
-         decoder.reset();
-         String decoded = decodeBytes(matcher.group(1), decoder);
-         builder.append(decoded);
-         start = matcher.end();
+         builder.append(path, start, index);
+         int count = 0;
+         boolean ascii = true;
+         do
+         {
+            int b = (hexValue(path.charAt(index + 1)) << 4) | hexValue(path.charAt(index + 2));
+            ascii &= b < 0x80;
+            bytes[count++] = (byte) b;
+            index += 3;
+         }
+         while (index < length && path.charAt(index) == '%' && isCode(path, index));
+         if (ascii)
+         {
+            for (int i = 0; i < count; i++) builder.append((char) bytes[i]);
+         }
+         else
+         {
+            if (decoder == null) decoder = StandardCharsets.UTF_8.newDecoder();
+            else decoder.reset();
+            builder.append(decodeBytes(bytes, count, decoder));
+         }
+         start = index;
+         index = nextCode(path, index);
       }
-      builder.append(path, start, path.length());
+      builder.append(path, start, length);
       return builder.toString();
    }
 
-   private static String decodeBytes(String enc, CharsetDecoder decoder)
+   private static CharSequence decodeBytes(byte[] bytes, int count, CharsetDecoder decoder)
    {
-      Matcher matcher = encodedChars.matcher(enc);
-      ByteBuffer bytes = ByteBuffer.allocate(enc.length() / 3);
-      while (matcher.find())
-      {
-         int b = Integer.parseInt(matcher.group(1), 16);
-         bytes.put((byte) b);
-      }
-      bytes.flip();
       try
       {
-         return decoder.decode(bytes).toString();
+         return decoder.decode(ByteBuffer.wrap(bytes, 0, count));
       }
       catch (CharacterCodingException e)
       {
@@ -245,43 +294,68 @@ public class Encode
     */
    public static String encodeNonCodes(String string)
    {
-      Matcher matcher = nonCodes.matcher(string);
-      StringBuilder builder = new StringBuilder();
-
-
-      // FYI: we do not use the no-arg matcher.find()
-      //      coupled with matcher.appendReplacement()
-      //      because the matched text may contain
-      //      a second % and we must make sure we
-      //      encode it (if necessary).
-      int idx = 0;
-      while (matcher.find(idx))
+      int index = string.indexOf('%');
+      while (index >= 0 && isCode(string, index)) index = string.indexOf('%', index + 1);
+      if (index < 0) return string;
+      StringBuilder builder = new StringBuilder(string.length() + 8);
+      int start = 0;
+      while (index >= 0)
       {
-         int start = matcher.start();
-         builder.append(string.substring(idx, start));
-         builder.append("%25");
-         idx = start + 1;
+         // a '%' that starts no encoding sequence is encoded itself
+         if (!isCode(string, index))
+         {
+            builder.append(string, start, index).append("%25");
+            start = index + 1;
+         }
+         index = string.indexOf('%', index + 1);
       }
-      builder.append(string.substring(idx));
+      builder.append(string, start, string.length());
       return builder.toString();
    }
 
+   /**
+    * Replace the template parameters "{...}" of a segment with a placeholder and collect them, so the rest of the
+    * segment can be encoded.  Regular expressions of parameters can have '{' and '}' characters, only the outermost
+    * braces count.
+    *
+    * @param segment
+    * @param newSegment segment with placeholders
+    * @param params parameters in the order of the segment
+    * @return whether the segment has parameters
+    */
    public static boolean savePathParams(String segment, StringBuilder newSegment, List<String> params)
    {
+      if (segment.indexOf('{') < 0)
+      {
+         newSegment.append(segment);
+         return false;
+      }
       boolean foundParam = false;
-      // Regular expressions can have '{' and '}' characters.  Replace them to do match
-      segment = PathHelper.replaceEnclosedCurlyBraces(segment);
-      Matcher matcher = PathHelper.URI_TEMPLATE_PATTERN.matcher(segment);
       int start = 0;
-      while (matcher.find())
+      int paramStart = -1;
+      int open = 0;
+      for (int i = 0; i < segment.length(); i++)
       {
-    	 newSegment.append(segment, start, matcher.start());
-         foundParam = true;
-         String group = matcher.group();
-         // Regular expressions can have '{' and '}' characters.  Recover earlier replacement
-         params.add(PathHelper.recoverEnclosedCurlyBraces(group));
-         newSegment.append("_resteasy_uri_parameter");
-         start = matcher.end();
+         char c = segment.charAt(i);
+         if (c == '{')
+         {
+            if (open == 0) paramStart = i;
+            open++;
+         }
+         else if (c == '}')
+         {
+            open--;
+            if (open != 0) continue;
+            if (paramStart >= 0 && i > paramStart + 1)
+            {
+               newSegment.append(segment, start, paramStart);
+               params.add(segment.substring(paramStart, i + 1));
+               newSegment.append(PARAM_REPLACEMENT);
+               start = i + 1;
+               foundParam = true;
+            }
+            paramStart = -1;
+         }
       }
       newSegment.append(segment, start, segment.length());
       return foundParam;
@@ -296,22 +370,21 @@ public class Encode
     */
    public static String encodeValue(String segment, String[] encoding)
    {
-      ArrayList<String> params = new ArrayList<String>();
-      boolean foundParam = false;
-      StringBuilder newSegment = new StringBuilder();
-      if (savePathParams(segment, newSegment, params))
+      if (segment.indexOf('{') < 0)
       {
-         foundParam = true;
-         segment = newSegment.toString();
+         return encodeChars(segment, encoding, KEEP_CODES);
       }
-      String result = encodeFromArray(segment, encoding, false);
-      result = encodeNonCodes(result);
-      segment = result;
-      if (foundParam)
+      ArrayList<String> params = new ArrayList<String>();
+      StringBuilder newSegment = new StringBuilder(segment.length());
+      if (!savePathParams(segment, newSegment, params))
       {
-         segment = pathParamReplacement(segment, params);
+         return encodeChars(segment, encoding, KEEP_CODES);
       }
-      return segment;
+      String saved = newSegment.toString();
+      String encoded = encodeChars(saved, encoding, KEEP_CODES);
+      // nothing encoded between the parameters
+      if (encoded == saved) return segment;
+      return pathParamReplacement(encoded, params);
    }
 
    /**
@@ -335,9 +408,7 @@ public class Encode
     */
    public static String encodePathSaveEncodings(String segment)
    {
-      String result = encodeFromArray(segment, pathEncoding, false);
-      result = encodeNonCodes(result);
-      return result;
+      return encodeChars(segment, pathEncoding, KEEP_CODES);
    }
 
    /**
@@ -361,9 +432,7 @@ public class Encode
     */
    public static String encodePathSegmentSaveEncodings(String segment)
    {
-      String result = encodeFromArray(segment, pathSegmentEncoding, false);
-      result = encodeNonCodes(result);
-      return result;
+      return encodeChars(segment, pathSegmentEncoding, KEEP_CODES);
    }
 
 
@@ -386,9 +455,7 @@ public class Encode
     */
    public static String encodeQueryParamSaveEncodings(String segment)
    {
-      String result = encodeFromArray(segment, queryNameValueEncoding, false);
-      result = encodeNonCodes(result);
-      return result;
+      return encodeChars(segment, queryNameValueEncoding, KEEP_CODES);
    }
 
    public static String encodeFragmentAsIs(String nameOrValue)
@@ -398,70 +465,105 @@ public class Encode
 
    protected static String encodeFromArray(String segment, String[] encodingMap, boolean encodePercent)
    {
-      StringBuilder result = new StringBuilder();
-      for (int i = 0; i < segment.length(); i++)
+      return encodeChars(segment, encodingMap, encodePercent ? ENCODE_PERCENT : KEEP_PERCENT);
+   }
+
+   private static boolean needsEncoding(String segment, int index, String[] encodingMap, int percent)
+   {
+      char c = segment.charAt(index);
+      if (c == '%' && percent != ENCODE_PERCENT) return percent == KEEP_CODES && !isCode(segment, index);
+      return c >= encodingMap.length || encodingMap[c] != null;
+   }
+
+   /**
+    * @param segment
+    * @param encodingMap encoding of the ASCII characters, null for those that are kept
+    * @param percent whether '%' is encoded, kept, or only kept if it starts an encoding sequence "%.."
+    * @return the segment itself if nothing has to be encoded
+    */
+   private static String encodeChars(String segment, String[] encodingMap, int percent)
+   {
+      int length = segment.length();
+      int i = 0;
+      while (i < length && !needsEncoding(segment, i, encodingMap, percent)) i++;
+      if (i == length) return segment;
+
+      StringBuilder result = new StringBuilder(length + 16);
+      result.append(segment, 0, i);
+      for (; i < length; i++)
       {
-    	 char currentChar = segment.charAt(i);
-         if (!encodePercent && currentChar == '%')
+         char c = segment.charAt(i);
+         if (c == '%' && percent != ENCODE_PERCENT)
+         {
+            if (percent == KEEP_CODES && !isCode(segment, i)) result.append("%25");
+            else result.append(c);
+         }
+         else if (c < encodingMap.length)
          {
-            result.append(currentChar);
-            continue;
+            String encoding = encodingMap[c];
+            if (encoding == null) result.append(c);
+            else result.append(encoding);
          }
-         String encoding = encode(currentChar, encodingMap);
-         if (encoding == null)
+         else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(segment.charAt(i + 1)))
          {
-            result.append(currentChar);
+            appendUtf8(result, Character.toCodePoint(c, segment.charAt(++i)));
+         }
+         else if (Character.isSurrogate(c))
+         {
+            // what URLEncoder makes of a lone surrogate
+            result.append("%3F");
          }
          else
          {
-            result.append(encoding);
+            appendUtf8(result, c);
          }
       }
       return result.toString();
    }
 
-   /**
-    * @param zhar        integer representation of character
-    * @param encodingMap encoding map
-    * @return URL encoded character
-    */
-   private static String encode(int zhar, String[] encodingMap)
+   private static void appendUtf8(StringBuilder result, int codePoint)
    {
-      String encoded;
-      if (zhar < encodingMap.length)
+      if (codePoint < 0x800)
       {
-         encoded = encodingMap[zhar];
+         appendByte(result, 0xC0 | (codePoint >> 6));
       }
       else
       {
-         try
+         if (codePoint < 0x10000)
          {
-            encoded = URLEncoder.encode(Character.toString((char) zhar), UTF_8);
+            appendByte(result, 0xE0 | (codePoint >> 12));
          }
-         catch (UnsupportedEncodingException e)
+         else
          {
-            throw new RuntimeException(e);
+            appendByte(result, 0xF0 | (codePoint >> 18));
+            appendByte(result, 0x80 | ((codePoint >> 12) & 0x3F));
          }
+         appendByte(result, 0x80 | ((codePoint >> 6) & 0x3F));
       }
-      return encoded;
+      appendByte(result, 0x80 | (codePoint & 0x3F));
+   }
+
+   private static void appendByte(StringBuilder result, int b)
+   {
+      result.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
    }
 
    public static String pathParamReplacement(String segment, List<String> params)
    {
-      StringBuilder newSegment = new StringBuilder();
-      Matcher matcher = PARAM_REPLACEMENT.matcher(segment);
+      int index = segment.indexOf(PARAM_REPLACEMENT);
+      if (index < 0) return segment;
+      StringBuilder newSegment = new StringBuilder(segment.length() + 16);
       int i = 0;
       int start = 0;
-      while (matcher.find())
+      while (index >= 0)
       {
-    	 newSegment.append(segment, start, matcher.start());
-         String replacement = params.get(i++);
-     	 newSegment.append(replacement);
-		 start = matcher.end();
+         newSegment.append(segment, start, index);
+         newSegment.append(params.get(i++));
+         start = index + PARAM_REPLACEMENT.length();
+         index = segment.indexOf(PARAM_REPLACEMENT, start);
       }
-  	  newSegment.append(segment, start, segment.length());
-      segment = newSegment.toString();
-      return segment;
+      newSegment.append(segment, start, segment.length());
+      return newSegment.toString();
    }
 
    /**
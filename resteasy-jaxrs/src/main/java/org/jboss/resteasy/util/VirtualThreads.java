@@ -0,0 +1,126 @@
+package org.jboss.resteasy.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors that run every task on a virtual thread of its own.  Virtual threads only exist on Java 21 and
+ * later, so they are looked up reflectively and every factory method returns null on older JVMs, which callers take
+ * as the cue to fall back to a pool of platform threads.
+ *
+ * Virtual threads do not inherit the context data of the thread that submitted a task, resteasy thread locals are
+ * plain {@link ThreadLocal}s.  Tasks that need the context of a request must carry it over themselves, see
+ * {@link org.jboss.resteasy.spi.ResteasyProviderFactory#attachContextData(java.util.Map)}.
+ */
+public class VirtualThreads
+{
+   private static final Method ofVirtual;
+   private static final Method name;
+   private static final Method factory;
+   private static final Method newThreadPerTaskExecutor;
+   private static final Method isVirtual;
+
+   static
+   {
+      Method ofVirtualMethod = null;
+      Method nameMethod = null;
+      Method factoryMethod = null;
+      Method executorMethod = null;
+      Method isVirtualMethod = null;
+      try
+      {
+         Class<?> builder = Class.forName("java.lang.Thread$Builder");
+         ofVirtualMethod = Thread.class.getMethod("ofVirtual");
+         nameMethod = builder.getMethod("name", String.class, long.class);
+         factoryMethod = builder.getMethod("factory");
+         executorMethod = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+         isVirtualMethod = Thread.class.getMethod("isVirtual");
+      }
+      catch (Exception e)
+      {
+         ofVirtualMethod = null;
+      }
+      ofVirtual = ofVirtualMethod;
+      name = nameMethod;
+      factory = factoryMethod;
+      newThreadPerTaskExecutor = executorMethod;
+      isVirtual = isVirtualMethod;
+   }
+
+   /**
+    * @return whether the JVM supports virtual threads
+    */
+   public static boolean isSupported()
+   {
+      return ofVirtual != null;
+   }
+
+   /**
+    * @param prefix prefix of the thread names, followed by a counter
+    * @return factory of virtual threads, or null if the JVM does not support them
+    */
+   public static ThreadFactory newThreadFactory(String prefix)
+   {
+      if (!isSupported()) return null;
+      try
+      {
+         Object builder = ofVirtual.invoke(null);
+         builder = name.invoke(builder, prefix, 0L);
+         return (ThreadFactory) factory.invoke(builder);
+      }
+      catch (IllegalAccessException e)
+      {
+         return null;
+      }
+      catch (InvocationTargetException e)
+      {
+         return null;
+      }
+   }
+
+   /**
+    * @param prefix prefix of the thread names, followed by a counter
+    * @return executor starting a new virtual thread for every task, or null if the JVM does not support them
+    */
+   public static ExecutorService newExecutor(String prefix)
+   {
+      ThreadFactory threadFactory = newThreadFactory(prefix);
+      if (threadFactory == null) return null;
+      try
+      {
+         return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory);
+      }
+      catch (IllegalAccessException e)
+      {
+         return null;
+      }
+      catch (InvocationTargetException e)
+      {
+         return null;
+      }
+   }
+
+   /**
+    * @param thread
+    * @return whether the thread is a virtual thread
+    */
+   public static boolean isVirtual(Thread thread)
+   {
+      if (!isSupported()) return false;
+      try
+      {
+         return (Boolean) isVirtual.invoke(thread);
+      }
+      catch (IllegalAccessException e)
+      {
+         return false;
+      }
+      catch (InvocationTargetException e)
+      {
+         return false;
+      }
+   }
+}
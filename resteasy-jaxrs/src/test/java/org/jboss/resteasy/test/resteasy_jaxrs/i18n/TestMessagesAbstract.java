@@ -55,6 +55,8 @@ abstract public class TestMessagesAbstract extends TestMessagesParent
       Assert.assertEquals(getExpected(BASE + "975", "unableToUnmarshalResponse", "abc", new Exception("unable")), Messages.MESSAGES.unableToUnmarshalResponse("abc"));
       Assert.assertEquals(getExpected(    "004000", "unsupportedCollectionType", getClass()), Messages.MESSAGES.unsupportedCollectionType(getClass()));
       Assert.assertEquals(getExpected(    "004070", "wrongPassword", "user"), Messages.MESSAGES.wrongPassword("user"));
+      Assert.assertEquals(getExpected(    "004075", "unableToInstantiateInvocationStrategy", "strategy"), Messages.MESSAGES.unableToInstantiateInvocationStrategy("strategy"));
+      Assert.assertEquals(getExpected(    "004115", "unsupportedGzipCompressionMethod", 7), Messages.MESSAGES.unsupportedGzipCompressionMethod(7));
    }
    
    @Override
@@ -0,0 +1,144 @@
+package org.jboss.resteasy.plugins.server.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+
+import org.jboss.resteasy.plugins.server.netty.i18n.Messages;
+
+/**
+ * InputStream over the {@link io.netty.handler.codec.http.HttpContent} chunks of a request body that is dispatched
+ * before it has been fully received.  Chunks are offered by the event loop and read by the thread running the
+ * request.  Once more than highWaterMark bytes are waiting to be read, reading from the channel is suspended
+ * so the client is held back by TCP flow control; it is resumed when the reader has drained the buffer to
+ * half of that.
+ * <p>
+ * Closing the stream discards the rest of the body as it arrives, so a connection can be kept alive after a
+ * resource that did not read all of its input.
+ */
+public class ChunkInputStream extends InputStream {
+   public static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+
+   private final Channel channel;
+   private final ReadSuspension readSuspension;
+   private final int highWaterMark;
+   private final int lowWaterMark;
+   private final ArrayDeque<ByteBuf> chunks = new ArrayDeque<ByteBuf>();
+   private int buffered;
+   private boolean complete;
+   private boolean closed;
+   private boolean readSuspended;
+   private IOException failure;
+
+   ChunkInputStream(Channel channel, int highWaterMark) {
+      this.channel = channel;
+      this.readSuspension = ReadSuspension.of(channel);
+      this.highWaterMark = Math.max(highWaterMark, 1);
+      this.lowWaterMark = this.highWaterMark / 2;
+   }
+
+   /**
+    * Called by the event loop for every chunk of the body.  The chunk is retained if it is kept.
+    */
+   synchronized void offer(ByteBuf chunk, boolean last) {
+      if (!closed && failure == null && chunk.isReadable()) {
+         chunks.add(chunk.retain());
+         buffered += chunk.readableBytes();
+         if (!readSuspended && buffered > highWaterMark) {
+            readSuspended = true;
+            readSuspension.suspend();
+         }
+      }
+      if (last) complete = true;
+      notifyAll();
+   }
+
+   /**
+    * Called by the event loop if the body cannot be received completely, e.g. because the connection was closed.
+    */
+   synchronized void fail(IOException cause) {
+      if (complete || closed) return;
+      failure = cause;
+      releaseChunks();
+      notifyAll();
+   }
+
+   @Override
+   public synchronized int read() throws IOException {
+      ByteBuf chunk = awaitChunk();
+      if (chunk == null) return -1;
+      int b = chunk.readUnsignedByte();
+      consumed(chunk, 1);
+      return b;
+   }
+
+   @Override
+   public synchronized int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) return 0;
+      ByteBuf chunk = awaitChunk();
+      if (chunk == null) return -1;
+      int n = Math.min(len, chunk.readableBytes());
+      chunk.readBytes(b, off, n);
+      consumed(chunk, n);
+      return n;
+   }
+
+   @Override
+   public synchronized int available() throws IOException {
+      return buffered;
+   }
+
+   @Override
+   public synchronized void close() throws IOException {
+      if (closed) return;
+      closed = true;
+      releaseChunks();
+      notifyAll();
+   }
+
+   private ByteBuf awaitChunk() throws IOException {
+      while (chunks.isEmpty()) {
+         if (failure != null) throw failure;
+         if (complete || closed) return null;
+         if (channel.eventLoop().inEventLoop()) {
+            throw new IOException(Messages.MESSAGES.cannotBlockEventLoop());
+         }
+         try {
+            wait();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+         }
+      }
+      return chunks.peek();
+   }
+
+   private void consumed(ByteBuf chunk, int n) {
+      buffered -= n;
+      if (!chunk.isReadable()) {
+         chunks.poll();
+         chunk.release();
+      }
+      if (buffered <= lowWaterMark) resumeRead();
+   }
+
+   private void releaseChunks() {
+      ByteBuf chunk;
+      while ((chunk = chunks.poll()) != null) {
+         chunk.release();
+      }
+      buffered = 0;
+      resumeRead();
+   }
+
+   private void resumeRead() {
+      if (readSuspended) {
+         readSuspended = false;
+         readSuspension.resume();
+      }
+   }
+}
@@ -1,7 +1,6 @@
 package org.jboss.resteasy.plugins.server.netty;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultHttpContent;
 
@@ -25,35 +24,49 @@ ctx.write(response);
 ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ChannelFutureListener.CLOSE);
 }
  </pre>
+ * Chunks are allocated from the channel's {@link io.netty.buffer.ByteBufAllocator} and handed to Netty as they are,
+ * and the response is only switched to chunked encoding once more than one chunk is written or the application
+ * flushes.  A response that fits into one chunk is sent by {@link NettyHttpResponse#finish()} as a full response
+ * with a Content-Length.
+ *
  * @author tbussier
  *
  */
 public class ChunkOutputStream extends OutputStream {
-   final ByteBuf buffer;
+   ByteBuf buffer;
    final ChannelHandlerContext ctx;
    final NettyHttpResponse response;
+   final int chunkSize;
+   boolean finishing;
 
    ChunkOutputStream(NettyHttpResponse response, ChannelHandlerContext ctx, int chunksize) {
       this.response = response;
       if (chunksize < 1) {
          throw new IllegalArgumentException(Messages.MESSAGES.chunkSizeMustBeAtLeastOne());
       }
-      this.buffer = Unpooled.buffer(0, chunksize);
+      this.chunkSize = chunksize;
       this.ctx = ctx;
    }
 
+   private ByteBuf buffer() {
+      if (buffer == null) {
+         buffer = ctx.alloc().buffer(chunkSize, chunkSize);
+      }
+      return buffer;
+   }
+
    @Override
    public void write(int b) throws IOException {
-      if (buffer.maxWritableBytes() < 1) {
-         flush();
+      if (buffer().maxWritableBytes() < 1) {
+         writeChunk();
       }
-      buffer.writeByte(b);
+      buffer().writeByte(b);
    }
 
    public void reset()
    {
       if (response.isCommitted()) throw new IllegalStateException(Messages.MESSAGES.responseIsCommitted());
-      buffer.clear();
+      release();
    }
 
    @Override
@@ -65,28 +78,63 @@ public class ChunkOutputStream extends OutputStream {
 
    @Override
    public void write(byte[] b, int off, int len) throws IOException {
-      int dataLengthLeftToWrite = len;
-      int dataToWriteOffset = off;
-      int spaceLeftInCurrentChunk;
-      while ((spaceLeftInCurrentChunk = buffer.maxWritableBytes()) < dataLengthLeftToWrite) {
-         buffer.writeBytes(b, dataToWriteOffset, spaceLeftInCurrentChunk);
-         dataToWriteOffset = dataToWriteOffset + spaceLeftInCurrentChunk;
-         dataLengthLeftToWrite = dataLengthLeftToWrite - spaceLeftInCurrentChunk;
-         flush();
-      }
-      if (dataLengthLeftToWrite > 0) {
-         buffer.writeBytes(b, dataToWriteOffset, dataLengthLeftToWrite);
+      while (len > 0) {
+         int spaceLeftInCurrentChunk = buffer().maxWritableBytes();
+         if (spaceLeftInCurrentChunk == 0) {
+            writeChunk();
+            continue;
+         }
+         int n = Math.min(spaceLeftInCurrentChunk, len);
+         buffer.writeBytes(b, off, n);
+         off += n;
+         len -= n;
       }
    }
 
    @Override
    public void flush() throws IOException {
-      int readable = buffer.readableBytes();
-      if (readable == 0) return;
-      if (!response.isCommitted()) response.prepareChunkStream();
-      ctx.writeAndFlush(new DefaultHttpContent(buffer.copy()));
-      buffer.clear();
+      if (finishing || buffer == null || !buffer.isReadable()) return;
+      writeChunk();
+      response.getSlot().flush();
       super.flush();
    }
 
+   /**
+    * Hand the current chunk over to the channel.  It is only flushed if the channel's outbound buffer is full, so a
+    * response is not flushed once per chunk.
+    */
+   private void writeChunk() {
+      if (!response.isCommitted()) response.prepareChunkStream();
+      response.getSlot().write(new DefaultHttpContent(buffer));
+      buffer = null;
+      if (!ctx.channel().isWritable()) response.getSlot().flush();
+   }
+
+   /**
+    * Called before the response is finished.  Flushes of wrapping streams no longer start a chunk.
+    */
+   void finishing() {
+      finishing = true;
+   }
+
+   /**
+    * @return the content not written yet, owned by the caller, or null if there is none
+    */
+   ByteBuf takeContent() {
+      ByteBuf content = buffer;
+      buffer = null;
+      if (content != null && !content.isReadable()) {
+         content.release();
+         return null;
+      }
+      return content;
+   }
+
+   void release() {
+      if (buffer != null) {
+         buffer.release();
+         buffer = null;
+      }
+   }
+
 }
\ No newline at end of file
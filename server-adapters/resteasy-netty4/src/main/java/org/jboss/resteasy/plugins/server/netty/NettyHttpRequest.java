@@ -52,6 +52,7 @@ public class NettyHttpRequest extends BaseHttpRequest
    protected InputStream inputStream;
    protected Map<String, Object> attributes = new HashMap<String, Object>();
    protected NettyHttpResponse response;
+   private ChunkInputStream contentStream;
    private final boolean is100ContinueExpected;
    private NettyExecutionContext executionContext;
    private final ChannelHandlerContext ctx;
@@ -149,6 +150,20 @@ public class NettyHttpRequest extends BaseHttpRequest
       this.inputStream = stream;
    }
 
+   void setContentStream(ChunkInputStream stream)
+   {
+      this.contentStream = stream;
+      this.inputStream = stream;
+   }
+
+   /**
+    * Drop whatever is left of a streamed request body, so the connection can go on with the next request.
+    */
+   void discardContent() throws IOException
+   {
+      if (contentStream != null) contentStream.close();
+   }
+
    @Override
    public String getHttpMethod()
    {
@@ -1,11 +1,10 @@
 package org.jboss.resteasy.plugins.server.netty;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpHeaders.Names;
 import io.netty.handler.codec.http.HttpHeaders.Values;
@@ -33,19 +32,35 @@ import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 public class NettyHttpResponse implements HttpResponse
 {
    private static final int EMPTY_CONTENT_LENGTH = 0;
+   /**
+    * Responses up to this size are sent with a Content-Length instead of chunked.
+    */
+   private static final int CHUNK_SIZE = 8192;
    private int status = 200;
    private OutputStream os;
+   private final ChunkOutputStream chunkOutputStream;
    private MultivaluedMap<String, Object> outputHeaders;
    private final ChannelHandlerContext ctx;
+   private final ResponseSequencer.Slot slot;
    private boolean committed;
    private boolean keepAlive;
    private ResteasyProviderFactory providerFactory;
 
    public NettyHttpResponse(ChannelHandlerContext ctx, boolean keepAlive, ResteasyProviderFactory providerFactory)
+   {
+      this(ctx, keepAlive, providerFactory, new ResponseSequencer(ctx).next());
+   }
+
+   /**
+    * @param slot place of the response among the responses of the connection
+    */
+   public NettyHttpResponse(ChannelHandlerContext ctx, boolean keepAlive, ResteasyProviderFactory providerFactory, ResponseSequencer.Slot slot)
    {
       outputHeaders = new MultivaluedMapImpl<String, Object>();
-      os = new ChunkOutputStream(this, ctx, 1000);
+      chunkOutputStream = new ChunkOutputStream(this, ctx, CHUNK_SIZE);
+      os = chunkOutputStream;
       this.ctx = ctx;
+      this.slot = slot;
       this.keepAlive = keepAlive;
       this.providerFactory = providerFactory;
    }
@@ -111,6 +126,7 @@ public class NettyHttpResponse implements HttpResponse
          responseStatus = HttpResponseStatus.valueOf(status);
          setStatus(status);
       }
+      chunkOutputStream.release();
       io.netty.handler.codec.http.HttpResponse response = null;
       if (message != null)
       {
@@ -131,8 +147,9 @@ public class NettyHttpResponse implements HttpResponse
          if (message == null) response.headers().add(Names.CONTENT_LENGTH, 0);
          else response.headers().add(Names.CONTENT_LENGTH, message.getBytes().length);
       }
-      ctx.writeAndFlush(response);
       committed = true;
+      // the error response is complete, finish() has nothing left to write
+      slot.complete(response, !keepAlive);
    }
 
    @Override
@@ -149,7 +166,7 @@ public class NettyHttpResponse implements HttpResponse
          throw new IllegalStateException(Messages.MESSAGES.alreadyCommitted());
       }
       outputHeaders.clear();
-      outputHeaders.clear();
+      chunkOutputStream.reset();
    }
 
    public boolean isKeepAlive()
@@ -157,6 +174,11 @@ public class NettyHttpResponse implements HttpResponse
       return keepAlive;
    }
 
+   ResponseSequencer.Slot getSlot()
+   {
+      return slot;
+   }
+
    public DefaultHttpResponse getDefaultHttpResponse()
    {
        DefaultHttpResponse res = new DefaultHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(getStatus()));
@@ -166,12 +188,20 @@ public class NettyHttpResponse implements HttpResponse
 
    public DefaultHttpResponse getEmptyHttpResponse()
    {
-       DefaultFullHttpResponse res = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(getStatus()));
-       res.headers().add(Names.CONTENT_LENGTH, EMPTY_CONTENT_LENGTH);
+       DefaultFullHttpResponse res = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(getStatus()));
+       res.headers().add(Names.CONTENT_LENGTH, EMPTY_CONTENT_LENGTH);
        transformResponseHeaders(res);
        return res;
    }
 
+   private DefaultFullHttpResponse getFullHttpResponse(ByteBuf content)
+   {
+       DefaultFullHttpResponse res = new DefaultFullHttpResponse(HTTP_1_1, HttpResponseStatus.valueOf(getStatus()), content);
+       transformResponseHeaders(res);
+       HttpHeaders.setContentLength(res, content.readableBytes());
+       return res;
+   }
+
    private void transformResponseHeaders(io.netty.handler.codec.http.HttpResponse res) {
        RestEasyHttpResponseEncoder.transformHeaders(this, res, providerFactory);
    }
@@ -180,23 +210,29 @@ public class NettyHttpResponse implements HttpResponse
       committed = true;
       DefaultHttpResponse response = getDefaultHttpResponse();
       HttpHeaders.setTransferEncodingChunked(response);
-      ctx.write(response);
+      slot.write(response);
    }
 
    public void finish() throws IOException {
+      if (slot.isComplete()) {
+         chunkOutputStream.release();
+         return;
+      }
+      chunkOutputStream.finishing();
       os.flush();
-      ChannelFuture future;
+      ByteBuf content = chunkOutputStream.takeContent();
+      Object last;
       if (isCommitted()) {
          // if committed this means the output stream was used.
-         future = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+         last = content == null ? LastHttpContent.EMPTY_LAST_CONTENT : new DefaultLastHttpContent(content);
+      } else if (content != null) {
+         // everything fit into one chunk
+         committed = true;
+         last = getFullHttpResponse(content);
       } else {
-         future = ctx.writeAndFlush(getEmptyHttpResponse());
-      }
-      
-      if(!isKeepAlive()) {
-         future.addListener(ChannelFutureListener.CLOSE);
+         last = getEmptyHttpResponse();
       }
-
+      slot.complete(last, !isKeepAlive());
    }
 
 
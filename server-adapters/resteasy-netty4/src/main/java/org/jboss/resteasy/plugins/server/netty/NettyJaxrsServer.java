@@ -7,6 +7,10 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
@@ -16,11 +20,14 @@ import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.netty.handler.ssl.SniHandler;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
 import org.jboss.resteasy.core.SynchronousDispatcher;
 import org.jboss.resteasy.plugins.server.embedded.EmbeddedJaxrsServer;
 import org.jboss.resteasy.plugins.server.embedded.SecurityDomain;
 import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.jboss.resteasy.util.VirtualThreads;
 
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLEngine;
@@ -28,6 +35,7 @@ import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import static org.jboss.resteasy.plugins.server.netty.RestEasyHttpRequestDecoder.Protocol.HTTP;
 import static org.jboss.resteasy.plugins.server.netty.RestEasyHttpRequestDecoder.Protocol.HTTPS;
@@ -52,12 +60,22 @@ public class NettyJaxrsServer implements EmbeddedJaxrsServer
    protected String root = "";
    protected SecurityDomain domain;
    private EventLoopGroup eventLoopGroup;
-   private EventLoopGroup eventExecutor;
+   private EventExecutorGroup eventExecutor;
+   private ExecutorService virtualThreadExecutor;
    private int ioWorkerCount = Runtime.getRuntime().availableProcessors() * 2;
+   private boolean useNativeTransport = false;
+   private boolean nativeTransport;
+   private int listenerCount = 1;
+   private boolean concurrentPipelinedRequests = false;
+   private boolean nonBlockingDispatch = false;
    private int executorThreadCount = 16;
+   private boolean useVirtualThreads = false;
    private SSLContext sslContext;
    private SniConfiguration sniConfiguration;
    private int maxRequestSize = 1024 * 1024 * 10;
+   private boolean streamRequestBody = false;
+   private int requestBodyHighWaterMark = ChunkInputStream.DEFAULT_HIGH_WATER_MARK;
+   private int maxPendingResponseBytes = ResponseSequencer.DEFAULT_MAX_PENDING_BYTES;
    private int maxInitialLineLength = 4096;
    private int maxHeaderSize = 8192;
    private int maxChunkSize = 8192;
@@ -106,6 +124,75 @@ public class NettyJaxrsServer implements EmbeddedJaxrsServer
        this.executorThreadCount = executorThreadCount;
    }
 
+    /**
+     * Use Netty's native epoll transport instead of NIO when it is available, i.e. on Linux with the
+     * netty-transport-native-epoll artifact for the platform on the classpath. NIO is used otherwise.
+     *
+     * @param useNativeTransport false by default.
+     */
+    public void setUseNativeTransport(boolean useNativeTransport) {
+        this.useNativeTransport = useNativeTransport;
+    }
+
+    /**
+     * @return whether the server was started with the native epoll transport.
+     */
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * Bind this many listening sockets to the port with SO_REUSEPORT, so the kernel spreads new connections over
+     * them instead of having them accepted by a single event loop. This needs the native transport, with NIO a
+     * single socket is bound.
+     *
+     * @param listenerCount 1 by default.
+     */
+    public void setListenerCount(int listenerCount) {
+        this.listenerCount = listenerCount;
+    }
+
+    /**
+     * Process the pipelined requests of a connection concurrently on the executor threads instead of one after the
+     * other. Responses are written in the order of the requests either way.
+     *
+     * @param concurrentPipelinedRequests false by default.
+     */
+    public void setConcurrentPipelinedRequests(boolean concurrentPipelinedRequests) {
+        this.concurrentPipelinedRequests = concurrentPipelinedRequests;
+    }
+
+    /**
+     * Match requests on the I/O threads, invoke resource methods annotated with
+     * {@link org.jboss.resteasy.annotations.NonBlocking} right there and hand only the others over to the executor
+     * threads. Authentication and pre-matching filters then run on the I/O threads as well, so they must not block.
+     * Has no effect if the executor is disabled.
+     *
+     * @param nonBlockingDispatch false by default.
+     */
+    public void setNonBlockingDispatch(boolean nonBlockingDispatch) {
+        this.nonBlockingDispatch = nonBlockingDispatch;
+    }
+
+    /**
+     * Dispatch every request on a virtual thread of its own instead of the executor threads, so blocking resource
+     * methods do not tie up a platform thread each. The executor thread count is ignored then, and the pipelined
+     * requests of a connection are processed concurrently. Combines with non-blocking dispatch. The executor threads
+     * are used if the JVM does not support virtual threads.
+     *
+     * @param useVirtualThreads false by default.
+     */
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    /**
+     * @return whether the server was started with virtual threads.
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreadExecutor != null;
+    }
+
     /**
      * Set the max. request size in bytes. If this size is exceed we will send a "413 Request Entity Too Large" to the client.
      *
@@ -115,6 +202,36 @@ public class NettyJaxrsServer implements EmbeddedJaxrsServer
         this.maxRequestSize = maxRequestSize;
     }
 
+    /**
+     * Stream request bodies to the resource instead of buffering them in memory before the request is dispatched.
+     * The request is dispatched as soon as its headers have been received, and reading from the channel is suspended
+     * while the resource does not keep up with the client. The max. request size does not apply to streamed requests.
+     *
+     * @param streamRequestBody false by default.
+     */
+    public void setStreamRequestBody(boolean streamRequestBody) {
+        this.streamRequestBody = streamRequestBody;
+    }
+
+    /**
+     * Set how many bytes of a streamed request body may be buffered before reading from the channel is suspended.
+     *
+     * @param requestBodyHighWaterMark 64kb by default.
+     */
+    public void setRequestBodyHighWaterMark(int requestBodyHighWaterMark) {
+        this.requestBodyHighWaterMark = requestBodyHighWaterMark;
+    }
+
+    /**
+     * Set how many bytes of the responses to pipelined requests may be held back, while an earlier response of the
+     * same connection is not complete, before their writers are stalled and reading from the channel is suspended.
+     *
+     * @param maxPendingResponseBytes 1mb by default.
+     */
+    public void setMaxPendingResponseBytes(int maxPendingResponseBytes) {
+        this.maxPendingResponseBytes = maxPendingResponseBytes;
+    }
+
     public void setMaxInitialLineLength(int maxInitialLineLength) {
         this.maxInitialLineLength = maxInitialLineLength;
     }
@@ -236,16 +353,28 @@ public class NettyJaxrsServer implements EmbeddedJaxrsServer
     @SuppressWarnings("unchecked")
     @Override
     public void start() {
-        eventLoopGroup = new NioEventLoopGroup(ioWorkerCount);
-        eventExecutor = new NioEventLoopGroup(executorThreadCount);
+        nativeTransport = useNativeTransport && Epoll.isAvailable();
+        if (nativeTransport) {
+            eventLoopGroup = new EpollEventLoopGroup(ioWorkerCount);
+        } else {
+            eventLoopGroup = new NioEventLoopGroup(ioWorkerCount);
+        }
+        virtualThreadExecutor = useVirtualThreads ? VirtualThreads.newExecutor("resteasy-netty-") : null;
+        // the executor group does no I/O, so it does not need a selector per thread
+        eventExecutor = virtualThreadExecutor == null && executorThreadCount > 0 ? new DefaultEventExecutorGroup(executorThreadCount) : null;
         deployment.start();
         // Configure the server.
         bootstrap.group(eventLoopGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(nativeTransport ? EpollServerSocketChannel.class : NioServerSocketChannel.class)
                 .childHandler(createChannelInitializer())
                 .option(ChannelOption.SO_BACKLOG, backlog)
                 .childOption(ChannelOption.SO_KEEPALIVE, true);
 
+        int listeners = nativeTransport ? Math.max(listenerCount, 1) : 1;
+        if (listeners > 1) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+
         for (Map.Entry<ChannelOption, Object> entry : channelOptions.entrySet()) {
             bootstrap.option(entry.getKey(), entry.getValue());
         }
@@ -263,6 +392,10 @@ public class NettyJaxrsServer implements EmbeddedJaxrsServer
 
         Channel channel = bootstrap.bind(socketAddress).syncUninterruptibly().channel();
         runtimePort = ((InetSocketAddress) channel.localAddress()).getPort();
+        for (int i = 1; i < listeners; i++) {
+            // bind the port actually assigned, in case port 0 was configured
+            bootstrap.bind(new InetSocketAddress(socketAddress.getAddress(), runtimePort)).syncUninterruptibly();
+        }
     }
 
     private ChannelInitializer<SocketChannel> createChannelInitializer() {
@@ -275,11 +408,12 @@ public class NettyJaxrsServer implements EmbeddedJaxrsServer
                 }
             };
         } else if (sniConfiguration == null) {
-            final SSLEngine engine = sslContext.createSSLEngine();
-            engine.setUseClientMode(false);
             return new ChannelInitializer<SocketChannel>() {
                 @Override
                 public void initChannel(SocketChannel ch) throws Exception {
+                    // an engine holds the state of one TLS session, it cannot be shared by connections
+                    SSLEngine engine = sslContext.createSSLEngine();
+                    engine.setUseClientMode(false);
                     ch.pipeline().addFirst(new SslHandler(engine));
                     setupHandlers(ch, dispatcher, HTTPS);
                 }
@@ -299,15 +433,25 @@ public class NettyJaxrsServer implements EmbeddedJaxrsServer
         ChannelPipeline channelPipeline = ch.pipeline();
         channelPipeline.addLast(channelHandlers.toArray(new ChannelHandler[channelHandlers.size()]));
         channelPipeline.addLast(new HttpRequestDecoder(maxInitialLineLength, maxHeaderSize, maxChunkSize));
-        channelPipeline.addLast(new HttpObjectAggregator(maxRequestSize));
+        if (!streamRequestBody) {
+            channelPipeline.addLast(new HttpObjectAggregator(maxRequestSize));
+        }
         channelPipeline.addLast(new HttpResponseEncoder());
         channelPipeline.addLast(httpChannelHandlers.toArray(new ChannelHandler[httpChannelHandlers.size()]));
-        channelPipeline.addLast(new RestEasyHttpRequestDecoder(dispatcher.getDispatcher(), root, protocol));
+        channelPipeline.addLast(new RestEasyHttpRequestDecoder(dispatcher.getDispatcher(), root, protocol, requestBodyHighWaterMark, maxPendingResponseBytes));
         channelPipeline.addLast(new RestEasyHttpResponseEncoder());
         if (idleTimeout > 0) {
             channelPipeline.addLast("idleStateHandler", new IdleStateHandler(0, 0, idleTimeout));
         }
-        channelPipeline.addLast(eventExecutor, new RequestHandler(dispatcher));
+        if (virtualThreadExecutor != null) {
+            channelPipeline.addLast(new RequestHandler(dispatcher, virtualThreadExecutor, nonBlockingDispatch));
+        } else if (nonBlockingDispatch && eventExecutor != null) {
+            channelPipeline.addLast(new RequestHandler(dispatcher, eventExecutor, true));
+        } else if (concurrentPipelinedRequests && eventExecutor != null) {
+            channelPipeline.addLast(new RequestHandler(dispatcher, eventExecutor));
+        } else {
+            channelPipeline.addLast(eventExecutor, new RequestHandler(dispatcher));
+        }
     }
 
    @Override
@@ -315,6 +459,12 @@ public class NettyJaxrsServer implements EmbeddedJaxrsServer
    {
        runtimePort = -1;
        eventLoopGroup.shutdownGracefully();
-       eventExecutor.shutdownGracefully();
+       if (eventExecutor != null) {
+           eventExecutor.shutdownGracefully();
+       }
+       if (virtualThreadExecutor != null) {
+           virtualThreadExecutor.shutdown();
+           virtualThreadExecutor = null;
+       }
    }
 }
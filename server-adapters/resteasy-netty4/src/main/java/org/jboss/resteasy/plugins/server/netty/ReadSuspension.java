@@ -0,0 +1,55 @@
+package org.jboss.resteasy.plugins.server.netty;
+
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+
+/**
+ * Turns auto read of a channel off while any of the parties that hold reading back need it off.  Streamed request
+ * bodies and held back pipelined responses bound their memory this way on the same connection, each of them suspends
+ * reading at most once and resumes it once, and reading only goes on when nobody holds it back any more.
+ */
+final class ReadSuspension
+{
+   private static final AttributeKey<ReadSuspension> KEY = AttributeKey.valueOf("ReadSuspension");
+
+   private final Channel channel;
+   private int count;
+
+   private ReadSuspension(Channel channel)
+   {
+      this.channel = channel;
+   }
+
+   /**
+    * @return the suspension shared by everything that reads from the channel
+    */
+   static ReadSuspension of(Channel channel)
+   {
+      Attribute<ReadSuspension> attribute = channel.attr(KEY);
+      ReadSuspension suspension = attribute.get();
+      if (suspension == null)
+      {
+         suspension = new ReadSuspension(channel);
+         ReadSuspension existing = attribute.setIfAbsent(suspension);
+         if (existing != null) suspension = existing;
+      }
+      return suspension;
+   }
+
+   synchronized void suspend()
+   {
+      if (count++ == 0) channel.config().setAutoRead(false);
+   }
+
+   synchronized void resume()
+   {
+      if (count == 0) return;
+      if (--count == 0) channel.config().setAutoRead(true);
+   }
+
+   synchronized boolean isSuspended()
+   {
+      return count > 0;
+   }
+}
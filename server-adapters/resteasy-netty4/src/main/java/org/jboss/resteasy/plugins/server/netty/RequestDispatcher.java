@@ -2,6 +2,8 @@ package org.jboss.resteasy.plugins.server.netty;
 
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.commons.codec.binary.Base64;
+import org.jboss.resteasy.core.ResourceInvoker;
+import org.jboss.resteasy.core.ResourceMethodInvoker;
 import org.jboss.resteasy.core.SynchronousDispatcher;
 import org.jboss.resteasy.core.ThreadLocalResteasyProviderFactory;
 import org.jboss.resteasy.plugins.server.embedded.SecurityDomain;
@@ -15,6 +17,7 @@ import javax.ws.rs.core.SecurityContext;
 import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Helper/delegate class to unify Servlet and Filter dispatcher implementations
@@ -103,6 +106,83 @@ public class RequestDispatcher
       }
    }
 
+   /**
+    * First half of {@link #service(ChannelHandlerContext, HttpRequest, HttpResponse, boolean)}: authenticates the
+    * request, runs the pre-matching filters and matches it.  See {@link SynchronousDispatcher#route(HttpRequest, HttpResponse)}.
+    *
+    * @return null if the request has been answered, otherwise the context data of the request is left on the thread
+    */
+   public ResourceInvoker route(ChannelHandlerContext ctx, HttpRequest request, HttpResponse response) throws IOException
+   {
+      pushProviderFactory();
+      try
+      {
+         SecurityContext securityContext;
+         if (domain != null)
+         {
+            securityContext = basicAuthentication(request, response);
+            if (securityContext == null) // not authenticated
+            {
+               return null;
+            }
+         } else {
+            securityContext = new NettySecurityContext();
+         }
+         ResteasyProviderFactory.pushContext(SecurityContext.class, securityContext);
+         ResteasyProviderFactory.pushContext(ChannelHandlerContext.class, ctx);
+         return dispatcher.route(request, response);
+      }
+      finally
+      {
+         popProviderFactory();
+      }
+   }
+
+   /**
+    * Second half: invoke the resource and write the response.
+    *
+    * @param contextData context data left by {@link #route(ChannelHandlerContext, HttpRequest, HttpResponse)} on
+    *                    another thread, or null if route was called on this one
+    */
+   public void invoke(HttpRequest request, HttpResponse response, ResourceInvoker invoker, Map<Class<?>, Object> contextData)
+   {
+      pushProviderFactory();
+      try
+      {
+         if (contextData != null) ResteasyProviderFactory.attachContextData(contextData);
+         dispatcher.invoke(request, response, invoker);
+      }
+      finally
+      {
+         dispatcher.clearContextData();
+         popProviderFactory();
+      }
+   }
+
+   /**
+    * @return whether the invoker may run on an I/O thread
+    */
+   public static boolean isNonBlocking(ResourceInvoker invoker)
+   {
+      return invoker instanceof ResourceMethodInvoker && ((ResourceMethodInvoker) invoker).isNonBlocking();
+   }
+
+   private void pushProviderFactory()
+   {
+      if (ResteasyProviderFactory.getInstance() instanceof ThreadLocalResteasyProviderFactory)
+      {
+         ThreadLocalResteasyProviderFactory.push(providerFactory);
+      }
+   }
+
+   private void popProviderFactory()
+   {
+      if (ResteasyProviderFactory.getInstance() instanceof ThreadLocalResteasyProviderFactory)
+      {
+         ThreadLocalResteasyProviderFactory.pop();
+      }
+   }
+
    private SecurityContext basicAuthentication(HttpRequest request, HttpResponse response) throws IOException
    {
       List<String> headers = request.getHttpHeaders().getRequestHeader(HttpHeaderNames.AUTHORIZATION);
@@ -9,9 +9,14 @@ import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.HttpResponse;
 
 import io.netty.handler.timeout.IdleStateEvent;
+import org.jboss.resteasy.core.ResourceInvoker;
 import org.jboss.resteasy.plugins.server.netty.i18n.LogMessages;
 import org.jboss.resteasy.plugins.server.netty.i18n.Messages;
 import org.jboss.resteasy.spi.Failure;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.CONTINUE;
 import static io.netty.handler.codec.http.HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE;
@@ -20,6 +25,14 @@ import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 /**
  * {@link SimpleChannelInboundHandler} which handles the requests and dispatch them.
  *
+ * If it is given an {@link Executor}, such as an {@link io.netty.util.concurrent.EventExecutorGroup} or an executor of
+ * virtual threads, every request is dispatched by a task of its own, so the pipelined requests of a connection are
+ * processed concurrently.  Their responses are still written in order.
+ *
+ * In non-blocking dispatch mode the handler runs on the event loop and matches every request there.  Resource
+ * methods annotated with {@link org.jboss.resteasy.annotations.NonBlocking} are invoked right away, all others are
+ * handed over to the executor.
+ *
  * This class is {@link Sharable}.
  *
  * @author <a href="http://www.jboss.org/netty/">The Netty Project</a>
@@ -33,50 +46,179 @@ public class RequestHandler extends SimpleChannelInboundHandler
 {
    
    protected final RequestDispatcher dispatcher;
+   protected final Executor executor;
+   protected final boolean nonBlockingDispatch;
 
    public RequestHandler(RequestDispatcher dispatcher)
+   {
+      this(dispatcher, null);
+   }
+
+   /**
+    * @param executor executor to spread requests over, or null to dispatch them on the thread of the handler
+    */
+   public RequestHandler(RequestDispatcher dispatcher, Executor executor)
+   {
+      this(dispatcher, executor, false);
+   }
+
+   /**
+    * @param executor executor to spread requests over, or null to dispatch them on the thread of the handler
+    * @param nonBlockingDispatch whether to keep requests for non-blocking resource methods on the thread of the handler
+    */
+   public RequestHandler(RequestDispatcher dispatcher, Executor executor, boolean nonBlockingDispatch)
    {
       this.dispatcher = dispatcher;
+      this.executor = executor;
+      this.nonBlockingDispatch = nonBlockingDispatch && executor != null;
    }
 
    @Override
-   protected void channelRead0(ChannelHandlerContext ctx, Object msg) throws Exception
+   protected void channelRead0(final ChannelHandlerContext ctx, Object msg) throws Exception
    {
       if (msg instanceof NettyHttpRequest) {
-          NettyHttpRequest request = (NettyHttpRequest) msg;
-
-          if (request.is100ContinueExpected())
+          final NettyHttpRequest request = (NettyHttpRequest) msg;
+          if (nonBlockingDispatch)
           {
-             send100Continue(ctx);
+             route(ctx, request);
+             return;
           }
-
-          NettyHttpResponse response = request.getResponse();
-          try
+          if (executor == null)
           {
-             dispatcher.service(ctx, request, response, true);
+             handle(ctx, request);
+             return;
           }
-          catch (Failure e1)
+          executor.execute(new Runnable()
           {
-             response.reset();
-             response.setStatus(e1.getErrorCode());
-          }
-          catch (Exception ex)
-          {
-             response.reset();
-             response.setStatus(500);
-             LogMessages.LOGGER.error(Messages.MESSAGES.unexpected(), ex);
-          }
+             @Override
+             public void run()
+             {
+                try
+                {
+                   handle(ctx, request);
+                }
+                catch (Exception e)
+                {
+                   LogMessages.LOGGER.error(Messages.MESSAGES.unexpected(), e);
+                   ctx.close();
+                }
+             }
+          });
+      }
+   }
 
-          if (!request.getAsyncContext().isSuspended()) {
-             response.finish();
-          }
+   protected void handle(ChannelHandlerContext ctx, NettyHttpRequest request) throws Exception
+   {
+      if (request.is100ContinueExpected())
+      {
+         send100Continue(request.getResponse());
+      }
+
+      NettyHttpResponse response = request.getResponse();
+      try
+      {
+         dispatcher.service(ctx, request, response, true);
+      }
+      catch (Exception ex)
+      {
+         failed(response, ex);
+      }
+      complete(request);
+   }
+
+   /**
+    * Match the request on the event loop, then invoke it there or on the executor.
+    */
+   protected void route(final ChannelHandlerContext ctx, final NettyHttpRequest request) throws Exception
+   {
+      if (request.is100ContinueExpected())
+      {
+         send100Continue(request.getResponse());
+      }
+
+      final ResourceInvoker invoker;
+      try
+      {
+         invoker = dispatcher.route(ctx, request, request.getResponse());
+      }
+      catch (Exception ex)
+      {
+         failed(request.getResponse(), ex);
+         complete(request);
+         return;
+      }
+      if (invoker == null)
+      {
+         complete(request);
+         return;
+      }
+      if (RequestDispatcher.isNonBlocking(invoker))
+      {
+         invoke(request, invoker, null);
+         return;
+      }
+      // move the context data of the request over to the worker
+      final Map<Class<?>, Object> contextData = ResteasyProviderFactory.getContextDataMap();
+      ResteasyProviderFactory.clearContextData();
+      executor.execute(new Runnable()
+      {
+         @Override
+         public void run()
+         {
+            try
+            {
+               invoke(request, invoker, contextData);
+            }
+            catch (Exception e)
+            {
+               // the response may never be completed, later responses of the connection would wait for it forever
+               LogMessages.LOGGER.error(Messages.MESSAGES.unexpected(), e);
+               ctx.close();
+            }
+         }
+      });
+   }
+
+   private void invoke(NettyHttpRequest request, ResourceInvoker invoker, Map<Class<?>, Object> contextData) throws Exception
+   {
+      try
+      {
+         dispatcher.invoke(request, request.getResponse(), invoker, contextData);
+      }
+      catch (Exception ex)
+      {
+         failed(request.getResponse(), ex);
+      }
+      complete(request);
+   }
+
+   private void failed(NettyHttpResponse response, Exception ex)
+   {
+      if (ex instanceof Failure)
+      {
+         response.reset();
+         response.setStatus(((Failure) ex).getErrorCode());
+      }
+      else
+      {
+         response.reset();
+         response.setStatus(500);
+         LogMessages.LOGGER.error(Messages.MESSAGES.unexpected(), ex);
+      }
+   }
+
+   private void complete(NettyHttpRequest request) throws Exception
+   {
+      if (!request.getAsyncContext().isSuspended()) {
+         request.discardContent();
+         request.getResponse().finish();
       }
    }
 
-   private void send100Continue(ChannelHandlerContext ctx)
+   private void send100Continue(NettyHttpResponse nettyResponse)
    {
       HttpResponse response = new DefaultHttpResponse(HTTP_1_1, CONTINUE);
-      ctx.writeAndFlush(response);
+      nettyResponse.getSlot().writeAndFlush(response);
    }
 
    @Override
@@ -0,0 +1,236 @@
+package org.jboss.resteasy.plugins.server.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.ReferenceCountUtil;
+
+import java.util.ArrayDeque;
+
+/**
+ * Writes the responses to the requests of one connection in the order the requests arrived, as HTTP/1.1 pipelining
+ * requires, no matter in which order they are finished.  Every request gets a {@link Slot} when it is decoded.  The
+ * oldest unfinished slot writes straight to the channel, the messages of the others are held back until all slots
+ * before them are complete.
+ * <p>
+ * The bytes held back per connection are bounded.  Past the bound, reading from the channel is suspended so no
+ * further requests come in, and a writer that is not on the I/O thread waits until the slots in front of it are done.
+ * Writers on the I/O thread cannot wait, as that thread has to finish the slots in front of them.
+ */
+public class ResponseSequencer
+{
+   public static final int DEFAULT_MAX_PENDING_BYTES = 1024 * 1024;
+
+   private final ChannelHandlerContext ctx;
+   private final ReadSuspension readSuspension;
+   private final int maxPendingBytes;
+   private final ArrayDeque<Slot> slots = new ArrayDeque<Slot>();
+   private long pendingBytes;
+   private boolean readSuspended;
+   private boolean closed;
+
+   public ResponseSequencer(ChannelHandlerContext ctx)
+   {
+      this(ctx, DEFAULT_MAX_PENDING_BYTES);
+   }
+
+   /**
+    * @param ctx
+    * @param maxPendingBytes number of bytes held back for responses that wait for earlier ones, before their writers
+    *                        are stalled
+    */
+   public ResponseSequencer(ChannelHandlerContext ctx, int maxPendingBytes)
+   {
+      this.ctx = ctx;
+      this.readSuspension = ReadSuspension.of(ctx.channel());
+      this.maxPendingBytes = maxPendingBytes;
+   }
+
+   /**
+    * @return slot of the next request, to be called in the order requests arrive
+    */
+   public synchronized Slot next()
+   {
+      Slot slot = new Slot(this);
+      if (!closed) slots.add(slot);
+      return slot;
+   }
+
+   /**
+    * Drop the messages held back once the connection is closed.
+    */
+   public synchronized void close()
+   {
+      closed = true;
+      Slot slot;
+      while ((slot = slots.poll()) != null)
+      {
+         for (Object msg : slot.pending) ReferenceCountUtil.release(msg);
+         slot.pending.clear();
+      }
+      pendingBytes = 0;
+      resumeRead();
+      notifyAll();
+   }
+
+   private boolean isWriting(Slot slot)
+   {
+      return closed || slots.peek() == slot;
+   }
+
+   private synchronized void write(Slot slot, Object msg, boolean flush)
+   {
+      if (isWriting(slot))
+      {
+         if (flush) ctx.writeAndFlush(msg);
+         else ctx.write(msg);
+      }
+      else
+      {
+         hold(slot, msg);
+      }
+   }
+
+   private static int size(Object msg)
+   {
+      if (msg instanceof ByteBufHolder) return ((ByteBufHolder) msg).content().readableBytes();
+      if (msg instanceof ByteBuf) return ((ByteBuf) msg).readableBytes();
+      return 0;
+   }
+
+   private void hold(Slot slot, Object msg)
+   {
+      slot.pending.add(msg);
+      pendingBytes += size(msg);
+      if (pendingBytes <= maxPendingBytes) return;
+      if (!readSuspended)
+      {
+         readSuspended = true;
+         readSuspension.suspend();
+      }
+      if (ctx.executor().inEventLoop()) return;
+      while (pendingBytes > maxPendingBytes && !isWriting(slot))
+      {
+         try
+         {
+            wait();
+         }
+         catch (InterruptedException e)
+         {
+            Thread.currentThread().interrupt();
+            return;
+         }
+      }
+   }
+
+   /**
+    * Wakes up the stalled writers and resumes reading once most of what was held back has been written.
+    */
+   private void released()
+   {
+      notifyAll();
+      if (pendingBytes <= maxPendingBytes / 2) resumeRead();
+   }
+
+   private void resumeRead()
+   {
+      if (readSuspended)
+      {
+         readSuspended = false;
+         readSuspension.resume();
+      }
+   }
+
+   private synchronized void flush(Slot slot)
+   {
+      if (isWriting(slot)) ctx.flush();
+   }
+
+   private synchronized void complete(Slot slot, Object last, boolean close)
+   {
+      if (slot.complete) return;
+      slot.complete = true;
+      slot.close = close;
+      if (!isWriting(slot))
+      {
+         hold(slot, last);
+         return;
+      }
+      finish(slot, ctx.writeAndFlush(last));
+      if (closed) return;
+      slots.poll();
+      // write whatever the next slots have got so far
+      while ((slot = slots.peek()) != null)
+      {
+         ChannelFuture future = null;
+         for (Object msg : slot.pending)
+         {
+            pendingBytes -= size(msg);
+            future = ctx.write(msg);
+         }
+         slot.pending.clear();
+         ctx.flush();
+         if (!slot.complete) break;
+         finish(slot, future);
+         slots.poll();
+      }
+      released();
+   }
+
+   private void finish(Slot slot, ChannelFuture future)
+   {
+      if (slot.close && future != null) future.addListener(ChannelFutureListener.CLOSE);
+   }
+
+   /**
+    * Place of one response in the sequence.
+    */
+   public static class Slot
+   {
+      private final ResponseSequencer sequencer;
+      private final ArrayDeque<Object> pending = new ArrayDeque<Object>(4);
+      private boolean complete;
+      private boolean close;
+
+      private Slot(ResponseSequencer sequencer)
+      {
+         this.sequencer = sequencer;
+      }
+
+      public void write(Object msg)
+      {
+         sequencer.write(this, msg, false);
+      }
+
+      public void writeAndFlush(Object msg)
+      {
+         sequencer.write(this, msg, true);
+      }
+
+      public void flush()
+      {
+         sequencer.flush(this);
+      }
+
+      /**
+       * Write the last message of the response and let the next one go ahead.
+       *
+       * @param last
+       * @param close whether to close the connection once the message has been written
+       */
+      public void complete(Object last, boolean close)
+      {
+         sequencer.complete(this, last, close);
+      }
+
+      public boolean isComplete()
+      {
+         synchronized (sequencer)
+         {
+            return complete;
+         }
+      }
+   }
+}
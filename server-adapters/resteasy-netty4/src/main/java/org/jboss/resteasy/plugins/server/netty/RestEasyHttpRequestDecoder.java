@@ -8,7 +8,11 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.jboss.resteasy.core.SynchronousDispatcher;
@@ -21,17 +25,28 @@ import org.jboss.resteasy.spi.ResteasyUriInfo;
  * This {@link MessageToMessageDecoder} is responsible for decode {@link io.netty.handler.codec.http.HttpRequest}
  * to {@link NettyHttpRequest}'s
  *
+ * If the pipeline does not aggregate requests, the {@link NettyHttpRequest} is passed on as soon as the request
+ * line and headers have been decoded, and the {@link HttpContent} chunks that follow are fed into its
+ * {@link ChunkInputStream}.
+ *
+ * The responses of a connection are written in the order of its requests by a {@link ResponseSequencer}.
+ *
  * This implementation is {@link Sharable}
  *
  * @author Norman Maurer
  *
  */
 @Sharable
-public class RestEasyHttpRequestDecoder extends MessageToMessageDecoder<io.netty.handler.codec.http.HttpRequest>
+public class RestEasyHttpRequestDecoder extends MessageToMessageDecoder<HttpObject>
 {
+    private static final AttributeKey<ChunkInputStream> CONTENT = AttributeKey.valueOf("RestEasyHttpRequestDecoder.CONTENT");
+    private static final AttributeKey<ResponseSequencer> SEQUENCER = AttributeKey.valueOf("RestEasyHttpRequestDecoder.SEQUENCER");
+
     private final SynchronousDispatcher dispatcher;
     private final String servletMappingPrefix;
     private final String proto;
+    private final int highWaterMark;
+    private final int maxPendingResponseBytes;
 
     public enum Protocol
     {
@@ -40,9 +55,31 @@ public class RestEasyHttpRequestDecoder extends MessageToMessageDecoder<io.netty
     }
 
     public RestEasyHttpRequestDecoder(SynchronousDispatcher dispatcher, String servletMappingPrefix, Protocol protocol)
+    {
+        this(dispatcher, servletMappingPrefix, protocol, ChunkInputStream.DEFAULT_HIGH_WATER_MARK);
+    }
+
+    /**
+     * @param highWaterMark number of bytes of a streamed request body buffered before reading from the channel is
+     *                      suspended
+     */
+    public RestEasyHttpRequestDecoder(SynchronousDispatcher dispatcher, String servletMappingPrefix, Protocol protocol, int highWaterMark)
+    {
+        this(dispatcher, servletMappingPrefix, protocol, highWaterMark, ResponseSequencer.DEFAULT_MAX_PENDING_BYTES);
+    }
+
+    /**
+     * @param highWaterMark number of bytes of a streamed request body buffered before reading from the channel is
+     *                      suspended
+     * @param maxPendingResponseBytes number of bytes of responses to pipelined requests held back, while earlier
+     *                                responses are not complete, before their writers are stalled
+     */
+    public RestEasyHttpRequestDecoder(SynchronousDispatcher dispatcher, String servletMappingPrefix, Protocol protocol, int highWaterMark, int maxPendingResponseBytes)
     {
         this.dispatcher = dispatcher;
         this.servletMappingPrefix = servletMappingPrefix;
+        this.highWaterMark = highWaterMark;
+        this.maxPendingResponseBytes = maxPendingResponseBytes;
         if (protocol == Protocol.HTTP)
         {
             proto = "http";
@@ -54,10 +91,28 @@ public class RestEasyHttpRequestDecoder extends MessageToMessageDecoder<io.netty
     }
 
     @Override
-    protected void decode(ChannelHandlerContext ctx, io.netty.handler.codec.http.HttpRequest request, List<Object> out) throws Exception
+    protected void decode(ChannelHandlerContext ctx, HttpObject msg, List<Object> out) throws Exception
+    {
+        if (msg instanceof io.netty.handler.codec.http.HttpRequest)
+        {
+            decodeRequest(ctx, (io.netty.handler.codec.http.HttpRequest) msg, out);
+        }
+        else if (msg instanceof HttpContent)
+        {
+            decodeContent(ctx, (HttpContent) msg);
+        }
+    }
+
+    private void decodeRequest(ChannelHandlerContext ctx, io.netty.handler.codec.http.HttpRequest request, List<Object> out)
     {
         boolean keepAlive = HttpHeaders.isKeepAlive(request);
-        final NettyHttpResponse response = new NettyHttpResponse(ctx, keepAlive, dispatcher.getProviderFactory());
+        ResponseSequencer sequencer = ctx.channel().attr(SEQUENCER).get();
+        if (sequencer == null)
+        {
+            sequencer = new ResponseSequencer(ctx, maxPendingResponseBytes);
+            ctx.channel().attr(SEQUENCER).set(sequencer);
+        }
+        final NettyHttpResponse response = new NettyHttpResponse(ctx, keepAlive, dispatcher.getProviderFactory(), sequencer.next());
         final ResteasyHttpHeaders headers;
         final ResteasyUriInfo uriInfo;
         try
@@ -79,6 +134,17 @@ public class RestEasyHttpRequestDecoder extends MessageToMessageDecoder<io.netty
                
                out.add(nettyRequest); 
            }
+           else
+           {
+               // the body is streamed, dispatch right away
+               if (HttpHeaders.isContentLengthSet(request) || HttpHeaders.isTransferEncodingChunked(request))
+               {
+                   ChunkInputStream in = new ChunkInputStream(ctx.channel(), highWaterMark);
+                   ctx.channel().attr(CONTENT).set(in);
+                   nettyRequest.setContentStream(in);
+               }
+               out.add(nettyRequest);
+           }
         }
         catch (Exception e)
         {
@@ -87,4 +153,29 @@ public class RestEasyHttpRequestDecoder extends MessageToMessageDecoder<io.netty
            LogMessages.LOGGER.warn(Messages.MESSAGES.failedToParseRequest(), e);
         }
     }
+
+    private void decodeContent(ChannelHandlerContext ctx, HttpContent content)
+    {
+        ChunkInputStream in = ctx.channel().attr(CONTENT).get();
+        if (in == null) return;
+        if (content.getDecoderResult().isFailure())
+        {
+            ctx.channel().attr(CONTENT).remove();
+            in.fail(new IOException(content.getDecoderResult().cause()));
+            return;
+        }
+        boolean last = content instanceof LastHttpContent;
+        if (last) ctx.channel().attr(CONTENT).remove();
+        in.offer(content.content(), last);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception
+    {
+        ChunkInputStream in = ctx.channel().attr(CONTENT).getAndRemove();
+        if (in != null) in.fail(new IOException(Messages.MESSAGES.connectionClosedBeforeBodyReceived()));
+        ResponseSequencer sequencer = ctx.channel().attr(SEQUENCER).getAndRemove();
+        if (sequencer != null) sequencer.close();
+        super.channelInactive(ctx);
+    }
 }
@@ -36,4 +36,10 @@ public interface Messages
    
    @Message(id = BASE + 25, value = "Unexpected")
    String unexpected();
+
+   @Message(id = BASE + 30, value = "Cannot wait for request content on the event loop")
+   String cannotBlockEventLoop();
+
+   @Message(id = BASE + 35, value = "Connection closed before the request body was received")
+   String connectionClosedBeforeBodyReceived();
 }
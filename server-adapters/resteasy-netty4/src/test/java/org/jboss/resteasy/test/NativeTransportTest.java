@@ -0,0 +1,57 @@
+package org.jboss.resteasy.test;
+
+import io.netty.channel.epoll.Epoll;
+import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+
+/**
+ * The server falls back to NIO if the native transport is not available, and serves requests on all the listeners
+ * bound with SO_REUSEPORT otherwise.
+ */
+public class NativeTransportTest
+{
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("/test")
+      @Produces("text/plain")
+      public String hello()
+      {
+         return "hello world";
+      }
+   }
+
+   @Test
+   public void testNativeTransport() throws Exception
+   {
+      NettyJaxrsServer server = new NettyJaxrsServer();
+      server.setPort(0);
+      server.setUseNativeTransport(true);
+      server.setListenerCount(4);
+      server.start();
+      server.getDeployment().getRegistry().addPerRequestResource(Resource.class);
+      Client client = ClientBuilder.newClient();
+      try
+      {
+         Assert.assertEquals(Epoll.isAvailable(), server.isNativeTransport());
+         for (int i = 0; i < 8; i++)
+         {
+            String val = client.target("http://localhost:" + server.getPort() + "/test").request().get(String.class);
+            Assert.assertEquals("hello world", val);
+         }
+      }
+      finally
+      {
+         client.close();
+         server.stop();
+      }
+   }
+}
@@ -79,6 +79,17 @@ public class NettyTest
          return buf.toString();
       }
 
+      @GET
+      @Path("huge")
+      @Produces("text/plain")
+      public String huge() {
+         StringBuffer buf = new StringBuffer();
+         for (int i = 0; i < 10000; i++) {
+            buf.append(i);
+         }
+         return buf.toString();
+      }
+
       @GET
       @Path("/context")
       @Produces("text/plain")
@@ -178,6 +189,44 @@ public class NettyTest
       }
    }
 
+   @Test
+   public void testContentLength() throws Exception
+   {
+      WebTarget target = client.target(generateURL("/large"));
+      Response response = target.request().get();
+      try
+      {
+         Assert.assertEquals(200, response.getStatus());
+         Assert.assertEquals("2890", response.getHeaderString("Content-Length"));
+         Assert.assertNull(response.getHeaderString("Transfer-Encoding"));
+      }
+      finally
+      {
+         response.close();
+      }
+   }
+
+   @Test
+   public void testChunked() throws Exception
+   {
+      WebTarget target = client.target(generateURL("/huge"));
+      Response response = target.request().get();
+      try
+      {
+         Assert.assertEquals(200, response.getStatus());
+         Assert.assertEquals("chunked", response.getHeaderString("Transfer-Encoding"));
+         StringBuffer buf = new StringBuffer();
+         for (int i = 0; i < 10000; i++) {
+            buf.append(i);
+         }
+         Assert.assertEquals(buf.toString(), response.readEntity(String.class));
+      }
+      finally
+      {
+         response.close();
+      }
+   }
+
    @Test
    public void testUnhandledException() throws Exception
    {
@@ -0,0 +1,90 @@
+package org.jboss.resteasy.test;
+
+import org.jboss.resteasy.annotations.NonBlocking;
+import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
+import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.UriInfo;
+
+import static org.jboss.resteasy.test.TestPortProvider.generateURL;
+
+/**
+ * Only resource methods marked as non-blocking run on the event loop in non-blocking dispatch mode.
+ */
+public class NonBlockingDispatchTest
+{
+   static NettyJaxrsServer server;
+   static Client client;
+
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("nonblocking")
+      @Produces("text/plain")
+      @NonBlocking
+      public String nonBlocking(@Context UriInfo info)
+      {
+         return info.getPath() + " " + Thread.currentThread().getName();
+      }
+
+      @GET
+      @Path("blocking")
+      @Produces("text/plain")
+      public String blocking(@Context UriInfo info)
+      {
+         return info.getPath() + " " + Thread.currentThread().getName();
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      ResteasyDeployment deployment = new ResteasyDeployment();
+      server = new NettyJaxrsServer();
+      server.setDeployment(deployment);
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setNonBlockingDispatch(true);
+      server.start();
+      deployment.getRegistry().addPerRequestResource(Resource.class);
+      client = ClientBuilder.newClient();
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      client.close();
+      server.stop();
+   }
+
+   @Test
+   public void testNonBlocking() throws Exception
+   {
+      String val = client.target(generateURL("/nonblocking")).request().get(String.class);
+      Assert.assertTrue(val, val.startsWith("/nonblocking nioEventLoopGroup"));
+   }
+
+   @Test
+   public void testBlocking() throws Exception
+   {
+      String val = client.target(generateURL("/blocking")).request().get(String.class);
+      Assert.assertTrue(val, val.startsWith("/blocking defaultEventExecutorGroup"));
+   }
+
+   @Test
+   public void testNotFound() throws Exception
+   {
+      Assert.assertEquals(404, client.target(generateURL("/missing")).request().get().getStatus());
+   }
+}
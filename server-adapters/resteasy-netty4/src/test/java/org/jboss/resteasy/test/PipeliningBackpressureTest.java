@@ -0,0 +1,122 @@
+package org.jboss.resteasy.test;
+
+import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
+import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.jboss.resteasy.test.TestPortProvider.getHost;
+
+/**
+ * A streamed response to a pipelined request that waits for a slow earlier one is not buffered without limit.
+ */
+public class PipeliningBackpressureTest
+{
+   static final int MAX_PENDING = 256 * 1024;
+   static final int CHUNK = 16 * 1024;
+   static final int CHUNKS = 256;
+
+   static NettyJaxrsServer server;
+   static final AtomicLong written = new AtomicLong();
+   static volatile long writtenWhenSlowDone = -1;
+
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("slow")
+      @Produces("text/plain")
+      public String slow() throws Exception
+      {
+         Thread.sleep(1000);
+         writtenWhenSlowDone = written.get();
+         return "slow";
+      }
+
+      @GET
+      @Path("big")
+      @Produces("application/octet-stream")
+      public StreamingOutput big()
+      {
+         return new StreamingOutput()
+         {
+            @Override
+            public void write(OutputStream output) throws IOException
+            {
+               byte[] chunk = new byte[CHUNK];
+               for (int i = 0; i < CHUNKS; i++)
+               {
+                  output.write(chunk);
+                  written.addAndGet(CHUNK);
+               }
+            }
+         };
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      ResteasyDeployment deployment = new ResteasyDeployment();
+      server = new NettyJaxrsServer();
+      server.setDeployment(deployment);
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setConcurrentPipelinedRequests(true);
+      server.setMaxPendingResponseBytes(MAX_PENDING);
+      server.start();
+      deployment.getRegistry().addPerRequestResource(Resource.class);
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      server.stop();
+   }
+
+   @Test(timeout = 30000)
+   public void testHeldBackResponseIsBounded() throws Exception
+   {
+      Socket socket = new Socket(getHost(), server.getPort());
+      try
+      {
+         socket.setSoTimeout(10000);
+         String requests = "GET /slow HTTP/1.1\r\nHost: " + getHost() + "\r\n\r\n"
+               + "GET /big HTTP/1.1\r\nHost: " + getHost() + "\r\nConnection: close\r\n\r\n";
+         OutputStream out = socket.getOutputStream();
+         out.write(requests.getBytes(StandardCharsets.ISO_8859_1));
+         out.flush();
+         InputStream in = socket.getInputStream();
+         ByteArrayOutputStream received = new ByteArrayOutputStream();
+         byte[] buf = new byte[8192];
+         int n;
+         while ((n = in.read(buf)) != -1)
+         {
+            received.write(buf, 0, n);
+         }
+         String head = new String(received.toByteArray(), 0, 512, StandardCharsets.ISO_8859_1);
+         Assert.assertTrue(head, head.startsWith("HTTP/1.1 200") && head.contains("\r\n\r\nslow"));
+         Assert.assertTrue(received.size() > CHUNK * CHUNKS);
+      }
+      finally
+      {
+         socket.close();
+      }
+      // the held back bytes plus what the channel may have taken when the writer was last let through
+      Assert.assertTrue("Writer was not stalled: " + writtenWhenSlowDone, writtenWhenSlowDone >= 0 && writtenWhenSlowDone <= 2 * MAX_PENDING);
+   }
+}
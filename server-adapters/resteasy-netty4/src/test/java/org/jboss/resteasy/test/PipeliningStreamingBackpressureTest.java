@@ -0,0 +1,173 @@
+package org.jboss.resteasy.test;
+
+import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
+import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.jboss.resteasy.test.TestPortProvider.getHost;
+
+/**
+ * With streamed request bodies and concurrent pipelined requests both on, reading from the connection stays
+ * suspended as long as either of them needs it: a held back response that is released does not let a request body
+ * the resource is not reading pile up.
+ */
+public class PipeliningStreamingBackpressureTest
+{
+   static final int HIGH_WATER_MARK = 64 * 1024;
+   static final int MAX_PENDING = 64 * 1024;
+   static final int BODY = 4 * 1024 * 1024;
+   static final int OUTPUT = 1024 * 1024;
+
+   static NettyJaxrsServer server;
+   static volatile boolean slowDone;
+   static volatile int bufferedAfterRelease = -1;
+
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("slow")
+      @Produces("text/plain")
+      public String slow() throws Exception
+      {
+         Thread.sleep(1000);
+         slowDone = true;
+         return "slow";
+      }
+
+      @POST
+      @Path("upload")
+      @Produces("application/octet-stream")
+      public StreamingOutput upload(final InputStream body) throws Exception
+      {
+         // let the body fill the buffer of the stream, so it suspends reading
+         while (body.available() <= HIGH_WATER_MARK)
+         {
+            Thread.sleep(10);
+         }
+         return new StreamingOutput()
+         {
+            @Override
+            public void write(OutputStream output) throws IOException
+            {
+               // held back behind /slow, past MAX_PENDING this suspends reading as well and waits
+               output.write(new byte[OUTPUT]);
+               output.flush();
+               try
+               {
+                  while (!slowDone) Thread.sleep(10);
+                  // the held back response has been released, reading must still be suspended for the body
+                  Thread.sleep(500);
+               }
+               catch (InterruptedException e)
+               {
+                  throw new IOException(e);
+               }
+               bufferedAfterRelease = body.available();
+               long count = 0;
+               byte[] buf = new byte[8192];
+               int n;
+               while ((n = body.read(buf)) != -1)
+               {
+                  count += n;
+               }
+               output.write(("\r\ncount=" + count).getBytes(StandardCharsets.ISO_8859_1));
+            }
+         };
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      ResteasyDeployment deployment = new ResteasyDeployment();
+      server = new NettyJaxrsServer();
+      server.setDeployment(deployment);
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setStreamRequestBody(true);
+      server.setRequestBodyHighWaterMark(HIGH_WATER_MARK);
+      server.setConcurrentPipelinedRequests(true);
+      server.setMaxPendingResponseBytes(MAX_PENDING);
+      server.start();
+      deployment.getRegistry().addPerRequestResource(Resource.class);
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      server.stop();
+   }
+
+   @Test(timeout = 30000)
+   public void testBothLimitsHold() throws Exception
+   {
+      final Socket socket = new Socket(getHost(), server.getPort());
+      try
+      {
+         socket.setSoTimeout(10000);
+         final OutputStream out = socket.getOutputStream();
+         String requests = "GET /slow HTTP/1.1\r\nHost: " + getHost() + "\r\n\r\n"
+               + "POST /upload HTTP/1.1\r\nHost: " + getHost() + "\r\nContent-Type: application/octet-stream\r\n"
+               + "Content-Length: " + BODY + "\r\nConnection: close\r\n\r\n";
+         out.write(requests.getBytes(StandardCharsets.ISO_8859_1));
+         out.flush();
+         Thread sender = new Thread()
+         {
+            @Override
+            public void run()
+            {
+               try
+               {
+                  byte[] chunk = new byte[8192];
+                  for (int i = 0; i < BODY / chunk.length; i++)
+                  {
+                     out.write(chunk);
+                  }
+                  out.flush();
+               }
+               catch (IOException e)
+               {
+                  // reported by the assertions on the response
+               }
+            }
+         };
+         sender.start();
+
+         InputStream in = socket.getInputStream();
+         ByteArrayOutputStream received = new ByteArrayOutputStream();
+         byte[] buf = new byte[8192];
+         int n;
+         while ((n = in.read(buf)) != -1)
+         {
+            received.write(buf, 0, n);
+         }
+         sender.join(10000);
+         String all = new String(received.toByteArray(), StandardCharsets.ISO_8859_1);
+         Assert.assertTrue(all.substring(0, 512), all.startsWith("HTTP/1.1 200") && all.contains("\r\n\r\nslow"));
+         Assert.assertTrue(all.substring(all.length() - 64), all.endsWith("count=" + BODY));
+      }
+      finally
+      {
+         socket.close();
+      }
+      // the high water mark plus what was already read from the socket when reading was suspended
+      Assert.assertTrue("Request body was read while the resource did not consume it: " + bufferedAfterRelease,
+            bufferedAfterRelease >= 0 && bufferedAfterRelease <= 4 * HIGH_WATER_MARK);
+   }
+}
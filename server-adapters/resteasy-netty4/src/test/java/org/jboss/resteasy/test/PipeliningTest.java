@@ -0,0 +1,150 @@
+package org.jboss.resteasy.test;
+
+import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
+import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.jboss.resteasy.test.TestPortProvider.getHost;
+
+/**
+ * Responses to pipelined requests are written in request order, even if a later request finishes first.
+ */
+public class PipeliningTest
+{
+   static NettyJaxrsServer server;
+
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("async")
+      @Produces("text/plain")
+      public void async(@Suspended final AsyncResponse response)
+      {
+         Thread t = new Thread()
+         {
+            @Override
+            public void run()
+            {
+               try
+               {
+                  Thread.sleep(500);
+               }
+               catch (InterruptedException e)
+               {
+               }
+               response.resume("async");
+            }
+         };
+         t.start();
+      }
+
+      @GET
+      @Path("sleep")
+      @Produces("text/plain")
+      public String sleep() throws Exception
+      {
+         Thread.sleep(500);
+         return "sleep";
+      }
+
+      @GET
+      @Path("fast")
+      @Produces("text/plain")
+      public String fast()
+      {
+         return "fast";
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      ResteasyDeployment deployment = new ResteasyDeployment();
+      server = new NettyJaxrsServer();
+      server.setDeployment(deployment);
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setConcurrentPipelinedRequests(true);
+      server.start();
+      deployment.getRegistry().addPerRequestResource(Resource.class);
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      server.stop();
+   }
+
+   private static String request(String path, boolean close)
+   {
+      return "GET " + path + " HTTP/1.1\r\nHost: " + getHost() + "\r\nConnection: " + (close ? "close" : "keep-alive") + "\r\n\r\n";
+   }
+
+   private static String pipeline(String... paths) throws Exception
+   {
+      Socket socket = new Socket(getHost(), server.getPort());
+      try
+      {
+         socket.setSoTimeout(10000);
+         StringBuilder requests = new StringBuilder();
+         for (int i = 0; i < paths.length; i++)
+         {
+            requests.append(request(paths[i], i == paths.length - 1));
+         }
+         OutputStream out = socket.getOutputStream();
+         out.write(requests.toString().getBytes(StandardCharsets.ISO_8859_1));
+         out.flush();
+         InputStream in = socket.getInputStream();
+         ByteArrayOutputStream received = new ByteArrayOutputStream();
+         byte[] buf = new byte[1024];
+         int n;
+         while ((n = in.read(buf)) != -1)
+         {
+            received.write(buf, 0, n);
+         }
+         return new String(received.toByteArray(), StandardCharsets.ISO_8859_1);
+      }
+      finally
+      {
+         socket.close();
+      }
+   }
+
+   private static void assertOrder(String responses, String... bodies)
+   {
+      int from = 0;
+      for (String body : bodies)
+      {
+         int index = responses.indexOf("\r\n\r\n" + body, from);
+         Assert.assertTrue("Response '" + body + "' missing or out of order: " + responses, index >= 0);
+         from = index + body.length();
+      }
+   }
+
+   @Test(timeout = 30000)
+   public void testAsyncResponseFirst() throws Exception
+   {
+      assertOrder(pipeline("/async", "/fast", "/fast"), "async", "fast", "fast");
+   }
+
+   @Test(timeout = 30000)
+   public void testSlowResponseFirst() throws Exception
+   {
+      assertOrder(pipeline("/sleep", "/fast", "/async", "/fast"), "sleep", "fast", "async", "fast");
+   }
+}
@@ -0,0 +1,76 @@
+package org.jboss.resteasy.test;
+
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
+import org.jboss.resteasy.test.util.SSLCerts;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Every TLS connection to a server configured with an SSLContext gets an SSLEngine of its own.
+ */
+public class SslConnectionsTest
+{
+   static NettyJaxrsServer server;
+
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("test")
+      @Produces(MediaType.TEXT_PLAIN)
+      public String get()
+      {
+         return "hello world";
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      server = new NettyJaxrsServer();
+      server.setSSLContext(SSLCerts.DEFAULT_SERVER_KEYSTORE.getSslContext());
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setSecurityDomain(null);
+      server.start();
+      server.getDeployment().getRegistry().addPerRequestResource(Resource.class);
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      server.stop();
+   }
+
+   private static String get()
+   {
+      // a client of its own opens a new connection
+      ResteasyClient client = new ResteasyClientBuilder().sslContext(SSLCerts.DEFAULT_TRUSTSTORE.getSslContext()).build();
+      try
+      {
+         return client.target("https://localhost:" + server.getPort() + "/test").request().get(String.class);
+      }
+      finally
+      {
+         client.close();
+      }
+   }
+
+   @Test
+   public void testSeveralConnections() throws Exception
+   {
+      for (int i = 0; i < 3; i++)
+      {
+         Assert.assertEquals("Connection " + i + " failed", "hello world", get());
+      }
+   }
+}
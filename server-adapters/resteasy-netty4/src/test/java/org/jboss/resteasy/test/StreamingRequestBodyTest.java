@@ -0,0 +1,126 @@
+package org.jboss.resteasy.test;
+
+import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
+import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import static org.jboss.resteasy.test.TestPortProvider.generateURL;
+
+/**
+ * Request bodies are streamed to the resource when the server does not aggregate them.
+ */
+public class StreamingRequestBodyTest
+{
+   static NettyJaxrsServer server;
+   static Client client;
+
+   @Path("/upload")
+   public static class UploadResource
+   {
+      @POST
+      @Produces(MediaType.TEXT_PLAIN)
+      public String count(InputStream in) throws IOException
+      {
+         byte[] buf = new byte[4096];
+         long count = 0;
+         int n;
+         while ((n = in.read(buf)) != -1)
+         {
+            for (int i = 0; i < n; i++)
+            {
+               if (buf[i] != 'x') return "corrupt";
+            }
+            count += n;
+         }
+         return Long.toString(count);
+      }
+
+      @POST
+      @Path("ignore")
+      @Produces(MediaType.TEXT_PLAIN)
+      public String ignore()
+      {
+         return "ignored";
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      ResteasyDeployment deployment = new ResteasyDeployment();
+      server = new NettyJaxrsServer();
+      server.setDeployment(deployment);
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setMaxRequestSize(1024);
+      server.setStreamRequestBody(true);
+      server.setRequestBodyHighWaterMark(8192);
+      server.start();
+      deployment.getRegistry().addPerRequestResource(UploadResource.class);
+      client = ClientBuilder.newClient();
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      client.close();
+      server.stop();
+   }
+
+   private static byte[] body(int size)
+   {
+      byte[] body = new byte[size];
+      Arrays.fill(body, (byte) 'x');
+      return body;
+   }
+
+   @Test(timeout = 30000)
+   public void testLargeBody() throws Exception
+   {
+      int size = 4 * 1024 * 1024;
+      Response response = client.target(generateURL("/upload")).request()
+            .post(Entity.entity(body(size), MediaType.APPLICATION_OCTET_STREAM));
+      Assert.assertEquals(200, response.getStatus());
+      Assert.assertEquals(Integer.toString(size), response.readEntity(String.class));
+   }
+
+   @Test(timeout = 30000)
+   public void testUnreadBodyIsDiscarded() throws Exception
+   {
+      for (int i = 0; i < 3; i++)
+      {
+         Response response = client.target(generateURL("/upload/ignore")).request()
+               .post(Entity.entity(body(256 * 1024), MediaType.APPLICATION_OCTET_STREAM));
+         Assert.assertEquals(200, response.getStatus());
+         Assert.assertEquals("ignored", response.readEntity(String.class));
+      }
+      Response response = client.target(generateURL("/upload")).request()
+            .post(Entity.entity(body(100), MediaType.APPLICATION_OCTET_STREAM));
+      Assert.assertEquals("100", response.readEntity(String.class));
+   }
+
+   @Test(timeout = 30000)
+   public void testEmptyBody() throws Exception
+   {
+      Response response = client.target(generateURL("/upload")).request()
+            .post(Entity.entity(new byte[0], MediaType.APPLICATION_OCTET_STREAM));
+      Assert.assertEquals(200, response.getStatus());
+      Assert.assertEquals("0", response.readEntity(String.class));
+   }
+}
@@ -0,0 +1,98 @@
+package org.jboss.resteasy.test;
+
+import org.jboss.resteasy.annotations.NonBlocking;
+import org.jboss.resteasy.plugins.server.netty.NettyJaxrsServer;
+import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.jboss.resteasy.util.VirtualThreads;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.UriInfo;
+
+import static org.jboss.resteasy.test.TestPortProvider.generateURL;
+
+/**
+ * Blocking resource methods run on virtual threads if the JVM supports them, on the executor threads otherwise, and
+ * see the context of their own request either way.
+ */
+public class VirtualThreadDispatchTest
+{
+   static NettyJaxrsServer server;
+   static Client client;
+
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("nonblocking")
+      @Produces("text/plain")
+      @NonBlocking
+      public String nonBlocking(@Context UriInfo info)
+      {
+         return info.getPath() + " " + Thread.currentThread().getName();
+      }
+
+      @GET
+      @Path("blocking/{id}")
+      @Produces("text/plain")
+      public String blocking(@Context UriInfo info) throws Exception
+      {
+         Thread.sleep(50);
+         return info.getPath() + " " + Thread.currentThread().getName();
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      ResteasyDeployment deployment = new ResteasyDeployment();
+      server = new NettyJaxrsServer();
+      server.setDeployment(deployment);
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setNonBlockingDispatch(true);
+      server.setUseVirtualThreads(true);
+      server.start();
+      deployment.getRegistry().addPerRequestResource(Resource.class);
+      client = ClientBuilder.newClient();
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      client.close();
+      server.stop();
+   }
+
+   @Test
+   public void testVirtualThreads() throws Exception
+   {
+      Assert.assertEquals(VirtualThreads.isSupported(), server.isVirtualThreads());
+   }
+
+   @Test
+   public void testBlocking() throws Exception
+   {
+      String prefix = server.isVirtualThreads() ? "resteasy-netty-" : "defaultEventExecutorGroup";
+      for (int i = 0; i < 10; i++)
+      {
+         String val = client.target(generateURL("/blocking/" + i)).request().get(String.class);
+         Assert.assertTrue(val, val.startsWith("/blocking/" + i + " " + prefix));
+      }
+   }
+
+   @Test
+   public void testNonBlocking() throws Exception
+   {
+      String val = client.target(generateURL("/nonblocking")).request().get(String.class);
+      Assert.assertTrue(val, val.startsWith("/nonblocking nioEventLoopGroup"));
+   }
+}
@@ -5,6 +5,8 @@ import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import org.apache.commons.codec.binary.Base64;
+import org.jboss.resteasy.core.ResourceInvoker;
+import org.jboss.resteasy.core.ResourceMethodInvoker;
 import org.jboss.resteasy.core.SynchronousDispatcher;
 import org.jboss.resteasy.core.ThreadLocalResteasyProviderFactory;
 import org.jboss.resteasy.plugins.server.embedded.SecurityDomain;
@@ -18,6 +20,7 @@ import javax.ws.rs.core.SecurityContext;
 import java.io.IOException;
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Helper/delegate class to unify Servlet and Filter dispatcher implementations
@@ -110,6 +113,88 @@ public class RequestDispatcher
       }
    }
 
+   /**
+    * First half of {@link #service(Context, HttpServerRequest, HttpServerResponse, HttpRequest, HttpResponse, boolean)}:
+    * authenticates the request, runs the pre-matching filters and matches it.
+    * See {@link SynchronousDispatcher#route(HttpRequest, HttpResponse)}.
+    *
+    * @return null if the request has been answered, otherwise the context data of the request is left on the thread
+    */
+   public ResourceInvoker route(Context context,
+                                HttpServerRequest req,
+                                HttpServerResponse resp,
+                                HttpRequest vertxReq, HttpResponse vertxResp) throws IOException
+   {
+      pushProviderFactory();
+      try
+      {
+         SecurityContext securityContext;
+         if (domain != null)
+         {
+            securityContext = basicAuthentication(vertxReq, vertxResp);
+            if (securityContext == null) // not authenticated
+            {
+               return null;
+            }
+         } else
+         {
+            securityContext = new VertxSecurityContext();
+         }
+         ResteasyProviderFactory.pushContext(SecurityContext.class, securityContext);
+         ResteasyProviderFactory.pushContext(Context.class, context);
+         ResteasyProviderFactory.pushContext(HttpServerRequest.class, req);
+         ResteasyProviderFactory.pushContext(HttpServerResponse.class, resp);
+         ResteasyProviderFactory.pushContext(Vertx.class, context.owner());
+         return dispatcher.route(vertxReq, vertxResp);
+      } finally
+      {
+         popProviderFactory();
+      }
+   }
+
+   /**
+    * Second half: invoke the resource and write the response.
+    *
+    * @param contextData context data left by route on another thread, or null if route was called on this one
+    */
+   public void invoke(HttpRequest vertxReq, HttpResponse vertxResp, ResourceInvoker invoker, Map<Class<?>, Object> contextData)
+   {
+      pushProviderFactory();
+      try
+      {
+         if (contextData != null) ResteasyProviderFactory.attachContextData(contextData);
+         dispatcher.invoke(vertxReq, vertxResp, invoker);
+      } finally
+      {
+         dispatcher.clearContextData();
+         popProviderFactory();
+      }
+   }
+
+   /**
+    * @return whether the invoker may run on the event loop
+    */
+   public static boolean isNonBlocking(ResourceInvoker invoker)
+   {
+      return invoker instanceof ResourceMethodInvoker && ((ResourceMethodInvoker) invoker).isNonBlocking();
+   }
+
+   private void pushProviderFactory()
+   {
+      if (ResteasyProviderFactory.getInstance() instanceof ThreadLocalResteasyProviderFactory)
+      {
+         ThreadLocalResteasyProviderFactory.push(providerFactory);
+      }
+   }
+
+   private void popProviderFactory()
+   {
+      if (ResteasyProviderFactory.getInstance() instanceof ThreadLocalResteasyProviderFactory)
+      {
+         ThreadLocalResteasyProviderFactory.pop();
+      }
+   }
+
    private SecurityContext basicAuthentication(HttpRequest request, HttpResponse response) throws IOException
    {
       List<String> headers = request.getHttpHeaders().getRequestHeader(HttpHeaderNames.AUTHORIZATION);
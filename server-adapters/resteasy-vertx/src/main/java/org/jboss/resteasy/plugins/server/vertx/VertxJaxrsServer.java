@@ -5,6 +5,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -21,6 +23,7 @@ import io.vertx.core.json.JsonObject;
 import org.jboss.resteasy.plugins.server.embedded.EmbeddedJaxrsServer;
 import org.jboss.resteasy.plugins.server.embedded.SecurityDomain;
 import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.jboss.resteasy.util.VirtualThreads;
 
 /**
  * An HTTP server that sends back the content of the received HTTP request
@@ -42,6 +45,9 @@ public class VertxJaxrsServer implements EmbeddedJaxrsServer
    protected String root = "";
    protected SecurityDomain domain;
    private String deploymentID;
+   private boolean nonBlockingDispatch;
+   private boolean useVirtualThreads;
+   private ExecutorService virtualThreadExecutor;
    // default no idle timeout.
 
    public String getHostname()
@@ -96,6 +102,38 @@ public class VertxJaxrsServer implements EmbeddedJaxrsServer
       return serverOptions;
    }
 
+   /**
+    * Run resource methods annotated with {@link org.jboss.resteasy.annotations.NonBlocking} on the event loop and
+    * all others on the worker pool of Vert.x.  Otherwise every request is handled on the event loop.
+    *
+    * @param nonBlockingDispatch false by default
+    * @see VertxRequestHandler#setNonBlockingDispatch(boolean)
+    */
+   public void setNonBlockingDispatch(boolean nonBlockingDispatch)
+   {
+      this.nonBlockingDispatch = nonBlockingDispatch;
+   }
+
+   /**
+    * Hand requests over to a virtual thread of their own instead of running them on the event loop, or in
+    * non-blocking dispatch mode on the worker pool.  Ignored if the JVM does not support virtual threads.
+    *
+    * @param useVirtualThreads false by default
+    * @see VertxRequestHandler#setExecutor(Executor)
+    */
+   public void setUseVirtualThreads(boolean useVirtualThreads)
+   {
+      this.useVirtualThreads = useVirtualThreads;
+   }
+
+   /**
+    * @return whether the server was started with virtual threads
+    */
+   public boolean isVirtualThreads()
+   {
+      return virtualThreadExecutor != null;
+   }
+
    @Override
    public void setDeployment(ResteasyDeployment deployment)
    {
@@ -128,7 +166,8 @@ public class VertxJaxrsServer implements EmbeddedJaxrsServer
       vertx = Vertx.vertx(vertxOptions);
       deployment.start();
       String key = UUID.randomUUID().toString();
-      deploymentMap.put(key, new Helper(root, serverOptions, deployment, domain));
+      virtualThreadExecutor = useVirtualThreads ? VirtualThreads.newExecutor("resteasy-vertx-") : null;
+      deploymentMap.put(key, new Helper(root, serverOptions, deployment, domain, nonBlockingDispatch, virtualThreadExecutor));
       // Configure the server.
       CompletableFuture<String> fut = new CompletableFuture<>();
       DeploymentOptions deploymentOptions = new DeploymentOptions()
@@ -180,6 +219,11 @@ public class VertxJaxrsServer implements EmbeddedJaxrsServer
          {
          }
       }
+      if (virtualThreadExecutor != null)
+      {
+         virtualThreadExecutor.shutdown();
+         virtualThreadExecutor = null;
+      }
    }
 
    private static class Helper
@@ -188,18 +232,25 @@ public class VertxJaxrsServer implements EmbeddedJaxrsServer
       final HttpServerOptions serverOptions;
       final ResteasyDeployment deployment;
       final SecurityDomain domain;
+      final boolean nonBlockingDispatch;
+      final Executor executor;
 
-      Helper(String root, HttpServerOptions serverOptions, ResteasyDeployment deployment, SecurityDomain domain)
+      Helper(String root, HttpServerOptions serverOptions, ResteasyDeployment deployment, SecurityDomain domain, boolean nonBlockingDispatch, Executor executor)
       {
          this.root = root;
          this.serverOptions = serverOptions;
          this.deployment = deployment;
          this.domain = domain;
+         this.nonBlockingDispatch = nonBlockingDispatch;
+         this.executor = executor;
       }
 
       public Handler<HttpServerRequest> createHandler(Vertx vertx)
       {
-         return new VertxRequestHandler(vertx, deployment, root, domain);
+         VertxRequestHandler handler = new VertxRequestHandler(vertx, deployment, root, domain);
+         handler.setNonBlockingDispatch(nonBlockingDispatch);
+         handler.setExecutor(executor);
+         return handler;
       }
    }
 
@@ -213,7 +264,7 @@ public class VertxJaxrsServer implements EmbeddedJaxrsServer
       {
          Helper helper = deploymentMap.get(config().getString("helper"));
          server = vertx.createHttpServer(helper.serverOptions);
-         server.requestHandler(new VertxRequestHandler(vertx, helper.deployment, helper.root, helper.domain));
+         server.requestHandler(helper.createHandler(vertx));
          server.listen(ar -> {
             if (ar.succeeded())
             {
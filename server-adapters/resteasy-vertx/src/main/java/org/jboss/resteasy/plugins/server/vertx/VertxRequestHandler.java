@@ -6,6 +6,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import org.jboss.resteasy.core.ResourceInvoker;
 import org.jboss.resteasy.core.SynchronousDispatcher;
 import org.jboss.resteasy.plugins.server.embedded.SecurityDomain;
 import org.jboss.resteasy.plugins.server.vertx.i18n.LogMessages;
@@ -13,9 +14,12 @@ import org.jboss.resteasy.plugins.server.vertx.i18n.Messages;
 import org.jboss.resteasy.specimpl.ResteasyHttpHeaders;
 import org.jboss.resteasy.spi.Failure;
 import org.jboss.resteasy.spi.ResteasyDeployment;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
 import org.jboss.resteasy.spi.ResteasyUriInfo;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -26,6 +30,8 @@ public class VertxRequestHandler implements Handler<HttpServerRequest>
    private final Vertx vertx;
    protected final RequestDispatcher dispatcher;
    private final String servletMappingPrefix;
+   private boolean nonBlockingDispatch;
+   private Executor executor;
 
    public VertxRequestHandler(Vertx vertx, ResteasyDeployment deployment, String servletMappingPrefix, SecurityDomain domain)
    {
@@ -44,6 +50,28 @@ public class VertxRequestHandler implements Handler<HttpServerRequest>
       this(vertx, deployment, "");
    }
 
+   /**
+    * Only invoke resource methods annotated with {@link org.jboss.resteasy.annotations.NonBlocking} on the event
+    * loop, and run the others with {@link Vertx#executeBlocking}.  Requests are still matched on the event loop.
+    *
+    * @param nonBlockingDispatch false by default, everything runs on the event loop
+    */
+   public void setNonBlockingDispatch(boolean nonBlockingDispatch)
+   {
+      this.nonBlockingDispatch = nonBlockingDispatch;
+   }
+
+   /**
+    * Run requests on this executor, for instance one of virtual threads, instead of the event loop.  In non-blocking
+    * dispatch mode it takes the place of {@link Vertx#executeBlocking} for the resource methods that may block.
+    *
+    * @param executor null by default
+    */
+   public void setExecutor(Executor executor)
+   {
+      this.executor = executor;
+   }
+
    @Override
    public void handle(HttpServerRequest request)
    {
@@ -60,28 +88,102 @@ public class VertxRequestHandler implements Handler<HttpServerRequest>
             vertxRequest.setInputStream(in);
          }
 
-         try
+         if (nonBlockingDispatch)
          {
-            dispatcher.service(ctx, request, response, vertxRequest, vertxResponse, true);
-         } catch (Failure e1)
+            route(ctx, request, response, vertxRequest, vertxResponse);
+         } else if (executor != null)
+         {
+            executor.execute(() -> service(ctx, request, response, vertxRequest, vertxResponse));
+         } else
+         {
+            service(ctx, request, response, vertxRequest, vertxResponse);
+         }
+      });
+   }
+
+   private void service(Context ctx, HttpServerRequest request, HttpServerResponse response, VertxHttpRequest vertxRequest, VertxHttpResponse vertxResponse)
+   {
+      try
+      {
+         dispatcher.service(ctx, request, response, vertxRequest, vertxResponse, true);
+      } catch (Exception ex)
+      {
+         failed(vertxResponse, ex);
+      }
+      complete(vertxRequest, vertxResponse);
+   }
+
+   private void route(Context ctx, HttpServerRequest request, HttpServerResponse response, VertxHttpRequest vertxRequest, VertxHttpResponse vertxResponse)
+   {
+      ResourceInvoker invoker;
+      try
+      {
+         invoker = dispatcher.route(ctx, request, response, vertxRequest, vertxResponse);
+      } catch (Exception ex)
+      {
+         failed(vertxResponse, ex);
+         complete(vertxRequest, vertxResponse);
+         return;
+      }
+      if (invoker == null)
+      {
+         complete(vertxRequest, vertxResponse);
+      } else if (RequestDispatcher.isNonBlocking(invoker))
+      {
+         invoke(vertxRequest, vertxResponse, invoker, null);
+      } else
+      {
+         // move the context data of the request over to the worker
+         Map<Class<?>, Object> contextData = ResteasyProviderFactory.getContextDataMap();
+         ResteasyProviderFactory.clearContextData();
+         if (executor != null)
          {
-            vertxResponse.setStatus(e1.getErrorCode());
-         } catch (Exception ex)
+            executor.execute(() -> invoke(vertxRequest, vertxResponse, invoker, contextData));
+         } else
          {
-            vertxResponse.setStatus(500);
-            LogMessages.LOGGER.error(Messages.MESSAGES.unexpected(), ex);
+            vertx.executeBlocking(future -> {
+               invoke(vertxRequest, vertxResponse, invoker, contextData);
+               future.complete();
+            }, false, null);
          }
+      }
+   }
+
+   private void invoke(VertxHttpRequest vertxRequest, VertxHttpResponse vertxResponse, ResourceInvoker invoker, Map<Class<?>, Object> contextData)
+   {
+      try
+      {
+         dispatcher.invoke(vertxRequest, vertxResponse, invoker, contextData);
+      } catch (Exception ex)
+      {
+         failed(vertxResponse, ex);
+      }
+      complete(vertxRequest, vertxResponse);
+   }
 
-         if (!vertxRequest.getAsyncContext().isSuspended())
+   private void failed(VertxHttpResponse vertxResponse, Exception ex)
+   {
+      if (ex instanceof Failure)
+      {
+         vertxResponse.setStatus(((Failure) ex).getErrorCode());
+      } else
+      {
+         vertxResponse.setStatus(500);
+         LogMessages.LOGGER.error(Messages.MESSAGES.unexpected(), ex);
+      }
+   }
+
+   private void complete(VertxHttpRequest vertxRequest, VertxHttpResponse vertxResponse)
+   {
+      if (!vertxRequest.getAsyncContext().isSuspended())
+      {
+         try
+         {
+            vertxResponse.finish();
+         } catch (IOException e)
          {
-            try
-            {
-               vertxResponse.finish();
-            } catch (IOException e)
-            {
-               e.printStackTrace();
-            }
+            e.printStackTrace();
          }
-      });
+      }
    }
 }
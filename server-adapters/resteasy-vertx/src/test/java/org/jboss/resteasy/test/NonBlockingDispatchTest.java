@@ -0,0 +1,146 @@
+package org.jboss.resteasy.test;
+
+import org.jboss.resteasy.annotations.NonBlocking;
+import org.jboss.resteasy.plugins.server.vertx.VertxJaxrsServer;
+import org.jboss.resteasy.plugins.server.vertx.VertxResteasyDeployment;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+
+import static org.jboss.resteasy.test.TestPortProvider.generateURL;
+
+/**
+ * Only resource methods marked as non-blocking run on the event loop in non-blocking dispatch mode, the others run
+ * with executeBlocking on the worker pool of Vert.x.
+ */
+public class NonBlockingDispatchTest
+{
+   static VertxJaxrsServer server;
+   static Client client;
+
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("nonblocking")
+      @Produces("text/plain")
+      @NonBlocking
+      public String nonBlocking(@Context UriInfo info)
+      {
+         return info.getPath() + " " + Thread.currentThread().getName();
+      }
+
+      @GET
+      @Path("blocking")
+      @Produces("text/plain")
+      public String blocking(@Context UriInfo info)
+      {
+         return info.getPath() + " " + Thread.currentThread().getName();
+      }
+
+      @GET
+      @Path("nonblocking/exception")
+      @Produces("text/plain")
+      @NonBlocking
+      public String nonBlockingException()
+      {
+         throw new WebApplicationException(Response.status(409).entity(Thread.currentThread().getName()).build());
+      }
+
+      @GET
+      @Path("blocking/exception")
+      @Produces("text/plain")
+      public String blockingException()
+      {
+         throw new WebApplicationException(Response.status(409).entity(Thread.currentThread().getName()).build());
+      }
+
+      @GET
+      @Path("blocking/error")
+      @Produces("text/plain")
+      public String blockingError()
+      {
+         throw new RuntimeException();
+      }
+   }
+
+   @BeforeClass
+   public static void setup() throws Exception
+   {
+      VertxResteasyDeployment deployment = new VertxResteasyDeployment();
+      server = new VertxJaxrsServer();
+      server.setDeployment(deployment);
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setNonBlockingDispatch(true);
+      server.start();
+      deployment.getRegistry().addPerRequestResource(Resource.class);
+      client = ClientBuilder.newClient();
+   }
+
+   @AfterClass
+   public static void end() throws Exception
+   {
+      client.close();
+      server.stop();
+   }
+
+   @Test
+   public void testNonBlocking() throws Exception
+   {
+      String val = client.target(generateURL("/nonblocking")).request().get(String.class);
+      Assert.assertTrue(val, val.startsWith("/nonblocking vert.x-eventloop-thread-"));
+   }
+
+   @Test
+   public void testBlocking() throws Exception
+   {
+      String val = client.target(generateURL("/blocking")).request().get(String.class);
+      Assert.assertTrue(val, val.startsWith("/blocking vert.x-worker-thread-"));
+   }
+
+   @Test
+   public void testNonBlockingException() throws Exception
+   {
+      Response response = client.target(generateURL("/nonblocking/exception")).request().get();
+      Assert.assertEquals(409, response.getStatus());
+      String val = response.readEntity(String.class);
+      Assert.assertTrue(val, val.startsWith("vert.x-eventloop-thread-"));
+   }
+
+   @Test
+   public void testBlockingException() throws Exception
+   {
+      Response response = client.target(generateURL("/blocking/exception")).request().get();
+      Assert.assertEquals(409, response.getStatus());
+      String val = response.readEntity(String.class);
+      Assert.assertTrue(val, val.startsWith("vert.x-worker-thread-"));
+   }
+
+   @Test
+   public void testBlockingError() throws Exception
+   {
+      Response response = client.target(generateURL("/blocking/error")).request().get();
+      Assert.assertEquals(500, response.getStatus());
+      response.close();
+   }
+
+   @Test
+   public void testNotFound() throws Exception
+   {
+      Response response = client.target(generateURL("/missing")).request().get();
+      Assert.assertEquals(404, response.getStatus());
+      response.close();
+   }
+}
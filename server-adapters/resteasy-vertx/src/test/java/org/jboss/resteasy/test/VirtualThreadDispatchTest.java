@@ -0,0 +1,139 @@
+package org.jboss.resteasy.test;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import org.jboss.resteasy.annotations.NonBlocking;
+import org.jboss.resteasy.plugins.server.vertx.VertxJaxrsServer;
+import org.jboss.resteasy.plugins.server.vertx.VertxRequestHandler;
+import org.jboss.resteasy.plugins.server.vertx.VertxResteasyDeployment;
+import org.jboss.resteasy.util.VirtualThreads;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.UriInfo;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jboss.resteasy.test.TestPortProvider.generateURL;
+
+/**
+ * Blocking resource methods run on virtual threads if the JVM supports them, on the worker pool of Vert.x otherwise,
+ * and see the context of their own request either way.  Without non-blocking dispatch the executor of the request
+ * handler runs the whole request.
+ */
+public class VirtualThreadDispatchTest
+{
+   @Path("/")
+   public static class Resource
+   {
+      @GET
+      @Path("nonblocking")
+      @Produces("text/plain")
+      @NonBlocking
+      public String nonBlocking(@Context UriInfo info)
+      {
+         return info.getPath() + " " + Thread.currentThread().getName();
+      }
+
+      @GET
+      @Path("blocking/{id}")
+      @Produces("text/plain")
+      public String blocking(@Context UriInfo info, @Context io.vertx.core.http.HttpServerRequest req) throws Exception
+      {
+         Thread.sleep(50);
+         return req == null ? "fail" : info.getPath() + " " + Thread.currentThread().getName();
+      }
+   }
+
+   @Test
+   public void testVirtualThreads() throws Exception
+   {
+      VertxResteasyDeployment deployment = new VertxResteasyDeployment();
+      VertxJaxrsServer server = new VertxJaxrsServer();
+      server.setDeployment(deployment);
+      server.setPort(TestPortProvider.getPort());
+      server.setRootResourcePath("");
+      server.setNonBlockingDispatch(true);
+      server.setUseVirtualThreads(true);
+      server.start();
+      deployment.getRegistry().addPerRequestResource(Resource.class);
+      Client client = ClientBuilder.newClient();
+      try
+      {
+         Assert.assertEquals(VirtualThreads.isSupported(), server.isVirtualThreads());
+         String prefix = server.isVirtualThreads() ? "resteasy-vertx-" : "vert.x-worker-thread-";
+         for (int i = 0; i < 10; i++)
+         {
+            String val = client.target(generateURL("/blocking/" + i)).request().get(String.class);
+            Assert.assertTrue(val, val.startsWith("/blocking/" + i + " " + prefix));
+         }
+         String val = client.target(generateURL("/nonblocking")).request().get(String.class);
+         Assert.assertTrue(val, val.startsWith("/nonblocking vert.x-eventloop-thread-"));
+      } finally
+      {
+         client.close();
+         server.stop();
+      }
+   }
+
+   @Test
+   public void testExecutor() throws Exception
+   {
+      final AtomicInteger counter = new AtomicInteger();
+      ExecutorService executor = Executors.newFixedThreadPool(2, new ThreadFactory()
+      {
+         @Override
+         public Thread newThread(Runnable r)
+         {
+            return new Thread(r, "test-executor-" + counter.getAndIncrement());
+         }
+      });
+      VertxResteasyDeployment deployment = new VertxResteasyDeployment();
+      deployment.start();
+      deployment.getRegistry().addPerRequestResource(Resource.class);
+      Vertx vertx = Vertx.vertx();
+      Client client = ClientBuilder.newClient();
+      try
+      {
+         VertxRequestHandler handler = new VertxRequestHandler(vertx, deployment);
+         handler.setExecutor(executor);
+         HttpServer server = vertx.createHttpServer();
+         server.requestHandler(handler);
+         CompletableFuture<Void> listenLatch = new CompletableFuture<>();
+         server.listen(TestPortProvider.getPort(), ar -> {
+            if (ar.succeeded())
+            {
+               listenLatch.complete(null);
+            } else
+            {
+               listenLatch.completeExceptionally(ar.cause());
+            }
+         });
+         listenLatch.get(10, TimeUnit.SECONDS);
+         for (int i = 0; i < 5; i++)
+         {
+            String val = client.target(generateURL("/blocking/" + i)).request().get(String.class);
+            Assert.assertTrue(val, val.startsWith("/blocking/" + i + " test-executor-"));
+         }
+         // the executor runs the whole request, the annotation only matters in non-blocking dispatch mode
+         String val = client.target(generateURL("/nonblocking")).request().get(String.class);
+         Assert.assertTrue(val, val.startsWith("/nonblocking test-executor-"));
+      } finally
+      {
+         client.close();
+         vertx.close();
+         deployment.stop();
+         executor.shutdown();
+      }
+   }
+}
@@ -1,9 +1,13 @@
 package org.jboss.resteasy.test.client;
 
+import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
 import org.jboss.resteasy.utils.TestUtil;
 import org.junit.Assert;
 import org.junit.Test;
 
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
@@ -99,6 +103,26 @@ public class ClientBuilderTest {
         Response response = base.request().get();
     }
 
+    @Path("/test")
+    public interface ClosedClientProxy {
+        @GET
+        @Path("{id}")
+        String get(@PathParam("id") String id);
+    }
+
+    /**
+     * @tpTestDetails Create a client proxy, close the client and invoke the proxy
+     * @tpPassCrit IllegalStateException is raised
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test(expected = IllegalStateException.class)
+    public void closeClientProxyTest() throws Exception {
+        Client client = ClientBuilder.newClient();
+        ClosedClientProxy proxy = ((ResteasyWebTarget) client.target(generateURL("/"))).proxy(ClosedClientProxy.class);
+        client.close();
+        proxy.get("1");
+    }
+
     public static class FeatureReturningFalse implements Feature {
         @Override
         public boolean configure(FeatureContext context) {
@@ -0,0 +1,110 @@
+package org.jboss.resteasy.test.client;
+
+import org.jboss.resteasy.client.jaxrs.cache.BrowserCache;
+import org.jboss.resteasy.client.jaxrs.cache.LightweightBrowserCache;
+import org.jboss.resteasy.specimpl.MultivaluedMapImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * @tpSubChapter Resteasy-client
+ * @tpChapter Client tests
+ * @tpTestCaseDetails Eviction and statistics of LightweightBrowserCache
+ * @tpSince RESTEasy 3.1.0
+ */
+public class LightweightBrowserCacheTest {
+
+    private static BrowserCache.Entry put(LightweightBrowserCache cache, String key, int size) {
+        return cache.put(key, MediaType.TEXT_PLAIN_TYPE, new MultivaluedMapImpl<String, String>(), new byte[size], 60, null, null);
+    }
+
+    /**
+     * @tpTestDetails The least recently used entries are evicted, the others are kept.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        LightweightBrowserCache cache = new LightweightBrowserCache();
+        cache.setMaxBytes(30);
+        put(cache, "a", 10);
+        put(cache, "b", 10);
+        put(cache, "c", 10);
+        Assert.assertNotNull("Entry a is missing", cache.get("a", MediaType.TEXT_PLAIN_TYPE));
+
+        put(cache, "d", 10);
+        Assert.assertNull("Least recently used entry b was not evicted", cache.get("b", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertNotNull("Recently used entry a was evicted", cache.get("a", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertNotNull("Entry c was evicted", cache.get("c", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertNotNull("Entry d was evicted", cache.get("d", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertEquals("Wrong byte count", 30, cache.getByteCount());
+
+        put(cache, "e", 25);
+        Assert.assertNull("Entry a was not evicted", cache.get("a", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertNull("Entry c was not evicted", cache.get("c", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertNotNull("Entry e was evicted", cache.get("e", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertEquals("Wrong byte count", 25, cache.getByteCount());
+    }
+
+    /**
+     * @tpTestDetails Replacing an entry accounts for the size of the old one.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testReplace() {
+        LightweightBrowserCache cache = new LightweightBrowserCache();
+        cache.setMaxBytes(30);
+        put(cache, "a", 10);
+        put(cache, "b", 10);
+        put(cache, "a", 15);
+        Assert.assertEquals("Wrong byte count", 25, cache.getByteCount());
+        Assert.assertNotNull("Entry b was evicted", cache.get("b", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertEquals("Wrong entry size", 15, cache.get("a", MediaType.TEXT_PLAIN_TYPE).getCached().length);
+
+        cache.remove("a", MediaType.TEXT_PLAIN_TYPE);
+        Assert.assertEquals("Wrong byte count after remove", 10, cache.getByteCount());
+    }
+
+    /**
+     * @tpTestDetails An entry bigger than the cache is returned but not kept, and does not evict the others.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testOversizedEntry() {
+        LightweightBrowserCache cache = new LightweightBrowserCache();
+        cache.setMaxBytes(30);
+        put(cache, "a", 10);
+        Assert.assertNotNull("Oversized entry was not returned", put(cache, "big", 100));
+        Assert.assertNull("Oversized entry was kept", cache.get("big", MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertEquals("Wrong byte count", 10, cache.getByteCount());
+    }
+
+    /**
+     * @tpTestDetails Hits, misses and evictions are counted.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testStatistics() {
+        LightweightBrowserCache cache = new LightweightBrowserCache();
+        cache.setMaxBytes(20);
+        put(cache, "a", 10);
+        put(cache, "b", 10);
+        cache.get("a", MediaType.TEXT_PLAIN_TYPE);
+        cache.getAny("b");
+        cache.get("x", MediaType.TEXT_PLAIN_TYPE);
+        put(cache, "c", 10);
+
+        BrowserCache.Statistics statistics = cache.getStatistics();
+        Assert.assertEquals("Wrong hit count", 2, statistics.getHitCount());
+        Assert.assertEquals("Wrong miss count", 1, statistics.getMissCount());
+        Assert.assertEquals("Wrong eviction count", 1, statistics.getEvictionCount());
+        Assert.assertEquals("Wrong entry count", 2, statistics.getEntryCount());
+        Assert.assertEquals("Wrong byte count", 20, statistics.getByteCount());
+
+        cache.setMaxBytes(10);
+        statistics = cache.getStatistics();
+        Assert.assertEquals("Wrong eviction count after shrinking", 2, statistics.getEvictionCount());
+        Assert.assertEquals("Wrong entry count after shrinking", 1, statistics.getEntryCount());
+    }
+}
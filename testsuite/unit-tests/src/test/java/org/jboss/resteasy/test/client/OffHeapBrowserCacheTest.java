@@ -0,0 +1,195 @@
+package org.jboss.resteasy.test.client;
+
+import org.jboss.resteasy.client.jaxrs.cache.BrowserCache;
+import org.jboss.resteasy.client.jaxrs.cache.OffHeapBrowserCache;
+import org.jboss.resteasy.specimpl.MultivaluedMapImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @tpSubChapter Resteasy-client
+ * @tpChapter Client tests
+ * @tpTestCaseDetails Storage, eviction and streaming of OffHeapBrowserCache
+ * @tpSince RESTEasy 3.1.0
+ */
+public class OffHeapBrowserCacheTest {
+
+    private static byte[] body(int size, int seed) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) (i * 31 + seed);
+        }
+        return body;
+    }
+
+    private static BrowserCache.Entry put(BrowserCache cache, String key, byte[] body) {
+        return cache.put(key, MediaType.TEXT_PLAIN_TYPE, new MultivaluedMapImpl<String, String>(), body, 60, null, null);
+    }
+
+    private static byte[] read(InputStream is) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[7];
+        int wasRead;
+        while ((wasRead = is.read(buffer)) != -1) {
+            baos.write(buffer, 0, wasRead);
+        }
+        return baos.toByteArray();
+    }
+
+    private static BrowserCache.StreamEntry get(BrowserCache cache, String key) {
+        return (BrowserCache.StreamEntry) cache.get(key, MediaType.TEXT_PLAIN_TYPE);
+    }
+
+    /**
+     * @tpTestDetails Bodies spread over several chunks are read back unchanged, as a stream and as an array.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testReadBack() throws Exception {
+        OffHeapBrowserCache cache = new OffHeapBrowserCache(256, 16);
+        byte[] body = body(50, 1);
+        put(cache, "a", body);
+        put(cache, "empty", new byte[0]);
+
+        Assert.assertArrayEquals("Wrong streamed body", body, read(get(cache, "a").getCachedStream()));
+        Assert.assertArrayEquals("Wrong copied body", body, get(cache, "a").getCached());
+        Assert.assertEquals("Wrong empty body", 0, read(get(cache, "empty").getCachedStream()).length);
+        Assert.assertEquals("Wrong byte count", 50, cache.getByteCount());
+        Assert.assertNull("Unexpected entry", cache.get("b", MediaType.TEXT_PLAIN_TYPE));
+        cache.close();
+    }
+
+    /**
+     * @tpTestDetails The least recently used entries are evicted when there are no chunks left.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testEviction() throws Exception {
+        OffHeapBrowserCache cache = new OffHeapBrowserCache(64, 16);
+        put(cache, "a", body(32, 1));
+        put(cache, "b", body(32, 2));
+        Assert.assertNotNull("Entry a is missing", get(cache, "a"));
+
+        put(cache, "c", body(20, 3));
+        Assert.assertNull("Least recently used entry b was not evicted", get(cache, "b"));
+        Assert.assertArrayEquals("Entry a was overwritten", body(32, 1), read(get(cache, "a").getCachedStream()));
+        Assert.assertArrayEquals("Wrong entry c", body(20, 3), read(get(cache, "c").getCachedStream()));
+
+        Assert.assertNotNull("Oversized entry was not returned", put(cache, "big", body(100, 4)));
+        Assert.assertNull("Oversized entry was kept", get(cache, "big"));
+
+        BrowserCache.Statistics statistics = cache.getStatistics();
+        Assert.assertEquals("Wrong eviction count", 1, statistics.getEvictionCount());
+        Assert.assertEquals("Wrong entry count", 2, statistics.getEntryCount());
+        Assert.assertEquals("Wrong byte count", 52, statistics.getByteCount());
+        Assert.assertEquals("Wrong miss count", 2, statistics.getMissCount());
+        cache.close();
+    }
+
+    /**
+     * @tpTestDetails The chunks of an entry evicted while it is read are not reused before the stream is done.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testEvictedWhileRead() throws Exception {
+        OffHeapBrowserCache cache = new OffHeapBrowserCache(64, 16);
+        put(cache, "a", body(32, 1));
+        BrowserCache.StreamEntry a = get(cache, "a");
+        InputStream stream = a.getCachedStream();
+        put(cache, "b", body(32, 2));
+        put(cache, "c", body(32, 3));
+
+        Assert.assertNull("Entry a was not evicted", get(cache, "a"));
+        Assert.assertNull("Entry b was not evicted", get(cache, "b"));
+        Assert.assertArrayEquals("Evicted entry was overwritten while read", body(32, 1), read(stream));
+        Assert.assertNull("Evicted entry can still be opened after it was read", a.getCachedStream());
+
+        put(cache, "d", body(32, 4));
+        Assert.assertNotNull("Entry c was evicted although chunks were free", get(cache, "c"));
+        Assert.assertArrayEquals("Wrong entry d", body(32, 4), read(get(cache, "d").getCachedStream()));
+        cache.close();
+    }
+
+    /**
+     * @tpTestDetails Entries are not evicted when that would not make enough room because streams hold on to chunks.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testNoUselessEviction() throws Exception {
+        OffHeapBrowserCache cache = new OffHeapBrowserCache(64, 16);
+        put(cache, "a", body(32, 1));
+        InputStream stream = get(cache, "a").getCachedStream();
+        put(cache, "b", body(32, 2));
+        put(cache, "c", body(32, 3));
+
+        BrowserCache.Entry d = put(cache, "d", body(64, 4));
+        Assert.assertArrayEquals("Body that does not fit was not returned", body(64, 4), d.getCached());
+        Assert.assertNull("Body that does not fit was kept", get(cache, "d"));
+        Assert.assertNotNull("Entry c was evicted for nothing", get(cache, "c"));
+
+        stream.close();
+        put(cache, "d", body(64, 4));
+        Assert.assertArrayEquals("Wrong entry d", body(64, 4), read(get(cache, "d").getCachedStream()));
+        cache.close();
+    }
+
+    /**
+     * @tpTestDetails The chunks of a stream that is dropped without being closed are reused once it is garbage collected.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testAbandonedStream() throws Exception {
+        OffHeapBrowserCache cache = new OffHeapBrowserCache(64, 16);
+        put(cache, "a", body(64, 1));
+        Assert.assertEquals("Wrong first byte", body(64, 1)[0], (byte) get(cache, "a").getCachedStream().read());
+
+        for (int i = 0; i < 100 && get(cache, "b") == null; i++) {
+            System.gc();
+            Thread.sleep(10);
+            put(cache, "b", body(64, 2));
+        }
+        Assert.assertArrayEquals("Chunks of the abandoned stream were not reused", body(64, 2), read(get(cache, "b").getCachedStream()));
+        cache.close();
+    }
+
+    /**
+     * @tpTestDetails A removed entry is handed back as a copy that can still be read.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testRemove() throws Exception {
+        OffHeapBrowserCache cache = new OffHeapBrowserCache(64, 16);
+        put(cache, "a", body(40, 1));
+        BrowserCache.Entry removed = cache.remove("a", MediaType.TEXT_PLAIN_TYPE);
+        put(cache, "b", body(64, 2));
+        Assert.assertArrayEquals("Wrong removed body", body(40, 1), removed.getCached());
+        Assert.assertNull("Entry a was not removed", get(cache, "a"));
+        Assert.assertEquals("Wrong byte count", 64, cache.getByteCount());
+        cache.close();
+    }
+
+    /**
+     * @tpTestDetails Bodies can be kept in a memory-mapped file.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testMappedFile() throws Exception {
+        File file = File.createTempFile("browser-cache", ".bin");
+        try {
+            OffHeapBrowserCache cache = new OffHeapBrowserCache(file, 1024, 64);
+            Assert.assertEquals("Wrong file size", 1024, file.length());
+            byte[] body = body(500, 5);
+            put(cache, "a", body);
+            Assert.assertArrayEquals("Wrong body", body, read(get(cache, "a").getCachedStream()));
+            cache.close();
+        } finally {
+            file.delete();
+        }
+    }
+}
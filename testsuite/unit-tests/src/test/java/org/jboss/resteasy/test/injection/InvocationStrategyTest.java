@@ -0,0 +1,64 @@
+package org.jboss.resteasy.test.injection;
+
+import org.jboss.resteasy.core.MethodHandleInvocationStrategy;
+import org.jboss.resteasy.core.ReflectionInvocationStrategy;
+import org.jboss.resteasy.spi.InvocationStrategy;
+import org.jboss.resteasy.test.injection.resource.InvocationStrategyResource;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * @tpSubChapter Injection
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails MethodHandle invocation behaves like reflection
+ * @tpSince RESTEasy 3.1.0
+ */
+public class InvocationStrategyTest {
+
+    /**
+     * @tpTestDetails Both strategies construct, invoke and set fields the same way, including conversions and errors
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testStrategies() throws Exception {
+        check(new ReflectionInvocationStrategy());
+        check(new MethodHandleInvocationStrategy());
+    }
+
+    private void check(InvocationStrategy strategy) throws Exception {
+        String name = strategy.getClass().getSimpleName();
+        InvocationStrategyResource resource = (InvocationStrategyResource) strategy.createConstructorInvoker(
+                InvocationStrategyResource.class.getConstructor(String.class, int.class)).newInstance(new Object[]{"a", 1});
+
+        Method get = InvocationStrategyResource.class.getMethod("get", long.class, String.class);
+        InvocationStrategy.MethodInvoker invoker = strategy.createMethodInvoker(get);
+        Assert.assertEquals(name, "a3b", invoker.invoke(resource, new Object[]{2, "b"}));
+        try {
+            invoker.invoke(resource, new Object[]{null, "b"});
+            Assert.fail(name + ": null primitive argument accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            invoker.invoke(resource, new Object[]{"2", "b"});
+            Assert.fail(name + ": wrong argument type accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        try {
+            strategy.createMethodInvoker(InvocationStrategyResource.class.getMethod("fail")).invoke(resource, null);
+            Assert.fail(name + ": exception not propagated");
+        } catch (InvocationTargetException e) {
+            Assert.assertTrue(name, e.getCause() instanceof IllegalStateException);
+        }
+
+        strategy.createMethodInvoker(InvocationStrategyResource.class.getMethod("setName", String.class)).invoke(resource, new Object[]{"c"});
+        Field count = InvocationStrategyResource.class.getDeclaredField("count");
+        count.setAccessible(true);
+        strategy.createFieldSetter(count).set(resource, 5);
+        Assert.assertEquals(name, "c5", invoker.invoke(resource, new Object[]{0L, ""}));
+    }
+}
@@ -2,15 +2,24 @@ package org.jboss.resteasy.test.injection;
 
 import org.jboss.resteasy.core.StringParameterInjector;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.jboss.resteasy.test.injection.resource.StringParameterInjectorEnum;
+import org.jboss.resteasy.test.injection.resource.StringParameterInjectorFastPathType;
 import org.jboss.resteasy.test.injection.resource.StringParameterInjectorGenericType;
 import org.jboss.resteasy.test.injection.resource.StringParameterInjectorInjected;
 import org.jboss.resteasy.test.injection.resource.StringParameterInjectorType;
+import org.junit.Assert;
 import org.junit.Test;
 
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.QueryParam;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SortedSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
@@ -55,6 +64,54 @@ public class StringParameterInjectorTest {
         assertNotNull("Injector should not return null", result);
     }
 
+    /**
+     * @tpTestDetails Common types converted without reflection give the same values as the String constructor or
+     *                valueOf/fromString methods, including defaults, collections and conversion errors
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testFastConversions() throws Exception {
+        ResteasyProviderFactory factory = new ResteasyProviderFactory();
+        Assert.assertEquals("Wrong int", 42, injector(int.class, int.class, null, factory).extractValue("42"));
+        Assert.assertEquals("Wrong int default", 0, injector(int.class, int.class, null, factory).extractValue(null));
+        Assert.assertEquals("Wrong boolean", Boolean.TRUE, injector(boolean.class, boolean.class, null, factory).extractValue("true"));
+        Assert.assertEquals("Wrong Long", 7L, injector(Long.class, Long.class, "7", factory).extractValue(null));
+        Assert.assertNull("Null expected", injector(Integer.class, Integer.class, null, factory).extractValue(null));
+        Assert.assertEquals("Wrong String", "abc", injector(String.class, String.class, null, factory).extractValue("abc"));
+        UUID uuid = UUID.randomUUID();
+        Assert.assertEquals("Wrong UUID", uuid, injector(UUID.class, UUID.class, null, factory).extractValue(uuid.toString()));
+        Assert.assertEquals("Wrong enum", TimeUnit.SECONDS, injector(TimeUnit.class, TimeUnit.class, null, factory).extractValue("SECONDS"));
+        Assert.assertEquals("Enum fromString not used", StringParameterInjectorEnum.DESC,
+                injector(StringParameterInjectorEnum.class, StringParameterInjectorEnum.class, null, factory).extractValue("desc"));
+
+        Field ids = StringParameterInjectorFastPathType.class.getDeclaredField("ids");
+        Assert.assertEquals("Wrong list", Arrays.asList(1L, 2L),
+                injector(List.class, ids.getGenericType(), null, factory).extractValues(Arrays.asList("1", "2")));
+        Assert.assertEquals("Wrong list default", Arrays.asList(5L),
+                injector(List.class, ids.getGenericType(), "5", factory).extractValues(null));
+        Field units = StringParameterInjectorFastPathType.class.getDeclaredField("units");
+        SortedSet<?> set = (SortedSet<?>) injector(SortedSet.class, units.getGenericType(), null, factory)
+                .extractValues(Arrays.asList("SECONDS", "DAYS"));
+        Assert.assertEquals("Wrong set", TimeUnit.SECONDS, set.first());
+
+        try {
+            injector(int.class, int.class, null, factory).extractValue("forty-two");
+            Assert.fail("Invalid int accepted");
+        } catch (NotFoundException expected) {
+            Assert.assertTrue("Wrong cause", expected.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    private StringParameterInjector injector(Class type, Type genericType, String defaultValue, ResteasyProviderFactory factory) {
+        return new StringParameterInjector(type, genericType, "param", QueryParam.class, defaultValue, null,
+                new Annotation[0], factory) {
+            @Override
+            protected void throwProcessingException(String message, Throwable cause) {
+                throw new NotFoundException(message, cause);
+            }
+        };
+    }
+
 
 
 }
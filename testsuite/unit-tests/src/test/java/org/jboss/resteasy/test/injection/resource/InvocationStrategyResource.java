@@ -0,0 +1,26 @@
+package org.jboss.resteasy.test.injection.resource;
+
+public class InvocationStrategyResource {
+    private String name;
+    private long count;
+
+    public InvocationStrategyResource() {
+    }
+
+    public InvocationStrategyResource(String name, int count) {
+        this.name = name;
+        this.count = count;
+    }
+
+    public String get(long increment, String suffix) {
+        return name + (count + increment) + suffix;
+    }
+
+    public void fail() {
+        throw new IllegalStateException("fail");
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
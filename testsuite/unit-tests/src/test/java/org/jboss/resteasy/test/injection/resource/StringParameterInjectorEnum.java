@@ -0,0 +1,9 @@
+package org.jboss.resteasy.test.injection.resource;
+
+public enum StringParameterInjectorEnum {
+    ASC, DESC;
+
+    public static StringParameterInjectorEnum fromString(String value) {
+        return valueOf(value.toUpperCase());
+    }
+}
@@ -0,0 +1,10 @@
+package org.jboss.resteasy.test.injection.resource;
+
+import java.util.List;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+public class StringParameterInjectorFastPathType {
+    public List<Long> ids;
+    public SortedSet<TimeUnit> units;
+}
@@ -0,0 +1,190 @@
+package org.jboss.resteasy.test.interception;
+
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPDecodingInterceptor;
+import org.jboss.resteasy.plugins.interceptors.encoding.GZIPEncodingInterceptor;
+import org.jboss.resteasy.specimpl.MultivaluedMapImpl;
+import org.jboss.resteasy.util.ReadFromStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+/**
+ * @tpSubChapter Interception tests
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails Test for the pooled gzip streams and the minimum size of GZIPEncodingInterceptor.
+ * @tpSince RESTEasy 3.1.0
+ */
+public class GzipThresholdTest {
+
+    private static MultivaluedMap<String, Object> gzipHeaders() {
+        MultivaluedMap<String, Object> headers = new MultivaluedMapImpl<String, Object>();
+        headers.putSingle(HttpHeaders.CONTENT_ENCODING, "gzip");
+        headers.putSingle("Content-Length", 11);
+        return headers;
+    }
+
+    /**
+     * @tpTestDetails Streams sharing pooled deflaters and inflaters produce and read standard gzip data.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testPooledStreams() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            GZIPEncodingInterceptor.EndableGZIPOutputStream os = new GZIPEncodingInterceptor.EndableGZIPOutputStream(baos, i % 10);
+            os.write(("hello world " + i).getBytes());
+            os.finish();
+            os.close();
+
+            byte[] bytes = ReadFromStream.readFromStream(1024, new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray())));
+            Assert.assertEquals("Wrong content", "hello world " + i, new String(bytes));
+
+            GZIPDecodingInterceptor.FinishableGZIPInputStream is = new GZIPDecodingInterceptor.FinishableGZIPInputStream(new ByteArrayInputStream(baos.toByteArray()));
+            bytes = ReadFromStream.readFromStream(1024, is);
+            is.finish();
+            Assert.assertEquals("Wrong content", "hello world " + i, new String(bytes));
+            try {
+                is.read();
+                Assert.fail("Finished stream should not be readable");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * @tpTestDetails Concatenated gzip members are read one after the other and trailing padding is ignored.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testConcatenatedMembers() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        for (String part : new String[]{"hello ", "", "world"}) {
+            GZIPOutputStream os = new GZIPOutputStream(baos);
+            os.write(part.getBytes());
+            os.finish();
+        }
+        baos.write(new byte[]{0, 0, 0, 0});
+
+        GZIPDecodingInterceptor.FinishableGZIPInputStream is = new GZIPDecodingInterceptor.FinishableGZIPInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        byte[] bytes = ReadFromStream.readFromStream(3, is);
+        is.close();
+        Assert.assertEquals("Wrong content", "hello world", new String(bytes));
+    }
+
+    /**
+     * @tpTestDetails A truncated gzip header after the last member is ignored like GZIPInputStream does.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testTruncatedTrailingMember() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GZIPOutputStream os = new GZIPOutputStream(baos);
+        os.write("hello world".getBytes());
+        os.close();
+        baos.write(new byte[]{0x1f, (byte) 0x8b, 8});
+
+        GZIPDecodingInterceptor.FinishableGZIPInputStream is = new GZIPDecodingInterceptor.FinishableGZIPInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        byte[] bytes = ReadFromStream.readFromStream(1024, is);
+        is.close();
+        Assert.assertEquals("Wrong content", "hello world", new String(bytes));
+    }
+
+    /**
+     * @tpTestDetails Writing to a finished gzip stream fails, closing it afterwards does not.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testWriteAfterFinish() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GZIPEncodingInterceptor.EndableGZIPOutputStream os = new GZIPEncodingInterceptor.EndableGZIPOutputStream(baos, 1);
+        os.write("hello world".getBytes());
+        os.finish();
+        try {
+            os.write('!');
+            Assert.fail("Write after finish expected to fail");
+        } catch (IOException e) {
+            // expected
+        }
+        os.close();
+
+        byte[] bytes = ReadFromStream.readFromStream(1024, new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals("Wrong content", "hello world", new String(bytes));
+    }
+
+    /**
+     * @tpTestDetails A corrupted gzip trailer is reported.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test(expected = ZipException.class)
+    public void testCorruptTrailer() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GZIPOutputStream os = new GZIPOutputStream(baos);
+        os.write("hello world".getBytes());
+        os.close();
+        byte[] gzip = baos.toByteArray();
+        gzip[gzip.length - 5]++;
+
+        GZIPDecodingInterceptor.FinishableGZIPInputStream is = new GZIPDecodingInterceptor.FinishableGZIPInputStream(new ByteArrayInputStream(gzip));
+        try {
+            ReadFromStream.readFromStream(1024, is);
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * @tpTestDetails Bodies below the minimum size are written as they are and lose their Content-Encoding.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testBelowMinSize() throws Exception {
+        MultivaluedMap<String, Object> headers = gzipHeaders();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GZIPEncodingInterceptor.ThresholdGZIPOutputStream os = new GZIPEncodingInterceptor.ThresholdGZIPOutputStream(baos, headers, 12, 1);
+        os.write("hello ".getBytes());
+        os.write("world".getBytes());
+        Assert.assertEquals("Nothing should be written before finish", 0, baos.size());
+        os.finish();
+        Assert.assertEquals("Wrong content", "hello world", baos.toString());
+        Assert.assertNull("Content-Encoding should be removed", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals("Content-Length should be kept", 11, headers.getFirst("Content-Length"));
+    }
+
+    /**
+     * @tpTestDetails Bodies that reach the minimum size, or are flushed before, are compressed.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testMinSize() throws Exception {
+        MultivaluedMap<String, Object> headers = gzipHeaders();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        GZIPEncodingInterceptor.ThresholdGZIPOutputStream os = new GZIPEncodingInterceptor.ThresholdGZIPOutputStream(baos, headers, 11, 1);
+        os.write("hello ".getBytes());
+        os.write("world".getBytes());
+        os.finish();
+        byte[] bytes = ReadFromStream.readFromStream(1024, new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals("Wrong content", "hello world", new String(bytes));
+        Assert.assertEquals("Content-Encoding should be kept", "gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertNull("Content-Length should be removed", headers.getFirst("Content-Length"));
+
+        headers = gzipHeaders();
+        baos = new ByteArrayOutputStream();
+        os = new GZIPEncodingInterceptor.ThresholdGZIPOutputStream(baos, headers, 1024, 1);
+        os.write("hello".getBytes());
+        os.flush();
+        os.write(" world".getBytes());
+        os.finish();
+        bytes = ReadFromStream.readFromStream(1024, new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals("Wrong content", "hello world", new String(bytes));
+        Assert.assertEquals("Content-Encoding should be kept", "gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+}
@@ -0,0 +1,66 @@
+package org.jboss.resteasy.test.interception;
+
+import org.jboss.resteasy.core.Dispatcher;
+import org.jboss.resteasy.mock.MockDispatcherFactory;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.jboss.resteasy.test.interception.resource.ResponseWriterHeaderWriter;
+import org.jboss.resteasy.test.interception.resource.ResponseWriterInterceptor;
+import org.jboss.resteasy.test.interception.resource.ResponseWriterResource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @tpSubChapter Interception tests
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails Writing response entities with and without writer interceptors
+ * @tpSince RESTEasy 3.1.0
+ */
+public class ResponseWriterTest {
+
+    private Dispatcher dispatcher;
+
+    @After
+    public void after() {
+        ResteasyProviderFactory.clearInstanceIfEqual(dispatcher.getProviderFactory());
+    }
+
+    /**
+     * @tpTestDetails Without writer interceptors the entity is written directly, headers set by the writer are still sent
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testWithoutInterceptors() throws Exception {
+        MockHttpResponse response = invoke(false);
+        Assert.assertEquals("Wrong status", 200, response.getStatus());
+        Assert.assertEquals("Wrong entity", "entity", response.getContentAsString());
+        Assert.assertEquals("Header set by the writer missing", "set", response.getOutputHeaders().getFirst("X-Writer"));
+    }
+
+    /**
+     * @tpTestDetails Writer interceptors can still replace the entity and add headers
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testWithInterceptor() throws Exception {
+        MockHttpResponse response = invoke(true);
+        Assert.assertEquals("Wrong status", 200, response.getStatus());
+        Assert.assertEquals("Entity not replaced", "intercepted", response.getContentAsString());
+        Assert.assertEquals("Header set by the writer missing", "set", response.getOutputHeaders().getFirst("X-Writer"));
+        Assert.assertEquals("Header set by the interceptor missing", "set", response.getOutputHeaders().getFirst("X-Interceptor"));
+    }
+
+    private MockHttpResponse invoke(boolean interceptor) throws Exception {
+        dispatcher = MockDispatcherFactory.createDispatcher();
+        dispatcher.getProviderFactory().registerProvider(ResponseWriterHeaderWriter.class);
+        if (interceptor) {
+            dispatcher.getProviderFactory().registerProvider(ResponseWriterInterceptor.class);
+        }
+        dispatcher.getRegistry().addPerRequestResource(ResponseWriterResource.class);
+        MockHttpResponse response = new MockHttpResponse();
+        dispatcher.invoke(MockHttpRequest.get("/entity"), response);
+        return response;
+    }
+}
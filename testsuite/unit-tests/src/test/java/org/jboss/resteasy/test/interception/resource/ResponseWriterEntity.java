@@ -0,0 +1,13 @@
+package org.jboss.resteasy.test.interception.resource;
+
+public class ResponseWriterEntity {
+    private final String value;
+
+    public ResponseWriterEntity(final String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,34 @@
+package org.jboss.resteasy.test.interception.resource;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+@Provider
+@Produces("text/x-header")
+public class ResponseWriterHeaderWriter implements MessageBodyWriter<ResponseWriterEntity> {
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return ResponseWriterEntity.class.equals(type);
+    }
+
+    @Override
+    public long getSize(ResponseWriterEntity entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(ResponseWriterEntity entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
+        httpHeaders.putSingle("X-Writer", "set");
+        entityStream.write(entity.getValue().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,17 @@
+package org.jboss.resteasy.test.interception.resource;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+
+@Provider
+public class ResponseWriterInterceptor implements WriterInterceptor {
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+        context.getHeaders().putSingle("X-Interceptor", "set");
+        context.setEntity(new ResponseWriterEntity("intercepted"));
+        context.proceed();
+    }
+}
@@ -0,0 +1,15 @@
+package org.jboss.resteasy.test.interception.resource;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+@Path("/")
+public class ResponseWriterResource {
+    @GET
+    @Path("entity")
+    @Produces("text/x-header")
+    public ResponseWriterEntity get() {
+        return new ResponseWriterEntity("entity");
+    }
+}
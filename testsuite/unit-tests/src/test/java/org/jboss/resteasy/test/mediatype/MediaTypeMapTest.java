@@ -4,6 +4,7 @@ import org.jboss.resteasy.core.MediaTypeMap;
 import org.junit.Assert;
 import org.junit.Test;
 import javax.ws.rs.core.MediaType;
+import java.util.Collections;
 import java.util.List;
 
 
@@ -69,4 +70,34 @@ public class MediaTypeMapTest {
         Assert.assertTrue(list.get(3) == wildcard);
     }
 
+    /**
+     * @tpTestDetails MediaType/Class cache ignores media type parameters and stays within its maximum size
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testBoundedClassCache() {
+        MediaTypeMap<String> map = new MediaTypeMap<String>();
+        map.add(new MediaType("multipart", "*"), "multipart");
+        map.add(new MediaType("text", "plain"), "plain");
+
+        for (int i = 0; i < 100; i++) {
+            MediaType boundary = new MediaType("multipart", "form-data", Collections.singletonMap("boundary", "b" + i));
+            Assert.assertEquals("Wrong match for multipart", "multipart", map.getPossible(boundary, String.class).get(0));
+        }
+        Assert.assertEquals("Parameters must not create new cache entries", 1, map.getClassCache().size());
+        Assert.assertEquals("Wrong number of cache misses", 1, map.getClassCacheStatistics().getMissCount());
+        Assert.assertEquals("Wrong number of cache hits", 99, map.getClassCacheStatistics().getHitCount());
+
+        map.setCacheSize(2);
+        map.getPossible(MediaType.TEXT_PLAIN_TYPE, String.class);
+        map.getPossible(MediaType.TEXT_PLAIN_TYPE, Integer.class);
+        map.getPossible(MediaType.TEXT_PLAIN_TYPE, Long.class);
+        Assert.assertEquals("Cache grew over its maximum size", 2, map.getClassCache().size());
+        Assert.assertEquals("Wrong number of evictions", 2, map.getClassCacheStatistics().getEvictionCount());
+
+        map.setCacheEnabled(false);
+        map.getPossible(MediaType.TEXT_PLAIN_TYPE, Short.class);
+        Assert.assertEquals("Disabled cache must stay empty", 0, map.getClassCache().size());
+    }
+
 }
@@ -1,7 +1,10 @@
 package org.jboss.resteasy.test.providers;
 
+import org.jboss.resteasy.core.MessageBodyProviderCache;
 import org.jboss.resteasy.core.interception.JaxrsInterceptorRegistry;
 import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.jboss.resteasy.test.providers.resource.ProviderFactoryPrecedenceIntegerPlainTextWriter;
+import org.jboss.resteasy.test.providers.resource.ProviderFactoryPrecendencePlainTextWriter;
 import org.jboss.resteasy.test.providers.resource.ProviderFactoryStrParamUnmarshaller;
 import org.junit.Assert;
 import org.junit.Before;
@@ -12,6 +15,8 @@ import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyWriter;
 import java.lang.reflect.Field;
 import java.sql.Date;
 import java.util.List;
@@ -91,4 +96,48 @@ public class ProviderFactoryTest {
         Assert.assertEquals(priorityOverride, order);
     }
 
+    /**
+     * @tpTestDetails Cached writer bindings are dropped when a writer is registered with the factory or its parent
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testMessageBodyProviderCacheInvalidation() {
+        factory.registerProvider(ProviderFactoryPrecendencePlainTextWriter.class);
+        ResteasyProviderFactory child = new ResteasyProviderFactory(factory);
+        MessageBodyProviderCache<MessageBodyWriter> cache = new MessageBodyProviderCache<MessageBodyWriter>();
+
+        int version = child.getMessageBodyProvidersVersion();
+        MessageBodyWriter writer = child.getMessageBodyWriter(Integer.class, Integer.class, null, MediaType.TEXT_PLAIN_TYPE);
+        Assert.assertNotNull("No writer found", writer);
+        cache.put(child, version, Integer.class, MediaType.TEXT_PLAIN_TYPE, writer);
+        Assert.assertSame("Cached writer expected", writer, cache.get(child, child.getMessageBodyProvidersVersion(), Integer.class, MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertNull("Writer cached for another factory", cache.get(factory, factory.getMessageBodyProvidersVersion(), Integer.class, MediaType.TEXT_PLAIN_TYPE));
+
+        cache.put(child, version, Integer.class, MediaType.TEXT_PLAIN_TYPE, writer);
+        factory.registerProvider(ProviderFactoryPrecedenceIntegerPlainTextWriter.class);
+        Assert.assertNotEquals("Parent registration must change the child version", version, child.getMessageBodyProvidersVersion());
+        Assert.assertNull("Stale writer returned", cache.get(child, child.getMessageBodyProvidersVersion(), Integer.class, MediaType.TEXT_PLAIN_TYPE));
+        Assert.assertEquals("Stale bindings must be cleared", 0, cache.size());
+    }
+
+    /**
+     * @tpTestDetails Media types are matched ignoring case, media types with parameters are not cached
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testMessageBodyProviderCacheParameters() {
+        factory.registerProvider(ProviderFactoryPrecendencePlainTextWriter.class);
+        MessageBodyProviderCache<MessageBodyWriter> cache = new MessageBodyProviderCache<MessageBodyWriter>();
+        int version = factory.getMessageBodyProvidersVersion();
+        MessageBodyWriter writer = factory.getMessageBodyWriter(Integer.class, Integer.class, null, MediaType.TEXT_PLAIN_TYPE);
+
+        cache.put(factory, version, Integer.class, MediaType.valueOf("TEXT/Plain"), writer);
+        Assert.assertSame("Cached writer expected", writer, cache.get(factory, version, Integer.class, MediaType.TEXT_PLAIN_TYPE));
+
+        cache.put(factory, version, Integer.class, MediaType.valueOf("text/plain;charset=UTF-8"), writer);
+        Assert.assertEquals("Media types with parameters must not be cached", 1, cache.size());
+        Assert.assertNull("A provider chosen without parameters must not be returned for parameters",
+                cache.get(factory, version, Integer.class, MediaType.valueOf("text/plain;charset=ISO-8859-1")));
+    }
+
 }
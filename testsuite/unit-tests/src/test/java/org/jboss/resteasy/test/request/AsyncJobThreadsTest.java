@@ -0,0 +1,81 @@
+package org.jboss.resteasy.test.request;
+
+import org.jboss.resteasy.core.AsynchronousDispatcher;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.jboss.resteasy.plugins.providers.RegisterBuiltin;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.jboss.resteasy.test.request.resource.AsyncJobThreadResource;
+import org.jboss.resteasy.util.HttpHeaderNames;
+import org.jboss.resteasy.util.VirtualThreads;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.URI;
+
+/**
+ * @tpSubChapter Request
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails Threads the asynchronous job service runs its jobs on
+ * @tpSince RESTEasy 3.1.0
+ */
+public class AsyncJobThreadsTest {
+
+    private AsynchronousDispatcher dispatcher;
+
+    @After
+    public void after() {
+        dispatcher.stop();
+        ResteasyProviderFactory.clearInstanceIfEqual(dispatcher.getProviderFactory());
+    }
+
+    /**
+     * @tpTestDetails Jobs run on the fixed thread pool by default
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testThreadPool() throws Exception {
+        start(false);
+        String val = runJob();
+        Assert.assertTrue("Wrong thread: " + val, val.startsWith("/thread pool-"));
+        Assert.assertTrue("Job must not run on a virtual thread: " + val, val.endsWith(" false"));
+    }
+
+    /**
+     * @tpTestDetails Jobs run on virtual threads if the JVM supports them, otherwise on the fixed thread pool, and see
+     *                the context of their own request either way
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testVirtualThreads() throws Exception {
+        start(true);
+        String expected = VirtualThreads.isSupported() ? "/thread resteasy-async-job-" : "/thread pool-";
+        for (int i = 0; i < 5; i++) {
+            String val = runJob();
+            Assert.assertTrue("Wrong thread: " + val, val.startsWith(expected));
+            Assert.assertTrue("Wrong kind of thread: " + val, val.endsWith(" " + VirtualThreads.isSupported()));
+        }
+    }
+
+    private void start(boolean useVirtualThreads) {
+        dispatcher = new AsynchronousDispatcher(new ResteasyProviderFactory());
+        ResteasyProviderFactory.setInstance(dispatcher.getProviderFactory());
+        RegisterBuiltin.register(dispatcher.getProviderFactory());
+        dispatcher.setUseVirtualThreads(useVirtualThreads);
+        dispatcher.start();
+        dispatcher.getRegistry().addPerRequestResource(AsyncJobThreadResource.class);
+    }
+
+    private String runJob() throws Exception {
+        MockHttpResponse response = new MockHttpResponse();
+        dispatcher.invoke(MockHttpRequest.post("/thread?asynch=true").content(new byte[0]), response);
+        Assert.assertEquals("Job not accepted", 202, response.getStatus());
+        URI job = (URI) response.getOutputHeaders().getFirst(HttpHeaderNames.LOCATION);
+
+        response = new MockHttpResponse();
+        dispatcher.invoke(MockHttpRequest.get(job.getPath() + "?wait=10000"), response);
+        Assert.assertEquals("Job failed", 200, response.getStatus());
+        return response.getContentAsString();
+    }
+}
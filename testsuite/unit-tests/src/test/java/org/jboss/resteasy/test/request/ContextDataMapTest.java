@@ -0,0 +1,125 @@
+package org.jboss.resteasy.test.request;
+
+import org.jboss.resteasy.core.ContextDataMap;
+import org.jboss.resteasy.mock.MockHttpRequest;
+import org.jboss.resteasy.mock.MockHttpResponse;
+import org.jboss.resteasy.plugins.server.servlet.Cleanables;
+import org.jboss.resteasy.spi.HttpRequest;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.container.ResourceContext;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.SecurityContext;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.ext.Providers;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @tpSubChapter Request
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails Context data of a request kept in fixed slots
+ * @tpSince RESTEasy 3.1.0
+ */
+public class ContextDataMapTest {
+
+    @After
+    public void after() {
+        ResteasyProviderFactory.clearContextData();
+    }
+
+    /**
+     * @tpTestDetails Request objects, lazily created objects, defaults and other entries are all visible through the map
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testSlotsAndDefaults() throws Exception {
+        ResteasyProviderFactory factory = new ResteasyProviderFactory();
+        HttpRequest request = MockHttpRequest.get("/foo");
+        Map<Class, Object> defaults = new HashMap<Class, Object>();
+        defaults.put(Providers.class, factory);
+
+        ContextDataMap map = new ContextDataMap();
+        map.put(SecurityContext.class, null);
+        map.pushRequest(factory, request, new MockHttpResponse(), defaults);
+
+        Assert.assertSame("Wrong HttpRequest", request, map.get(HttpRequest.class));
+        Assert.assertSame("Wrong UriInfo", request.getUri(), map.get(UriInfo.class));
+        Assert.assertSame("Wrong default", factory, map.get(Providers.class));
+        Assert.assertNull("Cleanables must not be created up front", map.getCleanables(false));
+        Assert.assertNotNull("Request must be created on demand", map.get(Request.class));
+        Assert.assertSame("Request must only be created once", map.get(Request.class), map.get(Request.class));
+        Assert.assertNotNull("ResourceContext must be created on demand", map.get(ResourceContext.class));
+        Assert.assertSame("Cleanables must be created on demand", map.get(Cleanables.class), map.getCleanables(false));
+        Assert.assertNull("Null value expected", map.get(SecurityContext.class));
+
+        map.remove(Providers.class);
+        Assert.assertNull("Removed default still visible", map.get(Providers.class));
+        Assert.assertSame("Defaults must not be modified", factory, defaults.get(Providers.class));
+        map.remove(Request.class);
+        Assert.assertNull("Removed slot still visible", map.get(Request.class));
+        Assert.assertTrue("HttpRequest missing", map.containsKey(HttpRequest.class));
+        Assert.assertEquals("Wrong number of entries", 7, map.entrySet().size());
+    }
+
+    /**
+     * @tpTestDetails Default context objects take precedence over the objects of the request and over entries put
+     *                before the request was pushed, entries put afterwards take precedence over the defaults
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testDefaultsPrecedence() throws Exception {
+        ResteasyProviderFactory factory = new ResteasyProviderFactory();
+        HttpRequest request = MockHttpRequest.get("/foo");
+        HttpRequest other = MockHttpRequest.get("/bar");
+        Cleanables cleanables = new Cleanables();
+        Map<Class, Object> defaults = new HashMap<Class, Object>();
+        defaults.put(UriInfo.class, other.getUri());
+        defaults.put(Providers.class, factory);
+        defaults.put(Cleanables.class, cleanables);
+
+        ContextDataMap map = new ContextDataMap();
+        map.put(Providers.class, null);
+        map.pushRequest(factory, request, new MockHttpResponse(), defaults);
+
+        Assert.assertSame("Default UriInfo must win over the request's", other.getUri(), map.get(UriInfo.class));
+        Assert.assertSame("Default must win over an earlier entry", factory, map.get(Providers.class));
+        Assert.assertNotSame("Every request must get Cleanables of its own", cleanables, map.get(Cleanables.class));
+        Assert.assertSame("HttpRequest without default", request, map.get(HttpRequest.class));
+
+        map.put(UriInfo.class, request.getUri());
+        map.remove(Providers.class);
+        Assert.assertSame("Later entry must win over the default", request.getUri(), map.get(UriInfo.class));
+        Assert.assertNull("Removed default still visible", map.get(Providers.class));
+    }
+
+    /**
+     * @tpTestDetails Context data attached to another thread is restored afterwards
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testHandoff() throws Exception {
+        final Map<Class<?>, Object> data = ResteasyProviderFactory.getContextDataMap();
+        data.put(String.class, "request");
+        final Object[] seen = new Object[2];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                Map<Class<?>, Object> previous = ResteasyProviderFactory.attachContextData(data);
+                try {
+                    seen[0] = ResteasyProviderFactory.getContextData(String.class);
+                } finally {
+                    ResteasyProviderFactory.restoreContextData(previous);
+                }
+                seen[1] = ResteasyProviderFactory.getContextDataLevelCount();
+            }
+        };
+        thread.start();
+        thread.join();
+        Assert.assertEquals("Context data not handed over", "request", seen[0]);
+        Assert.assertEquals("Context data left on the thread", 0, seen[1]);
+    }
+}
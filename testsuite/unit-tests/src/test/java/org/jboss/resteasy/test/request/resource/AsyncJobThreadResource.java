@@ -0,0 +1,20 @@
+package org.jboss.resteasy.test.request.resource;
+
+import org.jboss.resteasy.util.VirtualThreads;
+
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.UriInfo;
+
+@Path("/")
+public class AsyncJobThreadResource {
+    @POST
+    @Path("thread")
+    @Produces("text/plain")
+    public String thread(@Context UriInfo info) {
+        Thread thread = Thread.currentThread();
+        return info.getPath() + " " + thread.getName() + " " + VirtualThreads.isVirtual(thread);
+    }
+}
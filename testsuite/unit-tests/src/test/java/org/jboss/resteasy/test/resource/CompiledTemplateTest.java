@@ -0,0 +1,70 @@
+package org.jboss.resteasy.test.resource;
+
+import org.jboss.resteasy.core.registry.ClassExpression;
+import org.jboss.resteasy.core.registry.Expression;
+import org.jboss.resteasy.core.registry.MethodExpression;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+/**
+ * @tpSubChapter Resource tests
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails Regex-free matching of path expressions must give the same result as the regex
+ * @tpSince RESTEasy 3.1.0
+ */
+public class CompiledTemplateTest {
+
+    private static final String[] PATHS = {
+            "", "foo", "foo/", "foo/bar", "foo/bar/baz", "foo/a.b.c", "foo/a.b/c", "foo/.b", "a-b-c", "/foo/bar",
+            "foo/bar.xml", "foo/bar/", "foo//bar"
+    };
+
+    /**
+     * @tpTestDetails Compiled templates match exactly like the regex built for the expression, including groups
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testSameAsRegex() {
+        String[] templates = {"", "foo", "foo/{id}", "foo/{a}.{b}", "{a}-{b}", "foo/{ id }/baz", "{x}/{y}"};
+        for (String template : templates) {
+            assertSameAsRegex(new MethodExpression(null, template, null));
+            assertSameAsRegex(new MethodExpression(null, template, null, "(.*)"));
+            assertSameAsRegex(new MethodExpression(null, template, null, "(/.+)?"));
+            assertSameAsRegex(new ClassExpression(template));
+        }
+    }
+
+    /**
+     * @tpTestDetails Expressions with custom regular expressions fall back to the regex
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testCustomRegexNotCompiled() {
+        Assert.assertNull("Custom regex must not be compiled", new MethodExpression(null, "foo/{id:[0-9]+}", null).getTemplate());
+        Assert.assertNotNull("Default capture must be compiled", new MethodExpression(null, "foo/{id}", null).getTemplate());
+        MatchResult result = new MethodExpression(null, "foo/{id:[0-9]+}", null).match("foo/12", 0);
+        Assert.assertNotNull("Regex fallback must match", result);
+        Assert.assertEquals("Wrong group value", "12", result.group(1));
+    }
+
+    private void assertSameAsRegex(Expression expression) {
+        for (String path : PATHS) {
+            for (int start = 0; start <= path.length(); start++) {
+                Matcher matcher = expression.getPattern().matcher(path);
+                matcher.region(start, path.length());
+                MatchResult result = expression.getTemplate().match(path, start);
+                String message = expression.getRegex() + " on " + path + " from " + start;
+                Assert.assertEquals(message, matcher.matches(), result != null);
+                if (result == null) continue;
+                Assert.assertEquals(message, matcher.groupCount(), result.groupCount());
+                for (int group = 0; group <= matcher.groupCount(); group++) {
+                    Assert.assertEquals(message, matcher.start(group), result.start(group));
+                    Assert.assertEquals(message, matcher.group(group), result.group(group));
+                }
+            }
+        }
+    }
+}
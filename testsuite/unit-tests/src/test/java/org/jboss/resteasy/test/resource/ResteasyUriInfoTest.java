@@ -0,0 +1,66 @@
+package org.jboss.resteasy.test.resource;
+
+import org.jboss.resteasy.spi.ResteasyUriInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.MultivaluedMap;
+import java.net.URI;
+
+/**
+ * @tpSubChapter Resource tests
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails ResteasyUriInfo parsing its parts on demand
+ * @tpSince RESTEasy 3.1.0
+ */
+public class ResteasyUriInfoTest {
+
+    /**
+     * @tpTestDetails Query parameters, path segments and URIs are the same whether or not they are read right away
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testLazyParts() throws Exception {
+        ResteasyUriInfo uriInfo = new ResteasyUriInfo("http://localhost/ctx/a;m=1/b%20c", "x=1&y=a%20b", "/ctx");
+        Assert.assertEquals("Wrong matching path", "/a/b%20c", uriInfo.getMatchingPath());
+        Assert.assertEquals("Wrong decoded path", "/a;m=1/b c", uriInfo.getPath());
+        Assert.assertEquals("Wrong base uri", new URI("http://localhost/ctx/"), uriInfo.getBaseUri());
+        Assert.assertEquals("Wrong number of segments", 2, uriInfo.getPathSegments().size());
+        Assert.assertEquals("Wrong matrix parameter", "1", uriInfo.getPathSegments().get(0).getMatrixParameters().getFirst("m"));
+        Assert.assertEquals("Wrong decoded segment", "b c", uriInfo.getPathSegments().get(1).getPath());
+        Assert.assertEquals("Wrong encoded segment", "b%20c", uriInfo.getPathSegments(false).get(1).getPath());
+
+        MultivaluedMap<String, String> query = uriInfo.getQueryParameters();
+        Assert.assertEquals("Wrong query parameter", "a b", query.getFirst("y"));
+        Assert.assertEquals("Wrong encoded query parameter", "a%20b", uriInfo.getQueryParameters(false).getFirst("y"));
+        Assert.assertSame("Query parameters parsed twice", query, uriInfo.getQueryParameters());
+
+        uriInfo.setRequestUri(new URI("d?z=2"));
+        Assert.assertEquals("Wrong matching path after setRequestUri", "/d", uriInfo.getMatchingPath());
+        Assert.assertEquals("Query parameters not updated", "2", query.getFirst("z"));
+        Assert.assertNull("Old query parameter still present", query.getFirst("x"));
+    }
+
+    /**
+     * @tpTestDetails Matched paths and URIs pushed as offsets read the same as the substrings they stand for
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testMatchedOffsets() throws Exception {
+        ResteasyUriInfo uriInfo = new ResteasyUriInfo(new URI("http://localhost/a%20b/c/d"));
+        String path = uriInfo.getMatchingPath();
+        uriInfo.pushMatchedURI(path, 7);
+        uriInfo.pushMatchedPath(path, 6);
+        uriInfo.pushMatchedURI(path);
+        uriInfo.pushMatchedPath(path, 8);
+
+        Assert.assertEquals("Wrong number of matched uris", 2, uriInfo.getMatchedURIs().size());
+        Assert.assertEquals("Wrong last matched uri", "a b/c/d", uriInfo.getMatchedURIs().get(0));
+        Assert.assertEquals("Wrong first matched uri", "a%20b", uriInfo.getMatchedURIs(false).get(1));
+        Assert.assertEquals("Wrong first decoded matched uri", "a b", uriInfo.getMatchedURIs(true).get(1));
+        Assert.assertEquals("Wrong matched path", "/a%20b/c", uriInfo.getEncodedMatchedPaths().get(0));
+        uriInfo.popMatchedPath();
+        Assert.assertEquals("Wrong matched path after pop", "/a%20b", uriInfo.getEncodedMatchedPaths().get(0));
+        Assert.assertEquals("Wrong number of matched paths", 1, uriInfo.getEncodedMatchedPaths().size());
+    }
+}
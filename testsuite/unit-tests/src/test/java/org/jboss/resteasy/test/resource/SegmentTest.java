@@ -15,6 +15,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import javax.ws.rs.NotAllowedException;
+import javax.ws.rs.NotFoundException;
 import java.net.URISyntaxException;
 
 /**
@@ -89,6 +90,28 @@ public class SegmentTest {
         Assert.assertEquals("Wrong ResourceLocatorInvoker response", invoker.getMethod().getName(), "responseOk");
     }
 
+    /**
+     * @tpTestDetails Registry changes after the first match are visible to later requests
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testRegistrationAfterMatch() throws URISyntaxException {
+        ResourceMethodRegistry registry = new ResourceMethodRegistry(ResteasyProviderFactory
+                .getInstance());
+        registry.addSingletonResource(new SegmentNullResource());
+        assertMatchRoot(registry, "/child/1", "childWithId", SegmentNullResource.class);
+        registry.removeRegistrations(SegmentNullResource.class);
+        Assert.assertEquals("Registry should be empty", 0, registry.getSize());
+        try {
+            registry.getResourceInvoker(MockHttpRequest.get("/child/1"));
+            Assert.fail("Removed resource was matched");
+        } catch (NotFoundException e) {
+        }
+        registry.addPerRequestResource(SegmentNullResource.class);
+        assertMatchRoot(registry, "/child/1", "childWithId", SegmentNullResource.class);
+        assertMatchRoot(registry, "/child", "childDoNothing", SegmentNullResource.class);
+    }
+
     private void assertMatchRoot(ResourceMethodRegistry registry, final String url, final String methodName,
                                  final Class<?> clazz) throws URISyntaxException {
         ResourceMethodInvoker matchRoot = getResourceMethod(url, registry);
@@ -0,0 +1,62 @@
+package org.jboss.resteasy.test.util;
+
+import org.jboss.resteasy.util.Encode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @tpSubChapter Util tests
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails Test for Encode class.
+ * @tpSince RESTEasy 3.1.0
+ */
+public class EncodeTest {
+
+    /**
+     * @tpTestDetails Strings that need no encoding or decoding are returned as they are.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testUnchanged() {
+        String path = "/customers/{id}/orders;sort=asc";
+        Assert.assertSame("Path should not be copied", path, Encode.encodePath(path));
+        Assert.assertSame("Path should not be copied", path, Encode.decodePath(path));
+        String query = "a%20b";
+        Assert.assertSame("Query should not be copied", query, Encode.encodeQueryParam(query));
+        Assert.assertSame("Query should not be copied", query, Encode.encodeNonCodes(query));
+    }
+
+    /**
+     * @tpTestDetails Runs of encoded bytes are decoded as UTF-8, invalid sequences are kept.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testDecodePath() {
+        Assert.assertEquals("Wrong decoded path", "/a b/\u5E74", Encode.decodePath("/a%20b/%E5%B9%B4"));
+        Assert.assertEquals("Wrong decoded path", "%zz/%2+a", Encode.decodePath("%zz/%2+%61"));
+        Assert.assertEquals("Wrong decoded path", "100%", Encode.decodePath("100%"));
+    }
+
+    /**
+     * @tpTestDetails Template parameters, including ones with regular expressions, are kept intact.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testTemplates() {
+        Assert.assertEquals("Wrong encoded path", "/a%20b/{id:[0-9]{2}}/%25x/%2F",
+                Encode.encodePath("/a b/{id:[0-9]{2}}/%x/%2F"));
+        Assert.assertEquals("Wrong encoded path segment", "a%2Fb{id}c", Encode.encodePathSegment("a/b{id}c"));
+    }
+
+    /**
+     * @tpTestDetails Characters beyond ASCII, including surrogate pairs, are encoded as UTF-8.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testNonAscii() {
+        Assert.assertEquals("Wrong encoded path", "%C3%A9%E5%B9%B4%F0%9F%98%80",
+                Encode.encodePathAsIs("\u00E9\u5E74\uD83D\uDE00"));
+        Assert.assertEquals("Wrong encoded query parameter", "a+%25+%F0%9F%98%80",
+                Encode.encodeQueryParamAsIs("a % \uD83D\uDE00"));
+    }
+}
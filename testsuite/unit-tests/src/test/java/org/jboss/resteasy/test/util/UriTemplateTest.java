@@ -0,0 +1,61 @@
+package org.jboss.resteasy.test.util;
+
+import org.jboss.resteasy.specimpl.ResteasyUriBuilder;
+import org.jboss.resteasy.specimpl.UriTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ws.rs.core.UriBuilder;
+import java.util.Arrays;
+
+/**
+ * @tpSubChapter Util tests
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails Test for UriTemplate class.
+ * @tpSince RESTEasy 3.1.0
+ */
+public class UriTemplateTest {
+
+    /**
+     * @tpTestDetails Variables are found once, in the order they appear, and regular expressions are skipped.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testVariables() {
+        UriTemplate template = new UriTemplate("http://{host}:8080/a/{ id : [0-9]{2} }/b/{host}?q={q}");
+        Assert.assertEquals("Wrong variables", Arrays.asList("host", "id", "q"), template.getVariables());
+        Assert.assertEquals("Wrong variable index", 1, template.indexOf("id"));
+        Assert.assertTrue("Template should have a query", template.hasQuery());
+        Assert.assertFalse("Template should not have a fragment", template.hasFragment());
+        Assert.assertEquals("Wrong expanded URI", "http://localhost:8080/a/42/b/localhost?q=x",
+                template.expand("localhost", "42", "x"));
+    }
+
+    /**
+     * @tpTestDetails Templates expand to the same URI as resolving the template with ResteasyUriBuilder.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testSameAsUriBuilder() {
+        String[][] cases = {
+                {"http://localhost/customers/{id}/orders", "a b/c%d{e}"},
+                {"http://localhost/customers/{id:.+}", "\u00E9t\u00E9;x=y"},
+                {"http://localhost/search?q={id}&limit=10", "a+b &c=d/%"},
+        };
+        for (String[] c : cases) {
+            UriBuilder builder = ResteasyUriBuilder.fromTemplate(c[0]);
+            String expected = builder.resolveTemplate("id", c[1]).build().toString();
+            String actual = new UriTemplate(builder.toTemplate()).expand(c[1]);
+            Assert.assertEquals("Wrong expanded URI", expected, actual);
+        }
+    }
+
+    /**
+     * @tpTestDetails Braces that do not enclose a variable are rejected.
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTemplate() {
+        new UriTemplate("/a/{id");
+    }
+}
@@ -0,0 +1,54 @@
+package org.jboss.resteasy.test.util;
+
+import org.jboss.resteasy.util.VirtualThreads;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * @tpSubChapter Util tests
+ * @tpChapter Unit tests
+ * @tpTestCaseDetails Virtual threads looked up reflectively, with a fallback for JVMs without them
+ * @tpSince RESTEasy 3.1.0
+ */
+public class VirtualThreadsTest {
+
+    /**
+     * @tpTestDetails Without virtual threads no factory or executor is created, so callers fall back to platform threads
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testFallback() throws Exception {
+        Assume.assumeFalse("JVM supports virtual threads", VirtualThreads.isSupported());
+        Assert.assertNull("No thread factory expected", VirtualThreads.newThreadFactory("test-"));
+        Assert.assertNull("No executor expected", VirtualThreads.newExecutor("test-"));
+        Assert.assertFalse("No thread is virtual", VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+
+    /**
+     * @tpTestDetails With virtual threads every task runs on a named virtual thread
+     * @tpSince RESTEasy 3.1.0
+     */
+    @Test
+    public void testVirtualThreads() throws Exception {
+        Assume.assumeTrue("JVM does not support virtual threads", VirtualThreads.isSupported());
+        Assert.assertFalse("Platform thread taken for virtual", VirtualThreads.isVirtual(Thread.currentThread()));
+        ExecutorService executor = VirtualThreads.newExecutor("test-");
+        Assert.assertNotNull("Executor expected", executor);
+        try {
+            Thread thread = executor.submit(new Callable<Thread>() {
+                @Override
+                public Thread call() throws Exception {
+                    return Thread.currentThread();
+                }
+            }).get();
+            Assert.assertTrue("Task must run on a virtual thread", VirtualThreads.isVirtual(thread));
+            Assert.assertTrue("Wrong thread name: " + thread.getName(), thread.getName().startsWith("test-"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}